@@ -0,0 +1,76 @@
+package com.example.playground.loadtest;
+
+import eu.rekawek.toxiproxy.model.ToxicDirection;
+import eu.rekawek.toxiproxy.model.ToxicList;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 障害注入テストのシナリオ（どの依存先にどんな障害を入れ、何を満たせば合格か）
+ *
+ * @param name         シナリオ名（--scenarios で指定する）
+ * @param dependency   障害を入れる依存先
+ * @param fault        Toxiproxyに追加する障害
+ * @param expectations 障害中・解除後に満たすべき値
+ */
+public record ChaosScenario(String name, Dependency dependency, Fault fault, Expectations expectations) {
+
+    public enum Dependency {
+        /** KafkaMessagePublisher（送信）と KafkaMessageConsumer（受信） */
+        KAFKA,
+        /** RedisMessageRepository（保存・読み込み）と送信者ごとの書き込み制限 */
+        REDIS
+    }
+
+    @FunctionalInterface
+    public interface Fault {
+        void inject(ToxicList toxics) throws IOException;
+    }
+
+    /**
+     * @param minThroughputRatio 障害中に成功した書き込み / 予定した書き込み の下限
+     * @param maxP99             障害中の書き込み（POST /api/messages）のp99の上限
+     * @param maxRecovery        障害の解除から、それまでに受け付けた書き込みが全て読めるようになるまでの上限
+     */
+    public record Expectations(double minThroughputRatio, Duration maxP99, Duration maxRecovery) {
+    }
+
+    /**
+     * 既定のシナリオ
+     * POSTはKafkaへの送信を待たずに返り、保存はコンシューマーが行うため、Kafka・Redisの障害は主に
+     * 可視化までの遅れ（解除後の回復時間）として現れる。POSTが直接使うのはプロデューサーのメタデータと、
+     * 書き込み制限のRedis呼び出し（失敗時はプロセス内の制限に切り替わる）
+     */
+    public static List<ChaosScenario> defaults() {
+        return List.of(
+                // 往復200ms: 送信の完了・fetch・オフセットのコミットが遅れる
+                new ChaosScenario("kafka-latency", Dependency.KAFKA, toxics -> {
+                    toxics.latency("latency-up", ToxicDirection.UPSTREAM, 100).setJitter(20);
+                    toxics.latency("latency-down", ToxicDirection.DOWNSTREAM, 100).setJitter(20);
+                }, new Expectations(0.95, Duration.ofSeconds(1), Duration.ofSeconds(30))),
+                // fetchの応答が流入より細く、ラグが溜まる
+                new ChaosScenario("kafka-bandwidth", Dependency.KAFKA,
+                        toxics -> toxics.bandwidth("bandwidth-down", ToxicDirection.DOWNSTREAM, 8),
+                        new Expectations(0.95, Duration.ofSeconds(1), Duration.ofSeconds(60))),
+                // 接続がすぐにリセットされる: プロデューサーはバッファに溜めて再送し、コンシューマーは再接続する
+                new ChaosScenario("kafka-reset", Dependency.KAFKA, toxics -> {
+                    toxics.resetPeer("reset-up", ToxicDirection.UPSTREAM, 0);
+                    toxics.resetPeer("reset-down", ToxicDirection.DOWNSTREAM, 0);
+                }, new Expectations(0.5, Duration.ofSeconds(3), Duration.ofSeconds(60))),
+                // 往復100ms: 保存が遅くなり、受信レートの制御（AIMD）が絞る
+                new ChaosScenario("redis-latency", Dependency.REDIS, toxics -> {
+                    toxics.latency("latency-up", ToxicDirection.UPSTREAM, 50).setJitter(10);
+                    toxics.latency("latency-down", ToxicDirection.DOWNSTREAM, 50).setJitter(10);
+                }, new Expectations(0.95, Duration.ofSeconds(1), Duration.ofSeconds(60))),
+                new ChaosScenario("redis-bandwidth", Dependency.REDIS,
+                        toxics -> toxics.bandwidth("bandwidth-down", ToxicDirection.DOWNSTREAM, 8),
+                        new Expectations(0.9, Duration.ofSeconds(2), Duration.ofSeconds(60))),
+                // 接続がすぐにリセットされる: 保存はプロセス内に溜め、復旧後に反映する
+                new ChaosScenario("redis-reset", Dependency.REDIS, toxics -> {
+                    toxics.resetPeer("reset-up", ToxicDirection.UPSTREAM, 0);
+                    toxics.resetPeer("reset-down", ToxicDirection.DOWNSTREAM, 0);
+                }, new Expectations(0.9, Duration.ofSeconds(3), Duration.ofSeconds(60))));
+    }
+}
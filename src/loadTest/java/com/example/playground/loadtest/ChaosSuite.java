@@ -0,0 +1,383 @@
+package com.example.playground.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 障害注入（chaos）・長時間（soak）テスト
+ *
+ * 一定の到着レートで書き込みを続けながら、シナリオごとにToxiproxyでKafka・Redisに障害を入れて解除し、
+ * 次を確認する（1つでも満たさなければ終了コード1）。
+ *
+ * - baseline: 障害を入れる前の書き込みが全て成功し、p99が --baseline-p99 以下（環境が遅すぎないことの確認）
+ * - fault: 障害中の成功率（スループットの下限）とp99の上限（シナリオごとの値）
+ * - recovery: 解除から、解除までに受け付けた書き込みが全て GET で読め、Redisへの反映待ちがなくなるまでの時間の上限
+ * - after: 回復後の書き込みが全て成功し、p99が --baseline-p99 以下
+ * - lost: 受け付けた（2xxを返した）書き込みのうち、最後まで読めなかったもの（常に0）
+ *
+ * --soak を指定すると、その時間が経つまでシナリオを繰り返し、baselineのp99が最初の周回から
+ * --max-baseline-drift 倍を超えて悪化していないことも確認する。
+ *
+ * 実行: gradle buildDockerImage && gradle chaosTest（例: --args="--scenarios=kafka-reset,redis-reset --soak=30m"）
+ */
+public class ChaosSuite {
+
+    private static final int LOOKUP_CHUNK = 1000;
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(500);
+
+    private final ChaosTarget target;
+    private final SteadyWriteLoad load;
+    private final String baseUrl;
+    private final Options options;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * 1シナリオの結果
+     *
+     * @param recovery 回復時間（上限の間に回復しなかった場合はnull）
+     * @param lost     最後まで読めなかった書き込みの件数
+     */
+    private record Result(int cycle, ChaosScenario scenario, SteadyWriteLoad.Phase baseline,
+                          SteadyWriteLoad.Phase fault, SteadyWriteLoad.Phase after, Duration recovery, long lost,
+                          List<String> failures) {
+    }
+
+    private record Options(String image, double rate, int senders, Duration baseline, Duration fault,
+                           Duration after, Duration recoveryTimeout, Duration requestTimeout, Duration baselineP99,
+                           double maxBaselineDrift, Duration soak, List<ChaosScenario> scenarios) {
+    }
+
+    private ChaosSuite(ChaosTarget target, SteadyWriteLoad load, String baseUrl, Options options) {
+        this.target = target;
+        this.load = load;
+        this.baseUrl = baseUrl;
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options;
+        try {
+            options = parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("❌ " + e.getMessage());
+            System.err.println(usage());
+            System.exit(2);
+            return;
+        }
+        if (options == null) {
+            System.out.println(usage());
+            return;
+        }
+
+        List<Result> results;
+        try (ChaosTarget target = new ChaosTarget(options.image())) {
+            String baseUrl = target.start();
+            try (SteadyWriteLoad load = new SteadyWriteLoad(baseUrl, options.rate(), options.senders(),
+                    options.requestTimeout())) {
+                results = new ChaosSuite(target, load, baseUrl, options).run();
+            }
+        }
+        boolean passed = report(results, options);
+        System.exit(passed ? 0 : 1);
+    }
+
+    static String usage() {
+        return """
+                Usage: gradle chaosTest --args="[--key=value ...]"
+
+                  --image=IMAGE               App image (default: kafka-redis-playground:1.0.0, gradle buildDockerImage)
+                  --scenarios=LIST            Subset of kafka-latency,kafka-bandwidth,kafka-reset,redis-latency,
+                                              redis-bandwidth,redis-reset (default: all)
+                  --rate=N                    Writes per second during the whole run (default: 50)
+                  --senders=N                 Distinct senders, keep rate/senders under the per-sender limit (default: 20)
+                  --baseline=20s              Steady load before each fault
+                  --fault=30s                 Fault duration
+                  --after=15s                 Steady load checked after recovery
+                  --recovery-timeout=120s     Give up waiting for recovery or for lost writes
+                  --request-timeout=10s       Timeout of a single POST
+                  --baseline-p99=500ms        p99 ceiling for the baseline and after phases
+                  --soak=0s                   Repeat the scenarios until this much time has passed, e.g. 30m
+                  --max-baseline-drift=3      Allowed growth of the baseline p99 over the first cycle (soak only)
+                """;
+    }
+
+    private static Options parse(String[] args) {
+        String image = "kafka-redis-playground:1.0.0";
+        double rate = 50;
+        int senders = 20;
+        Duration baseline = Duration.ofSeconds(20);
+        Duration fault = Duration.ofSeconds(30);
+        Duration after = Duration.ofSeconds(15);
+        Duration recoveryTimeout = Duration.ofSeconds(120);
+        Duration requestTimeout = Duration.ofSeconds(10);
+        Duration baselineP99 = Duration.ofMillis(500);
+        double maxBaselineDrift = 3;
+        Duration soak = Duration.ZERO;
+        List<ChaosScenario> scenarios = ChaosScenario.defaults();
+        for (String arg : args) {
+            if (arg.equals("--help")) {
+                return null;
+            }
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --key=value but got: " + arg);
+            }
+            String value = arg.substring(separator + 1);
+            switch (arg.substring(2, separator)) {
+                case "image" -> image = value;
+                case "scenarios" -> scenarios = select(Arrays.asList(value.split(",")));
+                case "rate" -> rate = Double.parseDouble(value);
+                case "senders" -> senders = Integer.parseInt(value);
+                case "baseline" -> baseline = LoadTestOptions.parseDuration(value);
+                case "fault" -> fault = LoadTestOptions.parseDuration(value);
+                case "after" -> after = LoadTestOptions.parseDuration(value);
+                case "recovery-timeout" -> recoveryTimeout = LoadTestOptions.parseDuration(value);
+                case "request-timeout" -> requestTimeout = LoadTestOptions.parseDuration(value);
+                case "baseline-p99" -> baselineP99 = LoadTestOptions.parseDuration(value);
+                case "max-baseline-drift" -> maxBaselineDrift = Double.parseDouble(value);
+                case "soak" -> soak = LoadTestOptions.parseDuration(value);
+                default -> throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if (rate <= 0 || senders <= 0) {
+            throw new IllegalArgumentException("--rate and --senders must be positive");
+        }
+        return new Options(image, rate, senders, baseline, fault, after, recoveryTimeout, requestTimeout,
+                baselineP99, maxBaselineDrift, soak, scenarios);
+    }
+
+    private static List<ChaosScenario> select(List<String> names) {
+        List<ChaosScenario> selected = new ArrayList<>();
+        for (String name : names) {
+            ChaosScenario scenario = ChaosScenario.defaults().stream()
+                    .filter(candidate -> candidate.name().equals(name.trim()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown scenario: " + name));
+            selected.add(scenario);
+        }
+        return selected;
+    }
+
+    /**
+     * シナリオを順に（--soak の場合は時間が経つまで繰り返し）実行する
+     */
+    private List<Result> run() throws Exception {
+        System.out.printf("🚀 %s: %.1f writes/s from %d senders, scenarios=%s%s%n", baseUrl, options.rate(),
+                options.senders(), options.scenarios().stream().map(ChaosScenario::name).toList(),
+                options.soak().isZero() ? "" : ", soak=" + options.soak());
+        load.start();
+        Thread.sleep(options.baseline().toMillis());
+
+        long soakEnd = System.nanoTime() + options.soak().toNanos();
+        List<Result> results = new ArrayList<>();
+        int cycle = 1;
+        do {
+            for (ChaosScenario scenario : options.scenarios()) {
+                Result result = runScenario(cycle, scenario);
+                results.add(result);
+                System.out.printf("%s [%d] %s: %s%n", result.failures().isEmpty() ? "✅" : "❌", cycle,
+                        scenario.name(), result.failures().isEmpty() ? "passed" : String.join("; ", result.failures()));
+            }
+            cycle++;
+        } while (System.nanoTime() < soakEnd);
+        return results;
+    }
+
+    private Result runScenario(int cycle, ChaosScenario scenario) throws Exception {
+        ChaosScenario.Expectations expected = scenario.expectations();
+        String prefix = "[" + cycle + "] " + scenario.name();
+        List<String> failures = new ArrayList<>();
+        target.heal();
+
+        SteadyWriteLoad.Phase baseline = load.begin(scenario.name() + "/baseline");
+        Thread.sleep(options.baseline().toMillis());
+
+        System.out.printf("💥 %s: injecting for %ss%n", prefix, options.fault().toSeconds());
+        SteadyWriteLoad.Phase fault = load.begin(scenario.name() + "/fault");
+        scenario.fault().inject(target.proxy(scenario.dependency()).toxics());
+        Thread.sleep(options.fault().toMillis());
+
+        target.heal();
+        long healedNanos = System.nanoTime();
+        SteadyWriteLoad.Phase recovering = load.begin(scenario.name() + "/recovery");
+        List<String> beforeHeal = new ArrayList<>(baseline.getAckedIds());
+        beforeHeal.addAll(fault.getAckedIds());
+        Set<String> unrecovered = awaitVisible(beforeHeal, healedNanos + options.recoveryTimeout().toNanos());
+        Duration recovery = unrecovered.isEmpty() ? Duration.ofNanos(System.nanoTime() - healedNanos) : null;
+        System.out.printf("🩹 %s: healed, recovery=%s%n", prefix, recovery == null ? "timed out" : seconds(recovery));
+
+        SteadyWriteLoad.Phase after = load.begin(scenario.name() + "/after");
+        Thread.sleep(options.after().toMillis());
+
+        // 後続のシナリオの負荷と重ならないよう、残りの書き込みの反映は別の区間で待つ
+        load.begin(scenario.name() + "/verify");
+        Set<String> acked = new HashSet<>(beforeHeal);
+        acked.addAll(fault.getAckedIds()); // 解除後に応答が返った分
+        acked.addAll(recovering.getAckedIds());
+        acked.addAll(after.getAckedIds());
+        long lost = awaitVisible(acked, System.nanoTime() + options.recoveryTimeout().toNanos()).size();
+
+        check(failures, "baseline", baseline, 0.99, options.baselineP99());
+        check(failures, "fault", fault, expected.minThroughputRatio(), expected.maxP99());
+        check(failures, "after", after, 0.99, options.baselineP99());
+        if (recovery == null) {
+            failures.add(String.format("did not recover within %s (%d writes still unreadable)",
+                    options.recoveryTimeout(), unrecovered.size()));
+        } else if (recovery.compareTo(expected.maxRecovery()) > 0) {
+            failures.add("recovery " + seconds(recovery) + " > " + seconds(expected.maxRecovery()));
+        }
+        if (lost > 0) {
+            failures.add(lost + " acknowledged writes were lost");
+        }
+        return new Result(cycle, scenario, baseline, fault, after, recovery, lost, failures);
+    }
+
+    private static void check(List<String> failures, String phaseName, SteadyWriteLoad.Phase phase,
+                              double minRatio, Duration maxP99) {
+        if (phase.getSuccessRatio() < minRatio) {
+            failures.add(String.format("%s success %.1f%% < %.1f%% (failures: %s)", phaseName,
+                    phase.getSuccessRatio() * 100, minRatio * 100, phase.describeFailures()));
+        }
+        if (phase.getP99().compareTo(maxP99) > 0) {
+            failures.add(String.format("%s p99 %s > %s", phaseName, millis(phase.getP99()), millis(maxP99)));
+        }
+    }
+
+    /**
+     * 全てのIDが読めるようになり、アプリがRedisへの反映待ちを抱えていない状態になるまで待つ
+     *
+     * @return 期限までに読めなかったID（空なら全て読めた）
+     */
+    private Set<String> awaitVisible(Collection<String> ids, long deadlineNanos) throws InterruptedException {
+        Set<String> pending = new HashSet<>(ids);
+        while (true) {
+            try {
+                pending = missing(pending);
+                if (pending.isEmpty() && !degraded()) {
+                    return pending;
+                }
+            } catch (IOException e) {
+                // アプリが応答しない間は待ち続ける
+            }
+            if (System.nanoTime() >= deadlineNanos) {
+                return pending;
+            }
+            Thread.sleep(POLL_INTERVAL.toMillis());
+        }
+    }
+
+    /**
+     * POST /api/messages/lookup でまだ読めないIDを求める
+     */
+    private Set<String> missing(Set<String> ids) throws IOException, InterruptedException {
+        Set<String> missing = new HashSet<>();
+        List<String> all = new ArrayList<>(ids);
+        for (int from = 0; from < all.size(); from += LOOKUP_CHUNK) {
+            ObjectNode body = objectMapper.createObjectNode();
+            body.putPOJO("ids", all.subList(from, Math.min(all.size(), from + LOOKUP_CHUNK)));
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/messages/lookup"))
+                    .timeout(Duration.ofSeconds(10))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IOException("Lookup failed: HTTP " + response.statusCode());
+            }
+            for (JsonNode result : objectMapper.readTree(response.body()).path("results")) {
+                if (!result.path("found").asBoolean()) {
+                    missing.add(result.path("id").asText());
+                }
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Redis障害中の書き込みをまだ反映していないか（messages.repository.degraded）
+     */
+    private boolean degraded() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create(baseUrl + "/actuator/metrics/messages.repository.degraded"))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 404) {
+            // フォールバックが無効
+            return false;
+        }
+        if (response.statusCode() != 200) {
+            throw new IOException("Metrics failed: HTTP " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body()).path("measurements").path(0).path("value").asDouble() > 0;
+    }
+
+    /**
+     * 結果の表を出力する
+     *
+     * @return 全て合格したか
+     */
+    private static boolean report(List<Result> results, Options options) {
+        System.out.println();
+        System.out.printf("%-5s %-16s %10s %9s %10s %10s %10s %6s  %s%n", "cycle", "scenario", "fault ok/s",
+                "fault ok", "fault p99", "recovery", "after p99", "lost", "result");
+        boolean passed = true;
+        for (Result result : results) {
+            System.out.printf("%-5d %-16s %10.1f %8.1f%% %10s %10s %10s %6d  %s%n", result.cycle(),
+                    result.scenario().name(), result.fault().getAckedPerSecond(),
+                    result.fault().getSuccessRatio() * 100, millis(result.fault().getP99()),
+                    result.recovery() == null ? "timeout" : seconds(result.recovery()),
+                    millis(result.after().getP99()), result.lost(), result.failures().isEmpty() ? "PASS" : "FAIL");
+            passed &= result.failures().isEmpty();
+        }
+
+        // soak: 繰り返しても平常時のレイテンシが悪化していかないこと
+        if (!options.soak().isZero() && !results.isEmpty()) {
+            int cycles = results.get(results.size() - 1).cycle();
+            double first = baselineP99Millis(results, 1);
+            double last = baselineP99Millis(results, cycles);
+            double limit = Math.max(first, 1) * options.maxBaselineDrift();
+            System.out.printf("%nSoak: %d cycles, baseline p99 %.1fms (first cycle) -> %.1fms (last cycle), limit %.1fms%n",
+                    cycles, first, last, limit);
+            if (last > limit) {
+                System.out.println("❌ Baseline p99 drifted beyond --max-baseline-drift");
+                passed = false;
+            }
+        }
+        System.out.println();
+        System.out.println(passed ? "✅ All chaos scenarios passed" : "❌ Some chaos scenarios failed (see above)");
+        return passed;
+    }
+
+    private static double baselineP99Millis(List<Result> results, int cycle) {
+        return results.stream()
+                .filter(result -> result.cycle() == cycle)
+                .mapToDouble(result -> result.baseline().getP99().toNanos() / 1e6)
+                .max()
+                .orElse(0);
+    }
+
+    private static String millis(Duration duration) {
+        return String.format("%.1fms", duration.toNanos() / 1e6);
+    }
+
+    private static String seconds(Duration duration) {
+        return String.format("%.1fs", duration.toMillis() / 1000.0);
+    }
+}
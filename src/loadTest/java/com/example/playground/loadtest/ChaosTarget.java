@@ -0,0 +1,107 @@
+package com.example.playground.loadtest;
+
+import eu.rekawek.toxiproxy.Proxy;
+import eu.rekawek.toxiproxy.ToxiproxyClient;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.ToxiproxyContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.kafka.ConfluentKafkaContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * 障害注入テストの対象（Testcontainersで Kafka・Redis・Toxiproxy・アプリ を起動する）
+ *
+ * アプリからKafka・Redisへの接続は全てToxiproxyを通し、遅延・帯域制限・接続のリセットを外から注入する。
+ * Kafkaはブートストラップ後にブローカーが広告するアドレスへ接続し直すため、広告するアドレスもプロキシにする。
+ * アプリのイメージは事前に `gradle buildDockerImage` で作っておく
+ */
+public class ChaosTarget implements AutoCloseable {
+
+    private static final int APP_PORT = 8888;
+    // ToxiproxyContainerが公開するプロキシ用のポート（8666〜）
+    private static final int KAFKA_PROXY_PORT = 8666;
+    private static final int REDIS_PROXY_PORT = 8667;
+
+    private final Network network = Network.newNetwork();
+    private final ConfluentKafkaContainer kafka;
+    private final GenericContainer<?> redis;
+    private final ToxiproxyContainer toxiproxy;
+    private final GenericContainer<?> app;
+    private ToxiproxyClient client;
+    private Proxy kafkaProxy;
+    private Proxy redisProxy;
+
+    public ChaosTarget(String appImage) {
+        // docker-compose.yml と同じイメージを使う
+        this.kafka = new ConfluentKafkaContainer("confluentinc/cp-kafka:7.4.0")
+                .withNetwork(network)
+                .withListener("kafka:19092", () -> "toxiproxy:" + KAFKA_PROXY_PORT);
+        this.redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+                .withNetwork(network)
+                .withNetworkAliases("redis")
+                .withExposedPorts(6379);
+        this.toxiproxy = new ToxiproxyContainer("ghcr.io/shopify/toxiproxy:2.5.0")
+                .withNetwork(network)
+                .withNetworkAliases("toxiproxy");
+        this.app = new GenericContainer<>(DockerImageName.parse(appImage))
+                .withNetwork(network)
+                .withEnv("SPRING_KAFKA_BOOTSTRAP_SERVERS", "toxiproxy:" + KAFKA_PROXY_PORT)
+                .withEnv("SPRING_DATA_REDIS_HOST", "toxiproxy")
+                .withEnv("SPRING_DATA_REDIS_PORT", String.valueOf(REDIS_PROXY_PORT))
+                // Redis障害中の保存はプロセス内に溜めて復旧後に反映する（無効だとコンシューマーが保存できない分を失う）
+                .withEnv("APP_STORAGE_FALLBACK_ENABLED", "true")
+                // 1件ごとの受信・保存ログを出さない
+                .withEnv("LOGGING_LEVEL_COM_EXAMPLE_PLAYGROUND", "WARN")
+                .withExposedPorts(APP_PORT)
+                .waitingFor(Wait.forHttp("/actuator/health/readiness")
+                        .forPort(APP_PORT)
+                        .forStatusCode(200)
+                        .withStartupTimeout(Duration.ofMinutes(3)));
+    }
+
+    /**
+     * コンテナとプロキシを用意してアプリのベースURLを返す
+     */
+    public String start() throws IOException {
+        System.out.println("🐳 Starting Kafka, Redis, Toxiproxy and " + app.getDockerImageName() + " with Testcontainers...");
+        kafka.start();
+        redis.start();
+        toxiproxy.start();
+        // プロキシはアプリの起動前に作る（起動時のトピック作成・Redis接続もプロキシを通す）
+        client = new ToxiproxyClient(toxiproxy.getHost(), toxiproxy.getControlPort());
+        kafkaProxy = client.createProxy("kafka", "0.0.0.0:" + KAFKA_PROXY_PORT, "kafka:19092");
+        redisProxy = client.createProxy("redis", "0.0.0.0:" + REDIS_PROXY_PORT, "redis:6379");
+        app.start();
+        return "http://" + app.getHost() + ":" + app.getMappedPort(APP_PORT);
+    }
+
+    /**
+     * 依存先へのプロキシ（toxics() で障害を追加する）
+     */
+    public Proxy proxy(ChaosScenario.Dependency dependency) {
+        return switch (dependency) {
+            case KAFKA -> kafkaProxy;
+            case REDIS -> redisProxy;
+        };
+    }
+
+    /**
+     * 全ての障害を取り除く
+     */
+    public void heal() throws IOException {
+        client.reset();
+    }
+
+    @Override
+    public void close() {
+        app.stop();
+        toxiproxy.stop();
+        redis.stop();
+        kafka.stop();
+        network.close();
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.playground.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 操作ごとのレイテンシ集計（HdrHistogram、マイクロ秒）
+ *
+ * - response time: 予定していた送信時刻からの時間（coordinated omissionを補正した値）
+ * - service time: 実際に送信してからの時間（参考値。サーバーが詰まると送信自体が遅れ、この値は楽観的になる）
+ */
+public class LatencyStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private final Map<Operation, Entry> entries = new EnumMap<>(Operation.class);
+
+    public LatencyStats() {
+        for (Operation operation : Operation.values()) {
+            entries.put(operation, new Entry());
+        }
+    }
+
+    /**
+     * 成功した操作を記録する
+     *
+     * @param intendedStartNanos スケジュール上の送信時刻
+     * @param actualStartNanos   実際に送信した時刻
+     */
+    public void recordSuccess(Operation operation, long intendedStartNanos, long actualStartNanos, long endNanos) {
+        Entry entry = entries.get(operation);
+        entry.responseTime.recordValue(toMicros(endNanos - intendedStartNanos));
+        entry.serviceTime.recordValue(toMicros(endNanos - actualStartNanos));
+    }
+
+    /**
+     * 失敗（2xx以外・タイムアウト・接続エラー）を記録する
+     * 失敗もレスポンスタイムに含める（除外すると遅いエラーほど結果が良く見える）
+     */
+    public void recordFailure(Operation operation, long intendedStartNanos, long endNanos) {
+        Entry entry = entries.get(operation);
+        entry.responseTime.recordValue(toMicros(endNanos - intendedStartNanos));
+        entry.failures.increment();
+    }
+
+    /**
+     * 前回の呼び出しからの区間の統計を出力し、全体の集計に加える
+     */
+    public void printInterval(PrintStream out, double elapsedSeconds) {
+        StringBuilder line = new StringBuilder(String.format("[%6.1fs]", elapsedSeconds));
+        for (Map.Entry<Operation, Entry> e : entries.entrySet()) {
+            Histogram interval = e.getValue().sampleInterval();
+            if (interval.getTotalCount() > 0) {
+                line.append(String.format(" %s: n=%d p50=%.1fms p99=%.1fms max=%.1fms |",
+                        e.getKey().getLabel(), interval.getTotalCount(),
+                        millis(interval.getValueAtPercentile(50)), millis(interval.getValueAtPercentile(99)),
+                        millis(interval.getMaxValue())));
+            }
+        }
+        out.println(line);
+    }
+
+    /**
+     * 全体の集計を出力し、パーセンタイル分布（.hgrm）をファイルに書き出す
+     */
+    public void printSummary(PrintStream out, double measuredSeconds, Path outputDirectory) throws IOException {
+        Files.createDirectories(outputDirectory);
+        out.println();
+        out.printf("%-11s %8s %7s %9s %9s %9s %9s %9s %9s %9s %11s%n", "operation", "count", "errors", "rps",
+                "p50", "p90", "p99", "p99.9", "p99.99", "max", "svc p99");
+        for (Map.Entry<Operation, Entry> e : entries.entrySet()) {
+            Entry entry = e.getValue();
+            entry.sampleInterval(); // 最後の区間を取り込む
+            Histogram total = entry.total;
+            if (total.getTotalCount() == 0) {
+                continue;
+            }
+            StringBuilder line = new StringBuilder(String.format("%-11s %8d %7d %9.1f", e.getKey().getLabel(),
+                    total.getTotalCount(), entry.failures.sum(), total.getTotalCount() / measuredSeconds));
+            for (double percentile : PERCENTILES) {
+                line.append(String.format(" %7.2fms", millis(total.getValueAtPercentile(percentile))));
+            }
+            line.append(String.format(" %7.2fms", millis(total.getMaxValue())));
+            line.append(String.format(" %9.2fms", millis(entry.totalService.getValueAtPercentile(99))));
+            out.println(line);
+
+            Path file = outputDirectory.resolve(e.getKey().getLabel() + ".hgrm");
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(file))) {
+                total.outputPercentileDistribution(hgrm, 1000.0); // ミリ秒で出力
+            }
+        }
+        out.println();
+        out.println("Latencies are measured from the scheduled send time (coordinated omission corrected).");
+        out.println("Percentile distributions written to " + outputDirectory.toAbsolutePath());
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.min(Math.max(0, nanos / 1000), HIGHEST_TRACKABLE_MICROS);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    /**
+     * 1操作分の集計
+     * Recorderは記録側がロックフリーで、区間ごとのヒストグラムを取り出せる
+     */
+    private static class Entry {
+        private final Recorder responseTime = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+        private final Recorder serviceTime = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+        private final Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final Histogram totalService = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final LongAdder failures = new LongAdder();
+        private Histogram recycled;
+        private Histogram recycledService;
+
+        synchronized Histogram sampleInterval() {
+            Histogram interval = responseTime.getIntervalHistogram(recycled);
+            Histogram intervalService = serviceTime.getIntervalHistogram(recycledService);
+            total.add(interval);
+            totalService.add(intervalService);
+            recycled = interval;
+            recycledService = intervalService;
+            return interval;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.playground.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 一覧APIの転送量とレイテンシの比較
+ * 同じGETを HTTP/1.1・h2c × 圧縮なし・gzip の4通りで送り、ボディのバイト数（圧縮後＝転送量）とレイテンシを出力する
+ *
+ * - 各クライアントは決まった並行数でリクエストを繰り返す（クローズドモデル。プロトコルと圧縮の差だけを比べる）
+ * - java.net.http.HttpClientは自動で解凍しないため、受け取ったボディのサイズがそのまま転送量になる
+ * - 一覧が小さい（server.compression.min-response-size未満）と圧縮されないので、事前にメッセージを入れておく
+ *
+ * 実行: gradle listBenchmark --args="--base-url=http://localhost:8888 --path=/api/messages --requests=2000"
+ */
+public class ListResponseBenchmark {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final String url;
+    private final int requests;
+    private final int concurrency;
+    private final int warmup;
+
+    /**
+     * 比較する組み合わせ
+     */
+    private record Variant(String name, HttpClient.Version version, boolean gzip) {
+    }
+
+    private static final List<Variant> VARIANTS = List.of(
+            new Variant("http/1.1", HttpClient.Version.HTTP_1_1, false),
+            new Variant("http/1.1+gzip", HttpClient.Version.HTTP_1_1, true),
+            new Variant("h2c", HttpClient.Version.HTTP_2, false),
+            new Variant("h2c+gzip", HttpClient.Version.HTTP_2, true));
+
+    public ListResponseBenchmark(String url, int requests, int concurrency, int warmup) {
+        this.url = url;
+        this.requests = requests;
+        this.concurrency = concurrency;
+        this.warmup = warmup;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = "http://localhost:8888";
+        String path = "/api/messages";
+        String accept = "application/json";
+        int requests = 2000;
+        int concurrency = 16;
+        int warmup = 200;
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                System.err.println("❌ Expected --key=value but got: " + arg);
+                System.err.println(usage());
+                System.exit(2);
+                return;
+            }
+            String value = arg.substring(separator + 1);
+            switch (arg.substring(2, separator)) {
+                case "base-url" -> baseUrl = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+                case "path" -> path = value;
+                case "accept" -> accept = value;
+                case "requests" -> requests = Integer.parseInt(value);
+                case "concurrency" -> concurrency = Integer.parseInt(value);
+                case "warmup" -> warmup = Integer.parseInt(value);
+                default -> {
+                    System.err.println("❌ Unknown option: " + arg);
+                    System.err.println(usage());
+                    System.exit(2);
+                    return;
+                }
+            }
+        }
+        new ListResponseBenchmark(baseUrl + path, requests, concurrency, warmup).run(accept);
+    }
+
+    static String usage() {
+        return """
+                Usage: gradle listBenchmark --args="[--key=value ...]"
+
+                  --base-url=URL        Target application (default: http://localhost:8888)
+                  --path=PATH           List endpoint to fetch (default: /api/messages)
+                  --accept=MEDIA_TYPE   Accept header, e.g. application/cbor (default: application/json)
+                  --requests=N          Measured requests per variant (default: 2000)
+                  --concurrency=N       Concurrent requests per variant (default: 16)
+                  --warmup=N            Unmeasured requests per variant (default: 200)
+                """;
+    }
+
+    public void run(String accept) throws Exception {
+        System.out.printf("🚀 GET %s (Accept: %s) x %d, concurrency %d%n%n", url, accept, requests, concurrency);
+        List<String> lines = new ArrayList<>();
+        for (Variant variant : VARIANTS) {
+            lines.add(measure(variant, accept));
+        }
+        System.out.printf("%-14s %-9s %-9s %11s %11s %12s %8s %9s %9s %9s%n", "variant", "protocol", "encoding",
+                "body bytes", "decoded", "total", "rps", "p50", "p99", "max");
+        lines.forEach(System.out::println);
+        System.out.println();
+        System.out.println("Body bytes are what crossed the wire (headers excluded; HTTP/2 also compresses headers with HPACK).");
+    }
+
+    private String measure(Variant variant, String accept) throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder()
+                     .version(variant.version())
+                     .executor(executor)
+                     .connectTimeout(Duration.ofSeconds(5))
+                     .build()) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Accept", accept);
+            if (variant.gzip()) {
+                builder.header("Accept-Encoding", "gzip");
+            }
+            HttpRequest request = builder.GET().build();
+
+            // h2cへのアップグレードは最初のリクエストで行うので、1回送ってから並行で送る
+            Result first = send(client, request, true);
+            runConcurrently(client, request, warmup, null);
+
+            Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+            long start = System.nanoTime();
+            Sample sample = runConcurrently(client, request, requests, recorder);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            Histogram histogram = recorder.getIntervalHistogram();
+            return String.format("%-14s %-9s %-9s %11d %11d %10.1fMB %8.0f %7.2fms %7.2fms %7.2fms%s",
+                    variant.name(), protocol(first.version()), first.encoding(), first.bodyBytes(),
+                    first.decodedBytes(), sample.bytes.sum() / 1e6, requests / seconds,
+                    histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getMaxValue() / 1000.0,
+                    sample.failures.get() > 0 ? "  (" + sample.failures.get() + " failed)" : "");
+        }
+    }
+
+    /**
+     * concurrency本の仮想スレッドで合計count回リクエストを送る
+     */
+    private Sample runConcurrently(HttpClient client, HttpRequest request, int count, Recorder recorder)
+            throws InterruptedException {
+        Sample sample = new Sample();
+        AtomicInteger remaining = new AtomicInteger(count);
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.submit(() -> {
+                    while (remaining.getAndDecrement() > 0) {
+                        long start = System.nanoTime();
+                        try {
+                            sample.bytes.add(send(client, request, false).bodyBytes());
+                        } catch (IOException e) {
+                            sample.failures.incrementAndGet();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        if (recorder != null) {
+                            recorder.recordValue(Math.min((System.nanoTime() - start) / 1000, HIGHEST_TRACKABLE_MICROS));
+                        }
+                    }
+                });
+            }
+        }
+        return sample;
+    }
+
+    /**
+     * @param decode gzipを解凍して元のサイズも求める（計測中のリクエストでは行わない）
+     */
+    private static Result send(HttpClient client, HttpRequest request, boolean decode)
+            throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IOException("HTTP " + response.statusCode());
+        }
+        byte[] body = response.body();
+        String encoding = response.headers().firstValue("Content-Encoding").orElse("identity");
+        int decoded = body.length;
+        if (decode && "gzip".equals(encoding)) {
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+                decoded = in.readAllBytes().length;
+            }
+        }
+        return new Result(response.version(), encoding, body.length, decoded);
+    }
+
+    private static String protocol(HttpClient.Version version) {
+        return version == HttpClient.Version.HTTP_2 ? "h2c" : "http/1.1";
+    }
+
+    private record Result(HttpClient.Version version, String encoding, int bodyBytes, int decodedBytes) {
+    }
+
+    private static class Sample {
+        private final LongAdder bytes = new LongAdder();
+        private final AtomicInteger failures = new AtomicInteger();
+    }
+}
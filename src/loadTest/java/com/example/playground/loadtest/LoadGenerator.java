@@ -0,0 +1,322 @@
+package com.example.playground.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * JVMの負荷生成ツール（tests/load-test.sh の置き換え）
+ *
+ * - オープンモデル: 応答を待たずに固定の到着レートで送信する（1リクエスト = 1仮想スレッド）
+ * - レイテンシは予定していた送信時刻から計測する（coordinated omissionの補正）
+ * - 書き込みの一部について、POSTの開始からGET /{id}が200を返すまでの可視化レイテンシを計測する
+ *
+ * 実行: gradle loadTest --args="--rate=200 --duration=60s"
+ */
+public class LoadGenerator {
+
+    private static final String API_PATH = "/api/messages";
+    private static final String[] TYPES = {"INFO", "INFO", "INFO", "SUCCESS", "WARNING", "ERROR"};
+    private static final int READ_POOL_SIZE = 4096;
+
+    private final LoadTestOptions options;
+    private final String baseUrl;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final LatencyStats stats = new LatencyStats();
+    private final Operation[] schedule;
+
+    // GETで使うID（可視化を確認できたものだけを入れる）
+    private final AtomicReferenceArray<String> readPool = new AtomicReferenceArray<>(READ_POOL_SIZE);
+    private final AtomicLong readPoolCursor = new AtomicLong();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong inFlight = new AtomicLong();
+    private final AtomicLong maxInFlight = new AtomicLong();
+    private volatile long measureStartNanos;
+
+    public LoadGenerator(LoadTestOptions options, String baseUrl) {
+        this.options = options;
+        this.baseUrl = baseUrl;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.schedule = buildSchedule(options.getMix());
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (List.of(args).contains("--help")) {
+            System.out.println(LoadTestOptions.usage());
+            return;
+        }
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("❌ " + e.getMessage());
+            System.err.println(LoadTestOptions.usage());
+            System.exit(2);
+            return;
+        }
+
+        if ("testcontainers".equals(options.getTarget())) {
+            try (TestcontainersTarget target = new TestcontainersTarget(options.getImage())) {
+                new LoadGenerator(options, target.start()).run();
+            }
+        } else {
+            new LoadGenerator(options, options.getBaseUrl()).run();
+        }
+    }
+
+    /**
+     * 負荷をかけて結果を出力する
+     */
+    public void run() throws Exception {
+        checkHealth();
+        seed();
+
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / options.getRate());
+        long startNanos = System.nanoTime();
+        measureStartNanos = startNanos + options.getWarmup().toNanos();
+        long endNanos = measureStartNanos + options.getDuration().toNanos();
+
+        System.out.printf("🚀 %s: rate=%.1f/s, warmup=%ss, duration=%ss, mix=%s%n", baseUrl, options.getRate(),
+                options.getWarmup().toSeconds(), options.getDuration().toSeconds(), options.getMix());
+
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(
+                runnable -> new Thread(runnable, "load-test-reporter"));
+        long reportMillis = options.getReportInterval().toMillis();
+        reporter.scheduleAtFixedRate(() -> {
+                    if (System.nanoTime() >= measureStartNanos) {
+                        stats.printInterval(System.out, (System.nanoTime() - measureStartNanos) / 1e9);
+                    }
+                }, options.getWarmup().toMillis() + reportMillis, reportMillis, TimeUnit.MILLISECONDS);
+
+        long maxLagNanos = 0;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long intended = startNanos + i * intervalNanos;
+                if (intended >= endNanos) {
+                    break;
+                }
+                long now;
+                while ((now = System.nanoTime()) < intended) {
+                    LockSupport.parkNanos(intended - now);
+                }
+                maxLagNanos = Math.max(maxLagNanos, now - intended);
+
+                Operation operation = schedule[(int) (i % schedule.length)];
+                executor.execute(() -> execute(operation, intended));
+            }
+            // ExecutorServiceのcloseで送信済みのリクエストの完了を待つ
+        } finally {
+            reporter.shutdownNow();
+        }
+
+        stats.printSummary(System.out, options.getDuration().toNanos() / 1e9, options.getOutput());
+        System.out.printf("Generator: max scheduling lag=%.2fms, max in-flight=%d%n",
+                maxLagNanos / 1e6, maxInFlight.get());
+        if (maxLagNanos > TimeUnit.MILLISECONDS.toNanos(10)) {
+            System.out.println("⚠️ The generator fell behind its schedule; latencies above still include the delay, "
+                    + "but consider a lower --rate or more CPU for the generator.");
+        }
+    }
+
+    /**
+     * 1リクエストを実行して記録する（仮想スレッド上で呼ばれる）
+     */
+    private void execute(Operation operation, long intendedStartNanos) {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        long actualStartNanos = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request(operation), HttpResponse.BodyHandlers.ofString());
+            long end = System.nanoTime();
+            boolean success = response.statusCode() / 100 == 2;
+            record(operation, success, intendedStartNanos, actualStartNanos, end);
+
+            if (operation == Operation.WRITE && success
+                    && ThreadLocalRandom.current().nextDouble() < options.getVisibilitySample()) {
+                probeVisibility(idOf(response), intendedStartNanos, actualStartNanos);
+            }
+        } catch (IOException e) {
+            record(operation, false, intendedStartNanos, actualStartNanos, System.nanoTime());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * 作成したメッセージがGETで見えるようになるまでポーリングする
+     * Kafka → Consumer → Redis を経由するため、POSTの応答時点ではまだ読めない
+     */
+    private void probeVisibility(String id, long intendedStartNanos, long actualStartNanos)
+            throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + options.getVisibilityTimeout().toNanos();
+        HttpRequest get = get(API_PATH + "/" + id);
+        while (true) {
+            HttpResponse<Void> response = client.send(get, HttpResponse.BodyHandlers.discarding());
+            long now = System.nanoTime();
+            if (response.statusCode() == 200) {
+                record(Operation.VISIBILITY, true, intendedStartNanos, actualStartNanos, now);
+                remember(id);
+                return;
+            }
+            if (now >= deadline) {
+                record(Operation.VISIBILITY, false, intendedStartNanos, actualStartNanos, now);
+                return;
+            }
+            Thread.sleep(options.getVisibilityPollInterval());
+        }
+    }
+
+    private void record(Operation operation, boolean success, long intendedStartNanos, long actualStartNanos,
+                        long endNanos) {
+        // ウォームアップ中に予定されたリクエストは記録しない
+        if (intendedStartNanos < measureStartNanos) {
+            return;
+        }
+        if (success) {
+            stats.recordSuccess(operation, intendedStartNanos, actualStartNanos, endNanos);
+        } else {
+            stats.recordFailure(operation, intendedStartNanos, endNanos);
+        }
+    }
+
+    private HttpRequest request(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (operation) {
+            case WRITE -> {
+                long n = sequence.incrementAndGet();
+                String body = "{\"content\":\"Load test message " + n + "\",\"sender\":\"" + sender(random)
+                        + "\",\"type\":\"" + TYPES[random.nextInt(TYPES.length)] + "\"}";
+                yield HttpRequest.newBuilder(URI.create(baseUrl + API_PATH))
+                        .timeout(options.getRequestTimeout())
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build();
+            }
+            case READ -> {
+                String id = randomId(random);
+                // 読めるIDがまだない場合は一覧で代用する
+                yield get(id == null ? API_PATH : API_PATH + "/" + id);
+            }
+            case SENDER -> get(API_PATH + "/sender/" + sender(random));
+            case SEARCH -> get(API_PATH + "/search?q="
+                    + URLEncoder.encode("message " + random.nextInt(10), StandardCharsets.UTF_8) + "&limit=20");
+            case LIST -> get(API_PATH);
+            case CLEANUP -> HttpRequest.newBuilder(URI.create(baseUrl + API_PATH + "/cleanup?minutes="
+                            + options.getCleanupMinutes()))
+                    .timeout(options.getRequestTimeout())
+                    .DELETE()
+                    .build();
+            case VISIBILITY -> throw new IllegalArgumentException("VISIBILITY is measured as part of WRITE");
+        };
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(options.getRequestTimeout())
+                .GET()
+                .build();
+    }
+
+    private String sender(ThreadLocalRandom random) {
+        return "load-test-user-" + random.nextInt(options.getSenders());
+    }
+
+    private String idOf(HttpResponse<String> response) throws IOException {
+        JsonNode id = objectMapper.readTree(response.body()).get("id");
+        if (id == null) {
+            throw new IOException("Response has no id: " + response.body());
+        }
+        return id.asText();
+    }
+
+    private void remember(String id) {
+        readPool.set((int) (readPoolCursor.getAndIncrement() % READ_POOL_SIZE), id);
+    }
+
+    private String randomId(ThreadLocalRandom random) {
+        long size = Math.min(readPoolCursor.get(), READ_POOL_SIZE);
+        return size == 0 ? null : readPool.get(random.nextInt((int) size));
+    }
+
+    private void checkHealth() throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(get("/actuator/health"), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Application is not healthy at " + baseUrl + ": " + response.body());
+        }
+    }
+
+    /**
+     * 読み取り用のメッセージを作成し、見えるようになるまで待つ
+     */
+    private void seed() throws IOException, InterruptedException {
+        if (options.getSeed() <= 0) {
+            return;
+        }
+        System.out.printf("🌱 Seeding %d messages...%n", options.getSeed());
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < options.getSeed(); i++) {
+            HttpResponse<String> response = client.send(request(Operation.WRITE), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() / 100 != 2) {
+                throw new IllegalStateException("Seeding failed: HTTP " + response.statusCode() + " " + response.body());
+            }
+            ids.add(idOf(response));
+        }
+        long deadline = System.nanoTime() + options.getVisibilityTimeout().toNanos();
+        for (String id : ids) {
+            while (client.send(get(API_PATH + "/" + id), HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                if (System.nanoTime() >= deadline) {
+                    throw new IllegalStateException("Seeded message did not become visible: " + id);
+                }
+                Thread.sleep(options.getVisibilityPollInterval());
+            }
+            remember(id);
+        }
+    }
+
+    /**
+     * 重みどおりの比率で操作を並べた表を作る（i番目の送信はi % 長さ番目の操作）
+     * 決定的に並べることで、短い実行でも比率がぶれない
+     */
+    static Operation[] buildSchedule(Map<Operation, Integer> mix) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        Operation[] schedule = new Operation[total];
+        // 各操作を表全体に均等にばらまく（同じ操作が固まって連続しないように）
+        double[] next = new double[Operation.values().length];
+        for (int slot = 0; slot < total; slot++) {
+            Operation chosen = null;
+            for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+                Operation operation = entry.getKey();
+                if (chosen == null || next[operation.ordinal()] < next[chosen.ordinal()]) {
+                    chosen = operation;
+                }
+            }
+            schedule[slot] = chosen;
+            next[chosen.ordinal()] += (double) total / mix.get(chosen);
+        }
+        return schedule;
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.playground.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 負荷テストの設定
+ * 引数は --key=value 形式（例: --rate=200 --duration=60s --mix=write:30,read:50,cleanup:1）
+ */
+public class LoadTestOptions {
+
+    /**
+     * 操作ごとの重み（比率）のデフォルト
+     */
+    private static final String DEFAULT_MIX = "write:30,read:40,sender:15,search:10,list:4,cleanup:1";
+
+    private String baseUrl = "http://localhost:8888";
+    private String target = "url";
+    private String image = "kafka-redis-playground:1.0.0";
+    private double rate = 100;
+    private Duration duration = Duration.ofSeconds(30);
+    private Duration warmup = Duration.ofSeconds(5);
+    private Duration reportInterval = Duration.ofSeconds(5);
+    private Duration requestTimeout = Duration.ofSeconds(10);
+    private Duration visibilityTimeout = Duration.ofSeconds(10);
+    private Duration visibilityPollInterval = Duration.ofMillis(5);
+    private double visibilitySample = 0.1;
+    private int seed = 100;
+    private int senders = 50;
+    private int cleanupMinutes = 60;
+    private Path output = Path.of("build", "loadtest");
+    private Map<Operation, Integer> mix = parseMix(DEFAULT_MIX);
+
+    /**
+     * プリセット（旧 load-test.sh の --spike / --endurance 相当）
+     */
+    private static final Map<String, String[]> PROFILES = Map.of(
+            "basic", new String[] {},
+            "mixed", new String[] {"--mix=write:40,read:40,list:10,search:9,cleanup:1"},
+            "spike", new String[] {"--rate=500", "--duration=10s", "--warmup=0s"},
+            "endurance", new String[] {"--rate=20", "--duration=300s", "--report-interval=30s"});
+
+    public static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        // プロファイルを先に適用し、個別指定で上書きできるようにする
+        for (String arg : args) {
+            if (arg.startsWith("--profile=")) {
+                String name = arg.substring("--profile=".length());
+                String[] preset = PROFILES.get(name);
+                if (preset == null) {
+                    throw new IllegalArgumentException("Unknown profile: " + name + " (available: " + PROFILES.keySet() + ")");
+                }
+                for (String presetArg : preset) {
+                    options.apply(presetArg);
+                }
+            }
+        }
+        for (String arg : args) {
+            if (!arg.startsWith("--profile=")) {
+                options.apply(arg);
+            }
+        }
+        return options;
+    }
+
+    private void apply(String arg) {
+        int separator = arg.indexOf('=');
+        if (!arg.startsWith("--") || separator < 0) {
+            throw new IllegalArgumentException("Expected --key=value but got: " + arg);
+        }
+        String key = arg.substring(2, separator);
+        String value = arg.substring(separator + 1);
+        switch (key) {
+            case "base-url" -> baseUrl = value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+            case "target" -> target = value;
+            case "image" -> image = value;
+            case "rate" -> rate = Double.parseDouble(value);
+            case "duration" -> duration = parseDuration(value);
+            case "warmup" -> warmup = parseDuration(value);
+            case "report-interval" -> reportInterval = parseDuration(value);
+            case "request-timeout" -> requestTimeout = parseDuration(value);
+            case "visibility-timeout" -> visibilityTimeout = parseDuration(value);
+            case "visibility-poll-interval" -> visibilityPollInterval = parseDuration(value);
+            case "visibility-sample" -> visibilitySample = Double.parseDouble(value);
+            case "seed" -> seed = Integer.parseInt(value);
+            case "senders" -> senders = Integer.parseInt(value);
+            case "cleanup-minutes" -> cleanupMinutes = Integer.parseInt(value);
+            case "output" -> output = Path.of(value);
+            case "mix" -> mix = parseMix(value);
+            default -> throw new IllegalArgumentException("Unknown option: --" + key);
+        }
+        if (rate <= 0) {
+            throw new IllegalArgumentException("--rate must be positive");
+        }
+        if (!"url".equals(target) && !"testcontainers".equals(target)) {
+            throw new IllegalArgumentException("--target must be url or testcontainers");
+        }
+    }
+
+    /**
+     * 10s / 500ms / 2m / ISO-8601（PT10S）を受け付ける
+     */
+    static Duration parseDuration(String value) {
+        if (value.startsWith("PT") || value.startsWith("pt")) {
+            return Duration.parse(value);
+        }
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] pair = entry.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight but got: " + entry);
+            }
+            int weight = Integer.parseInt(pair[1]);
+            if (weight > 0) {
+                weights.put(Operation.fromName(pair[0]), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("--mix needs at least one operation with a positive weight");
+        }
+        return weights;
+    }
+
+    public static String usage() {
+        return """
+                Usage: gradle loadTest --args="[OPTIONS]"
+
+                  --base-url=URL              Target base URL (default: http://localhost:8888)
+                  --target=url|testcontainers Use --base-url or start Kafka/Redis/app with Testcontainers
+                  --image=IMAGE               App image for --target=testcontainers (gradle buildDockerImage)
+                  --profile=NAME              Preset: basic, mixed, spike, endurance
+                  --rate=N                    Arrival rate in requests per second (open model, default: 100)
+                  --duration=30s              Measured duration
+                  --warmup=5s                 Warmup duration (not recorded)
+                  --mix=write:30,read:40,...  Operation weights: write, read, sender, search, list, cleanup
+                  --visibility-sample=0.1     Fraction of writes probed for POST-to-GET visibility
+                  --seed=100                  Messages created before the run for read operations
+                  --output=build/loadtest     Directory for percentile distributions (.hgrm)
+                """;
+    }
+
+    public String getBaseUrl() { return baseUrl; }
+    public String getTarget() { return target; }
+    public String getImage() { return image; }
+    public double getRate() { return rate; }
+    public Duration getDuration() { return duration; }
+    public Duration getWarmup() { return warmup; }
+    public Duration getReportInterval() { return reportInterval; }
+    public Duration getRequestTimeout() { return requestTimeout; }
+    public Duration getVisibilityTimeout() { return visibilityTimeout; }
+    public Duration getVisibilityPollInterval() { return visibilityPollInterval; }
+    public double getVisibilitySample() { return visibilitySample; }
+    public int getSeed() { return seed; }
+    public int getSenders() { return senders; }
+    public int getCleanupMinutes() { return cleanupMinutes; }
+    public Path getOutput() { return output; }
+    public Map<Operation, Integer> getMix() { return mix; }
+}
@@ -0,0 +1,40 @@
+package com.example.playground.loadtest;
+
+/**
+ * 負荷テストで発行する操作
+ */
+public enum Operation {
+    /** POST /api/messages */
+    WRITE("write"),
+    /** GET /api/messages/{id}（作成済みのIDから選ぶ） */
+    READ("read"),
+    /** GET /api/messages/sender/{sender} */
+    SENDER("sender"),
+    /** GET /api/messages/search?q= */
+    SEARCH("search"),
+    /** GET /api/messages */
+    LIST("list"),
+    /** DELETE /api/messages/cleanup */
+    CLEANUP("cleanup"),
+    /** POSTの開始からGET /{id}が200を返すまで（書き込みの一部をサンプリング） */
+    VISIBILITY("visibility");
+
+    private final String label;
+
+    Operation(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public static Operation fromName(String name) {
+        for (Operation operation : values()) {
+            if (operation.label.equalsIgnoreCase(name.trim()) && operation != VISIBILITY) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + name);
+    }
+}
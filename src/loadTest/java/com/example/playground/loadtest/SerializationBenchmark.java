@@ -0,0 +1,226 @@
+package com.example.playground.loadtest;
+
+import com.example.playground.domain.model.Message;
+import com.example.playground.domain.model.MessageType;
+import com.example.playground.infrastructure.serde.FileSchemaRegistry;
+import com.example.playground.infrastructure.serde.MessageEventCodec;
+import com.example.playground.infrastructure.serde.MessageJsonCodec;
+import com.example.playground.presentation.controller.MessageListRenderer;
+import com.example.playground.presentation.controller.MessageListRenderer.Format;
+import com.example.playground.presentation.dto.MessageResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * シリアライズのアロケーションとサイズの比較（アプリのクラスを直接呼ぶマイクロベンチマーク）
+ * 1件あたりに確保したバイト数（スレッドごとのアロケーションカウンター）と出力のサイズを、置き換える前の経路と並べて出力する
+ *
+ * - 計測の前に同じ回数だけ実行してJITのコンパイルを済ませる
+ * - アロケーションはJITの最適化（エスケープ解析）やGCの設定で変わるため、単体テストでは比べずにここで計測する
+ *
+ * 実行: gradle serializationBenchmark --args="--iterations=50000"
+ */
+public class SerializationBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final MessageJsonCodec jsonCodec = new MessageJsonCodec(objectMapper);
+    private final int iterations;
+
+    public SerializationBenchmark(int iterations) {
+        this.iterations = iterations;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int iterations = 20_000;
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                System.err.println("❌ Expected --key=value but got: " + arg);
+                System.err.println(usage());
+                System.exit(2);
+                return;
+            }
+            String value = arg.substring(separator + 1);
+            switch (arg.substring(2, separator)) {
+                case "iterations" -> iterations = Integer.parseInt(value);
+                default -> {
+                    System.err.println("❌ Unknown option: " + arg);
+                    System.err.println(usage());
+                    System.exit(2);
+                    return;
+                }
+            }
+        }
+        new SerializationBenchmark(iterations).run();
+    }
+
+    static String usage() {
+        return """
+                Usage: gradle serializationBenchmark --args="[--key=value ...]"
+
+                  --iterations=N        Measured (and warm-up) iterations per path (default: 20000;
+                                        list responses of 100 messages use N/10)
+                """;
+    }
+
+    public void run() throws Exception {
+        System.out.printf("🚀 Serialization benchmark, %d iterations per path%n%n", iterations);
+        measureRecordPath();
+        measureEventPath();
+        measureListResponse();
+    }
+
+    /**
+     * Kafkaのレコード値 → Redisの値
+     * MessageJsonCodec（byte[]を直接読み書き）と、従来の経路（String → イベントDTO → Message → 保存用DTO → String → byte[]）
+     */
+    private void measureRecordPath() throws Exception {
+        Message message = new Message("01JABCDEFGHJKMNPQRSTVWXYZ0", "benchmark payload ".repeat(8), "sender-1",
+                LocalDateTime.of(2025, 1, 1, 10, 0, 0, 123000000), MessageType.INFO);
+        byte[] record = objectMapper.writeValueAsBytes(new LegacyEvent(message));
+
+        long legacyBytes = allocatedBytesPerIteration(() -> legacyPath(record));
+        long codecBytes = allocatedBytesPerIteration(() -> jsonCodec.write(jsonCodec.read(record)));
+
+        System.out.println("Kafka record -> Redis value (allocation per record)");
+        System.out.printf("  %-28s %,10d bytes%n", "legacy (String + DTOs)", legacyBytes);
+        System.out.printf("  %-28s %,10d bytes%n%n", "MessageJsonCodec", codecBytes);
+    }
+
+    /**
+     * Kafkaのレコード値の形式
+     * MessageEventCodec（Avro、スキーマのバージョン付き）と、従来のJSON（MessageJsonCodec）
+     */
+    private void measureEventPath() throws Exception {
+        Path registryDirectory = Files.createTempDirectory("serialization-benchmark-schemas");
+        MessageEventCodec eventCodec = new MessageEventCodec(new FileSchemaRegistry(registryDirectory), jsonCodec,
+                "messages");
+        Message message = new Message("01JABCDEFGHJKMNPQRSTVWXYZ0", "disk usage above 90%", "monitoring-agent",
+                LocalDateTime.of(2025, 1, 2, 3, 4, 5, 678_000), MessageType.WARNING);
+        byte[] json = jsonCodec.write(message);
+        byte[] avro = eventCodec.encode(message);
+
+        long jsonBytes = allocatedBytesPerIteration(() -> jsonCodec.read(jsonCodec.write(message)));
+        long avroBytes = allocatedBytesPerIteration(() -> eventCodec.decode(eventCodec.encode(message)));
+
+        System.out.println("Kafka record value (size / allocation per encode + decode)");
+        System.out.printf("  %-28s %,10d bytes %,10d bytes%n", "JSON", json.length, jsonBytes);
+        System.out.printf("  %-28s %,10d bytes %,10d bytes%n%n", "Avro (MessageEventCodec)", avro.length, avroBytes);
+    }
+
+    /**
+     * 一覧APIのレスポンス（100件）
+     * MessageListRenderer（Messageから直接書く）と、従来の経路（MessageResponseのリスト → ObjectMapper）
+     */
+    private void measureListResponse() throws Exception {
+        MessageListRenderer renderer = new MessageListRenderer();
+        List<Message> messages = new ArrayList<>();
+        MessageType[] types = MessageType.values();
+        for (int i = 0; i < 100; i++) {
+            messages.add(new Message(String.format("01JABCDEFGHJKMNPQRSTV%05d", i), "benchmark payload " + i,
+                    "sender-" + (i % 10), LocalDateTime.of(2025, 1, 1, 10, 0, i % 60, 123000000),
+                    types[i % types.length]));
+        }
+        int listIterations = Math.max(1, iterations / 10);
+
+        long dtoBytes = allocatedBytesPerIteration(listIterations,
+                () -> objectMapper.writeValueAsBytes(messages.stream().map(MessageResponse::from).toList()));
+        long rendererBytes = allocatedBytesPerIteration(listIterations, () -> renderer.render(messages, Format.JSON));
+        byte[] indented = objectMapper.writerWithDefaultPrettyPrinter()
+                .writeValueAsBytes(messages.stream().map(MessageResponse::from).toList());
+        byte[] json = renderer.render(messages, Format.JSON);
+        byte[] cbor = renderer.render(messages, Format.CBOR);
+        byte[] smile = renderer.render(messages, Format.SMILE);
+
+        System.out.printf("List response, %d messages (allocation per response, %d iterations)%n",
+                messages.size(), listIterations);
+        System.out.printf("  %-28s %,10d bytes%n", "MessageResponse DTOs", dtoBytes);
+        System.out.printf("  %-28s %,10d bytes%n", "MessageListRenderer", rendererBytes);
+        System.out.println("List response size (body / gzip)");
+        System.out.printf("  %-28s %,10d bytes %,10d bytes%n", "indented JSON (DTO)", indented.length, gzip(indented));
+        System.out.printf("  %-28s %,10d bytes %,10d bytes%n", "JSON", json.length, gzip(json));
+        System.out.printf("  %-28s %,10d bytes %,10d bytes%n", "CBOR", cbor.length, gzip(cbor));
+        System.out.printf("  %-28s %,10d bytes %,10d bytes%n%n", "Smile", smile.length, gzip(smile));
+    }
+
+    private static int gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.size();
+    }
+
+    private void legacyPath(byte[] record) throws Exception {
+        String json = new String(record, StandardCharsets.UTF_8);
+        LegacyEvent event = objectMapper.readValue(json, LegacyEvent.class);
+        Message message = new Message(event.id, event.content, event.sender,
+                LocalDateTime.parse(event.timestamp), MessageType.valueOf(event.type));
+        Map<String, Object> dto = new LinkedHashMap<>();
+        dto.put("id", message.getId());
+        dto.put("content", message.getContent());
+        dto.put("sender", message.getSender());
+        dto.put("timestamp", message.getTimestamp());
+        dto.put("type", message.getType().name());
+        objectMapper.writeValueAsString(dto).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 同じ回数だけ空回ししてから計測し、1回あたりに確保したバイト数を返す
+     */
+    private long allocatedBytesPerIteration(ThrowingRunnable body) throws Exception {
+        return allocatedBytesPerIteration(iterations, body);
+    }
+
+    private static long allocatedBytesPerIteration(int iterations, ThrowingRunnable body) throws Exception {
+        for (int i = 0; i < iterations; i++) {
+            body.run();
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            body.run();
+        }
+        return (threads.getThreadAllocatedBytes(threadId) - before) / iterations;
+    }
+
+    /**
+     * MessageJsonCodec導入前にKafkaへ送っていたJSONイベント（timestampとtypeは文字列）
+     */
+    static class LegacyEvent {
+        public String id;
+        public String content;
+        public String sender;
+        public String timestamp;
+        public String type;
+
+        LegacyEvent() {}
+
+        LegacyEvent(Message message) {
+            this.id = message.getId();
+            this.content = message.getContent();
+            this.sender = message.getSender();
+            this.timestamp = message.getTimestamp().toString();
+            this.type = message.getType().name();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
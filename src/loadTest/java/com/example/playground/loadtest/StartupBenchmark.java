@@ -0,0 +1,278 @@
+package com.example.playground.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 起動時間とメモリ使用量の計測
+ * アプリケーションを別プロセスで繰り返し起動し、readiness（/actuator/health/readiness）がUPになるまでの時間と
+ * その時点・数秒後のRSSを起動方法ごとに出力する
+ *
+ * - baseline: java -jar（既定の起動）
+ * - lazy: fast-start プロファイル（遅延初期化・トピックの確認を後回し）
+ * - cds: 展開したjar + CDSアーカイブ（gradle cdsArchive）+ fast-start
+ * - cds+aot: さらにSpring AOTの初期化コードを使う（gradle cdsArchive -PfastStart）
+ *
+ * Kafka・Redisなしで計測できるよう、既定では inmemory プロファイルで起動する。
+ * AOTはビルド時のプロファイルで条件が確定するため、cds+aot は -PaotProfiles=inmemory,fast-start でビルドしておく。
+ *
+ * 実行: gradle cdsArchive -PfastStart -PaotProfiles=inmemory,fast-start && gradle startupBenchmark --args="--runs=5"
+ */
+public class StartupBenchmark {
+
+    private static final Pattern STARTED = Pattern.compile("Started \\S+ in ([0-9.]+) seconds");
+    // 展開したjarではクラスはjarの直下にある（bootJarでは BOOT-INF/classes/ の下）
+    private static final String AOT_INITIALIZER =
+            "com/example/playground/KafkaRedisPlaygroundApplication__ApplicationContextInitializer.class";
+
+    private final String java = ProcessHandle.current().info().command().orElse("java");
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+    private final Path logDirectory = Path.of("build", "startup-benchmark");
+    private final String profiles;
+    private final int runs;
+    private final int port;
+    private final Duration timeout;
+    private final Duration settle;
+
+    /**
+     * 起動方法
+     *
+     * @param jvmArgs jarの指定より前に付けるJVMオプション
+     * @param jar     起動するjar
+     */
+    private record Variant(String name, List<String> jvmArgs, Path jar, String profiles) {
+    }
+
+    public StartupBenchmark(String profiles, int runs, int port, Duration timeout, Duration settle) {
+        this.profiles = profiles;
+        this.runs = runs;
+        this.port = port;
+        this.timeout = timeout;
+        this.settle = settle;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of("build/libs/kafka-redis-playground-1.0.0.jar");
+        Path extracted = Path.of("build/fast-start");
+        String profiles = "inmemory";
+        List<String> only = null;
+        int runs = 3;
+        int port = 18888;
+        Duration timeout = Duration.ofSeconds(120);
+        Duration settle = Duration.ofSeconds(5);
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                System.err.println("❌ Expected --key=value but got: " + arg);
+                System.err.println(usage());
+                System.exit(2);
+                return;
+            }
+            String value = arg.substring(separator + 1);
+            switch (arg.substring(2, separator)) {
+                case "jar" -> jar = Path.of(value);
+                case "extracted" -> extracted = Path.of(value);
+                case "profiles" -> profiles = value;
+                case "variants" -> only = Arrays.asList(value.split(","));
+                case "runs" -> runs = Integer.parseInt(value);
+                case "port" -> port = Integer.parseInt(value);
+                case "timeout" -> timeout = Duration.parse("PT" + value.toUpperCase());
+                case "settle" -> settle = Duration.parse("PT" + value.toUpperCase());
+                default -> {
+                    System.err.println("❌ Unknown option: " + arg);
+                    System.err.println(usage());
+                    System.exit(2);
+                    return;
+                }
+            }
+        }
+        StartupBenchmark benchmark = new StartupBenchmark(profiles, runs, port, timeout, settle);
+        benchmark.run(benchmark.variants(jar, extracted, only));
+    }
+
+    static String usage() {
+        return """
+                Usage: gradle startupBenchmark --args="[--key=value ...]"
+
+                  --jar=PATH            Boot jar for the baseline and lazy variants (default: build/libs/kafka-redis-playground-1.0.0.jar)
+                  --extracted=DIR       Output of 'gradle cdsArchive' for the cds variants (default: build/fast-start)
+                  --profiles=LIST       Spring profiles for every variant (default: inmemory)
+                  --variants=LIST       Subset of baseline,lazy,cds,cds+aot (default: all that are available)
+                  --runs=N              Starts per variant (default: 3)
+                  --port=N              HTTP port of the started application (default: 18888)
+                  --timeout=DURATION    Give up waiting for readiness, e.g. 120s (default: 120s)
+                  --settle=DURATION     Wait after readiness before the second RSS sample, e.g. 5s (default: 5s)
+                """;
+    }
+
+    /**
+     * 前提のファイルがそろっている起動方法を返す
+     */
+    List<Variant> variants(Path jar, Path extracted, List<String> only) throws IOException {
+        String fastStart = profiles.isBlank() ? "fast-start" : profiles + ",fast-start";
+        List<Variant> variants = new ArrayList<>();
+        variants.add(new Variant("baseline", List.of(), jar, profiles));
+        variants.add(new Variant("lazy", List.of(), jar, fastStart));
+
+        Path archive = extracted.resolve("application.jsa");
+        Path extractedJar = extracted.resolve(jar.getFileName());
+        if (Files.exists(archive) && Files.exists(extractedJar)) {
+            List<String> cds = List.of("-XX:SharedArchiveFile=" + archive, "-Xlog:cds=off", "-Xlog:cds+dynamic=off");
+            variants.add(new Variant("cds", cds, extractedJar, fastStart));
+            if (containsAotInitializer(extractedJar)) {
+                List<String> aot = new ArrayList<>(cds);
+                aot.add("-Dspring.aot.enabled=true");
+                variants.add(new Variant("cds+aot", aot, extractedJar, fastStart));
+            } else {
+                System.out.println("ℹ️ Skipping cds+aot: build the archive with 'gradle cdsArchive -PfastStart'");
+            }
+        } else {
+            System.out.println("ℹ️ Skipping cds and cds+aot: run 'gradle cdsArchive' first");
+        }
+        if (only != null) {
+            variants.removeIf(variant -> !only.contains(variant.name()));
+        }
+        return variants;
+    }
+
+    private static boolean containsAotInitializer(Path jar) throws IOException {
+        try (JarFile file = new JarFile(jar.toFile())) {
+            return file.getEntry(AOT_INITIALIZER) != null;
+        }
+    }
+
+    public void run(List<Variant> variants) throws Exception {
+        Files.createDirectories(logDirectory);
+        System.out.printf("🚀 %d runs per variant, ready = GET /actuator/health/readiness returns 200%n%n", runs);
+        List<String> lines = new ArrayList<>();
+        for (Variant variant : variants) {
+            List<Sample> samples = new ArrayList<>();
+            for (int i = 1; i <= runs; i++) {
+                Sample sample = measure(variant, i);
+                System.out.printf("[%s #%d] ready=%dms started=%s rss@ready=%s rss@settled=%s%n", variant.name(), i,
+                        sample.readyMillis(), seconds(sample.startedSeconds()), megabytes(sample.rssAtReady()),
+                        megabytes(sample.rssSettled()));
+                samples.add(sample);
+            }
+            lines.add(summarize(variant, samples));
+        }
+        System.out.println();
+        System.out.printf("%-10s %11s %11s %12s %12s %12s%n", "variant", "ready p50", "ready min", "started p50",
+                "rss@ready", "rss@settled");
+        lines.forEach(System.out::println);
+        System.out.println();
+        System.out.println("Ready includes JVM startup. 'started' is what Spring Boot logs (context only).");
+        System.out.println("Application logs written to " + logDirectory.toAbsolutePath());
+    }
+
+    private Sample measure(Variant variant, int run) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(variant.jvmArgs());
+        command.add("-jar");
+        command.add(variant.jar().toString());
+        command.add("--server.port=" + port);
+        command.add("--spring.profiles.active=" + variant.profiles());
+        Path log = logDirectory.resolve(variant.name().replace('+', '-') + "-" + run + ".log");
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            long readyMillis = awaitReady(process, start);
+            long rssAtReady = rss(process.pid());
+            Thread.sleep(settle.toMillis());
+            long rssSettled = rss(process.pid());
+            return new Sample(readyMillis, startedSeconds(log), rssAtReady, rssSettled);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    /**
+     * readinessがUPになるまで待つ
+     *
+     * @return プロセスの起動からの経過時間（ミリ秒）
+     */
+    private long awaitReady(Process process, long start) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health/readiness"))
+                .timeout(Duration.ofSeconds(1))
+                .GET()
+                .build();
+        long deadline = start + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IOException("Application exited with code " + process.exitValue() + " before becoming ready");
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return (System.nanoTime() - start) / 1_000_000;
+                }
+            } catch (IOException e) {
+                // まだポートを開いていない
+            }
+            Thread.sleep(10);
+        }
+        throw new IOException("Application did not become ready within " + timeout);
+    }
+
+    /**
+     * プロセスのRSS（バイト）。/proc がない環境では -1
+     */
+    private static long rss(long pid) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Linux以外
+        }
+        return -1;
+    }
+
+    private static double startedSeconds(Path log) throws IOException {
+        Matcher matcher = STARTED.matcher(Files.readString(log));
+        return matcher.find() ? Double.parseDouble(matcher.group(1)) : -1;
+    }
+
+    private static String summarize(Variant variant, List<Sample> samples) {
+        long[] ready = samples.stream().mapToLong(Sample::readyMillis).sorted().toArray();
+        double[] started = samples.stream().mapToDouble(Sample::startedSeconds).sorted().toArray();
+        long[] rssAtReady = samples.stream().mapToLong(Sample::rssAtReady).sorted().toArray();
+        long[] rssSettled = samples.stream().mapToLong(Sample::rssSettled).sorted().toArray();
+        return String.format("%-10s %9dms %9dms %12s %12s %12s", variant.name(), ready[ready.length / 2], ready[0],
+                seconds(started[started.length / 2]), megabytes(rssAtReady[rssAtReady.length / 2]),
+                megabytes(rssSettled[rssSettled.length / 2]));
+    }
+
+    private static String seconds(double value) {
+        return value < 0 ? "n/a" : String.format("%.2fs", value);
+    }
+
+    private static String megabytes(long bytes) {
+        return bytes < 0 ? "n/a" : String.format("%.0fMB", bytes / 1048576.0);
+    }
+
+    private record Sample(long readyMillis, double startedSeconds, long rssAtReady, long rssSettled) {
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.playground.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 障害の注入中も固定の到着レートで書き込み（POST /api/messages）を続ける負荷
+ *
+ * LoadGeneratorと同じオープンモデル（応答を待たずに送信し、レイテンシは予定していた送信時刻から計測する）。
+ * 区間（Phase）ごとに予定数・成功数・失敗の内訳・レイテンシと、受け付けられたメッセージIDを集計する。
+ * リクエストは予定時刻の区間に数える（区間の切り替え後に返ってきた応答も元の区間に入る）
+ */
+public class SteadyWriteLoad implements AutoCloseable {
+
+    private static final String API_PATH = "/api/messages";
+    private static final String[] TYPES = {"INFO", "INFO", "INFO", "SUCCESS", "WARNING", "ERROR"};
+
+    private final String baseUrl;
+    private final double rate;
+    private final int senders;
+    private final Duration requestTimeout;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Thread scheduler;
+    private volatile Phase current;
+    private volatile boolean running = true;
+
+    public SteadyWriteLoad(String baseUrl, double rate, int senders, Duration requestTimeout) {
+        this.baseUrl = baseUrl;
+        this.rate = rate;
+        this.senders = senders;
+        this.requestTimeout = requestTimeout;
+        this.current = new Phase("warmup");
+        this.scheduler = new Thread(this::schedule, "chaos-load-scheduler");
+    }
+
+    public void start() {
+        scheduler.start();
+    }
+
+    /**
+     * 新しい区間を始める（以降に予定されたリクエストはこの区間に数える）
+     */
+    public Phase begin(String name) {
+        Phase phase = new Phase(name);
+        Phase previous = current;
+        current = phase;
+        previous.end();
+        return phase;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    private void schedule() {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long startNanos = System.nanoTime();
+        for (long i = 0; running; i++) {
+            long intended = startNanos + i * intervalNanos;
+            long now;
+            while ((now = System.nanoTime()) < intended) {
+                LockSupport.parkNanos(intended - now);
+            }
+            Phase phase = current;
+            phase.scheduled.increment();
+            long n = i;
+            executor.execute(() -> write(phase, n, intended));
+        }
+    }
+
+    /**
+     * 1件書き込んで記録する（仮想スレッド上で呼ばれる）
+     */
+    private void write(Phase phase, long n, long intendedStartNanos) {
+        String body = "{\"content\":\"Chaos test message " + sequence.incrementAndGet() + "\",\"sender\":\"chaos-user-"
+                + (n % senders) + "\",\"type\":\"" + TYPES[(int) (n % TYPES.length)] + "\"}";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + API_PATH))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            phase.latency.recordValue(micros(System.nanoTime() - intendedStartNanos));
+            if (response.statusCode() / 100 != 2) {
+                phase.failed("HTTP " + response.statusCode());
+                return;
+            }
+            JsonNode id = objectMapper.readTree(response.body()).get("id");
+            if (id == null) {
+                phase.failed("no id");
+                return;
+            }
+            phase.ackedIds.add(id.asText());
+            phase.acked.increment();
+        } catch (HttpTimeoutException e) {
+            phase.latency.recordValue(micros(System.nanoTime() - intendedStartNanos));
+            phase.failed("timeout");
+        } catch (IOException e) {
+            phase.latency.recordValue(micros(System.nanoTime() - intendedStartNanos));
+            phase.failed(e.getClass().getSimpleName());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long micros(long nanos) {
+        return Math.min(Math.max(0, nanos / 1000), Phase.HIGHEST_TRACKABLE_MICROS);
+    }
+
+    /**
+     * 送信を止め、送信済みのリクエストの完了を待つ
+     */
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        scheduler.join();
+        executor.close();
+        current.end();
+    }
+
+    /**
+     * 1区間の集計
+     */
+    public static class Phase {
+
+        private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+        private final String name;
+        private final long startNanos = System.nanoTime();
+        private volatile long endNanos;
+        private final LongAdder scheduled = new LongAdder();
+        private final LongAdder acked = new LongAdder();
+        private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+        private final Histogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final Queue<String> ackedIds = new ConcurrentLinkedQueue<>();
+
+        Phase(String name) {
+            this.name = name;
+        }
+
+        void end() {
+            if (endNanos == 0) {
+                endNanos = System.nanoTime();
+            }
+        }
+
+        void failed(String reason) {
+            failures.computeIfAbsent(reason, key -> new LongAdder()).increment();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getSeconds() {
+            return ((endNanos == 0 ? System.nanoTime() : endNanos) - startNanos) / 1e9;
+        }
+
+        public long getScheduled() {
+            return scheduled.sum();
+        }
+
+        public long getAcked() {
+            return acked.sum();
+        }
+
+        /**
+         * 成功した書き込み / 予定した書き込み
+         */
+        public double getSuccessRatio() {
+            long total = scheduled.sum();
+            return total == 0 ? 1 : (double) acked.sum() / total;
+        }
+
+        public double getAckedPerSecond() {
+            return acked.sum() / Math.max(getSeconds(), 1e-9);
+        }
+
+        public Duration getP99() {
+            return Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(latency.getValueAtPercentile(99)));
+        }
+
+        /**
+         * 失敗の内訳（例: HTTP 503=12, timeout=3）
+         */
+        public String describeFailures() {
+            List<String> parts = new ArrayList<>();
+            failures.forEach((reason, count) -> parts.add(reason + "=" + count.sum()));
+            return parts.isEmpty() ? "none" : String.join(", ", parts);
+        }
+
+        public List<String> getAckedIds() {
+            return List.copyOf(ackedIds);
+        }
+    }
+}
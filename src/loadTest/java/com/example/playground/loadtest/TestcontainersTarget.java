@@ -0,0 +1,62 @@
+package com.example.playground.loadtest;
+
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.kafka.ConfluentKafkaContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+
+/**
+ * Testcontainersで Kafka・Redis・アプリ を起動する負荷テストの対象
+ * アプリのイメージは事前に `gradle buildDockerImage` で作っておく
+ */
+public class TestcontainersTarget implements AutoCloseable {
+
+    private static final int APP_PORT = 8888;
+
+    private final Network network = Network.newNetwork();
+    private final ConfluentKafkaContainer kafka;
+    private final GenericContainer<?> redis;
+    private final GenericContainer<?> app;
+
+    public TestcontainersTarget(String appImage) {
+        // docker-compose.yml と同じイメージを使う
+        this.kafka = new ConfluentKafkaContainer("confluentinc/cp-kafka:7.4.0")
+                .withNetwork(network)
+                .withListener("kafka:19092");
+        this.redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+                .withNetwork(network)
+                .withNetworkAliases("redis")
+                .withExposedPorts(6379);
+        this.app = new GenericContainer<>(DockerImageName.parse(appImage))
+                .withNetwork(network)
+                .withEnv("SPRING_KAFKA_BOOTSTRAP_SERVERS", "kafka:19092")
+                .withEnv("SPRING_DATA_REDIS_HOST", "redis")
+                .withEnv("SPRING_DATA_REDIS_PORT", "6379")
+                .withExposedPorts(APP_PORT)
+                .dependsOn(kafka, redis)
+                .waitingFor(Wait.forHttp("/actuator/health/readiness")
+                        .forPort(APP_PORT)
+                        .forStatusCode(200)
+                        .withStartupTimeout(Duration.ofMinutes(3)));
+    }
+
+    /**
+     * コンテナを起動してアプリのベースURLを返す
+     */
+    public String start() {
+        System.out.println("🐳 Starting Kafka, Redis and " + app.getDockerImageName() + " with Testcontainers...");
+        app.start();
+        return "http://" + app.getHost() + ":" + app.getMappedPort(APP_PORT);
+    }
+
+    @Override
+    public void close() {
+        app.stop();
+        redis.stop();
+        kafka.stop();
+        network.close();
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.playground.application.analytics;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * ウィンドウ集計（マテリアライズドビュー）の問い合わせインターフェース
+ * Redisのインデックスを全件走査せずに答えられない時間窓付きの問い合わせを扱う
+ */
+public interface MessageAnalytics {
+    
+    /**
+     * 直近の時間窓における送信者ごとの緊急メッセージ数
+     * @param window 時間窓（1分単位、ストアの保持期間まで）
+     * @return 送信者 → 件数（件数の多い順）
+     */
+    Map<String, Long> urgentCountsBySender(Duration window);
+    
+    /**
+     * 指定した1時間の送信者別メッセージ数の上位
+     * @param hour 対象の時間に含まれる任意の時刻（時単位に切り捨て）
+     * @param limit 上位件数
+     * @return 送信者 → 件数（件数の多い順）
+     */
+    Map<String, Long> topSendersForHour(Instant hour, int limit);
+}
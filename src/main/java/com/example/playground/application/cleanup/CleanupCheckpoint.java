@@ -0,0 +1,43 @@
+package com.example.playground.application.cleanup;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Objects;
+
+/**
+ * クリーンアップジョブの再開用カーソル
+ * 削除は時刻インデックスの古い順に進むため、cutoffさえ分かれば続きから再開できる
+ */
+public class CleanupCheckpoint {
+    
+    private final LocalDateTime cutoff;
+    private final long deletedCount;
+    private final long batches;
+    private final LocalDateTime updatedAt;
+    
+    public CleanupCheckpoint(LocalDateTime cutoff, long deletedCount, long batches, LocalDateTime updatedAt) {
+        this.cutoff = Objects.requireNonNull(cutoff, "Checkpoint cutoff cannot be null");
+        this.deletedCount = deletedCount;
+        this.batches = batches;
+        this.updatedAt = Objects.requireNonNull(updatedAt, "Checkpoint updatedAt cannot be null");
+    }
+    
+    /**
+     * 新しいジョブの開始地点
+     */
+    public static CleanupCheckpoint start(LocalDateTime cutoff) {
+        return new CleanupCheckpoint(cutoff, 0, 0, LocalDateTime.now(ZoneOffset.UTC));
+    }
+    
+    /**
+     * 1チャンク処理後のチェックポイント
+     */
+    public CleanupCheckpoint advance(int deleted) {
+        return new CleanupCheckpoint(cutoff, deletedCount + deleted, batches + 1, LocalDateTime.now(ZoneOffset.UTC));
+    }
+    
+    public LocalDateTime getCutoff() { return cutoff; }
+    public long getDeletedCount() { return deletedCount; }
+    public long getBatches() { return batches; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
@@ -0,0 +1,50 @@
+package com.example.playground.application.cleanup;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * クリーンアップジョブのノード間調整インターフェース
+ * 複数インスタンスで同時にクリーンアップが走らないよう分散ロックを提供し、
+ * 中断したジョブを別ノードが再開できるようチェックポイントを共有する
+ */
+public interface CleanupCoordinator {
+    
+    /**
+     * ロックの取得を試みる
+     * @param ttl ロックの有効期限（ノードが落ちた場合に自動解放される）
+     * @return 取得できた場合はロックトークン、他ノードが保持中の場合はOptional.empty()
+     */
+    Optional<String> tryLock(Duration ttl);
+    
+    /**
+     * 保持中のロックの有効期限を延長する
+     * @param token tryLockで得たトークン
+     * @param ttl 新しい有効期限
+     * @return まだロックを保持していればtrue
+     */
+    boolean extendLock(String token, Duration ttl);
+    
+    /**
+     * ロックを解放する（自分のトークンの場合のみ）
+     * @param token tryLockで得たトークン
+     */
+    void unlock(String token);
+    
+    /**
+     * 中断されたジョブのチェックポイントを取得する
+     * @return チェックポイント（存在しない場合はOptional.empty()）
+     */
+    Optional<CleanupCheckpoint> loadCheckpoint();
+    
+    /**
+     * チェックポイントを保存する
+     * @param checkpoint 保存するチェックポイント
+     */
+    void saveCheckpoint(CleanupCheckpoint checkpoint);
+    
+    /**
+     * ジョブ完了時にチェックポイントを削除する
+     */
+    void clearCheckpoint();
+}
@@ -0,0 +1,57 @@
+package com.example.playground.application.cleanup;
+
+import java.time.LocalDateTime;
+
+/**
+ * クリーンアップジョブの進捗スナップショット
+ * actuatorエンドポイントとREST APIのレスポンスで使用
+ */
+public class CleanupStatus {
+    
+    /**
+     * ジョブの状態
+     */
+    public enum State {
+        IDLE,
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        SKIPPED,
+        FAILED
+    }
+    
+    private final State state;
+    private final LocalDateTime cutoff;
+    private final long deletedCount;
+    private final long batches;
+    private final LocalDateTime startedAt;
+    private final LocalDateTime finishedAt;
+    private final String detail;
+    
+    public CleanupStatus(State state, LocalDateTime cutoff, long deletedCount, long batches,
+                         LocalDateTime startedAt, LocalDateTime finishedAt, String detail) {
+        this.state = state;
+        this.cutoff = cutoff;
+        this.deletedCount = deletedCount;
+        this.batches = batches;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+        this.detail = detail;
+    }
+    
+    public static CleanupStatus idle() {
+        return new CleanupStatus(State.IDLE, null, 0, 0, null, null, null);
+    }
+    
+    public boolean isActive() {
+        return state == State.QUEUED || state == State.RUNNING;
+    }
+    
+    public State getState() { return state; }
+    public LocalDateTime getCutoff() { return cutoff; }
+    public long getDeletedCount() { return deletedCount; }
+    public long getBatches() { return batches; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public String getDetail() { return detail; }
+}
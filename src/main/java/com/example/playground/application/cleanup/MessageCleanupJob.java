@@ -0,0 +1,201 @@
+package com.example.playground.application.cleanup;
+
+import com.example.playground.domain.repository.MessageRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 古いメッセージをバックグラウンドで削除するジョブ
+ * HTTPリクエストスレッドでは起動するだけで、削除は専用スレッドが小さなチャンク単位で行う。
+ * チャンク間に待ち時間を挟んでRedisを占有しないようにし、フォアグラウンドの読み取りを妨げない
+ */
+@Service
+public class MessageCleanupJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageCleanupJob.class);
+
+    private final MessageRepository messageRepository;
+    private final CleanupCoordinator coordinator;
+    private final ExecutorService executor;
+    private final AtomicReference<CleanupStatus> status = new AtomicReference<>(CleanupStatus.idle());
+
+    @Value("${app.cleanup.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.cleanup.max-batches-per-second:5}")
+    private double maxBatchesPerSecond;
+
+    @Value("${app.cleanup.lock-ttl:30s}")
+    private Duration lockTtl;
+
+    @Value("${app.cleanup.schedule.enabled:false}")
+    private boolean scheduleEnabled;
+
+    @Value("${app.cleanup.schedule.retention-minutes:1440}")
+    private int retentionMinutes;
+
+    public MessageCleanupJob(MessageRepository messageRepository, CleanupCoordinator coordinator) {
+        this.messageRepository = messageRepository;
+        this.coordinator = coordinator;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "message-cleanup");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /**
+     * クリーンアップを起動する（非同期）
+     * このノードで既に実行中の場合は新しいジョブを積まずに現在の状態を返す
+     * @param minutes 何分前より古いメッセージを削除するか
+     * @return 起動後のジョブ状態
+     */
+    public CleanupStatus trigger(int minutes) {
+        return submit(CleanupCheckpoint.start(LocalDateTime.now(ZoneOffset.UTC).minusMinutes(minutes)));
+    }
+
+    /**
+     * 定期実行
+     * 他ノードで中断されたジョブのチェックポイントがあれば優先して再開する
+     */
+    @Scheduled(
+        initialDelayString = "${app.cleanup.schedule.initial-delay:PT1M}",
+        fixedDelayString = "${app.cleanup.schedule.interval:PT5M}"
+    )
+    public void scheduledRun() {
+        if (!scheduleEnabled || status.get().isActive()) {
+            return;
+        }
+
+        Optional<CleanupCheckpoint> checkpoint = coordinator.loadCheckpoint();
+        if (checkpoint.isPresent()) {
+            logger.info("🔁 Resuming interrupted cleanup: cutoff={}, deleted={}",
+                    checkpoint.get().getCutoff(), checkpoint.get().getDeletedCount());
+            submit(checkpoint.get());
+        } else {
+            submit(CleanupCheckpoint.start(LocalDateTime.now(ZoneOffset.UTC).minusMinutes(retentionMinutes)));
+        }
+    }
+
+    /**
+     * 現在のジョブ状態を取得する
+     */
+    public CleanupStatus getStatus() {
+        return status.get();
+    }
+
+    /**
+     * 共有されているチェックポイント（再開用カーソル）を取得する
+     */
+    public Optional<CleanupCheckpoint> getCheckpoint() {
+        return coordinator.loadCheckpoint();
+    }
+
+    private CleanupStatus submit(CleanupCheckpoint start) {
+        CleanupStatus current = status.get();
+        if (current.isActive()) {
+            return current;
+        }
+
+        CleanupStatus queued = new CleanupStatus(CleanupStatus.State.QUEUED, start.getCutoff(),
+                start.getDeletedCount(), start.getBatches(), null, null, null);
+        if (!status.compareAndSet(current, queued)) {
+            return status.get();
+        }
+
+        executor.submit(() -> run(start));
+        return queued;
+    }
+
+    private void run(CleanupCheckpoint start) {
+        LocalDateTime startedAt = LocalDateTime.now(ZoneOffset.UTC);
+        CleanupCheckpoint checkpoint = start;
+        long pauseMs = maxBatchesPerSecond > 0 ? (long) (1000 / maxBatchesPerSecond) : 0;
+        Optional<String> token = Optional.empty();
+        try {
+            // ロックの取得も失敗しうる（Redis障害など）ので、QUEUEDのまま残さないようにtryの中で行う
+            token = coordinator.tryLock(lockTtl);
+            if (token.isEmpty()) {
+                logger.info("🔒 Cleanup skipped: another instance holds the lock");
+                status.set(new CleanupStatus(CleanupStatus.State.SKIPPED, start.getCutoff(), 0, 0,
+                        startedAt, LocalDateTime.now(ZoneOffset.UTC), "Another instance is running cleanup"));
+                return;
+            }
+
+            coordinator.saveCheckpoint(checkpoint);
+            while (true) {
+                status.set(running(checkpoint, startedAt));
+
+                if (!coordinator.extendLock(token.get(), lockTtl)) {
+                    // 有効期限切れで他ノードに取られた場合は二重実行を避けて中断する
+                    throw new IllegalStateException("Cleanup lock was lost");
+                }
+
+                int deleted = messageRepository.deleteOlderThan(checkpoint.getCutoff(), batchSize);
+                checkpoint = checkpoint.advance(deleted);
+                coordinator.saveCheckpoint(checkpoint);
+
+                if (deleted < batchSize) {
+                    break;
+                }
+                if (pauseMs > 0) {
+                    Thread.sleep(pauseMs);
+                }
+            }
+
+            coordinator.clearCheckpoint();
+            status.set(new CleanupStatus(CleanupStatus.State.COMPLETED, checkpoint.getCutoff(),
+                    checkpoint.getDeletedCount(), checkpoint.getBatches(), startedAt,
+                    LocalDateTime.now(ZoneOffset.UTC), null));
+            logger.info("🧹 Cleanup completed: cutoff={}, deleted={}, batches={}",
+                    checkpoint.getCutoff(), checkpoint.getDeletedCount(), checkpoint.getBatches());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status.set(failed(checkpoint, startedAt, "Interrupted"));
+        } catch (Exception e) {
+            // チェックポイントは残しておき、次回の定期実行で再開させる
+            logger.error("💥 Cleanup failed: cutoff={}, deleted={}", checkpoint.getCutoff(),
+                    checkpoint.getDeletedCount(), e);
+            status.set(failed(checkpoint, startedAt, e.getMessage()));
+        } finally {
+            token.ifPresent(this::unlock);
+        }
+    }
+
+    private void unlock(String token) {
+        try {
+            coordinator.unlock(token);
+        } catch (RuntimeException e) {
+            // 解放できなくてもロックは有効期限で外れる
+            logger.warn("⚠️ Failed to release cleanup lock", e);
+        }
+    }
+
+    private CleanupStatus running(CleanupCheckpoint checkpoint, LocalDateTime startedAt) {
+        return new CleanupStatus(CleanupStatus.State.RUNNING, checkpoint.getCutoff(),
+                checkpoint.getDeletedCount(), checkpoint.getBatches(), startedAt, null, null);
+    }
+
+    private CleanupStatus failed(CleanupCheckpoint checkpoint, LocalDateTime startedAt, String detail) {
+        return new CleanupStatus(CleanupStatus.State.FAILED, checkpoint.getCutoff(),
+                checkpoint.getDeletedCount(), checkpoint.getBatches(), startedAt, LocalDateTime.now(ZoneOffset.UTC), detail);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.playground.application.service;
+
+/**
+ * 依存先（Redis / Kafka）が一時的に利用できないことを表す例外
+ * サーキットブレーカーが開いている・同時実行数の上限に達している・タイムアウトした場合に送出され、
+ * 呼び出し元は待たずに失敗を返す（HTTPでは 503 Service Unavailable）
+ */
+public class DependencyUnavailableException extends RuntimeException {
+    
+    private final String dependency;
+    private final boolean saturated;
+    
+    /**
+     * @param dependency 依存先の名前（例: redis, kafka）
+     * @param saturated 同時実行数の上限による拒否の場合はtrue（依存先自体は正常）
+     * @param cause 原因となった例外
+     */
+    public DependencyUnavailableException(String dependency, boolean saturated, Throwable cause) {
+        super(dependency + " is temporarily unavailable: " + cause.getMessage(), cause);
+        this.dependency = dependency;
+        this.saturated = saturated;
+    }
+    
+    public String getDependency() {
+        return dependency;
+    }
+    
+    public boolean isSaturated() {
+        return saturated;
+    }
+}
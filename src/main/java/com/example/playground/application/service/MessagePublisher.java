@@ -2,6 +2,8 @@ package com.example.playground.application.service;
 
 import com.example.playground.domain.model.Message;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * メッセージ送信インターフェース
  * アプリケーション層でKafkaへのメッセージ送信を抽象化
@@ -13,4 +15,12 @@ public interface MessagePublisher {
      * @param message 送信するメッセージ
      */
     void publish(Message message);
+    
+    /**
+     * メッセージの削除を通知する（compactトピックにtombstoneを送る）
+     * トピックからの状態の再構築で、削除済みのメッセージが復活しないようにする
+     * @param id 削除するメッセージのID
+     * @return tombstoneがKafkaに届いたら完了し、届かなかった場合は例外で完了するFuture
+     */
+    CompletableFuture<Void> publishDeletion(String id);
 }
@@ -1,11 +1,28 @@
 package com.example.playground.application.service;
 
+import com.example.playground.application.cleanup.CleanupStatus;
+import com.example.playground.application.cleanup.MessageCleanupJob;
 import com.example.playground.domain.model.Message;
+import com.example.playground.domain.model.MessageIdGenerator;
+import com.example.playground.domain.model.MessageStats;
 import com.example.playground.domain.model.MessageType;
 import com.example.playground.domain.repository.MessageRepository;
+import com.example.playground.domain.repository.MessageStatsRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * メッセージ関連のアプリケーションサービス
@@ -14,12 +31,33 @@ import java.util.Optional;
 @Service
 public class MessageService {
     
+    /**
+     * 一括削除で1度に扱うIDの数（tombstoneの送信とリポジトリからの削除をこの単位で交互に行う）
+     */
+    private static final int BULK_DELETE_CHUNK_SIZE = 500;
+    
     private final MessageRepository messageRepository;
     private final MessagePublisher messagePublisher;
+    private final MessageCleanupJob cleanupJob;
+    private final MessageStatsRepository messageStatsRepository;
+    private final MessageIdGenerator messageIdGenerator;
+    private final SenderRateLimiter senderRateLimiter;
+    
+    /**
+     * 削除前にtombstoneがKafkaに届くのを待つ最大時間
+     */
+    @Value("${app.kafka.producer.deletion-ack-timeout:PT5S}")
+    private Duration deletionAckTimeout;
     
-    public MessageService(MessageRepository messageRepository, MessagePublisher messagePublisher) {
+    public MessageService(MessageRepository messageRepository, MessagePublisher messagePublisher,
+                          MessageCleanupJob cleanupJob, MessageStatsRepository messageStatsRepository,
+                          MessageIdGenerator messageIdGenerator, SenderRateLimiter senderRateLimiter) {
         this.messageRepository = messageRepository;
         this.messagePublisher = messagePublisher;
+        this.cleanupJob = cleanupJob;
+        this.messageStatsRepository = messageStatsRepository;
+        this.messageIdGenerator = messageIdGenerator;
+        this.senderRateLimiter = senderRateLimiter;
     }
     
     /**
@@ -29,9 +67,16 @@ public class MessageService {
      * @param sender 送信者
      * @param type メッセージタイプ
      * @return 作成されたメッセージ
+     * @throws RateLimitExceededException 送信者の書き込みレートが上限を超えている場合
      */
     public Message createAndSendMessage(String content, String sender, MessageType type) {
-        Message message = Message.create(content, sender, type);
+        // 上限を超えた送信者の分はKafkaに送らない（トピック・コンシューマー・Redisを他の送信者のために空けておく）
+        Duration retryAfter = senderRateLimiter.tryAcquire(sender);
+        if (!retryAfter.isZero()) {
+            throw new RateLimitExceededException(sender, retryAfter);
+        }
+        
+        Message message = Message.create(messageIdGenerator, content, sender, type);
         
         // Kafkaに送信のみ（Consumer経由でRedisに保存される）
         messagePublisher.publish(message);
@@ -48,6 +93,15 @@ public class MessageService {
         return messageRepository.findById(id);
     }
     
+    /**
+     * 複数のIDでメッセージをまとめて取得する
+     * @param ids メッセージID
+     * @return 見つかったメッセージ（ID → メッセージ）。存在しないIDは含まれない
+     */
+    public Map<String, Message> getMessagesByIds(List<String> ids) {
+        return messageRepository.findAllById(ids);
+    }
+    
     /**
      * 送信者でメッセージを取得する
      * @param sender 送信者
@@ -57,6 +111,26 @@ public class MessageService {
         return messageRepository.findBySender(sender);
     }
     
+    /**
+     * 一覧のバージョンを取得する（ETag用）
+     * @param sender 送信者（nullの場合は全メッセージ・緊急メッセージの一覧）
+     * @return バージョン（リポジトリが追跡しない場合はOptional.empty()）
+     */
+    public Optional<String> getListVersion(String sender) {
+        return messageRepository.getListVersion(sender);
+    }
+    
+    /**
+     * メッセージ本文を全文検索する
+     * @param query 検索クエリ（末尾*で前方一致）
+     * @param offset 読み飛ばす件数
+     * @param limit 最大取得件数
+     * @return メッセージリスト（新しい順）
+     */
+    public List<Message> searchMessages(String query, int offset, int limit) {
+        return messageRepository.search(query, offset, limit);
+    }
+    
     /**
      * 全てのメッセージを取得する
      * @return メッセージリスト
@@ -77,19 +151,84 @@ public class MessageService {
     }
     
     /**
-     * 古いメッセージを削除する
+     * 直近の時間窓のメッセージ集計を取得する
+     * @param minutes 直近何分間を集計するか（現在の分を含む）
+     * @param topSenders 返す送信者の上位件数
+     * @return 集計結果
+     */
+    public MessageStats getStats(int minutes, int topSenders) {
+        LocalDateTime to = LocalDateTime.now(ZoneOffset.UTC);
+        return messageStatsRepository.getStats(to.minusMinutes(minutes - 1L), to, topSenders);
+    }
+    
+    /**
+     * 古いメッセージの削除をバックグラウンドジョブとして起動する
+     * 削除自体はMessageCleanupJobがチャンク単位で行うため、呼び出し元はすぐに戻る
      * @param minutes 何分前より古いメッセージを削除するか
-     * @return 削除されたメッセージ数
+     * @return 起動後のジョブ状態
      */
-    public int cleanupOldMessages(int minutes) {
-        return messageRepository.deleteOldMessages(minutes);
+    public CleanupStatus cleanupOldMessages(int minutes) {
+        return cleanupJob.trigger(minutes);
     }
     
     /**
      * メッセージを削除する
+     * 先にtombstoneを送って届くのを待ち、届かない場合は削除しない（再構築で復活させない）
      * @param id 削除するメッセージのID
+     * @throws DependencyUnavailableException tombstoneが deletionAckTimeout 以内にKafkaに届かなかった場合
      */
     public void deleteMessage(String id) {
+        awaitDeletion(messagePublisher.publishDeletion(id));
         messageRepository.deleteById(id);
     }
+    
+    /**
+     * 複数のメッセージをまとめて削除する
+     * チャンクごとにtombstoneを送り、全て届くのを待ってからリポジトリで一括削除する
+     * Kafkaに届かない場合はそのチャンク以降を削除しない（それまでのチャンクは削除済み）
+     * @param ids 削除するメッセージのID
+     * @return 削除されたメッセージ数
+     * @throws DependencyUnavailableException チャンクのtombstoneが deletionAckTimeout 以内にKafkaに届かなかった場合
+     */
+    public int deleteMessages(Collection<String> ids) {
+        List<String> idList = new ArrayList<>(new LinkedHashSet<>(ids));
+        
+        int deleted = 0;
+        for (int from = 0; from < idList.size(); from += BULK_DELETE_CHUNK_SIZE) {
+            List<String> chunk = idList.subList(from, Math.min(from + BULK_DELETE_CHUNK_SIZE, idList.size()));
+            // チャンク内のtombstoneはまとめて送り、1件ずつ待たない（待ち時間はチャンクごとに最大 deletionAckTimeout）
+            awaitDeletion(CompletableFuture.allOf(chunk.stream()
+                    .map(messagePublisher::publishDeletion)
+                    .toArray(CompletableFuture[]::new)));
+            deleted += messageRepository.deleteAllById(chunk);
+        }
+        return deleted;
+    }
+    
+    /**
+     * 送信者の全メッセージを削除する
+     * 送信者インデックスからIDを求め、deleteMessagesと同じ手順で削除する
+     * @param sender 送信者
+     * @return 削除されたメッセージ数
+     */
+    public int deleteMessagesBySender(String sender) {
+        return deleteMessages(messageRepository.findIdsBySender(sender));
+    }
+    
+    /**
+     * tombstoneがKafkaに届くのを最大 deletionAckTimeout 待つ
+     * 届かなかった場合（送信の失敗・タイムアウト）は、リポジトリから削除させないように例外を投げる
+     */
+    private void awaitDeletion(CompletableFuture<Void> acknowledged) {
+        try {
+            acknowledged.get(deletionAckTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw new DependencyUnavailableException("kafka", false, e.getCause());
+        } catch (TimeoutException e) {
+            throw new DependencyUnavailableException("kafka", false, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DependencyUnavailableException("kafka", false, e);
+        }
+    }
 }
@@ -0,0 +1,31 @@
+package com.example.playground.application.service;
+
+import java.time.Duration;
+
+/**
+ * 送信者の書き込みレートが上限を超えたことを表す例外
+ * 呼び出し元は retryAfter だけ待ってから再試行する（HTTPでは 429 Too Many Requests）
+ */
+public class RateLimitExceededException extends RuntimeException {
+    
+    private final String sender;
+    private final Duration retryAfter;
+    
+    /**
+     * @param sender 制限を超えた送信者
+     * @param retryAfter 再試行できるまでの時間
+     */
+    public RateLimitExceededException(String sender, Duration retryAfter) {
+        super("Rate limit exceeded for sender " + sender + ", retry after " + retryAfter.toMillis() + "ms");
+        this.sender = sender;
+        this.retryAfter = retryAfter;
+    }
+    
+    public String getSender() {
+        return sender;
+    }
+    
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.playground.application.service;
+
+import java.time.Duration;
+
+/**
+ * 送信者ごとの書き込みレート制限インターフェース
+ * 1つの送信者が大量に書き込んで、他の送信者の処理（Kafkaのトピック・コンシューマー・Redis）を圧迫しないようにする
+ */
+public interface SenderRateLimiter {
+    
+    /**
+     * 送信者の書き込み1件分の枠を取得する
+     * @param sender 送信者
+     * @return 取得できた場合はDuration.ZERO、制限を超えている場合は再試行できるまでの時間
+     */
+    Duration tryAcquire(String sender);
+}
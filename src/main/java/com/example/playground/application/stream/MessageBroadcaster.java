@@ -0,0 +1,17 @@
+package com.example.playground.application.stream;
+
+import com.example.playground.domain.model.Message;
+
+/**
+ * 保存済みメッセージの配信インターフェース
+ * 自ノードの購読者に配信し、他インスタンスの購読者にも届くよう中継する
+ */
+public interface MessageBroadcaster {
+    
+    /**
+     * 保存済みメッセージを全インスタンスの購読者に配信する
+     * 配信の失敗はメッセージ処理自体を失敗させない
+     * @param message 保存済みのメッセージ
+     */
+    void broadcast(Message message);
+}
@@ -0,0 +1,143 @@
+package com.example.playground.application.stream;
+
+import com.example.playground.domain.model.Message;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 自ノード内の購読者へのファンアウトハブ
+ * 購読者ごとに上限付きバッファと送信用の仮想スレッドを持つため、
+ * 遅い購読者がpublish側（Kafkaリスナースレッド）や他の購読者を待たせることはない。
+ * バッファが溢れた場合は古いものから捨て、取りこぼし件数を次の送信前に1回だけ通知する
+ */
+@Component
+public class MessageStreamHub {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageStreamHub.class);
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final Counter droppedCounter;
+    private final int bufferSize;
+
+    public MessageStreamHub(MeterRegistry meterRegistry, @Value("${app.stream.buffer-size:256}") int bufferSize) {
+        this.bufferSize = bufferSize;
+        meterRegistry.gaugeCollectionSize("messages.stream.subscribers", Tags.empty(), subscriptions);
+        this.droppedCounter = Counter.builder("messages.stream.dropped")
+                .description("Messages dropped because a subscriber buffer was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 購読を開始する
+     * @param filter 絞り込み条件
+     * @param sink 送信先
+     * @return 購読（cancelで解除）
+     */
+    public Subscription subscribe(SubscriptionFilter filter, SubscriptionSink sink) {
+        Subscription subscription = new Subscription(filter, sink, bufferSize);
+        subscriptions.add(subscription);
+        subscription.start();
+        logger.debug("📡 Subscribed: sender={}, type={}, urgentOnly={}, subscribers={}",
+                filter.getSender(), filter.getType(), filter.isUrgentOnly(), subscriptions.size());
+        return subscription;
+    }
+
+    /**
+     * 条件にマッチする全購読者のバッファにメッセージを積む（ブロックしない）
+     * @param message 配信するメッセージ
+     */
+    public void publish(Message message) {
+        for (Subscription subscription : subscriptions) {
+            if (subscription.filter.matches(message)) {
+                subscription.offer(message);
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.forEach(Subscription::cancel);
+    }
+
+    /**
+     * 1購読者分の状態
+     */
+    public class Subscription {
+
+        private final SubscriptionFilter filter;
+        private final SubscriptionSink sink;
+        private final BlockingQueue<Message> buffer;
+        private final AtomicLong missed = new AtomicLong();
+        private volatile boolean active = true;
+        private Thread sender;
+
+        private Subscription(SubscriptionFilter filter, SubscriptionSink sink, int capacity) {
+            this.filter = filter;
+            this.sink = sink;
+            this.buffer = new ArrayBlockingQueue<>(capacity);
+        }
+
+        private void start() {
+            sender = Thread.ofVirtual().name("message-stream-sender").start(this::drain);
+        }
+
+        private void offer(Message message) {
+            // 満杯なら最古の1件を捨てて入れ直す（最新の状態を優先）
+            while (!buffer.offer(message)) {
+                if (buffer.poll() != null) {
+                    missed.incrementAndGet();
+                    droppedCounter.increment();
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                while (active) {
+                    Message message = buffer.take();
+                    long gap = missed.getAndSet(0);
+                    if (gap > 0) {
+                        sink.gap(gap);
+                    }
+                    sink.send(message);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                logger.debug("📴 Subscriber disconnected: {}", e.getMessage());
+            } finally {
+                cancel();
+            }
+        }
+
+        /**
+         * 購読を解除する
+         */
+        public void cancel() {
+            if (!active) {
+                return;
+            }
+            active = false;
+            subscriptions.remove(this);
+            if (sender != null && sender != Thread.currentThread()) {
+                sender.interrupt();
+            }
+        }
+    }
+}
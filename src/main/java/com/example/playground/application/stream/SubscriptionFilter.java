@@ -0,0 +1,35 @@
+package com.example.playground.application.stream;
+
+import com.example.playground.domain.model.Message;
+import com.example.playground.domain.model.MessageType;
+
+/**
+ * 購読時に指定する絞り込み条件
+ * 未指定（null / false）の条件は全てにマッチする
+ */
+public class SubscriptionFilter {
+    
+    private final String sender;
+    private final MessageType type;
+    private final boolean urgentOnly;
+    
+    public SubscriptionFilter(String sender, MessageType type, boolean urgentOnly) {
+        this.sender = sender;
+        this.type = type;
+        this.urgentOnly = urgentOnly;
+    }
+    
+    public boolean matches(Message message) {
+        if (sender != null && !sender.equals(message.getSender())) {
+            return false;
+        }
+        if (type != null && type != message.getType()) {
+            return false;
+        }
+        return !urgentOnly || message.isUrgent();
+    }
+    
+    public String getSender() { return sender; }
+    public MessageType getType() { return type; }
+    public boolean isUrgentOnly() { return urgentOnly; }
+}
@@ -0,0 +1,24 @@
+package com.example.playground.application.stream;
+
+import com.example.playground.domain.model.Message;
+
+import java.io.IOException;
+
+/**
+ * 購読者への送信先（SSEなどプレゼンテーション層の実装）
+ * 例外を投げた場合、その購読は解除される
+ */
+public interface SubscriptionSink {
+    
+    /**
+     * メッセージを1件送信する
+     */
+    void send(Message message) throws IOException;
+    
+    /**
+     * バッファ溢れで取りこぼしがあったことを通知する
+     * 取りこぼしはまとめて1回だけ通知されるので、受信側は必要に応じて一覧APIで再同期する
+     * @param missed 取りこぼした件数
+     */
+    void gap(long missed) throws IOException;
+}
@@ -1,34 +1,63 @@
 package com.example.playground.domain.model;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.Objects;
 
 /**
  * ドメインモデル: メッセージ
  * Kafkaで送受信し、Redisにキャッシュするメッセージを表現
+ * タイムスタンプはUTCで保持する
  */
 public class Message {
+    private static final MessageIdGenerator DEFAULT_ID_GENERATOR = TimeOrderedIdGenerator.ulid();
+    
+
     private final String id;
     private final String content;
     private final String sender;
     private final LocalDateTime timestamp;
     private final MessageType type;
+    private final int contentLength;
 
     public Message(String id, String content, String sender, LocalDateTime timestamp, MessageType type) {
+        this(id, content, sender, timestamp, type, content == null ? 0 : content.length());
+    }
+
+    /**
+     * 本文の先頭部分だけを持つメッセージを作成する（一覧で大きな本文を読まずに返す場合）
+     * @param content 本文（contentLengthより短い場合は先頭部分）
+     * @param contentLength 本文全体の長さ（文字数）
+     */
+    public Message(String id, String content, String sender, LocalDateTime timestamp, MessageType type,
+                   int contentLength) {
         this.id = Objects.requireNonNull(id, "Message ID cannot be null");
         this.content = Objects.requireNonNull(content, "Message content cannot be null");
         this.sender = Objects.requireNonNull(sender, "Message sender cannot be null");
         this.timestamp = Objects.requireNonNull(timestamp, "Message timestamp cannot be null");
         this.type = Objects.requireNonNull(type, "Message type cannot be null");
+        if (contentLength < content.length()) {
+            throw new IllegalArgumentException("Content length cannot be shorter than content");
+        }
+        this.contentLength = contentLength;
     }
 
     // ファクトリーメソッド
     public static Message create(String content, String sender, MessageType type) {
+        return create(DEFAULT_ID_GENERATOR, content, sender, type);
+    }
+
+    /**
+     * 指定したジェネレーターでIDを採番してメッセージを作成する
+     * タイムスタンプはIDに埋め込まれた時刻と一致させる（ID順 = 時刻順）
+     */
+    public static Message create(MessageIdGenerator idGenerator, String content, String sender, MessageType type) {
+        String id = idGenerator.nextId();
         return new Message(
-            java.util.UUID.randomUUID().toString(),
+            id,
             content,
             sender,
-            LocalDateTime.now(),
+            LocalDateTime.ofInstant(idGenerator.timestampOf(id), ZoneOffset.UTC),
             type
         );
     }
@@ -54,9 +83,23 @@ public class Message {
         return type;
     }
 
+    /**
+     * 本文全体の長さ（文字数）
+     */
+    public int getContentLength() {
+        return contentLength;
+    }
+
+    /**
+     * 本文が先頭部分だけの場合はtrue（全体はIDで個別に取得する）
+     */
+    public boolean isContentTruncated() {
+        return content.length() < contentLength;
+    }
+
     // ドメインロジック: メッセージが古いかどうかを判定
     public boolean isOlderThan(int minutes) {
-        return timestamp.isBefore(LocalDateTime.now().minusMinutes(minutes));
+        return timestamp.isBefore(LocalDateTime.now(ZoneOffset.UTC).minusMinutes(minutes));
     }
 
     // ドメインロジック: メッセージが緊急かどうかを判定
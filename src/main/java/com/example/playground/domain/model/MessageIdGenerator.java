@@ -0,0 +1,25 @@
+package com.example.playground.domain.model;
+
+import java.time.Instant;
+
+/**
+ * メッセージIDの生成インターフェース
+ * 生成されるIDは文字列として辞書順に並べると生成順（時刻順）になり、
+ * IDから生成時刻を求められる（パーティションの割り当てなど）
+ */
+public interface MessageIdGenerator {
+    
+    /**
+     * 新しいIDを生成する（同一インスタンス内では単調増加）
+     * @return メッセージID
+     */
+    String nextId();
+    
+    /**
+     * IDに埋め込まれた生成時刻を取得する
+     * @param id このジェネレーターが生成したID
+     * @return 生成時刻（ミリ秒精度）
+     * @throws IllegalArgumentException このジェネレーターの形式でないID（以前の形式のIDなど）
+     */
+    Instant timestampOf(String id);
+}
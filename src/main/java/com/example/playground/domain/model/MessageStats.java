@@ -0,0 +1,89 @@
+package com.example.playground.domain.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ドメインモデル: 時間窓ごとのメッセージ集計
+ * 保存時に積み上げた分単位の集計から組み立てるため、メッセージ件数ではなく分の数に比例して計算できる
+ */
+public class MessageStats {
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private final long total;
+    private final Map<MessageType, Long> countsByType;
+    private final Map<String, Long> topSenders;
+    private final long distinctSenders;
+    private final List<MinuteBucket> perMinute;
+
+    public MessageStats(LocalDateTime from, LocalDateTime to, long total, Map<MessageType, Long> countsByType,
+                        Map<String, Long> topSenders, long distinctSenders, List<MinuteBucket> perMinute) {
+        this.from = from;
+        this.to = to;
+        this.total = total;
+        this.countsByType = countsByType;
+        this.topSenders = topSenders;
+        this.distinctSenders = distinctSenders;
+        this.perMinute = perMinute;
+    }
+
+    // Getters
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public Map<MessageType, Long> getCountsByType() {
+        return countsByType;
+    }
+
+    public Map<String, Long> getTopSenders() {
+        return topSenders;
+    }
+
+    /**
+     * 窓内の送信者のユニーク数（HyperLogLogによる推定値）
+     */
+    public long getDistinctSenders() {
+        return distinctSenders;
+    }
+
+    public List<MinuteBucket> getPerMinute() {
+        return perMinute;
+    }
+
+    /**
+     * 1分ごとの件数
+     */
+    public static class MinuteBucket {
+        private final LocalDateTime minute;
+        private final long total;
+        private final long urgent;
+
+        public MinuteBucket(LocalDateTime minute, long total, long urgent) {
+            this.minute = minute;
+            this.total = total;
+            this.urgent = urgent;
+        }
+
+        public LocalDateTime getMinute() {
+            return minute;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public long getUrgent() {
+            return urgent;
+        }
+    }
+}
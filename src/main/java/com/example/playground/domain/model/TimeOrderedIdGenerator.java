@@ -0,0 +1,156 @@
+package com.example.playground.domain.model;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 時刻順に並ぶ128ビットIDの生成器（ULID / UUIDv7）
+ *
+ * ビット構成: ミリ秒時刻(48) | 乱数A(12) | 乱数B(62)
+ * - 時刻が進んだら乱数部を引き直し、同じミリ秒内では乱数部を1ずつ増やす（単調増加）
+ * - 時計が戻った場合は直前の時刻を使い続ける
+ * - 状態はCASで更新するためロックを取らない。乱数はThreadLocalRandomを使用し、
+ *   UUID.randomUUID()のようにSecureRandomを共有しない
+ *
+ * 文字列表現: ULIDはCrockford Base32の26文字、UUIDv7は標準の36文字（いずれも辞書順 = 生成順）
+ */
+public final class TimeOrderedIdGenerator implements MessageIdGenerator {
+    
+    /**
+     * IDの文字列表現
+     */
+    public enum Format {
+        ULID,
+        UUID_V7
+    }
+    
+    private static final char[] CROCKFORD = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final byte[] CROCKFORD_DECODE = new byte[128];
+    private static final int ULID_LENGTH = 26;
+    private static final int UUID_LENGTH = 36;
+    private static final long RANDOM_A_MASK = 0xFFFL;
+    private static final long RANDOM_B_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+    
+    static {
+        Arrays.fill(CROCKFORD_DECODE, (byte) -1);
+        for (int i = 0; i < CROCKFORD.length; i++) {
+            CROCKFORD_DECODE[CROCKFORD[i]] = (byte) i;
+            CROCKFORD_DECODE[Character.toLowerCase(CROCKFORD[i])] = (byte) i;
+        }
+    }
+    
+    private final Format format;
+    private final Clock clock;
+    private final AtomicReference<State> state = new AtomicReference<>(new State(0, 0, 0));
+    
+    public TimeOrderedIdGenerator(Format format, Clock clock) {
+        this.format = format;
+        this.clock = clock;
+    }
+    
+    public static TimeOrderedIdGenerator ulid() {
+        return new TimeOrderedIdGenerator(Format.ULID, Clock.systemUTC());
+    }
+    
+    @Override
+    public String nextId() {
+        State next = nextState();
+        return format == Format.ULID
+                ? ulid(next.time, next.randomA, next.randomB)
+                : new UUID(uuidMsb(next.time, next.randomA), uuidLsb(next.randomB)).toString();
+    }
+    
+    /**
+     * 形式の異なるID（UUIDv4など）は時刻を読み違えないよう、形を確かめてから時刻を取り出す
+     */
+    @Override
+    public Instant timestampOf(String id) {
+        if (format == Format.ULID) {
+            // 128ビットに収まるULIDの先頭は0〜7
+            if (id.length() != ULID_LENGTH || id.charAt(0) > '7') {
+                throw new IllegalArgumentException("Not a ULID: " + id);
+            }
+            long time = 0;
+            for (int i = 0; i < ULID_LENGTH; i++) {
+                int value = decodeChar(id.charAt(i));
+                if (i < 10) {
+                    time = (time << 5) | value;
+                }
+            }
+            return Instant.ofEpochMilli(time);
+        }
+        UUID uuid = id.length() == UUID_LENGTH ? UUID.fromString(id) : null;
+        if (uuid == null || uuid.version() != 7 || uuid.variant() != 2) {
+            throw new IllegalArgumentException("Not a UUIDv7: " + id);
+        }
+        return Instant.ofEpochMilli(uuid.getMostSignificantBits() >>> 16);
+    }
+    
+    private State nextState() {
+        while (true) {
+            State previous = state.get();
+            long now = clock.millis();
+            State next = now > previous.time ? State.random(now) : previous.increment();
+            if (state.compareAndSet(previous, next)) {
+                return next;
+            }
+        }
+    }
+    
+    private static long uuidMsb(long time, long randomA) {
+        return (time << 16) | 0x7000L | randomA;
+    }
+    
+    private static long uuidLsb(long randomB) {
+        return 0x8000_0000_0000_0000L | randomB;
+    }
+    
+    /**
+     * 時刻(48) + 乱数(80) のULIDを作る（乱数部は上位6ビットを0とした乱数A・乱数Bの連結）
+     */
+    private static String ulid(long time, long randomA, long randomB) {
+        return encodeUlid((time << 16) | (randomA >>> 2), (randomA << 62) | randomB);
+    }
+    
+    private static String encodeUlid(long high, long low) {
+        char[] chars = new char[ULID_LENGTH];
+        for (int i = ULID_LENGTH - 1; i >= 0; i--) {
+            chars[i] = CROCKFORD[(int) (low & 0x1F)];
+            low = (low >>> 5) | (high << 59);
+            high >>>= 5;
+        }
+        return new String(chars);
+    }
+    
+    private static int decodeChar(char c) {
+        int value = c < CROCKFORD_DECODE.length ? CROCKFORD_DECODE[c] : -1;
+        if (value < 0) {
+            throw new IllegalArgumentException("Invalid ULID character: " + c);
+        }
+        return value;
+    }
+    
+    private record State(long time, long randomA, long randomB) {
+        
+        static State random(long time) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            // 同じミリ秒内での増分の余地を残すため、乱数Aの最上位ビットは0から始める
+            return new State(time, random.nextLong() & (RANDOM_A_MASK >>> 1), random.nextLong() & RANDOM_B_MASK);
+        }
+        
+        State increment() {
+            if (randomB < RANDOM_B_MASK) {
+                return new State(time, randomA, randomB + 1);
+            }
+            if (randomA < RANDOM_A_MASK) {
+                return new State(time, randomA + 1, 0);
+            }
+            // 乱数部を使い切った場合は次のミリ秒を前借りする
+            return new State(time + 1, 0, 0);
+        }
+    }
+}
@@ -1,8 +1,15 @@
 package com.example.playground.domain.repository;
 
 import com.example.playground.domain.model.Message;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * メッセージリポジトリのドメインインターフェース
@@ -18,6 +25,15 @@ public interface MessageRepository {
      */
     Message save(Message message);
     
+    /**
+     * 複数のメッセージをまとめて保存する
+     * 状態の再構築など大量に書き込む場合に使用する（実装によっては1往復で書き込む）
+     * @param messages 保存するメッセージ
+     */
+    default void saveAll(List<Message> messages) {
+        messages.forEach(this::save);
+    }
+    
     /**
      * IDでメッセージを取得する
      * @param id メッセージID
@@ -25,6 +41,22 @@ public interface MessageRepository {
      */
     Optional<Message> findById(String id);
     
+    /**
+     * 複数のIDでメッセージをまとめて取得する
+     * 実装によってはIDをチャンクに分けて一括取得する（1件ずつ往復しない）
+     * @param ids メッセージID
+     * @return 見つかったメッセージ（ID → メッセージ、入力順）。存在しないIDは含まれない
+     */
+    default Map<String, Message> findAllById(Collection<String> ids) {
+        Map<String, Message> result = new LinkedHashMap<>();
+        for (String id : ids) {
+            if (!result.containsKey(id)) {
+                findById(id).ifPresent(message -> result.put(id, message));
+            }
+        }
+        return result;
+    }
+    
     /**
      * 送信者でメッセージを取得する
      * @param sender 送信者
@@ -32,6 +64,37 @@ public interface MessageRepository {
      */
     List<Message> findBySender(String sender);
     
+    /**
+     * 送信者のメッセージIDを取得する（本体は読まない）
+     * @param sender 送信者
+     * @return メッセージIDのセット
+     */
+    default Set<String> findIdsBySender(String sender) {
+        return findBySender(sender).stream()
+                .map(Message::getId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+    
+    /**
+     * 一覧のバージョンを取得する
+     * 一覧の内容が変わる保存・削除のたびに変わる不透明な値で、HTTPのETagに使用する
+     * @param sender 送信者（nullの場合は全メッセージの一覧）
+     * @return バージョン（追跡しない実装はOptional.empty()）
+     */
+    default Optional<String> getListVersion(String sender) {
+        return Optional.empty();
+    }
+    
+    /**
+     * メッセージ本文を全文検索する
+     * 空白区切りの全ての語を含むメッセージを新しい順に返す。末尾に*を付けた語は前方一致
+     * @param query 検索クエリ（例: "kafka err*"）
+     * @param offset 読み飛ばす件数
+     * @param limit 最大取得件数
+     * @return メッセージリスト（新しい順）
+     */
+    List<Message> search(String query, int offset, int limit);
+    
     /**
      * 全てのメッセージを取得する
      * @return メッセージリスト
@@ -44,10 +107,36 @@ public interface MessageRepository {
      */
     void deleteById(String id);
     
+    /**
+     * 複数のメッセージをまとめて削除する
+     * 実装によってはチャンク単位で1往復・アトミックに削除する（1件ずつ往復しない）
+     * @param ids 削除するメッセージのID
+     * @return 削除されたメッセージ数（存在しなかったIDは数えない）
+     */
+    default int deleteAllById(Collection<String> ids) {
+        int deleted = 0;
+        for (String id : new LinkedHashSet<>(ids)) {
+            if (findById(id).isPresent()) {
+                deleted++;
+            }
+            deleteById(id);
+        }
+        return deleted;
+    }
+    
     /**
      * 古いメッセージを削除する
      * @param minutes 何分前より古いメッセージを削除するか
      * @return 削除されたメッセージ数
      */
     int deleteOldMessages(int minutes);
+    
+    /**
+     * 指定時刻より古いメッセージを古い順に最大limit件削除する
+     * 全件を一度に走査しないよう、バックグラウンドのクリーンアップジョブからチャンク単位で呼び出す
+     * @param cutoff この時刻より前のメッセージが削除対象
+     * @param limit 1回の呼び出しで削除する最大件数
+     * @return 削除されたメッセージ数（limit未満なら対象はもう残っていない）
+     */
+    int deleteOlderThan(LocalDateTime cutoff, int limit);
 }
@@ -0,0 +1,21 @@
+package com.example.playground.domain.repository;
+
+import com.example.playground.domain.model.MessageStats;
+import java.time.LocalDateTime;
+
+/**
+ * メッセージ集計リポジトリのドメインインターフェース
+ * 集計はメッセージ保存時に積み上げられ、ここでは読み出しのみを行う
+ */
+public interface MessageStatsRepository {
+    
+    /**
+     * 指定した時間窓の集計を取得する
+     * 件数は取り込み時点の集計で、削除されたメッセージも含む
+     * @param from 窓の開始（分単位に切り捨て）
+     * @param to 窓の終了（分単位に切り捨て、この分を含む）
+     * @param topSenders 返す送信者の上位件数
+     * @return 集計結果
+     */
+    MessageStats getStats(LocalDateTime from, LocalDateTime to, int topSenders);
+}
@@ -1,7 +1,12 @@
 package com.example.playground.infrastructure.config;
 
+import com.example.playground.domain.model.MessageIdGenerator;
+import com.example.playground.infrastructure.messaging.PartitionEpochs;
+import com.example.playground.infrastructure.messaging.StableKeyPartitioner;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,7 +15,10 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.ExponentialBackOff;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -26,15 +34,58 @@ public class KafkaConfig {
     @Value("${app.kafka.consumer.group-id:message-consumer-group}")
     private String groupId;
     
+    @Value("${app.kafka.producer.max-block-ms:2000}")
+    private long producerMaxBlockMs;
+    
+    @Value("${app.kafka.producer.compression-type:lz4}")
+    private String producerCompressionType;
+    
+    @Value("${app.kafka.topic.messages:messages}")
+    private String messagesTopicName;
+    
+    @Value("${app.kafka.topic.urgent:messages.urgent}")
+    private String urgentTopicName;
+    
+    @Value("${app.kafka.topic.messages-partition-epochs:}")
+    private String messagesPartitionEpochs;
+    
+    @Value("${app.kafka.topic.urgent-partition-epochs:}")
+    private String urgentPartitionEpochs;
+    
+    @Value("${app.kafka.consumer.concurrency:3}")
+    private int concurrency;
+    
+    @Value("${app.kafka.consumer.urgent-concurrency:2}")
+    private int urgentConcurrency;
+    
+    @Value("${app.kafka.consumer.urgent-max-poll-records:10}")
+    private int urgentMaxPollRecords;
+    
+    @Value("${app.kafka.consumer.retry.initial-interval:PT0.1S}")
+    private Duration retryInitialInterval;
+    
+    @Value("${app.kafka.consumer.retry.max-interval:PT5S}")
+    private Duration retryMaxInterval;
+    
+    private final MessageIdGenerator messageIdGenerator;
+    
+    /**
+     * @param messageIdGenerator パーティショナーがキー（メッセージID）から生成時刻を求めるために使う
+     */
+    public KafkaConfig(MessageIdGenerator messageIdGenerator) {
+        this.messageIdGenerator = messageIdGenerator;
+    }
+    
     /**
      * Kafka Producer設定
+     * 値はMessageEventCodecでエンコード済みのbyte[]
      */
     @Bean
-    public ProducerFactory<String, String> producerFactory() {
+    public ProducerFactory<String, byte[]> producerFactory() {
         Map<String, Object> config = new HashMap<>();
         config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
         
         // パフォーマンス設定
         config.put(ProducerConfig.ACKS_CONFIG, "all"); // 全レプリカからの確認を待つ
@@ -42,54 +93,116 @@ public class KafkaConfig {
         config.put(ProducerConfig.BATCH_SIZE_CONFIG, 16384);
         config.put(ProducerConfig.LINGER_MS_CONFIG, 1);
         config.put(ProducerConfig.BUFFER_MEMORY_CONFIG, 33554432);
+        // バッチ単位で圧縮する（同じ本文の繰り返しが多いため、ブローカーのディスクと転送量が大きく減る）
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, producerCompressionType);
+        
+        // ブローカー障害時に send() がメタデータ取得・バッファ待ちで長時間ブロックしないようにする（既定は60秒）
+        config.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, producerMaxBlockMs);
+        
+        // パーティション数の履歴があるトピックは、パーティションを追加してもキーの割り当てを変えない
+        Map<String, PartitionEpochs> epochs = new HashMap<>();
+        putIfPresent(epochs, messagesTopicName, PartitionEpochs.parse(messagesPartitionEpochs));
+        putIfPresent(epochs, urgentTopicName, PartitionEpochs.parse(urgentPartitionEpochs));
+        if (!epochs.isEmpty()) {
+            config.put(ProducerConfig.PARTITIONER_CLASS_CONFIG, StableKeyPartitioner.class);
+            config.put(StableKeyPartitioner.EPOCHS_CONFIG, epochs);
+            config.put(StableKeyPartitioner.ID_GENERATOR_CONFIG, messageIdGenerator);
+        }
         
         return new DefaultKafkaProducerFactory<>(config);
     }
     
+    private static void putIfPresent(Map<String, PartitionEpochs> epochs, String topic, PartitionEpochs value) {
+        if (value != null) {
+            epochs.put(topic, value);
+        }
+    }
+    
     /**
      * KafkaTemplate Bean
      */
     @Bean
-    public KafkaTemplate<String, String> kafkaTemplate() {
+    public KafkaTemplate<String, byte[]> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
     
     /**
      * Kafka Consumer設定
+     * 値はbyte[]のまま受け取り、コンシューマーで直接解析する（Stringを経由しない）
      */
     @Bean
-    public ConsumerFactory<String, String> consumerFactory() {
+    public ConsumerFactory<String, byte[]> consumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(consumerConfig(100));
+    }
+    
+    /**
+     * 緊急メッセージ用のKafka Consumer設定
+     * 1回のpollで取る件数を抑え、受信から処理までの待ち時間を短くする
+     */
+    @Bean
+    public ConsumerFactory<String, byte[]> urgentConsumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(consumerConfig(urgentMaxPollRecords));
+    }
+    
+    private Map<String, Object> consumerConfig(int maxPollRecords) {
         Map<String, Object> config = new HashMap<>();
         config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
         
         // コンシューマー設定
         config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
-        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, true);
-        config.put(ConsumerConfig.AUTO_COMMIT_INTERVAL_MS_CONFIG, 1000);
+        // オフセットはコンテナが処理の成功後にコミットする（AckMode.RECORD。自動コミットでは失敗したレコードも進む）
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
         config.put(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, 30000);
-        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 100);
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
         
-        return new DefaultKafkaConsumerFactory<>(config);
+        return config;
     }
     
     /**
      * Kafka Listener Container Factory
      */
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, String> kafkaListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, String> factory = 
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> kafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = 
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
         
         // コンカレンシー設定
-        factory.setConcurrency(3);
+        factory.setConcurrency(concurrency);
         
         // エラーハンドリング設定
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.RECORD);
+        factory.setCommonErrorHandler(retryingErrorHandler());
         
         return factory;
     }
+    
+    /**
+     * 緊急メッセージ用のKafka Listener Container Factory
+     * 通常のコンテナとはスレッドを共有しないため、通常トピックの滞留があっても待たされない
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> urgentKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = 
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(urgentConsumerFactory());
+        factory.setConcurrency(urgentConcurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.RECORD);
+        factory.setCommonErrorHandler(retryingErrorHandler());
+        return factory;
+    }
+    
+    /**
+     * リスナーが投げた例外（保存先が一時的に使えない場合など）のエラーハンドラー
+     * 失敗したレコードの位置に戻して間隔を広げながら再試行し、保存できるまでオフセットをコミットしない
+     * （読めないレコードはコンシューマーがログに残して読み飛ばすため、ここには来ない）
+     */
+    private DefaultErrorHandler retryingErrorHandler() {
+        ExponentialBackOff backOff = new ExponentialBackOff(retryInitialInterval.toMillis(), 2.0);
+        backOff.setMaxInterval(retryMaxInterval.toMillis());
+        return new DefaultErrorHandler(backOff);
+    }
 }
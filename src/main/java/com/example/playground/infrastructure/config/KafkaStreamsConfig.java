@@ -0,0 +1,68 @@
+package com.example.playground.infrastructure.config;
+
+import com.example.playground.infrastructure.messaging.MessageAnalyticsTopology;
+import com.example.playground.infrastructure.serde.MessageEventCodec;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.kstream.KStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafkaStreams;
+import org.springframework.kafka.annotation.KafkaStreamsDefaultConfiguration;
+import org.springframework.kafka.config.KafkaStreamsConfiguration;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Kafka Streams設定クラス（ウィンドウ集計用、オプション）
+ * app.analytics.enabled=true の場合のみ有効
+ */
+@Configuration
+@EnableKafkaStreams
+@ConditionalOnProperty(name = "app.analytics.enabled", havingValue = "true")
+public class KafkaStreamsConfig {
+    
+    @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers;
+    
+    @Value("${app.kafka.topic.messages:messages}")
+    private String messagesTopicName;
+    
+    @Value("${app.kafka.topic.urgent:messages.urgent}")
+    private String urgentTopicName;
+    
+    @Value("${app.analytics.application-id:message-analytics}")
+    private String applicationId;
+    
+    @Value("${app.analytics.state-dir:${java.io.tmpdir}/kafka-streams}")
+    private String stateDir;
+    
+    /**
+     * Kafka Streams設定
+     * ストアはRocksDB（state-dir配下）に永続化される
+     */
+    @Bean(name = KafkaStreamsDefaultConfiguration.DEFAULT_STREAMS_CONFIG_BEAN_NAME)
+    public KafkaStreamsConfiguration kafkaStreamsConfiguration() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(StreamsConfig.APPLICATION_ID_CONFIG, applicationId);
+        config.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(StreamsConfig.STATE_DIR_CONFIG, stateDir);
+        
+        // 集計結果の更新を早めに反映する（Interactive Queries向け）
+        config.put(StreamsConfig.COMMIT_INTERVAL_MS_CONFIG, 1000);
+        
+        return new KafkaStreamsConfiguration(config);
+    }
+    
+    /**
+     * ウィンドウ集計トポロジー
+     */
+    @Bean
+    public KStream<String, byte[]> messageAnalyticsStream(StreamsBuilder streamsBuilder, MessageEventCodec codec) {
+        return MessageAnalyticsTopology.build(streamsBuilder, List.of(messagesTopicName, urgentTopicName), codec);
+    }
+}
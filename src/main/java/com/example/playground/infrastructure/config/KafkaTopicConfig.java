@@ -1,5 +1,6 @@
 package com.example.playground.infrastructure.config;
 
+import com.example.playground.infrastructure.messaging.PartitionEpochs;
 import org.apache.kafka.clients.admin.AdminClientConfig;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.springframework.beans.factory.annotation.Value;
@@ -14,6 +15,7 @@ import java.util.Map;
 /**
  * Kafkaトピック自動作成設定
  * アプリケーション起動時に必要なトピックを自動作成
+ * app.kafka.topic.deferred-verification=true の場合は起動時には行わず、起動完了後にKafkaTopicVerifierが行う
  */
 @Configuration
 public class KafkaTopicConfig {
@@ -24,30 +26,71 @@ public class KafkaTopicConfig {
     @Value("${app.kafka.topic.messages:messages}")
     private String messagesTopicName;
     
+    @Value("${app.kafka.topic.urgent:messages.urgent}")
+    private String urgentTopicName;
+    
+    @Value("${app.kafka.topic.messages-partitions:3}")
+    private int messagesPartitions;
+    
+    @Value("${app.kafka.topic.urgent-partitions:3}")
+    private int urgentPartitions;
+    
+    @Value("${app.kafka.topic.messages-partition-epochs:}")
+    private String messagesPartitionEpochs;
+    
+    @Value("${app.kafka.topic.urgent-partition-epochs:}")
+    private String urgentPartitionEpochs;
+    
+    @Value("${app.kafka.topic.deferred-verification:false}")
+    private boolean deferredVerification;
+    
     /**
      * KafkaAdmin Bean
      * トピックの自動作成に必要
+     * 起動時に確認する場合、ブローカーに接続できないと最大でoperationTimeout（30秒）起動が止まる
      */
     @Bean
     public KafkaAdmin kafkaAdmin() {
         Map<String, Object> configs = new HashMap<>();
         configs.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        return new KafkaAdmin(configs);
+        KafkaAdmin kafkaAdmin = new KafkaAdmin(configs);
+        kafkaAdmin.setAutoCreate(!deferredVerification);
+        return kafkaAdmin;
     }
     
     /**
      * メッセージトピックの定義
      * アプリケーション起動時に自動作成される
+     * パーティション数の履歴（messages-partition-epochs）がある場合はその最新の数にする。
+     * 既存のトピックより多ければKafkaAdminがパーティションを追加する
      */
     @Bean
     public NewTopic messagesTopic() {
         return TopicBuilder.name(messagesTopicName)
-                .partitions(3)          // パーティション数
+                .partitions(partitions(messagesPartitions, messagesPartitionEpochs)) // パーティション数
                 .replicas(1)            // レプリカ数（単一ブローカー環境）
                 .compact()              // ログ圧縮有効化
                 .build();
     }
     
+    /**
+     * 緊急メッセージ（ERROR/WARNING）のトピック
+     * 通常トピックの滞留に影響されないよう分離し、専用のリスナーコンテナで処理する
+     */
+    @Bean
+    public NewTopic urgentMessagesTopic() {
+        return TopicBuilder.name(urgentTopicName)
+                .partitions(partitions(urgentPartitions, urgentPartitionEpochs))
+                .replicas(1)
+                .compact()
+                .build();
+    }
+    
+    private static int partitions(int configured, String epochsSpec) {
+        PartitionEpochs epochs = PartitionEpochs.parse(epochsSpec);
+        return epochs == null ? configured : epochs.latestCount();
+    }
+    
     /**
      * DLQ（Dead Letter Queue）トピック
      * エラーメッセージ用（将来的な拡張用）
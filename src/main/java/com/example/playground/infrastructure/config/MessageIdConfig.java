@@ -0,0 +1,26 @@
+package com.example.playground.infrastructure.config;
+
+import com.example.playground.domain.model.MessageIdGenerator;
+import com.example.playground.domain.model.TimeOrderedIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+/**
+ * メッセージID生成の設定クラス
+ */
+@Configuration
+public class MessageIdConfig {
+    
+    /**
+     * メッセージIDのジェネレーター
+     * app.message.id-format で文字列表現を選択する（ULID: 26文字 / UUID_V7: 36文字）
+     */
+    @Bean
+    public MessageIdGenerator messageIdGenerator(
+            @Value("${app.message.id-format:ULID}") TimeOrderedIdGenerator.Format format) {
+        return new TimeOrderedIdGenerator(format, Clock.systemUTC());
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.playground.infrastructure.config;
+
+import com.example.playground.application.service.SenderRateLimiter;
+import com.example.playground.infrastructure.resilience.LocalSenderRateLimiter;
+import com.example.playground.infrastructure.resilience.RedisSenderRateLimiter;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.Duration;
+
+/**
+ * 送信者ごとの書き込みレート制限の設定クラス
+ *
+ * - inmemory プロファイル: プロセス内のトークンバケットのみ（ノードごとの上限）
+ * - それ以外: Redis（GCRA）による全ノード共通の上限 + プロセス内の事前チェック
+ * - app.ratelimit.enabled=false: 制限しない
+ */
+@Configuration
+public class RateLimitConfig {
+    
+    @Value("${app.ratelimit.sender.rate:20}")
+    private double ratePerSecond;
+    
+    @Value("${app.ratelimit.sender.burst:40}")
+    private int burst;
+    
+    @Value("${app.ratelimit.max-tracked-senders:10000}")
+    private int maxTrackedSenders;
+    
+    @Value("${app.ratelimit.metrics.max-senders:100}")
+    private int metricsMaxSenders;
+    
+    @Bean
+    @Profile("inmemory")
+    @ConditionalOnProperty(name = "app.ratelimit.enabled", havingValue = "true", matchIfMissing = true)
+    public SenderRateLimiter localSenderRateLimiter(MeterRegistry meterRegistry) {
+        return localLimiter(meterRegistry);
+    }
+    
+    @Bean
+    @Profile("!inmemory")
+    @ConditionalOnProperty(name = "app.ratelimit.enabled", havingValue = "true", matchIfMissing = true)
+    public SenderRateLimiter redisSenderRateLimiter(RedisTemplate<String, String> redisTemplate,
+                                                    CircuitBreakerRegistry circuitBreakerRegistry,
+                                                    MeterRegistry meterRegistry) {
+        return new RedisSenderRateLimiter(redisTemplate, localLimiter(meterRegistry),
+                circuitBreakerRegistry.circuitBreaker("redis"), ratePerSecond, burst, meterRegistry);
+    }
+    
+    @Bean
+    @ConditionalOnProperty(name = "app.ratelimit.enabled", havingValue = "false")
+    public SenderRateLimiter unlimitedSenderRateLimiter() {
+        return sender -> Duration.ZERO;
+    }
+    
+    private LocalSenderRateLimiter localLimiter(MeterRegistry meterRegistry) {
+        return new LocalSenderRateLimiter(ratePerSecond, burst, maxTrackedSenders, metricsMaxSenders, meterRegistry);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.playground.infrastructure.config;
+
+import com.example.playground.infrastructure.resilience.AdaptiveTimeout;
+import io.lettuce.core.TimeoutOptions;
+import io.lettuce.core.protocol.CommandType;
+import io.lettuce.core.protocol.ProtocolKeyword;
+import io.lettuce.core.protocol.RedisCommand;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.data.redis.LettuceClientOptionsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 依存先の障害対策の設定クラス
+ * サーキットブレーカーとバルクヘッドは resilience4j.* プロパティで設定し、
+ * ここではRedisコマンドのタイムアウトを観測レイテンシに追従させる
+ */
+@Configuration
+public class ResilienceConfig {
+    
+    // レイテンシが件数に比例するコマンド（一括取得・Setの全件取得・集合演算・まとめた削除のEXEC・スクリプト）
+    // 1件の読み書きのレイテンシから求めたタイムアウトでは足りないため、上限を使う
+    private static final Set<ProtocolKeyword> BULK_COMMANDS = Set.of(
+            CommandType.MGET, CommandType.SMEMBERS, CommandType.ZUNIONSTORE, CommandType.ZINTERSTORE,
+            CommandType.EXEC, CommandType.EVAL, CommandType.EVALSHA);
+    
+    /**
+     * Redisコマンドのタイムアウト
+     * 平常時は短く保ち、Redisが遅くなった場合にスレッドが長時間待たされないようにする
+     */
+    @Bean
+    public AdaptiveTimeout redisCommandTimeout(
+            @Value("${app.resilience.redis.timeout.min:PT0.1S}") Duration min,
+            @Value("${app.resilience.redis.timeout.max:PT2S}") Duration max,
+            MeterRegistry meterRegistry) {
+        AdaptiveTimeout timeout = new AdaptiveTimeout(min, max);
+        meterRegistry.gauge("redis.command.timeout", timeout,
+                t -> TimeUnit.NANOSECONDS.toMillis(t.currentNanos()));
+        return timeout;
+    }
+    
+    /**
+     * Lettuceのコマンドごとのタイムアウトを動的に決める
+     * 1件のMGET（findById）は一括取得ではないので、観測したタイムアウトを使う。
+     * パイプライン・トランザクションでまとめて書く処理（AdaptiveTimeout.withMax の中）のコマンドは全て上限を使う
+     * （spring.data.redis.timeout は同期呼び出しの待ち時間の上限として残る）
+     */
+    @Bean
+    public LettuceClientOptionsBuilderCustomizer adaptiveTimeoutCustomizer(AdaptiveTimeout redisCommandTimeout) {
+        return builder -> builder.timeoutOptions(TimeoutOptions.builder()
+                .timeoutSource(new TimeoutOptions.TimeoutSource() {
+                    @Override
+                    public long getTimeout(RedisCommand<?, ?, ?> command) {
+                        return isBulk(command) || redisCommandTimeout.inMaxScope()
+                                ? redisCommandTimeout.maxNanos() : redisCommandTimeout.currentNanos();
+                    }
+                    
+                    @Override
+                    public TimeUnit getTimeUnit() {
+                        return TimeUnit.NANOSECONDS;
+                    }
+                })
+                .build());
+    }
+    
+    private static boolean isBulk(RedisCommand<?, ?, ?> command) {
+        if (!BULK_COMMANDS.contains(command.getType())) {
+            return false;
+        }
+        return command.getType() != CommandType.MGET || command.getArgs() == null || command.getArgs().count() > 1;
+    }
+}
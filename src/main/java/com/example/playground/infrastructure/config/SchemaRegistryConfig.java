@@ -0,0 +1,42 @@
+package com.example.playground.infrastructure.config;
+
+import com.example.playground.infrastructure.serde.FileSchemaRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * スキーマレジストリの設定クラス
+ */
+@Configuration
+public class SchemaRegistryConfig {
+
+    /**
+     * ファイルベースのスキーマレジストリ
+     * アプリに同梱したスキーマの履歴（classpath:schemas/{subject}/v{N}.avsc）を未登録のものだけ取り込み、
+     * どのインスタンスでも同じバージョン番号になるようにする
+     */
+    @Bean
+    public FileSchemaRegistry fileSchemaRegistry(
+            @Value("${app.kafka.schema-registry.directory:./data/schema-registry}") Path directory) throws IOException {
+        Resource[] bundled = new PathMatchingResourcePatternResolver().getResources("classpath*:schemas/*/v*.avsc");
+        for (Resource resource : bundled) {
+            String[] segments = resource.getURL().getPath().split("/");
+            Path target = directory.resolve(segments[segments.length - 2]).resolve(segments[segments.length - 1]);
+            if (Files.notExists(target)) {
+                Files.createDirectories(target.getParent());
+                try (InputStream in = resource.getInputStream()) {
+                    Files.copy(in, target);
+                }
+            }
+        }
+        return new FileSchemaRegistry(directory);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.playground.infrastructure.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 起動時間を短くするための設定クラス（fast-start プロファイル: application-fast-start.properties）
+ *
+ * - spring.main.lazy-initialization=true のとき、Beanは最初に使われた時点で作られる
+ *   （@Scheduled を持つBeanはSpring Bootが、@KafkaListener を持つBeanはこのクラスのフィルターが除外して起動時に作る）
+ * - 起動完了後にStartupWarmerが残りのBeanとRedis・Kafkaの接続をバックグラウンドで用意する
+ */
+@Configuration
+public class StartupConfig {
+
+    /**
+     * @KafkaListener を持つBeanは遅延初期化しない
+     * 遅延させるとリスナーが登録されず、メッセージを受信しなくなる
+     * BeanFactoryPostProcessorから参照されるため static で定義する
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter kafkaListenerLazyInitializationExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> hasKafkaListener(beanType);
+    }
+
+    /**
+     * 遅延初期化が有効な場合に、起動完了後に残りのBeanと接続を用意する
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring.main.lazy-initialization", havingValue = "true")
+    public StartupWarmer startupWarmer(ConfigurableListableBeanFactory beanFactory,
+                                       ObjectProvider<RedisConnectionFactory> redisConnectionFactory,
+                                       ObjectProvider<KafkaTemplate<?, ?>> kafkaTemplate,
+                                       Environment environment) {
+        return new StartupWarmer(beanFactory, redisConnectionFactory, kafkaTemplate,
+                !environment.matchesProfiles("inmemory"));
+    }
+
+    static boolean hasKafkaListener(Class<?> beanType) {
+        if (beanType == null) {
+            return false;
+        }
+        if (AnnotatedElementUtils.hasAnnotation(beanType, KafkaListener.class)) {
+            return true;
+        }
+        AtomicBoolean found = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(beanType, method -> found.set(true),
+                method -> !found.get() && AnnotatedElementUtils.hasAnnotation(method, KafkaListener.class));
+        return found.get();
+    }
+}
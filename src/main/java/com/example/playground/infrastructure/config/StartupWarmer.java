@@ -0,0 +1,98 @@
+package com.example.playground.infrastructure.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+/**
+ * 遅延初期化したBeanと外部への接続を、起動完了（readiness）後にバックグラウンドで用意する
+ *
+ * - 残りのシングルトンを作る（最初のリクエストでBeanの生成を待たない。メトリクスもこの時点で登録される）
+ * - Redisの共有接続を張る（inmemory プロファイルでは行わない）
+ * - Kafkaプロデューサーを作る（送信スレッドがブートストラップサーバーに接続する。トピックのメタデータは取得しない）
+ *
+ * 失敗しても起動には影響しない（最初に使われた時点で改めて作られる）。
+ */
+public class StartupWarmer implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupWarmer.class);
+
+    private final ConfigurableListableBeanFactory beanFactory;
+    private final ObjectProvider<RedisConnectionFactory> redisConnectionFactory;
+    private final ObjectProvider<KafkaTemplate<?, ?>> kafkaTemplate;
+    private final boolean warmRedis;
+
+    public StartupWarmer(ConfigurableListableBeanFactory beanFactory,
+                         ObjectProvider<RedisConnectionFactory> redisConnectionFactory,
+                         ObjectProvider<KafkaTemplate<?, ?>> kafkaTemplate,
+                         boolean warmRedis) {
+        this.beanFactory = beanFactory;
+        this.redisConnectionFactory = redisConnectionFactory;
+        this.kafkaTemplate = kafkaTemplate;
+        this.warmRedis = warmRedis;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        Thread thread = new Thread(this::warmUp, "startup-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void warmUp() {
+        long start = System.nanoTime();
+        int created = createRemainingSingletons();
+        if (warmRedis) {
+            redisConnectionFactory.ifUnique(this::warmRedis);
+        }
+        kafkaTemplate.ifUnique(this::warmKafka);
+        logger.info("🔥 Startup warm-up finished: {} lazy beans created in {} ms", created,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * まだ作られていないシングルトンを作る
+     *
+     * @return 作成したBeanの数
+     */
+    int createRemainingSingletons() {
+        int created = 0;
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+            if (!definition.isSingleton() || definition.isAbstract() || beanFactory.containsSingleton(beanName)) {
+                continue;
+            }
+            try {
+                beanFactory.getBean(beanName);
+                created++;
+            } catch (BeansException e) {
+                logger.warn("⚠️ Failed to warm up bean {}: {}", beanName, e.getMessage());
+            }
+        }
+        return created;
+    }
+
+    private void warmRedis(RedisConnectionFactory connectionFactory) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            connection.ping();
+        } catch (RuntimeException e) {
+            logger.warn("⚠️ Redis warm-up failed: {}", e.getMessage());
+        }
+    }
+
+    private void warmKafka(KafkaTemplate<?, ?> template) {
+        try {
+            template.metrics();
+        } catch (RuntimeException e) {
+            logger.warn("⚠️ Kafka producer warm-up failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.playground.infrastructure.config;
+
+import com.example.playground.domain.repository.MessageRepository;
+import com.example.playground.infrastructure.repository.FailoverMessageRepository;
+import com.example.playground.infrastructure.repository.InMemoryMessageRepository;
+import com.example.playground.infrastructure.repository.RedisMessageRepository;
+import com.example.playground.infrastructure.repository.ResilientMessageRepository;
+import com.example.playground.infrastructure.repository.SegmentMessageStore;
+import com.example.playground.infrastructure.repository.TieredMessageRepository;
+import com.example.playground.infrastructure.resilience.AdaptiveTimeout;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * ストレージ構成クラス
+ * アプリケーションが使用するMessageRepository（@Primary）を設定に応じて組み立てる
+ *
+ * - inmemory プロファイル: プロセス内リポジトリのみ（Redis不要）
+ * - Redisへの呼び出しはサーキットブレーカー（redis）と用途別のバルクヘッドで保護する
+ * - app.storage.tiering.enabled=true: Redis（ホット層）+ セグメントストア（コールド層）
+ * - app.storage.fallback.enabled=true: 上記をRedis障害時にプロセス内リポジトリへ切り替える
+ */
+@Configuration
+public class StorageConfig {
+    
+    @Value("${app.storage.in-memory.max-entries:100000}")
+    private int inMemoryMaxEntries;
+    
+    /**
+     * コールド層のセグメントストア
+     * 複数インスタンスの場合は共有ボリュームを使用し、他のインスタンスの移行・削除は rescan-interval ごとに取り込む
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.storage.tiering.enabled", havingValue = "true")
+    public SegmentMessageStore segmentMessageStore(
+            @Value("${app.storage.cold.directory:./data/cold}") String directory,
+            @Value("${app.storage.cold.rescan-interval:PT1S}") Duration rescanInterval) {
+        return new SegmentMessageStore(Path.of(directory), rescanInterval);
+    }
+    
+    /**
+     * inmemory プロファイル用のMessageRepository
+     * 上限を超えた分は、セグメントストアが有効ならそこへ退避する
+     */
+    @Bean
+    @Primary
+    @Profile("inmemory")
+    public MessageRepository inMemoryMessageRepository(ObjectProvider<SegmentMessageStore> segmentMessageStore) {
+        return new InMemoryMessageRepository(inMemoryMaxEntries, segmentMessageStore.getIfAvailable());
+    }
+    
+    /**
+     * Redisを使用するMessageRepository
+     */
+    @Bean
+    @Primary
+    @Profile("!inmemory")
+    public MessageRepository messageRepository(
+            RedisMessageRepository redisMessageRepository,
+            ObjectProvider<SegmentMessageStore> segmentMessageStore,
+            RedisTemplate<String, String> redisTemplate,
+            MeterRegistry meterRegistry,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            BulkheadRegistry bulkheadRegistry,
+            AdaptiveTimeout redisCommandTimeout,
+            @Value("${app.storage.fallback.enabled:false}") boolean fallbackEnabled,
+            @Value("${app.storage.fallback.max-entries:10000}") int fallbackMaxEntries,
+            @Value("${app.storage.fallback.max-pending-writes:10000}") int maxPendingWrites) {
+        SegmentMessageStore cold = segmentMessageStore.getIfAvailable();
+        MessageRepository repository = new ResilientMessageRepository(
+                cold != null ? new TieredMessageRepository(redisMessageRepository, cold) : redisMessageRepository,
+                circuitBreakerRegistry.circuitBreaker("redis"),
+                bulkheadRegistry.bulkhead("redis-read"),
+                bulkheadRegistry.bulkhead("redis-write"),
+                bulkheadRegistry.bulkhead("redis-cleanup"),
+                redisCommandTimeout);
+        
+        if (!fallbackEnabled) {
+            return repository;
+        }
+        return new FailoverMessageRepository(repository, new InMemoryMessageRepository(fallbackMaxEntries, null),
+                redisTemplate, maxPendingWrites, meterRegistry);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.playground.infrastructure.messaging;
+
+/**
+ * AIMD（加算増加・乗算減少）で流量を調整するトークンバケット
+ * トークンは負（借り越し）まで減らせるため、取得した側は待たずに処理を続け、
+ * 借り越した分は次の補充までの停止時間で返す。
+ * 調整のたびに直近の窓のレイテンシとエラー率を見て、悪化していればレートを下げ、
+ * 制限に当たっていて健全であればレートを少しずつ上げる
+ */
+final class AimdRateLimiter {
+
+    private final double minRate;
+    private final double maxRate;
+    private final double increase;
+    private final double decreaseFactor;
+
+    private double rate;
+    private double tokens;
+    private long lastRefillNanos;
+
+    // 直近の調整窓の統計
+    private long windowCount;
+    private long windowErrors;
+    private long windowLatencyNanos;
+    private boolean windowThrottled;
+
+    /**
+     * @param initialRate 初期レート（件/秒）
+     * @param minRate 下限（件/秒）
+     * @param maxRate 上限（件/秒）
+     * @param increase 1回の調整で増やす量（件/秒）
+     * @param decreaseFactor 悪化時にレートに掛ける係数（0〜1）
+     * @param nowNanos 現在時刻（System.nanoTime）
+     */
+    AimdRateLimiter(double initialRate, double minRate, double maxRate, double increase,
+                    double decreaseFactor, long nowNanos) {
+        if (minRate <= 0 || minRate > maxRate || decreaseFactor <= 0 || decreaseFactor >= 1) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid rate limits: min=%s, max=%s, decreaseFactor=%s", minRate, maxRate, decreaseFactor));
+        }
+        this.minRate = minRate;
+        this.maxRate = maxRate;
+        this.increase = increase;
+        this.decreaseFactor = decreaseFactor;
+        this.rate = Math.min(Math.max(initialRate, minRate), maxRate);
+        this.tokens = capacity();
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /**
+     * 1件分のトークンを取得する（残りが無くても借り越して取得する）
+     * @return 借り越しになっていなければtrue（falseの場合は取得側で消費を止める）
+     */
+    synchronized boolean acquire(long nowNanos) {
+        refill(nowNanos);
+        tokens -= 1;
+        if (tokens < 0) {
+            windowThrottled = true;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * トークンを補充する
+     * @return 借り越しを返し終えていればtrue
+     */
+    synchronized boolean refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity(), tokens + rate * elapsed / 1_000_000_000.0);
+            lastRefillNanos = nowNanos;
+        }
+        return tokens >= 0;
+    }
+
+    /**
+     * 1件の処理結果を記録する
+     */
+    synchronized void record(long latencyNanos, boolean success) {
+        windowCount++;
+        windowLatencyNanos += latencyNanos;
+        if (!success) {
+            windowErrors++;
+        }
+    }
+
+    /**
+     * 直近の窓の統計からレートを調整し、窓をリセットする
+     * @param latencyTargetNanos 平均レイテンシの目標
+     * @param errorRateThreshold 許容するエラー率（0〜1）
+     * @return 調整後のレート（件/秒）
+     */
+    synchronized double adjust(long latencyTargetNanos, double errorRateThreshold) {
+        if (windowCount > 0) {
+            double errorRate = (double) windowErrors / windowCount;
+            long meanLatency = windowLatencyNanos / windowCount;
+            if (errorRate > errorRateThreshold || meanLatency > latencyTargetNanos) {
+                rate = Math.max(minRate, rate * decreaseFactor);
+            } else if (windowThrottled) {
+                rate = Math.min(maxRate, rate + increase);
+            }
+        }
+        tokens = Math.min(tokens, capacity());
+        windowCount = 0;
+        windowErrors = 0;
+        windowLatencyNanos = 0;
+        windowThrottled = false;
+        return rate;
+    }
+
+    synchronized double getRate() {
+        return rate;
+    }
+
+    /**
+     * バースト上限（1秒分、最低1件）
+     */
+    private double capacity() {
+        return Math.max(1, rate);
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.playground.infrastructure.messaging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kafkaコンシューマーの流量制御
+ * 保存処理（Redis）のレイテンシとエラー率からAIMDで受信レート（件/秒）を調整し、
+ * レートを超えた場合はリスナーの担当パーティションを一時停止して、トークンが戻れば再開する。
+ * コンシューマースレッドでは待機しない（停止・再開は次のpollから反映される）
+ */
+@Component
+public class ConsumerFlowController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsumerFlowController.class);
+
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final AimdRateLimiter limiter;
+    private final ScheduledExecutorService scheduler;
+    private final Counter throttledCounter;
+    private final long latencyTargetNanos;
+    private final double errorRateThreshold;
+    private volatile boolean paused;
+
+    public ConsumerFlowController(
+            KafkaListenerEndpointRegistry listenerRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${app.kafka.flow.initial-rate:500}") double initialRate,
+            @Value("${app.kafka.flow.min-rate:10}") double minRate,
+            @Value("${app.kafka.flow.max-rate:5000}") double maxRate,
+            @Value("${app.kafka.flow.additive-increase:50}") double additiveIncrease,
+            @Value("${app.kafka.flow.decrease-factor:0.5}") double decreaseFactor,
+            @Value("${app.kafka.flow.latency-target:PT0.05S}") Duration latencyTarget,
+            @Value("${app.kafka.flow.error-rate-threshold:0.05}") double errorRateThreshold,
+            @Value("${app.kafka.flow.tick:PT0.05S}") Duration tick,
+            @Value("${app.kafka.flow.adjust-interval:PT1S}") Duration adjustInterval) {
+        this.listenerRegistry = listenerRegistry;
+        this.limiter = new AimdRateLimiter(initialRate, minRate, maxRate, additiveIncrease, decreaseFactor,
+                System.nanoTime());
+        this.latencyTargetNanos = latencyTarget.toNanos();
+        this.errorRateThreshold = errorRateThreshold;
+
+        Gauge.builder("messages.consumer.rate", limiter, AimdRateLimiter::getRate)
+                .description("Current consumer rate limit in records per second")
+                .register(meterRegistry);
+        Gauge.builder("messages.consumer.paused.partitions", this, ConsumerFlowController::countPausedPartitions)
+                .description("Partitions currently paused by the flow controller")
+                .register(meterRegistry);
+        this.throttledCounter = Counter.builder("messages.consumer.throttled")
+                .description("Times the consumer was paused because the rate limit was exceeded")
+                .register(meterRegistry);
+
+        // 停止中の再開はこのスレッドで行う（共有の@Scheduledスレッドは他のジョブで塞がることがある）
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "consumer-flow-control");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::resumeIfRefilled, tick.toNanos(), tick.toNanos(), TimeUnit.NANOSECONDS);
+        scheduler.scheduleAtFixedRate(this::adjustRate,
+                adjustInterval.toNanos(), adjustInterval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 1件の処理を始める前に呼ぶ
+     * レートを超えていれば担当パーティションを停止する（この呼び出し自体はブロックしない）
+     */
+    public void beforeRecord() {
+        if (!limiter.acquire(System.nanoTime()) && !paused) {
+            pause();
+        }
+    }
+
+    /**
+     * 1件の保存処理の結果を記録する
+     * @param latencyNanos 保存にかかった時間
+     * @param success 成功した場合はtrue
+     */
+    public void afterRecord(long latencyNanos, boolean success) {
+        limiter.record(latencyNanos, success);
+    }
+
+    public double getRate() {
+        return limiter.getRate();
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    private synchronized void pause() {
+        if (paused) {
+            return;
+        }
+        MessageListenerContainer container = container();
+        if (container == null) {
+            return;
+        }
+        paused = true;
+        throttledCounter.increment();
+        assignedPartitions(container).forEach(container::pausePartition);
+        logger.debug("⏸️ Consumer paused: rate={}/s", String.format("%.1f", limiter.getRate()));
+    }
+
+    private synchronized void resumeIfRefilled() {
+        try {
+            if (!paused || !limiter.refill(System.nanoTime())) {
+                return;
+            }
+            MessageListenerContainer container = container();
+            if (container != null) {
+                // リバランスで担当が変わっていても、現在の担当分をすべて再開する
+                assignedPartitions(container).forEach(container::resumePartition);
+            }
+            paused = false;
+        } catch (Exception e) {
+            logger.warn("⚠️ Failed to resume consumer", e);
+        }
+    }
+
+    private void adjustRate() {
+        try {
+            double before = limiter.getRate();
+            double after = limiter.adjust(latencyTargetNanos, errorRateThreshold);
+            if (after < before) {
+                logger.warn("🐢 Consumer rate decreased: {}/s -> {}/s",
+                        String.format("%.1f", before), String.format("%.1f", after));
+            }
+        } catch (Exception e) {
+            logger.warn("⚠️ Failed to adjust consumer rate", e);
+        }
+    }
+
+    private double countPausedPartitions() {
+        MessageListenerContainer container = container();
+        if (container == null) {
+            return 0;
+        }
+        return assignedPartitions(container).stream().filter(container::isPartitionPaused).count();
+    }
+
+    private MessageListenerContainer container() {
+        return listenerRegistry.getListenerContainer(KafkaMessageConsumer.LISTENER_ID);
+    }
+
+    private static Collection<TopicPartition> assignedPartitions(MessageListenerContainer container) {
+        Collection<TopicPartition> partitions = container.getAssignedPartitions();
+        return partitions != null ? partitions : List.of();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
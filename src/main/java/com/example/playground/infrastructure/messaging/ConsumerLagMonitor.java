@@ -0,0 +1,275 @@
+package com.example.playground.infrastructure.messaging;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.ConsumerGroupDescription;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.MemberDescription;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * コンシューマーグループのラグと処理レートの監視、および必要なインスタンス数の算出
+ *
+ * 一定間隔でAdminClientから各パーティションの末尾オフセットとグループのコミット済みオフセットを取得し、
+ * ラグ（末尾 - コミット済み）と、期間内の増分から流入レート・処理レートを求める。
+ * 結果は GET /actuator/scaling と messages.consumer.lag / messages.scaling.recommended.replicas で公開し、
+ * 外部のオートスケーラー（tests/autoscaler.sh はその代用）がインスタンス数の決定に使う。
+ *
+ * オフセットはグループ全体の値なので、どのインスタンスに問い合わせても同じ結果になる。
+ */
+@Component
+@ConditionalOnProperty(name = "app.kafka.scaling.enabled", havingValue = "true", matchIfMissing = true)
+public class ConsumerLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsumerLagMonitor.class);
+
+    /**
+     * 1回の取得結果（トピックごとの末尾オフセットとコミット済みオフセットの合計）
+     */
+    private record Sample(long timeMillis, Map<String, Long> produced, Map<String, Long> consumed) {
+    }
+
+    private final KafkaAdmin kafkaAdmin;
+    private final String groupId;
+    private final List<String> topics;
+    private final int concurrency;
+    private final double targetRatePerReplica;
+    private final ReplicaRecommender recommender;
+    private final Duration rateWindow;
+    private final Duration requestTimeout;
+    private final ScheduledExecutorService scheduler;
+    private final Deque<Sample> samples = new ArrayDeque<>();
+    private final Map<String, Long> lagByTopic = new ConcurrentHashMap<>();
+    private Admin admin;
+    private volatile Map<String, Object> snapshot = Map.of("status", "PENDING");
+    private volatile int recommendedReplicas = 1;
+    private volatile boolean failing;
+
+    public ConsumerLagMonitor(
+            KafkaAdmin kafkaAdmin,
+            MeterRegistry meterRegistry,
+            @Value("${app.kafka.consumer.group-id:message-consumer-group}") String groupId,
+            @Value("${app.kafka.topic.messages:messages}") String topicName,
+            @Value("${app.kafka.topic.urgent:messages.urgent}") String urgentTopicName,
+            @Value("${app.kafka.consumer.concurrency:3}") int concurrency,
+            @Value("${app.kafka.scaling.target-rate-per-replica:200}") double targetRatePerReplica,
+            @Value("${app.kafka.scaling.lag-drain-time:PT1M}") Duration lagDrainTime,
+            @Value("${app.kafka.scaling.min-replicas:1}") int minReplicas,
+            @Value("${app.kafka.scaling.max-replicas:10}") int maxReplicas,
+            @Value("${app.kafka.scaling.scale-down-stabilization:PT5M}") Duration scaleDownStabilization,
+            @Value("${app.kafka.scaling.rate-window:PT1M}") Duration rateWindow,
+            @Value("${app.kafka.scaling.request-timeout:PT5S}") Duration requestTimeout,
+            @Value("${app.kafka.scaling.sample-interval:PT10S}") Duration sampleInterval) {
+        this.kafkaAdmin = kafkaAdmin;
+        this.groupId = groupId;
+        this.topics = List.of(topicName, urgentTopicName);
+        this.concurrency = concurrency;
+        this.targetRatePerReplica = targetRatePerReplica;
+        this.recommender = new ReplicaRecommender(targetRatePerReplica, lagDrainTime, minReplicas, maxReplicas,
+                scaleDownStabilization);
+        this.rateWindow = rateWindow;
+        this.requestTimeout = requestTimeout;
+
+        for (String topic : topics) {
+            Gauge.builder("messages.consumer.lag", lagByTopic, lags -> lags.getOrDefault(topic, 0L))
+                    .description("Records not yet committed by the consumer group")
+                    .tag("topic", topic)
+                    .register(meterRegistry);
+        }
+        Gauge.builder("messages.scaling.recommended.replicas", this, monitor -> monitor.recommendedReplicas)
+                .description("Instances needed to keep up with the arrival rate and drain the lag")
+                .register(meterRegistry);
+
+        // AdminClientの呼び出しはタイムアウトまで待つことがあるため、共有の@Scheduledスレッドは使わない
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "consumer-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::sample, 0, sampleInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * オフセットを取得して状態を更新する
+     * 失敗した場合は直前の結果を STALE として残す（ログは状態が変わったときだけ出す）
+     */
+    void sample() {
+        try {
+            if (admin == null) {
+                admin = Admin.create(kafkaAdmin.getConfigurationProperties());
+            }
+            snapshot = collect(System.currentTimeMillis());
+            if (failing) {
+                logger.info("✅ Consumer lag monitoring recovered");
+                failing = false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            if (!failing) {
+                logger.warn("⚠️ Failed to read consumer lag for group {}: {}", groupId, e.toString());
+                failing = true;
+            }
+            Map<String, Object> stale = new LinkedHashMap<>(snapshot);
+            stale.put("status", snapshot.containsKey("sampledAt") ? "STALE" : "UNAVAILABLE");
+            stale.put("error", e.toString());
+            snapshot = stale;
+        }
+    }
+
+    private Map<String, Object> collect(long nowMillis) throws Exception {
+        long timeout = requestTimeout.toMillis();
+        Map<String, TopicDescription> descriptions = admin.describeTopics(topics).allTopicNames()
+                .get(timeout, TimeUnit.MILLISECONDS);
+        Map<TopicPartition, OffsetSpec> latest = new HashMap<>();
+        descriptions.values().forEach(description -> description.partitions().forEach(info ->
+                latest.put(new TopicPartition(description.name(), info.partition()), OffsetSpec.latest())));
+        Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> endOffsets = admin.listOffsets(latest).all()
+                .get(timeout, TimeUnit.MILLISECONDS);
+        Map<TopicPartition, OffsetAndMetadata> committed = admin.listConsumerGroupOffsets(groupId)
+                .partitionsToOffsetAndMetadata().get(timeout, TimeUnit.MILLISECONDS);
+        ConsumerGroupDescription group = admin.describeConsumerGroups(List.of(groupId)).describedGroups()
+                .get(groupId).get(timeout, TimeUnit.MILLISECONDS);
+
+        // まだコミットのないパーティションは先頭から読むため（auto.offset.reset=earliest）、先頭オフセットを基準にする
+        Map<TopicPartition, OffsetSpec> uncommitted = new HashMap<>();
+        latest.keySet().stream()
+                .filter(partition -> committed.get(partition) == null)
+                .forEach(partition -> uncommitted.put(partition, OffsetSpec.earliest()));
+        Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> startOffsets = uncommitted.isEmpty()
+                ? Map.of()
+                : admin.listOffsets(uncommitted).all().get(timeout, TimeUnit.MILLISECONDS);
+
+        Map<String, Long> produced = new HashMap<>();
+        Map<String, Long> consumed = new HashMap<>();
+        Map<String, Map<Integer, Long>> partitionLag = new HashMap<>();
+        endOffsets.forEach((partition, info) -> {
+            OffsetAndMetadata offset = committed.get(partition);
+            long position = offset != null ? offset.offset() : startOffsets.get(partition).offset();
+            long end = info.offset();
+            produced.merge(partition.topic(), end, Long::sum);
+            consumed.merge(partition.topic(), position, Long::sum);
+            partitionLag.computeIfAbsent(partition.topic(), topic -> new TreeMap<>())
+                    .put(partition.partition(), Math.max(0, end - position));
+        });
+
+        Sample current = new Sample(nowMillis, produced, consumed);
+        samples.addLast(current);
+        while (samples.size() > 2 && samples.peekFirst().timeMillis() < nowMillis - rateWindow.toMillis()) {
+            samples.removeFirst();
+        }
+        Sample oldest = samples.peekFirst();
+        double seconds = (current.timeMillis() - oldest.timeMillis()) / 1000.0;
+
+        Map<String, Object> topicDetails = new LinkedHashMap<>();
+        long totalLag = 0;
+        double totalProduceRate = 0;
+        double totalConsumeRate = 0;
+        for (String topic : topics) {
+            Map<Integer, Long> lags = partitionLag.getOrDefault(topic, Map.of());
+            long lag = lags.values().stream().mapToLong(Long::longValue).sum();
+            double produceRate = rate(oldest.produced(), current.produced(), topic, seconds);
+            double consumeRate = rate(oldest.consumed(), current.consumed(), topic, seconds);
+            lagByTopic.put(topic, lag);
+            totalLag += lag;
+            totalProduceRate += produceRate;
+            totalConsumeRate += consumeRate;
+
+            Map<String, Object> detail = new LinkedHashMap<>();
+            detail.put("partitions", descriptions.containsKey(topic) ? descriptions.get(topic).partitions().size() : 0);
+            detail.put("lag", lag);
+            detail.put("produceRate", round(produceRate));
+            detail.put("consumeRate", round(consumeRate));
+            detail.put("partitionLag", lags);
+            topicDetails.put(topic, detail);
+        }
+
+        int partitions = descriptions.containsKey(topics.get(0)) ? descriptions.get(topics.get(0)).partitions().size() : 0;
+        ReplicaRecommender.Recommendation recommendation =
+                recommender.recommend(totalProduceRate, totalLag, partitions, nowMillis);
+        recommendedReplicas = recommendation.replicas();
+
+        Set<String> hosts = new HashSet<>();
+        for (MemberDescription member : group.members()) {
+            hosts.add(member.host());
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("status", "OK");
+        result.put("sampledAt", Instant.ofEpochMilli(nowMillis));
+        result.put("group", groupId);
+        result.put("groupState", String.valueOf(group.state()));
+        result.put("lag", totalLag);
+        result.put("produceRate", round(totalProduceRate));
+        result.put("consumeRate", round(totalConsumeRate));
+        result.put("rateWindowSeconds", round(seconds));
+        result.put("consumers", group.members().size());
+        result.put("hosts", hosts.size());
+        result.put("concurrency", concurrency);
+        result.put("targetRatePerReplica", targetRatePerReplica);
+        result.put("recommendedReplicas", recommendation.replicas());
+        result.put("requiredReplicas", recommendation.required());
+        // パーティション数を超えるインスタンスには割り当てがない（超える場合はパーティションの追加が必要）
+        result.put("maxUsefulReplicas", partitions);
+        result.put("partitionLimited", recommendation.partitionLimited());
+        result.put("topics", topicDetails);
+        return result;
+    }
+
+    private static double rate(Map<String, Long> from, Map<String, Long> to, String topic, double seconds) {
+        if (seconds <= 0) {
+            return 0;
+        }
+        return Math.max(0, to.getOrDefault(topic, 0L) - from.getOrDefault(topic, 0L)) / seconds;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+
+    /**
+     * 直近の監視結果（GET /actuator/scaling）
+     */
+    public Map<String, Object> getSnapshot() {
+        return snapshot;
+    }
+
+    public int getRecommendedReplicas() {
+        return recommendedReplicas;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        if (admin != null) {
+            admin.close(Duration.ofSeconds(1));
+        }
+    }
+}
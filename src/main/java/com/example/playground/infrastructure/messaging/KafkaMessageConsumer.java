@@ -1,129 +1,146 @@
 package com.example.playground.infrastructure.messaging;
 
+import com.example.playground.application.service.DependencyUnavailableException;
+import com.example.playground.application.stream.MessageBroadcaster;
 import com.example.playground.domain.model.Message;
-import com.example.playground.domain.model.MessageType;
 import com.example.playground.domain.repository.MessageRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.playground.infrastructure.serde.MessageEventCodec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDateTime;
+import java.io.IOException;
 
 /**
  * Kafkaメッセージコンシューマー
  * Kafkaからメッセージを受信し、Redisに保存する
+ * 保存先が一時的に使えない場合は例外を投げ直し、コンテナのエラーハンドラーに再試行させる（オフセットは進めない）
+ * 通常トピックの受信レートはConsumerFlowControllerが保存処理の状況に応じて調整する。
+ * 緊急トピックは別のコンテナで受信し、流量制御をかけない
  */
 @Component
 public class KafkaMessageConsumer {
     
     private static final Logger logger = LoggerFactory.getLogger(KafkaMessageConsumer.class);
     
-    private final MessageRepository messageRepository;
-    private final ObjectMapper objectMapper;
+    /**
+     * リスナーコンテナのID（流量制御でパーティションを停止・再開するために使用）
+     */
+    public static final String LISTENER_ID = "message-consumer";
+    
+    /**
+     * 緊急メッセージ用リスナーコンテナのID（流量制御の対象外）
+     */
+    public static final String URGENT_LISTENER_ID = "urgent-message-consumer";
     
-    @Value("${app.kafka.consumer.processing-delay:3000}")
-    private int processingDelayMs;
+    private final MessageRepository messageRepository;
+    private final MessageEventCodec codec;
+    private final MessageBroadcaster messageBroadcaster;
+    private final ConsumerFlowController flowController;
     
-    public KafkaMessageConsumer(MessageRepository messageRepository, ObjectMapper objectMapper) {
+    public KafkaMessageConsumer(MessageRepository messageRepository, MessageEventCodec codec,
+                                MessageBroadcaster messageBroadcaster, ConsumerFlowController flowController) {
         this.messageRepository = messageRepository;
-        this.objectMapper = objectMapper;
+        this.codec = codec;
+        this.messageBroadcaster = messageBroadcaster;
+        this.flowController = flowController;
     }
     
     @KafkaListener(
+        id = LISTENER_ID,
         topics = "${app.kafka.topic.messages:messages}",
         groupId = "${app.kafka.consumer.group-id:message-consumer-group}",
-        containerFactory = "kafkaListenerContainerFactory"
+        containerFactory = "kafkaListenerContainerFactory",
+        // 再構築モードではMessageStateRebuilderが完了後に起動する
+        autoStartup = "#{!${app.kafka.rebuild.enabled:false}}"
     )
     public void handleMessage(
-            @Payload String messageJson,
+            @Payload(required = false) byte[] value,
+            @Header(KafkaHeaders.RECEIVED_KEY) String key,
+            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+            @Header(KafkaHeaders.OFFSET) long offset) {
+        process(value, key, topic, partition, offset, true);
+    }
+    
+    /**
+     * 緊急メッセージ（ERROR/WARNING）の受信
+     * 専用トピック・専用のコンテナ（スレッド）で処理し、通常トピックの滞留や流量制御の影響を受けない
+     */
+    @KafkaListener(
+        id = URGENT_LISTENER_ID,
+        topics = "${app.kafka.topic.urgent:messages.urgent}",
+        groupId = "${app.kafka.consumer.group-id:message-consumer-group}",
+        containerFactory = "urgentKafkaListenerContainerFactory",
+        autoStartup = "#{!${app.kafka.rebuild.enabled:false}}"
+    )
+    public void handleUrgentMessage(
+            @Payload(required = false) byte[] value,
             @Header(KafkaHeaders.RECEIVED_KEY) String key,
             @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
             @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
             @Header(KafkaHeaders.OFFSET) long offset) {
-        
+        process(value, key, topic, partition, offset, false);
+    }
+    
+    private void process(byte[] value, String key, String topic, int partition, long offset, boolean throttled) {
         try {
             logger.info("🚀 Received message: key={}, topic={}, partition={}, offset={}", 
                     key, topic, partition, offset);
             
-            // 🐌 処理遅延（Kafka UIで観察するため）
-            if (processingDelayMs > 0) {
-                logger.info("⏳ Processing delay: {}ms for better observation...", processingDelayMs);
-                Thread.sleep(processingDelayMs);
+            // レートを超えていれば次のpollからパーティションを止める（ここでは待たない）
+            if (throttled) {
+                flowController.beforeRecord();
             }
             
-            // JSONからメッセージイベントに変換
-            MessageEvent event = objectMapper.readValue(messageJson, MessageEvent.class);
+            if (value == null) {
+                // tombstone: 削除を反映する
+                messageRepository.deleteById(key);
+                logger.info("🪦 Message deleted by tombstone: id={}", key);
+                return;
+            }
             
-            // ドメインモデルに変換
-            Message message = convertToMessage(event);
+            // ワイヤーフォーマットから直接ドメインモデルに変換（検証を含む）
+            Message message = codec.decode(value);
             
             logger.info("💾 Saving message to Redis: id={}, content='{}'", 
                     message.getId(), message.getContent());
             
             // リポジトリに保存（別のインスタンスからのメッセージかもしれないので）
-            messageRepository.save(message);
+            long start = System.nanoTime();
+            try {
+                messageRepository.save(message);
+                if (throttled) {
+                    flowController.afterRecord(System.nanoTime() - start, true);
+                }
+            } catch (RuntimeException e) {
+                if (throttled) {
+                    flowController.afterRecord(System.nanoTime() - start, false);
+                }
+                throw e;
+            }
+            
+            // 購読者にプッシュ配信（ポーリング不要にする）
+            messageBroadcaster.broadcast(message);
             
             logger.info("✅ Message processed and saved: id={}, sender={}, type={}", 
                     message.getId(), message.getSender(), message.getType());
                     
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            logger.warn("⚠️ Message processing interrupted: key={}", key);
-        } catch (JsonProcessingException e) {
-            logger.error("❌ Failed to deserialize message: key={}, payload={}", key, messageJson, e);
+        } catch (IOException e) {
+            logger.error("❌ Failed to deserialize message: key={}, length={}", key, value.length, e);
+        } catch (DependencyUnavailableException | DataAccessException e) {
+            // 保存先が一時的に使えない: コンテナのエラーハンドラーに再試行させ、オフセットをコミットしない
+            logger.warn("⏳ Storage unavailable, retrying message: key={}, topic={}, partition={}, offset={}",
+                    key, topic, partition, offset);
+            throw e;
         } catch (Exception e) {
             logger.error("💥 Failed to process message: key={}", key, e);
             // ここで必要に応じてDLQ（Dead Letter Queue）に送信するロジックを追加
         }
     }
-    
-    /**
-     * MessageEventからMessageドメインモデルに変換
-     */
-    private Message convertToMessage(MessageEvent event) {
-        return new Message(
-                event.getId(),
-                event.getContent(),
-                event.getSender(),
-                LocalDateTime.parse(event.getTimestamp()),
-                MessageType.valueOf(event.getType())
-        );
-    }
-    
-    /**
-     * Kafka受信用のイベントDTO
-     * KafkaMessagePublisher.MessageEventと同じ構造
-     */
-    public static class MessageEvent {
-        private String id;
-        private String content;
-        private String sender;
-        private String timestamp;
-        private String type;
-        
-        public MessageEvent() {}
-        
-        // Getters and Setters
-        public String getId() { return id; }
-        public void setId(String id) { this.id = id; }
-        
-        public String getContent() { return content; }
-        public void setContent(String content) { this.content = content; }
-        
-        public String getSender() { return sender; }
-        public void setSender(String sender) { this.sender = sender; }
-        
-        public String getTimestamp() { return timestamp; }
-        public void setTimestamp(String timestamp) { this.timestamp = timestamp; }
-        
-        public String getType() { return type; }
-        public void setType(String type) { this.type = type; }
-    }
 }
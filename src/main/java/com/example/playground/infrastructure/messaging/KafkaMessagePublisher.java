@@ -1,98 +1,114 @@
 package com.example.playground.infrastructure.messaging;
 
+import com.example.playground.application.service.DependencyUnavailableException;
 import com.example.playground.application.service.MessagePublisher;
 import com.example.playground.domain.model.Message;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.playground.infrastructure.serde.MessageEventCodec;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Kafkaを使用したMessagePublisherの実装
  * アプリケーション層のMessagePublisherインターフェースを実装し、
- * Kafkaへのメッセージ送信を担当
+ * Kafkaへのメッセージ送信を担当（値はMessageEventCodecのAvroワイヤーフォーマット）
+ * 緊急メッセージ（ERROR/WARNING）は専用のトピックに振り分ける
+ *
+ * 送信はバルクヘッド（kafka-publish）で同時実行数を制限し、送信結果をサーキットブレーカー（kafka）に記録する。
+ * ブローカー障害中はメタデータ取得やバッファ待ちでブロックせずに即座に失敗を返す
  */
 @Component
 public class KafkaMessagePublisher implements MessagePublisher {
     
     private static final Logger logger = LoggerFactory.getLogger(KafkaMessagePublisher.class);
     
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final MessageEventCodec codec;
     private final String topicName;
+    private final String urgentTopicName;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
     
     public KafkaMessagePublisher(
-            KafkaTemplate<String, String> kafkaTemplate,
-            ObjectMapper objectMapper,
-            @Value("${app.kafka.topic.messages:messages}") String topicName) {
+            KafkaTemplate<String, byte[]> kafkaTemplate,
+            MessageEventCodec codec,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            BulkheadRegistry bulkheadRegistry,
+            @Value("${app.kafka.topic.messages:messages}") String topicName,
+            @Value("${app.kafka.topic.urgent:messages.urgent}") String urgentTopicName) {
         this.kafkaTemplate = kafkaTemplate;
-        this.objectMapper = objectMapper;
+        this.codec = codec;
         this.topicName = topicName;
+        this.urgentTopicName = urgentTopicName;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("kafka");
+        this.bulkhead = bulkheadRegistry.bulkhead("kafka-publish");
     }
     
     @Override
     public void publish(Message message) {
+        // Kafkaに送信（メッセージIDをキーとして使用）
+        send(message.isUrgent() ? urgentTopicName : topicName, message.getId(), codec.encode(message));
+    }
+    
+    @Override
+    public CompletableFuture<Void> publishDeletion(String id) {
+        // 値がnullのレコード（tombstone）はcompactionで同じキーの過去のレコードごと消える
+        // IDからはどちらのトピックに送ったか分からないため両方に送り、両方に届いたら完了とする
+        return CompletableFuture.allOf(send(topicName, id, null), send(urgentTopicName, id, null));
+    }
+    
+    /**
+     * ブレーカーとバルクヘッドを通して送信する
+     * send() 自体はメタデータ取得・バッファ確保の間だけブロックし（max.block.ms）、
+     * 配信結果は非同期に返るため、ブレーカーへの記録は完了時に行う
+     * @return 配信結果（ブレーカーへの記録の後に完了する）
+     */
+    private CompletableFuture<?> send(String topic, String id, byte[] value) {
+        try {
+            bulkhead.acquirePermission();
+        } catch (BulkheadFullException e) {
+            throw new DependencyUnavailableException("kafka", true, e);
+        }
+        try {
+            circuitBreaker.acquirePermission();
+        } catch (CallNotPermittedException e) {
+            bulkhead.onComplete();
+            throw new DependencyUnavailableException("kafka", false, e);
+        }
+        
+        long start = circuitBreaker.getCurrentTimestamp();
         try {
-            // メッセージをJSONに変換
-            String messageJson = objectMapper.writeValueAsString(new MessageEvent(message));
-            
-            // Kafkaに送信（メッセージIDをキーとして使用）
-            kafkaTemplate.send(topicName, message.getId(), messageJson)
+            return kafkaTemplate.send(topic, id, value)
                     .whenComplete((result, ex) -> {
+                        long elapsed = circuitBreaker.getCurrentTimestamp() - start;
                         if (ex == null) {
-                            logger.info("Message sent successfully: id={}, topic={}, partition={}, offset={}",
-                                    message.getId(), topicName, 
+                            circuitBreaker.onSuccess(elapsed, circuitBreaker.getTimestampUnit());
+                            logger.info("Message sent successfully: id={}, tombstone={}, topic={}, partition={}, offset={}",
+                                    id, value == null, topic, 
                                     result.getRecordMetadata().partition(),
                                     result.getRecordMetadata().offset());
                         } else {
-                            logger.error("Failed to send message: id={}, topic={}", 
-                                    message.getId(), topicName, ex);
+                            circuitBreaker.onError(elapsed, circuitBreaker.getTimestampUnit(), ex);
+                            logger.error("Failed to send message: id={}, tombstone={}, topic={}", 
+                                    id, value == null, topic, ex);
                         }
                     });
-                    
-        } catch (JsonProcessingException e) {
-            logger.error("Failed to serialize message: id={}", message.getId(), e);
-            throw new RuntimeException("Failed to serialize message", e);
+        } catch (RuntimeException e) {
+            // プロデューサーが同期的に失敗した（max.block.ms の超過は通常は非同期の失敗として返る）
+            circuitBreaker.onError(circuitBreaker.getCurrentTimestamp() - start, circuitBreaker.getTimestampUnit(), e);
+            throw new DependencyUnavailableException("kafka", false, e);
+        } finally {
+            bulkhead.onComplete();
         }
     }
-    
-    /**
-     * Kafka送信用のイベントDTO
-     */
-    public static class MessageEvent {
-        private String id;
-        private String content;
-        private String sender;
-        private String timestamp;
-        private String type;
-        
-        public MessageEvent() {}
-        
-        public MessageEvent(Message message) {
-            this.id = message.getId();
-            this.content = message.getContent();
-            this.sender = message.getSender();
-            this.timestamp = message.getTimestamp().toString();
-            this.type = message.getType().name();
-        }
-        
-        // Getters and Setters
-        public String getId() { return id; }
-        public void setId(String id) { this.id = id; }
-        
-        public String getContent() { return content; }
-        public void setContent(String content) { this.content = content; }
-        
-        public String getSender() { return sender; }
-        public void setSender(String sender) { this.sender = sender; }
-        
-        public String getTimestamp() { return timestamp; }
-        public void setTimestamp(String timestamp) { this.timestamp = timestamp; }
-        
-        public String getType() { return type; }
-        public void setType(String type) { this.type = type; }
-    }
 }
@@ -0,0 +1,74 @@
+package com.example.playground.infrastructure.messaging;
+
+import com.example.playground.application.analytics.MessageAnalytics;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyWindowStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Kafka StreamsのInteractive Queriesを使用したMessageAnalyticsの実装
+ * このインスタンスに割り当てられたパーティション分のストアだけを参照する
+ */
+@Component
+@ConditionalOnProperty(name = "app.analytics.enabled", havingValue = "true")
+public class KafkaStreamsMessageAnalytics implements MessageAnalytics {
+
+    private final StreamsBuilderFactoryBean streamsBuilderFactoryBean;
+
+    public KafkaStreamsMessageAnalytics(StreamsBuilderFactoryBean streamsBuilderFactoryBean) {
+        this.streamsBuilderFactoryBean = streamsBuilderFactoryBean;
+    }
+
+    @Override
+    public Map<String, Long> urgentCountsBySender(Duration window) {
+        Duration bounded = window.compareTo(MessageAnalyticsTopology.URGENT_RETENTION) > 0
+                ? MessageAnalyticsTopology.URGENT_RETENTION : window;
+        Instant now = Instant.now();
+        // 1分ウィンドウのうち、開始時刻が窓内にあるものを合計する
+        Instant from = now.truncatedTo(ChronoUnit.MINUTES).minus(bounded).plus(MessageAnalyticsTopology.URGENT_WINDOW);
+        return sumBySender(MessageAnalyticsTopology.URGENT_BY_SENDER_STORE, from, now, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Map<String, Long> topSendersForHour(Instant hour, int limit) {
+        Instant hourStart = hour.truncatedTo(ChronoUnit.HOURS);
+        return sumBySender(MessageAnalyticsTopology.MESSAGES_BY_SENDER_STORE, hourStart, hourStart, limit);
+    }
+
+    private Map<String, Long> sumBySender(String storeName, Instant from, Instant to, int limit) {
+        ReadOnlyWindowStore<String, Long> store = store(storeName);
+
+        Map<String, Long> counts = new HashMap<>();
+        try (KeyValueIterator<Windowed<String>, Long> iterator = store.fetchAll(from, to)) {
+            iterator.forEachRemaining(entry -> counts.merge(entry.key.key(), entry.value, Long::sum));
+        }
+
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(limit)
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+
+    private ReadOnlyWindowStore<String, Long> store(String storeName) {
+        KafkaStreams kafkaStreams = streamsBuilderFactoryBean.getKafkaStreams();
+        if (kafkaStreams == null || kafkaStreams.state() != KafkaStreams.State.RUNNING) {
+            throw new IllegalStateException("Analytics store is not ready: " + storeName);
+        }
+        return kafkaStreams.store(StoreQueryParameters.fromNameAndType(storeName, QueryableStoreTypes.windowStore()));
+    }
+}
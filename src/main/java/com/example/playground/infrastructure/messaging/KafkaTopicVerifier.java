@@ -0,0 +1,77 @@
+package com.example.playground.infrastructure.messaging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * トピックの確認・作成を起動完了後にバックグラウンドで行う（app.kafka.topic.deferred-verification=true）
+ *
+ * スケールアウトで追加されるインスタンスではトピックは既に存在するため、起動処理の中でAdminClientの往復を待たない。
+ * ブローカーに接続できない間は間隔を広げながら再試行する。
+ * 初回のデプロイなどトピックがまだない環境では、確認が終わる前の送信がブローカーの既定の設定でトピックを作ることがあるので、
+ * 既定の起動時の確認を使う。
+ */
+@Component
+@ConditionalOnProperty(name = "app.kafka.topic.deferred-verification", havingValue = "true")
+public class KafkaTopicVerifier implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(KafkaTopicVerifier.class);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private final KafkaAdmin kafkaAdmin;
+    private final Duration initialBackoff;
+    private volatile boolean verified;
+
+    public KafkaTopicVerifier(
+            KafkaAdmin kafkaAdmin,
+            @Value("${app.kafka.topic.verification-backoff:PT1S}") Duration initialBackoff) {
+        this.kafkaAdmin = kafkaAdmin;
+        this.initialBackoff = initialBackoff;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        Thread thread = new Thread(this::verifyUntilDone, "kafka-topic-verifier");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 成功するまでトピックの確認・作成（パーティションの追加を含む）を繰り返す
+     */
+    void verifyUntilDone() {
+        Duration backoff = initialBackoff;
+        int attempt = 1;
+        while (!Thread.currentThread().isInterrupted()) {
+            long start = System.nanoTime();
+            // fatalIfBrokerNotAvailable=false（既定）のため、接続できない場合は例外ではなくfalseになる
+            if (kafkaAdmin.initialize()) {
+                verified = true;
+                logger.info("✅ Kafka topics verified after startup (attempt {}, {} ms)", attempt,
+                        (System.nanoTime() - start) / 1_000_000);
+                return;
+            }
+            logger.warn("⚠️ Kafka topic verification failed (attempt {}), retrying in {}", attempt, backoff);
+            try {
+                Thread.sleep(backoff.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            backoff = backoff.multipliedBy(2).compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : backoff.multipliedBy(2);
+            attempt++;
+        }
+    }
+
+    public boolean isVerified() {
+        return verified;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.playground.infrastructure.messaging;
+
+import com.example.playground.application.stream.MessageBroadcaster;
+import com.example.playground.application.stream.MessageStreamHub;
+import com.example.playground.domain.model.Message;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * 自ノードの購読者にのみ配信するMessageBroadcasterの実装（inmemory プロファイル用）
+ * Redisを使わない単一インスタンス構成ではインスタンス間の中継が不要
+ */
+@Component
+@Profile("inmemory")
+public class LocalMessageBroadcaster implements MessageBroadcaster {
+
+    private final MessageStreamHub hub;
+
+    public LocalMessageBroadcaster(MessageStreamHub hub) {
+        this.hub = hub;
+    }
+
+    @Override
+    public void broadcast(Message message) {
+        hub.publish(message);
+    }
+}
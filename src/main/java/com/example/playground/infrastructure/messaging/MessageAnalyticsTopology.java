@@ -0,0 +1,88 @@
+package com.example.playground.infrastructure.messaging;
+
+import com.example.playground.domain.model.Message;
+import com.example.playground.infrastructure.serde.MessageEventCodec;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.Grouped;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.Repartitioned;
+import org.apache.kafka.streams.kstream.TimeWindows;
+import org.apache.kafka.streams.state.WindowStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * messagesトピックのウィンドウ集計トポロジー
+ * 集計結果はRocksDBのウィンドウストアに保持され、Interactive Queriesで参照する
+ *
+ * - urgent-by-sender-1m: 送信者ごとの緊急メッセージ数（1分のタンブリングウィンドウ）
+ * - messages-by-sender-1h: 送信者ごとのメッセージ数（1時間のタンブリングウィンドウ）
+ */
+public final class MessageAnalyticsTopology {
+
+    public static final String URGENT_BY_SENDER_STORE = "urgent-by-sender-1m";
+    public static final String MESSAGES_BY_SENDER_STORE = "messages-by-sender-1h";
+
+    static final Duration URGENT_WINDOW = Duration.ofMinutes(1);
+    static final Duration URGENT_RETENTION = Duration.ofHours(1);
+    static final Duration HOURLY_WINDOW = Duration.ofHours(1);
+    static final Duration HOURLY_RETENTION = Duration.ofDays(1);
+    private static final Duration GRACE = Duration.ofSeconds(30);
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageAnalyticsTopology.class);
+    private static final List<String> URGENT_TYPES = List.of("ERROR", "WARNING");
+
+    private MessageAnalyticsTopology() {}
+
+    /**
+     * トポロジーを構築する
+     * @param builder StreamsBuilder
+     * @param topics 入力トピック（messages・messages.urgent）
+     * @param codec 値のデコードに使用（コンシューマーと共通）
+     * @return 入力ストリーム
+     */
+    public static KStream<String, byte[]> build(StreamsBuilder builder, Collection<String> topics, MessageEventCodec codec) {
+        KStream<String, byte[]> messages = builder.stream(topics, Consumed.with(Serdes.String(), Serdes.ByteArray()));
+
+        // 送信者をキー、メッセージタイプを値にする（再パーティションは文字列のみ）
+        KStream<String, String> typesBySender = messages
+                .filter((key, value) -> value != null) // tombstoneは集計しない
+                .flatMap((key, value) -> {
+                    try {
+                        Message message = codec.decode(value);
+                        return List.of(KeyValue.pair(message.getSender(), message.getType().name()));
+                    } catch (Exception e) {
+                        logger.warn("⚠️ Skipping unparsable record in analytics: key={}", key);
+                        return List.of();
+                    }
+                })
+                // 2つの集計で再パーティションを共有する
+                .repartition(Repartitioned.<String, String>as("by-sender")
+                        .withKeySerde(Serdes.String())
+                        .withValueSerde(Serdes.String()));
+
+        typesBySender
+                .filter((sender, type) -> URGENT_TYPES.contains(type))
+                .groupByKey(Grouped.with(Serdes.String(), Serdes.String()))
+                .windowedBy(TimeWindows.ofSizeAndGrace(URGENT_WINDOW, GRACE))
+                .count(Materialized.<String, Long, WindowStore<Bytes, byte[]>>as(URGENT_BY_SENDER_STORE)
+                        .withRetention(URGENT_RETENTION));
+
+        typesBySender
+                .groupByKey(Grouped.with(Serdes.String(), Serdes.String()))
+                .windowedBy(TimeWindows.ofSizeAndGrace(HOURLY_WINDOW, GRACE))
+                .count(Materialized.<String, Long, WindowStore<Bytes, byte[]>>as(MESSAGES_BY_SENDER_STORE)
+                        .withRetention(HOURLY_RETENTION));
+
+        return messages;
+    }
+}
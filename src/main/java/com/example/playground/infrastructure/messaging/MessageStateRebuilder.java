@@ -0,0 +1,327 @@
+package com.example.playground.infrastructure.messaging;
+
+import com.example.playground.domain.model.Message;
+import com.example.playground.domain.repository.MessageRepository;
+import com.example.playground.infrastructure.repository.SegmentMessageStore;
+import com.example.playground.infrastructure.serde.MessageEventCodec;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * compactトピック（messages・messages.urgent）からの状態の再構築
+ * データ消失後や新しいリージョンの立ち上げ時に、トピックを先頭から起動時点の末尾まで読み直して
+ * リポジトリに反映する。tombstoneは削除として反映する。
+ *
+ * - パーティションごとに専用のコンシューマー（グループなし・大きなfetch）を並列に動かす
+ * - poll単位でキーごとの最新の状態にまとめ、saveAll・deleteAllByIdで一括して書き込む
+ * - ApplicationRunnerとして起動処理の中で実行するため、完了までreadinessはREFUSING_TRAFFICのまま
+ * - 通常のリスナーは完了後に起動する（再構築中に新しい削除を古い保存で上書きしないように）
+ * - クリーンアップ・コールド層への移行はtombstoneを送らないため、保持期間（retention）より古いメッセージと、
+ *   コールド層に移行済みのメッセージはホット層に書き戻さない
+ */
+@Component
+@ConditionalOnProperty(name = "app.kafka.rebuild.enabled", havingValue = "true")
+public class MessageStateRebuilder implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageStateRebuilder.class);
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+
+    /**
+     * 再構築の状態
+     */
+    public enum State { PENDING, RUNNING, COMPLETED, FAILED }
+
+    private final MessageRepository messageRepository;
+    private final MessageEventCodec codec;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final String bootstrapServers;
+    private final List<String> topicNames;
+    private final int parallelism;
+    private final int maxPollRecords;
+    private final int fetchMaxBytes;
+    private final Duration progressInterval;
+    private final Duration retention;
+    private final SegmentMessageStore coldStore;
+    private final Duration hotRetention;
+
+    private final AtomicLong read = new AtomicLong();
+    private final AtomicLong applied = new AtomicLong();
+    private final AtomicLong deleted = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong inColdTier = new AtomicLong();
+    private final AtomicInteger partitionsDone = new AtomicInteger();
+    private volatile State state = State.PENDING;
+    private volatile long total;
+    private volatile int partitionCount;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile LocalDateTime retentionCutoff;
+    private volatile LocalDateTime coldCutoff;
+
+    public MessageStateRebuilder(
+            MessageRepository messageRepository,
+            MessageEventCodec codec,
+            KafkaListenerEndpointRegistry listenerRegistry,
+            @Value("${spring.kafka.bootstrap-servers:localhost:9092}") String bootstrapServers,
+            @Value("${app.kafka.topic.messages:messages}") String topicName,
+            @Value("${app.kafka.topic.urgent:messages.urgent}") String urgentTopicName,
+            @Value("${app.kafka.rebuild.parallelism:3}") int parallelism,
+            @Value("${app.kafka.rebuild.max-poll-records:5000}") int maxPollRecords,
+            @Value("${app.kafka.rebuild.fetch-max-bytes:52428800}") int fetchMaxBytes,
+            @Value("${app.kafka.rebuild.progress-interval:PT5S}") Duration progressInterval,
+            @Value("${app.kafka.rebuild.retention:PT${app.cleanup.schedule.retention-minutes:1440}M}") Duration retention,
+            Optional<SegmentMessageStore> coldStore,
+            @Value("${app.storage.tiering.hot-retention:PT1H}") Duration hotRetention) {
+        this.messageRepository = messageRepository;
+        this.codec = codec;
+        this.listenerRegistry = listenerRegistry;
+        this.bootstrapServers = bootstrapServers;
+        this.topicNames = List.of(topicName, urgentTopicName);
+        this.parallelism = parallelism;
+        this.maxPollRecords = maxPollRecords;
+        this.fetchMaxBytes = fetchMaxBytes;
+        this.progressInterval = progressInterval;
+        this.retention = retention;
+        this.coldStore = coldStore.orElse(null);
+        this.hotRetention = hotRetention;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        rebuild();
+
+        // 再構築が終わってから通常のリスナーを起動する（コミット済みオフセットから再開）
+        for (String id : List.of(KafkaMessageConsumer.URGENT_LISTENER_ID, KafkaMessageConsumer.LISTENER_ID)) {
+            MessageListenerContainer container = listenerRegistry.getListenerContainer(id);
+            if (container != null && !container.isRunning()) {
+                container.start();
+            }
+        }
+    }
+
+    /**
+     * トピックを先頭から現在の末尾まで読み直してリポジトリに反映する
+     * 失敗した場合は例外を投げる（起動を失敗させ、不完全な状態でトラフィックを受けない）
+     */
+    public void rebuild() throws InterruptedException, ExecutionException {
+        state = State.RUNNING;
+        startedAt = Instant.now();
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        retentionCutoff = now.minus(retention);
+        coldCutoff = now.minus(hotRetention);
+
+        Map<TopicPartition, long[]> ranges = new LinkedHashMap<>();
+        try (KafkaConsumer<String, byte[]> consumer = createConsumer()) {
+            List<TopicPartition> partitions = new ArrayList<>();
+            for (String topicName : topicNames) {
+                for (PartitionInfo info : consumer.partitionsFor(topicName)) {
+                    partitions.add(new TopicPartition(topicName, info.partition()));
+                }
+            }
+            Map<TopicPartition, Long> beginnings = consumer.beginningOffsets(partitions);
+            Map<TopicPartition, Long> ends = consumer.endOffsets(partitions);
+            long sum = 0;
+            for (TopicPartition partition : partitions) {
+                long begin = beginnings.get(partition);
+                long end = ends.get(partition);
+                ranges.put(partition, new long[] {begin, end});
+                sum += end - begin;
+            }
+            total = sum;
+            partitionCount = partitions.size();
+        } catch (RuntimeException e) {
+            fail(e);
+            throw e;
+        }
+        logger.info("🔁 Rebuilding state from topics: topics={}, partitions={}, records={}",
+                topicNames, ranges.size(), total);
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, ranges.size())),
+                runnable -> new Thread(runnable, "message-rebuild"));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            ranges.forEach((partition, range) ->
+                    futures.add(executor.submit(() -> replayPartition(partition, range[0], range[1]))));
+
+            for (Future<?> future : futures) {
+                while (true) {
+                    try {
+                        future.get(progressInterval.toMillis(), TimeUnit.MILLISECONDS);
+                        break;
+                    } catch (TimeoutException e) {
+                        logProgress();
+                    }
+                }
+            }
+        } catch (ExecutionException | InterruptedException e) {
+            fail(e);
+            throw e;
+        } finally {
+            executor.shutdownNow();
+        }
+
+        state = State.COMPLETED;
+        finishedAt = Instant.now();
+        logger.info("✅ Rebuild completed: applied={}, deleted={}, skipped={}, expired={}, inColdTier={}, elapsed={}",
+                applied.get(), deleted.get(), skipped.get(), expired.get(), inColdTier.get(),
+                Duration.between(startedAt, finishedAt));
+    }
+
+    /**
+     * 進捗（actuatorのhealthで公開する）
+     */
+    public Map<String, Object> getProgress() {
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("state", state);
+        progress.put("partitions", partitionCount);
+        progress.put("partitionsDone", partitionsDone.get());
+        progress.put("records", total);
+        progress.put("read", read.get());
+        progress.put("applied", applied.get());
+        progress.put("deleted", deleted.get());
+        progress.put("skipped", skipped.get());
+        progress.put("expired", expired.get());
+        progress.put("inColdTier", inColdTier.get());
+        progress.put("percent", total == 0 ? (state == State.COMPLETED ? 100 : 0) : read.get() * 100 / total);
+        progress.put("startedAt", startedAt);
+        progress.put("finishedAt", finishedAt);
+        return progress;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * 1パーティション分を読み直す
+     * poll単位でキーごとの最新のレコードにまとめてから反映する（同じキーは同じパーティションで順序が保たれる）
+     */
+    private void replayPartition(TopicPartition partition, long begin, long end) {
+        if (begin >= end) {
+            partitionsDone.incrementAndGet();
+            return;
+        }
+        try (KafkaConsumer<String, byte[]> consumer = createConsumer()) {
+            consumer.assign(List.of(partition));
+            consumer.seek(partition, begin);
+
+            while (consumer.position(partition) < end) {
+                Map<String, Message> latest = new LinkedHashMap<>();
+                for (ConsumerRecord<String, byte[]> record : consumer.poll(POLL_TIMEOUT).records(partition)) {
+                    if (record.offset() >= end) {
+                        break;
+                    }
+                    read.incrementAndGet();
+                    if (record.key() == null) {
+                        skipped.incrementAndGet();
+                        continue;
+                    }
+                    if (record.value() == null) {
+                        latest.put(record.key(), null); // tombstone
+                        continue;
+                    }
+                    try {
+                        latest.put(record.key(), codec.decode(record.value()));
+                    } catch (IOException e) {
+                        skipped.incrementAndGet();
+                        logger.warn("⚠️ Skipping undecodable record: partition={}, offset={}",
+                                partition, record.offset());
+                    }
+                }
+                apply(latest);
+            }
+        }
+        partitionsDone.incrementAndGet();
+    }
+
+    /**
+     * 1poll分を反映する（キーは重複しないため、保存と削除はそれぞれ1回の一括操作で済む）
+     * クリーンアップで消えたはずのメッセージ（保持期間より古い）と、コールド層にあるメッセージは保存しない
+     */
+    private void apply(Map<String, Message> latest) {
+        List<Message> saves = new ArrayList<>(latest.size());
+        List<String> deletions = new ArrayList<>();
+        for (Map.Entry<String, Message> entry : latest.entrySet()) {
+            Message message = entry.getValue();
+            if (message == null) {
+                deletions.add(entry.getKey());
+            } else if (message.getTimestamp().isBefore(retentionCutoff)) {
+                expired.incrementAndGet();
+            } else if (coldStore != null && message.getTimestamp().isBefore(coldCutoff)
+                    && coldStore.findById(message.getId()).isPresent()) {
+                inColdTier.incrementAndGet();
+            } else {
+                saves.add(message);
+            }
+        }
+        messageRepository.saveAll(saves);
+        applied.addAndGet(saves.size());
+        if (!deletions.isEmpty()) {
+            messageRepository.deleteAllById(deletions);
+            deleted.addAndGet(deletions.size());
+        }
+    }
+
+    private KafkaConsumer<String, byte[]> createConsumer() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        config.put(ConsumerConfig.CLIENT_ID_CONFIG, "message-rebuild");
+
+        // スループット優先: 大きなfetchでまとめて読む
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        config.put(ConsumerConfig.FETCH_MAX_BYTES_CONFIG, fetchMaxBytes);
+        config.put(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, fetchMaxBytes);
+        config.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, 1024 * 1024);
+        config.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, 100);
+        config.put(ConsumerConfig.RECEIVE_BUFFER_CONFIG, 1024 * 1024);
+        return new KafkaConsumer<>(config, new StringDeserializer(), new ByteArrayDeserializer());
+    }
+
+    private void logProgress() {
+        logger.info("🔁 Rebuild progress: partitions={}/{}, read={}/{}, applied={}, deleted={}, skipped={}, expired={}",
+                partitionsDone.get(), partitionCount, read.get(), total, applied.get(), deleted.get(), skipped.get(),
+                expired.get());
+    }
+
+    private void fail(Exception cause) {
+        state = State.FAILED;
+        finishedAt = Instant.now();
+        logger.error("💥 Rebuild failed: applied={}, deleted={}", applied.get(), deleted.get(), cause);
+    }
+}
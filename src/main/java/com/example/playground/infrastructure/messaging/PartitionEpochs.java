@@ -0,0 +1,114 @@
+package com.example.playground.infrastructure.messaging;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * トピックのパーティション数の履歴（パーティション追加の前後でキーの割り当てを変えないために使う）
+ *
+ * 書式: "3,6@2026-11-01T00:00:00Z,12@2027-01-01T00:00:00Z"
+ * 先頭は最初のパーティション数で、以降は「数@適用開始時刻」。
+ * メッセージIDに埋め込まれた生成時刻でどの数を使うかを決めるため、同じキーのレコード（保存・tombstone）は
+ * パーティションを増やした後も常に同じパーティションに入る（キーごとの順序とcompactionが保たれる）。
+ */
+public final class PartitionEpochs {
+
+    private final int initialCount;
+    private final List<Epoch> epochs;
+
+    /**
+     * @param startsAt この時刻以降に生成されたIDに count を適用する
+     */
+    private record Epoch(Instant startsAt, int count) {
+    }
+
+    private PartitionEpochs(int initialCount, List<Epoch> epochs) {
+        this.initialCount = initialCount;
+        this.epochs = List.copyOf(epochs);
+    }
+
+    /**
+     * 設定値を解析する
+     *
+     * @return 空の場合はnull（パーティションの追加に備えた割り当てをしない）
+     * @throws IllegalArgumentException 書式が不正、またはパーティション数・時刻が増加していない場合
+     */
+    public static PartitionEpochs parse(String spec) {
+        if (spec == null || spec.isBlank()) {
+            return null;
+        }
+        String[] entries = spec.split(",");
+        int initialCount = parseCount(entries[0].trim(), spec);
+        List<Epoch> epochs = new ArrayList<>();
+        int previousCount = initialCount;
+        Instant previousStart = Instant.MIN;
+        for (int i = 1; i < entries.length; i++) {
+            String entry = entries[i].trim();
+            int separator = entry.indexOf('@');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected count@instant but got '" + entry + "' in: " + spec);
+            }
+            int count = parseCount(entry.substring(0, separator), spec);
+            Instant startsAt;
+            try {
+                startsAt = Instant.parse(entry.substring(separator + 1));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid instant in '" + entry + "': " + spec, e);
+            }
+            if (count <= previousCount || !startsAt.isAfter(previousStart)) {
+                throw new IllegalArgumentException("Partition counts and instants must increase: " + spec);
+            }
+            epochs.add(new Epoch(startsAt, count));
+            previousCount = count;
+            previousStart = startsAt;
+        }
+        return new PartitionEpochs(initialCount, epochs);
+    }
+
+    private static int parseCount(String value, String spec) {
+        try {
+            int count = Integer.parseInt(value.trim());
+            if (count > 0) {
+                return count;
+            }
+        } catch (NumberFormatException e) {
+            // 下で例外にする
+        }
+        throw new IllegalArgumentException("Invalid partition count '" + value + "' in: " + spec);
+    }
+
+    /**
+     * 指定時刻に生成されたキーを割り当てるパーティション数
+     *
+     * @param keyTime キーの生成時刻（不明な場合はnullで、最初のパーティション数になる）
+     */
+    public int countFor(Instant keyTime) {
+        int count = initialCount;
+        if (keyTime == null) {
+            return count;
+        }
+        for (Epoch epoch : epochs) {
+            if (keyTime.isBefore(epoch.startsAt())) {
+                break;
+            }
+            count = epoch.count();
+        }
+        return count;
+    }
+
+    /**
+     * 最新のパーティション数（トピックに必要なパーティション数）
+     */
+    public int latestCount() {
+        return epochs.isEmpty() ? initialCount : epochs.get(epochs.size() - 1).count();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder().append(initialCount);
+        epochs.forEach(epoch -> builder.append(',').append(epoch.count()).append('@').append(epoch.startsAt()));
+        return builder.toString();
+    }
+}
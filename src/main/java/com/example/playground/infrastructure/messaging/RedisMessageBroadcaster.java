@@ -0,0 +1,129 @@
+package com.example.playground.infrastructure.messaging;
+
+import com.example.playground.application.stream.MessageBroadcaster;
+import com.example.playground.application.stream.MessageStreamHub;
+import com.example.playground.domain.model.Message;
+import com.example.playground.domain.model.MessageType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Redis Pub/Subを使用したMessageBroadcasterの実装
+ * 自ノードの購読者にはハブへ直接渡し、他インスタンスへはRedisチャンネル経由で中継する。
+ * 各パーティションを消費するのは1インスタンスだけなので、中継がないと他ノードの購読者に届かない
+ */
+@Component
+@Profile("!inmemory")
+public class RedisMessageBroadcaster implements MessageBroadcaster, MessageListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisMessageBroadcaster.class);
+
+    private final MessageStreamHub hub;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public RedisMessageBroadcaster(
+            MessageStreamHub hub,
+            RedisTemplate<String, String> redisTemplate,
+            ObjectMapper objectMapper,
+            RedisMessageListenerContainer listenerContainer,
+            @Value("${app.stream.channel:messages:events}") String channel) {
+        this.hub = hub;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+        listenerContainer.addMessageListener(this, new ChannelTopic(channel));
+    }
+
+    @Override
+    public void broadcast(Message message) {
+        // 自ノードの購読者にはRedisを経由せずに配信
+        hub.publish(message);
+
+        try {
+            String eventJson = objectMapper.writeValueAsString(new BroadcastEvent(nodeId, message));
+            redisTemplate.convertAndSend(channel, eventJson);
+        } catch (Exception e) {
+            logger.warn("⚠️ Failed to relay message to other instances: id={}", message.getId(), e);
+        }
+    }
+
+    /**
+     * 他インスタンスから中継されたメッセージを受信する
+     */
+    @Override
+    public void onMessage(org.springframework.data.redis.connection.Message redisMessage, byte[] pattern) {
+        try {
+            BroadcastEvent event = objectMapper.readValue(
+                    new String(redisMessage.getBody(), StandardCharsets.UTF_8), BroadcastEvent.class);
+
+            // 自分が送ったものは配信済み
+            if (nodeId.equals(event.getOrigin())) {
+                return;
+            }
+            hub.publish(event.toMessage());
+        } catch (Exception e) {
+            logger.warn("⚠️ Failed to handle relayed message", e);
+        }
+    }
+
+    /**
+     * インスタンス間中継用のイベントDTO
+     */
+    public static class BroadcastEvent {
+        private String origin;
+        private String id;
+        private String content;
+        private String sender;
+        private String timestamp;
+        private String type;
+
+        public BroadcastEvent() {}
+
+        public BroadcastEvent(String origin, Message message) {
+            this.origin = origin;
+            this.id = message.getId();
+            this.content = message.getContent();
+            this.sender = message.getSender();
+            this.timestamp = message.getTimestamp().toString();
+            this.type = message.getType().name();
+        }
+
+        public Message toMessage() {
+            return new Message(id, content, sender, LocalDateTime.parse(timestamp), MessageType.valueOf(type));
+        }
+
+        // Getters and Setters
+        public String getOrigin() { return origin; }
+        public void setOrigin(String origin) { this.origin = origin; }
+
+        public String getId() { return id; }
+        public void setId(String id) { this.id = id; }
+
+        public String getContent() { return content; }
+        public void setContent(String content) { this.content = content; }
+
+        public String getSender() { return sender; }
+        public void setSender(String sender) { this.sender = sender; }
+
+        public String getTimestamp() { return timestamp; }
+        public void setTimestamp(String timestamp) { this.timestamp = timestamp; }
+
+        public String getType() { return type; }
+        public void setType(String type) { this.type = type; }
+    }
+}
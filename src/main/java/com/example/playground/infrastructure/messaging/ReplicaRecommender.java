@@ -0,0 +1,63 @@
+package com.example.playground.infrastructure.messaging;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * コンシューマーのラグと流入レートから必要なインスタンス数を求める
+ *
+ * 必要な処理レート = 流入レート + ラグ / 解消目標時間 を、1インスタンスあたりの目標レートで割って切り上げる。
+ * パーティション数を超えるインスタンスには割り当てがないため、パーティション数で頭打ちにする。
+ * 増やす方向はすぐに反映し、減らす方向は安定化期間内の最大値を返す（一時的な谷で縮小と拡大を繰り返さない）。
+ */
+public class ReplicaRecommender {
+
+    /**
+     * @param replicas         推奨インスタンス数
+     * @param required         上限で頭打ちにする前の数
+     * @param partitionLimited パーティション数が足りず、増やしても処理が追いつかない
+     */
+    public record Recommendation(int replicas, int required, boolean partitionLimited) {
+    }
+
+    private record Entry(long timeMillis, int replicas) {
+    }
+
+    private final double targetRatePerReplica;
+    private final double lagDrainSeconds;
+    private final int minReplicas;
+    private final int maxReplicas;
+    private final long stabilizationMillis;
+    private final Deque<Entry> history = new ArrayDeque<>();
+
+    public ReplicaRecommender(double targetRatePerReplica, Duration lagDrainTime, int minReplicas, int maxReplicas,
+                              Duration scaleDownStabilization) {
+        if (targetRatePerReplica <= 0) {
+            throw new IllegalArgumentException("targetRatePerReplica must be positive: " + targetRatePerReplica);
+        }
+        this.targetRatePerReplica = targetRatePerReplica;
+        this.lagDrainSeconds = Math.max(1, lagDrainTime.toMillis() / 1000.0);
+        this.minReplicas = Math.max(1, minReplicas);
+        this.maxReplicas = Math.max(this.minReplicas, maxReplicas);
+        this.stabilizationMillis = scaleDownStabilization.toMillis();
+    }
+
+    /**
+     * @param arrivalRate 流入レート（件/秒、全トピックの合計）
+     * @param lag         未処理の件数（全パーティションの合計）
+     * @param partitions  メインのトピックのパーティション数
+     */
+    public synchronized Recommendation recommend(double arrivalRate, long lag, int partitions, long nowMillis) {
+        double requiredRate = Math.max(0, arrivalRate) + Math.max(0, lag) / lagDrainSeconds;
+        int required = Math.max(minReplicas, (int) Math.ceil(requiredRate / targetRatePerReplica));
+        int capped = Math.min(required, Math.min(maxReplicas, Math.max(1, partitions)));
+
+        history.addLast(new Entry(nowMillis, capped));
+        while (!history.isEmpty() && history.peekFirst().timeMillis() < nowMillis - stabilizationMillis) {
+            history.removeFirst();
+        }
+        int replicas = history.stream().mapToInt(Entry::replicas).max().orElse(capped);
+        return new Recommendation(replicas, required, required > partitions);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.playground.infrastructure.messaging;
+
+import com.example.playground.domain.model.MessageIdGenerator;
+import org.apache.kafka.clients.producer.Partitioner;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.errors.InvalidPartitionsException;
+import org.apache.kafka.common.utils.Utils;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * パーティションを追加してもキーの割り当てが変わらないパーティショナー
+ *
+ * キー（メッセージID）の生成時刻に対応するパーティション数（PartitionEpochs）で、既定のパーティショナーと同じ
+ * murmur2ハッシュの剰余を取る。追加前に作られたキーは追加前と同じパーティションに、適用開始時刻以降に作られたキーは
+ * 全パーティションに分散する。履歴のないトピックは既定のパーティショナーと同じ割り当てになる。
+ *
+ * 必要なパーティション数がまだメタデータにない場合は送信を失敗させる（別のパーティションに入れて順序を崩さない）。
+ */
+public class StableKeyPartitioner implements Partitioner {
+
+    /**
+     * プロデューサー設定のキー: トピック名 → PartitionEpochs
+     */
+    public static final String EPOCHS_CONFIG = "app.partitioner.epochs";
+
+    /**
+     * プロデューサー設定のキー: キーから生成時刻を求めるMessageIdGenerator
+     */
+    public static final String ID_GENERATOR_CONFIG = "app.partitioner.id-generator";
+
+    private Map<String, PartitionEpochs> epochsByTopic = Map.of();
+    private MessageIdGenerator idGenerator;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void configure(Map<String, ?> configs) {
+        Object epochs = configs.get(EPOCHS_CONFIG);
+        if (epochs != null) {
+            epochsByTopic = (Map<String, PartitionEpochs>) epochs;
+        }
+        idGenerator = (MessageIdGenerator) configs.get(ID_GENERATOR_CONFIG);
+    }
+
+    @Override
+    public int partition(String topic, Object key, byte[] keyBytes, Object value, byte[] valueBytes, Cluster cluster) {
+        int available = cluster.partitionsForTopic(topic).size();
+        if (keyBytes == null) {
+            return ThreadLocalRandom.current().nextInt(available);
+        }
+        PartitionEpochs epochs = epochsByTopic.get(topic);
+        int count = epochs == null ? available : epochs.countFor(keyTime(key));
+        if (count > available) {
+            throw new InvalidPartitionsException("Topic " + topic + " has " + available + " partitions but key " + key
+                    + " requires " + count + " (partition epochs: " + epochs + ")");
+        }
+        return partitionOf(keyBytes, count);
+    }
+
+    /**
+     * 既定のパーティショナー（BuiltInPartitioner）がキー付きのレコードに使う割り当て
+     */
+    static int partitionOf(byte[] keyBytes, int count) {
+        return Utils.toPositive(Utils.murmur2(keyBytes)) % count;
+    }
+
+    private Instant keyTime(Object key) {
+        if (idGenerator == null || !(key instanceof String id)) {
+            return null;
+        }
+        try {
+            return idGenerator.timestampOf(id);
+        } catch (RuntimeException e) {
+            // メッセージIDでないキーは最初のパーティション数で割り当てる
+            return null;
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+}
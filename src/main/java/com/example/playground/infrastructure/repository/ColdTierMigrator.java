@@ -0,0 +1,99 @@
+package com.example.playground.infrastructure.repository;
+
+import com.example.playground.application.cleanup.CleanupCoordinator;
+import com.example.playground.domain.model.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * ホット層（Redis）からコールド層（セグメントストア）への定期移行
+ * 先にセグメントを書いてfsyncしてからRedisから外すため、途中で落ちてもメッセージは失われない
+ * （両層に残った分は次回の移行で再度書かれるが、検索はホット層が優先される）
+ *
+ * 移行はクリーンアップ（MessageCleanupJob）と同じロックを取ったインスタンスだけが行う。
+ * セグメントを書くのはロックを持つ1台だけなので、複数インスタンスの場合は
+ * app.storage.cold.directory を全インスタンスで共有する
+ * （他のインスタンスは app.storage.cold.rescan-interval ごとにディレクトリを読み直し、移行済みのメッセージを読む）
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.tiering.enabled", havingValue = "true")
+public class ColdTierMigrator {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ColdTierMigrator.class);
+    
+    private final RedisMessageRepository hot;
+    private final SegmentMessageStore cold;
+    private final CleanupCoordinator coordinator;
+    
+    @Value("${app.storage.tiering.hot-retention:PT1H}")
+    private Duration hotRetention;
+    
+    @Value("${app.storage.tiering.batch-size:5000}")
+    private int batchSize;
+    
+    @Value("${app.storage.tiering.max-batches-per-run:10}")
+    private int maxBatchesPerRun;
+    
+    @Value("${app.cleanup.lock-ttl:30s}")
+    private Duration lockTtl;
+    
+    public ColdTierMigrator(RedisMessageRepository hot, SegmentMessageStore cold, CleanupCoordinator coordinator) {
+        this.hot = hot;
+        this.cold = cold;
+        this.coordinator = coordinator;
+    }
+    
+    @Scheduled(
+        initialDelayString = "${app.storage.tiering.interval:PT1M}",
+        fixedDelayString = "${app.storage.tiering.interval:PT1M}"
+    )
+    public void migrate() {
+        Optional<String> token = coordinator.tryLock(lockTtl);
+        if (token.isEmpty()) {
+            logger.debug("🔒 Cold tier migration skipped: another instance holds the lock");
+            return;
+        }
+        
+        LocalDateTime cutoff = LocalDateTime.now(ZoneOffset.UTC).minus(hotRetention);
+        int migrated = 0;
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                if (!coordinator.extendLock(token.get(), lockTtl)) {
+                    // 有効期限切れで他ノードに取られた場合は二重に書かないように中断する
+                    logger.warn("🔒 Cold tier migration stopped: lock was lost");
+                    break;
+                }
+                
+                List<Message> batch = hot.findOlderThan(cutoff, batchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                
+                cold.append(batch);
+                hot.evictToColdTier(batch);
+                migrated += batch.size();
+                
+                if (batch.size() < batchSize) {
+                    break;
+                }
+            }
+        } finally {
+            coordinator.unlock(token.get());
+        }
+        
+        if (migrated > 0) {
+            logger.info("🧊 Migrated {} messages to cold tier: cutoff={}, segments={}",
+                    migrated, cutoff, cold.getSegmentCount());
+        }
+    }
+}
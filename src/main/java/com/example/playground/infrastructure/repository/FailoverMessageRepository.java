@@ -0,0 +1,223 @@
+package com.example.playground.infrastructure.repository;
+
+import com.example.playground.application.service.DependencyUnavailableException;
+import com.example.playground.domain.model.Message;
+import com.example.playground.domain.repository.MessageRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Redis障害時にプロセス内のリポジトリへ切り替える縮退運転用のMessageRepository
+ * 保存は常にフォールバック側にも書き込み（上限付き）、Redisが使えない間は
+ * 読み出しをフォールバック側から返す。障害中の書き込みは上限付きのキューに溜め、
+ * ヘルスチェックでRedisの復旧を確認したら順に反映する。
+ * キューが一杯の場合は書き込みを捨てずに DependencyUnavailableException（saturated）を投げ、
+ * HTTPでは503、Kafkaのレコードはオフセットを進めずに再試行させる
+ */
+public class FailoverMessageRepository implements MessageRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(FailoverMessageRepository.class);
+
+    private final MessageRepository primary;
+    private final InMemoryMessageRepository fallback;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final BlockingQueue<Consumer<MessageRepository>> pendingWrites;
+    private final int maxPendingWrites;
+    private volatile boolean degraded;
+
+    public FailoverMessageRepository(MessageRepository primary, InMemoryMessageRepository fallback,
+                                     RedisTemplate<String, String> redisTemplate, int maxPendingWrites,
+                                     MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.fallback = fallback;
+        this.redisTemplate = redisTemplate;
+        this.pendingWrites = new LinkedBlockingQueue<>(maxPendingWrites);
+        this.maxPendingWrites = maxPendingWrites;
+        meterRegistry.gauge("messages.repository.degraded", this, repository -> repository.degraded ? 1 : 0);
+    }
+
+    @Override
+    public Message save(Message message) {
+        fallback.save(message);
+        write(repository -> repository.save(message));
+        return message;
+    }
+
+    @Override
+    public void saveAll(List<Message> messages) {
+        fallback.saveAll(messages);
+        write(repository -> repository.saveAll(messages));
+    }
+
+    @Override
+    public Optional<Message> findById(String id) {
+        return read(() -> primary.findById(id), () -> fallback.findById(id));
+    }
+
+    @Override
+    public Map<String, Message> findAllById(Collection<String> ids) {
+        return read(() -> primary.findAllById(ids), () -> fallback.findAllById(ids));
+    }
+
+    @Override
+    public List<Message> findBySender(String sender) {
+        return read(() -> primary.findBySender(sender), () -> fallback.findBySender(sender));
+    }
+
+    @Override
+    public Set<String> findIdsBySender(String sender) {
+        return read(() -> primary.findIdsBySender(sender), () -> fallback.findIdsBySender(sender));
+    }
+
+    @Override
+    public Optional<String> getListVersion(String sender) {
+        // Redisとプロセス内のリポジトリでは値の形式が異なるため、切り替わるとETagも変わる
+        return read(() -> primary.getListVersion(sender), () -> fallback.getListVersion(sender));
+    }
+
+    @Override
+    public List<Message> search(String query, int offset, int limit) {
+        return read(() -> primary.search(query, offset, limit), () -> fallback.search(query, offset, limit));
+    }
+
+    @Override
+    public List<Message> findAll() {
+        return read(primary::findAll, fallback::findAll);
+    }
+
+    @Override
+    public void deleteById(String id) {
+        fallback.deleteById(id);
+        write(repository -> repository.deleteById(id));
+    }
+
+    @Override
+    public int deleteAllById(Collection<String> ids) {
+        // 縮退中は他の書き込みと同様にキューに積み、Redisの復旧後に反映する（件数はプロセス内の分）
+        AtomicInteger deleted = new AtomicInteger(fallback.deleteAllById(ids));
+        write(repository -> deleted.set(repository.deleteAllById(ids)));
+        return deleted.get();
+    }
+
+    @Override
+    public int deleteOldMessages(int minutes) {
+        fallback.deleteOldMessages(minutes);
+        return read(() -> primary.deleteOldMessages(minutes), () -> 0);
+    }
+
+    @Override
+    public int deleteOlderThan(LocalDateTime cutoff, int limit) {
+        // クリーンアップは縮退中に無理に進めない（Redis復旧後に再開される）
+        int deleted = fallback.deleteOlderThan(cutoff, limit);
+        return degraded ? deleted : read(() -> primary.deleteOlderThan(cutoff, limit), () -> deleted);
+    }
+
+    public boolean isDegraded() {
+        return degraded;
+    }
+
+    /**
+     * Redisのヘルスチェック
+     * 縮退中に応答が戻れば溜めた書き込みを反映してから通常運転に戻る
+     */
+    @Scheduled(fixedDelayString = "${app.storage.fallback.health-check-interval:PT2S}")
+    public void checkHealth() {
+        try {
+            redisTemplate.execute((RedisCallback<String>) RedisConnection::ping);
+        } catch (Exception e) {
+            markDegraded(e);
+            return;
+        }
+
+        if (degraded) {
+            replayPendingWrites();
+        }
+    }
+
+    private void replayPendingWrites() {
+        int replayed = 0;
+        Consumer<MessageRepository> write;
+        while ((write = pendingWrites.peek()) != null) {
+            try {
+                write.accept(primary);
+            } catch (Exception e) {
+                logger.warn("⚠️ Replay to Redis failed, staying degraded: replayed={}", replayed, e);
+                return;
+            }
+            pendingWrites.poll();
+            replayed++;
+        }
+        degraded = false;
+        // 切り替えの直前にキューへ入った書き込みも反映する
+        List<Consumer<MessageRepository>> late = new ArrayList<>();
+        pendingWrites.drainTo(late);
+        late.forEach(this::write);
+        replayed += late.size();
+        logger.info("✅ Redis recovered, leaving degraded mode: replayed {} writes", replayed);
+    }
+
+    private <T> T read(Supplier<T> fromPrimary, Supplier<T> fromFallback) {
+        if (degraded) {
+            return fromFallback.get();
+        }
+        try {
+            return fromPrimary.get();
+        } catch (Exception e) {
+            rethrowIfSaturated(e);
+            markDegraded(e);
+            return fromFallback.get();
+        }
+    }
+
+    private void write(Consumer<MessageRepository> write) {
+        if (!degraded) {
+            try {
+                write.accept(primary);
+                return;
+            } catch (Exception e) {
+                rethrowIfSaturated(e);
+                markDegraded(e);
+            }
+        }
+        if (!pendingWrites.offer(write)) {
+            logger.error("💥 Pending write queue is full, rejecting write while Redis is unavailable: max={}",
+                    maxPendingWrites);
+            throw new DependencyUnavailableException("redis", true,
+                    new IllegalStateException("Pending write queue is full (max=" + maxPendingWrites + ")"));
+        }
+    }
+
+    /**
+     * 同時実行数の上限による拒否はRedisの障害ではないので縮退せず、そのまま呼び出し元へ返す
+     */
+    private static void rethrowIfSaturated(Exception e) {
+        if (e instanceof DependencyUnavailableException unavailable && unavailable.isSaturated()) {
+            throw unavailable;
+        }
+    }
+
+    private void markDegraded(Exception cause) {
+        if (!degraded) {
+            degraded = true;
+            logger.error("🚨 Redis unavailable, switching to in-memory fallback: {}", cause.getMessage());
+        }
+    }
+}
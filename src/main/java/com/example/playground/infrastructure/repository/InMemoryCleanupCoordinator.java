@@ -0,0 +1,54 @@
+package com.example.playground.infrastructure.repository;
+
+import com.example.playground.application.cleanup.CleanupCheckpoint;
+import com.example.playground.application.cleanup.CleanupCoordinator;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * プロセス内で完結するCleanupCoordinatorの実装（inmemory プロファイル用）
+ * 単一インスタンス前提のため、ロックは期限なしのトークン1つで表す
+ */
+@Component
+@Profile("inmemory")
+public class InMemoryCleanupCoordinator implements CleanupCoordinator {
+
+    private final AtomicReference<String> lockToken = new AtomicReference<>();
+    private final AtomicReference<CleanupCheckpoint> checkpoint = new AtomicReference<>();
+
+    @Override
+    public Optional<String> tryLock(Duration ttl) {
+        String token = UUID.randomUUID().toString();
+        return lockToken.compareAndSet(null, token) ? Optional.of(token) : Optional.empty();
+    }
+
+    @Override
+    public boolean extendLock(String token, Duration ttl) {
+        return token.equals(lockToken.get());
+    }
+
+    @Override
+    public void unlock(String token) {
+        lockToken.compareAndSet(token, null);
+    }
+
+    @Override
+    public Optional<CleanupCheckpoint> loadCheckpoint() {
+        return Optional.ofNullable(checkpoint.get());
+    }
+
+    @Override
+    public void saveCheckpoint(CleanupCheckpoint checkpoint) {
+        this.checkpoint.set(checkpoint);
+    }
+
+    @Override
+    public void clearCheckpoint() {
+        checkpoint.set(null);
+    }
+}
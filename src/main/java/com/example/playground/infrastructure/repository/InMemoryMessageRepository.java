@@ -0,0 +1,320 @@
+package com.example.playground.infrastructure.repository;
+
+import com.example.playground.domain.model.Message;
+import com.example.playground.domain.model.MessageType;
+import com.example.playground.domain.repository.MessageRepository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * プロセス内で完結するMessageRepositoryの実装
+ * ローカル実行・CI（Redisコンテナ不要）と、Redis障害時の縮退運転で使用する。
+ *
+ * - 本体: ConcurrentHashMap
+ * - 送信者・タイプ・全文検索インデックス: ConcurrentHashMap（ビン単位のロックで更新が分散される）
+ * - 時刻インデックス: ConcurrentSkipListSet（古い順の範囲取得）
+ * - 件数上限を超えた場合はCLOCK方式（LRU近似）でまとめて追い出し、
+ *   セグメントストアがあればそこへ退避して findById / findBySender から引けるようにする
+ */
+public class InMemoryMessageRepository implements MessageRepository {
+
+    private final Map<String, Entry> messages = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> senderIndex = new ConcurrentHashMap<>();
+    private final Map<MessageType, Set<String>> typeIndex = new EnumMap<>(MessageType.class);
+    private final ConcurrentSkipListSet<TimeKey> timeIndex = new ConcurrentSkipListSet<>();
+    private final NavigableMap<String, Set<String>> termIndex = new ConcurrentSkipListMap<>();
+    private final ConcurrentLinkedQueue<String> clock = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final int maxEntries;
+    private final SegmentMessageStore spillStore;
+    // 一覧のバージョン（全ての一覧で共通）。インスタンスごとの接頭辞で、再起動や他のインスタンスの値と区別する
+    private final String versionPrefix = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * @param maxEntries 保持する最大件数
+     * @param spillStore 追い出したメッセージの退避先（nullの場合は破棄）
+     */
+    public InMemoryMessageRepository(int maxEntries, SegmentMessageStore spillStore) {
+        this.maxEntries = maxEntries;
+        this.spillStore = spillStore;
+        for (MessageType type : MessageType.values()) {
+            typeIndex.put(type, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    @Override
+    public Message save(Message message) {
+        Entry previous = messages.put(message.getId(), new Entry(message));
+        if (previous != null) {
+            unindex(previous.message, true);
+        } else {
+            clock.add(message.getId());
+        }
+        index(message);
+
+        if (messages.size() > maxEntries) {
+            evict();
+        }
+        return message;
+    }
+
+    @Override
+    public Optional<Message> findById(String id) {
+        Entry entry = messages.get(id);
+        if (entry != null) {
+            entry.referenced = true;
+            return Optional.of(entry.message);
+        }
+        return spillStore == null ? Optional.empty() : spillStore.findById(id);
+    }
+
+    @Override
+    public List<Message> findBySender(String sender) {
+        Set<String> ids = senderIndex.get(sender);
+        if (ids == null) {
+            return new ArrayList<>();
+        }
+        List<Message> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            findById(id).ifPresent(result::add);
+        }
+        return result;
+    }
+
+    @Override
+    public Optional<String> getListVersion(String sender) {
+        return Optional.of(versionPrefix + "." + version.get());
+    }
+
+    @Override
+    public Set<String> findIdsBySender(String sender) {
+        Set<String> ids = senderIndex.get(sender);
+        return ids == null ? new HashSet<>() : new HashSet<>(ids);
+    }
+
+    /**
+     * タイプでメッセージを取得する（インデックスのみを参照）
+     */
+    public List<Message> findByType(MessageType type) {
+        return resolve(typeIndex.get(type));
+    }
+
+    @Override
+    public List<Message> search(String query, int offset, int limit) {
+        List<SearchTokenizer.QueryTerm> queryTerms = SearchTokenizer.parseQuery(query);
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        Set<String> matches = null;
+        for (SearchTokenizer.QueryTerm queryTerm : queryTerms) {
+            Set<String> termMatches = new HashSet<>();
+            Collection<Set<String>> postings = queryTerm.prefix()
+                    ? termIndex.subMap(queryTerm.term(), true, queryTerm.term() + Character.MAX_VALUE, true).values()
+                    : Optional.ofNullable(termIndex.get(queryTerm.term())).map(List::of).orElse(List.of());
+            postings.forEach(termMatches::addAll);
+
+            if (matches == null) {
+                matches = termMatches;
+            } else {
+                matches.retainAll(termMatches);
+            }
+            if (matches.isEmpty()) {
+                return new ArrayList<>();
+            }
+        }
+
+        return resolve(matches).stream()
+                .sorted(Comparator.comparing(Message::getTimestamp).reversed())
+                .skip(offset)
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public List<Message> findAll() {
+        return messages.values().stream()
+                .map(entry -> entry.message)
+                .toList();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        Entry entry = messages.remove(id);
+        if (entry != null) {
+            unindex(entry.message, true);
+            return;
+        }
+        if (spillStore != null) {
+            spillStore.findById(id).ifPresent(message -> {
+                spillStore.delete(id);
+                removeFrom(senderIndex, message.getSender(), id);
+                version.incrementAndGet();
+            });
+        }
+    }
+
+    @Override
+    public int deleteOldMessages(int minutes) {
+        LocalDateTime cutoff = LocalDateTime.now(ZoneOffset.UTC).minusMinutes(minutes);
+        int deletedCount = 0;
+        int deleted;
+        do {
+            deleted = deleteOlderThan(cutoff, 1000);
+            deletedCount += deleted;
+        } while (deleted == 1000);
+        return deletedCount;
+    }
+
+    @Override
+    public int deleteOlderThan(LocalDateTime cutoff, int limit) {
+        int deleted = 0;
+        Iterator<TimeKey> iterator = timeIndex.headSet(new TimeKey(cutoff, "")).iterator();
+        while (iterator.hasNext() && deleted < limit) {
+            TimeKey key = iterator.next();
+            Entry entry = messages.remove(key.id());
+            if (entry != null) {
+                unindex(entry.message, true);
+            } else {
+                timeIndex.remove(key);
+            }
+            deleted++;
+        }
+        if (spillStore != null) {
+            deleted += spillStore.dropSegmentsOlderThan(cutoff);
+        }
+        return deleted;
+    }
+
+    public int size() {
+        return messages.size();
+    }
+
+    /**
+     * 上限を超えた分を参照ビットの立っていないものから追い出す（CLOCK方式）
+     * 1件ずつではなく上限の1/20をまとめて追い出し、退避先にも1セグメントとして書く
+     */
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return; // 他のスレッドが追い出し中
+        }
+        try {
+            int target = messages.size() - maxEntries + Math.max(1, maxEntries / 20);
+            List<Message> evicted = new ArrayList<>(target);
+            while (evicted.size() < target) {
+                String id = clock.poll();
+                if (id == null) {
+                    break;
+                }
+                Entry entry = messages.get(id);
+                if (entry == null) {
+                    continue; // 削除済み
+                }
+                if (entry.referenced) {
+                    // 最近参照されたものはもう一周猶予を与える
+                    entry.referenced = false;
+                    clock.add(id);
+                    continue;
+                }
+                if (messages.remove(id, entry)) {
+                    // 退避先がある場合は送信者インデックスを残す
+                    unindex(entry.message, spillStore == null);
+                    evicted.add(entry.message);
+                }
+            }
+            if (spillStore != null) {
+                spillStore.append(evicted);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private void index(Message message) {
+        String id = message.getId();
+        addTo(senderIndex, message.getSender(), id);
+        typeIndex.get(message.getType()).add(id);
+        timeIndex.add(new TimeKey(message.getTimestamp(), id));
+        for (String term : SearchTokenizer.tokenize(message.getContent())) {
+            addTo(termIndex, term, id);
+        }
+        // 変更の後に進める（先に進めると、古い内容が新しいバージョンで読まれうる）
+        version.incrementAndGet();
+    }
+
+    private void unindex(Message message, boolean includeSender) {
+        String id = message.getId();
+        if (includeSender) {
+            removeFrom(senderIndex, message.getSender(), id);
+        }
+        typeIndex.get(message.getType()).remove(id);
+        timeIndex.remove(new TimeKey(message.getTimestamp(), id));
+        for (String term : SearchTokenizer.tokenize(message.getContent())) {
+            removeFrom(termIndex, term, id);
+        }
+        version.incrementAndGet();
+    }
+
+    private static void addTo(Map<String, Set<String>> index, String key, String id) {
+        // removeFromと同じキーのロック内で更新し、取り除かれたSetに追加してしまうのを防ぐ
+        index.compute(key, (k, ids) -> {
+            Set<String> target = ids != null ? ids : ConcurrentHashMap.newKeySet();
+            target.add(id);
+            return target;
+        });
+    }
+
+    private static void removeFrom(Map<String, Set<String>> index, String key, String id) {
+        // 空になったSetはアトミックに取り除く
+        index.computeIfPresent(key, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private List<Message> resolve(Set<String> ids) {
+        return ids.stream()
+                .map(messages::get)
+                .filter(Objects::nonNull)
+                .map(entry -> entry.message)
+                .toList();
+    }
+
+    private static final class Entry {
+        private final Message message;
+        private volatile boolean referenced;
+
+        private Entry(Message message) {
+            this.message = message;
+        }
+    }
+
+    private record TimeKey(LocalDateTime timestamp, String id) implements Comparable<TimeKey> {
+        @Override
+        public int compareTo(TimeKey other) {
+            int cmp = timestamp.compareTo(other.timestamp);
+            return cmp != 0 ? cmp : id.compareTo(other.id);
+        }
+    }
+}
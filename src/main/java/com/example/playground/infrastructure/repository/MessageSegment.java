@@ -0,0 +1,236 @@
+package com.example.playground.infrastructure.repository;
+
+import com.example.playground.domain.model.Message;
+import com.example.playground.domain.model.MessageType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * コールド層の1セグメント（追記のみ・書き込み後は不変のファイル）
+ * レコードはID順に並べて書き込み、開くときにメモリマップして
+ * INDEX_INTERVAL件ごとの疎なインデックス（ID → オフセット）とBloomフィルターを作る。
+ * 読み出しはマップ済みバッファから直接行い、ヒープへのファイル読み込みを行わない
+ *
+ * レコード形式: int 長さ | long 秒 | int ナノ秒 | byte タイプ | short+ID | short+送信者 | int+本文
+ */
+final class MessageSegment {
+
+    static final int INDEX_INTERVAL = 16;
+    private static final int BLOOM_BITS_PER_ENTRY = 10;
+    private static final int BLOOM_HASHES = 7;
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final String[] indexIds;
+    private final int[] indexOffsets;
+    private final long[] bloom;
+    private final int recordCount;
+    private final LocalDateTime maxTimestamp;
+
+    private MessageSegment(Path path, MappedByteBuffer buffer, String[] indexIds, int[] indexOffsets,
+                           long[] bloom, int recordCount, LocalDateTime maxTimestamp) {
+        this.path = path;
+        this.buffer = buffer;
+        this.indexIds = indexIds;
+        this.indexOffsets = indexOffsets;
+        this.bloom = bloom;
+        this.recordCount = recordCount;
+        this.maxTimestamp = maxTimestamp;
+    }
+
+    /**
+     * メッセージをID順に並べてセグメントファイルに書き込む
+     * 一時ファイルに書いてfsyncしてからリネームするため、途中で落ちても壊れたセグメントは残らない
+     */
+    static void write(Path path, List<Message> messages) throws IOException {
+        List<Message> sorted = new ArrayList<>(messages);
+        sorted.sort(Comparator.comparing(Message::getId));
+
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer out = ByteBuffer.allocate(64 * 1024);
+            for (Message message : sorted) {
+                byte[] id = message.getId().getBytes(StandardCharsets.UTF_8);
+                byte[] sender = message.getSender().getBytes(StandardCharsets.UTF_8);
+                byte[] content = message.getContent().getBytes(StandardCharsets.UTF_8);
+                int length = 8 + 4 + 1 + 2 + id.length + 2 + sender.length + 4 + content.length;
+
+                if (out.remaining() < 4 + length) {
+                    drain(channel, out);
+                    if (out.capacity() < 4 + length) {
+                        out = ByteBuffer.allocate(4 + length);
+                    }
+                }
+                out.putInt(length);
+                out.putLong(message.getTimestamp().toEpochSecond(ZoneOffset.UTC));
+                out.putInt(message.getTimestamp().getNano());
+                out.put((byte) message.getType().ordinal());
+                out.putShort((short) id.length).put(id);
+                out.putShort((short) sender.length).put(sender);
+                out.putInt(content.length).put(content);
+            }
+            drain(channel, out);
+            channel.force(true);
+        }
+        Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer out) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    /**
+     * セグメントファイルを開き、メモリマップして疎インデックスとBloomフィルターを構築する
+     */
+    static MessageSegment open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        List<String> ids = new ArrayList<>();
+        List<Integer> offsets = new ArrayList<>();
+        List<String> allIds = new ArrayList<>();
+        LocalDateTime maxTimestamp = LocalDateTime.MIN;
+        int offset = 0;
+        while (offset < buffer.limit()) {
+            String id = readId(buffer, offset);
+            if (allIds.size() % INDEX_INTERVAL == 0) {
+                ids.add(id);
+                offsets.add(offset);
+            }
+            allIds.add(id);
+            LocalDateTime timestamp = readTimestamp(buffer, offset);
+            if (timestamp.isAfter(maxTimestamp)) {
+                maxTimestamp = timestamp;
+            }
+            offset += 4 + buffer.getInt(offset);
+        }
+
+        long[] bloom = new long[Math.max(1, (allIds.size() * BLOOM_BITS_PER_ENTRY + 63) / 64)];
+        for (String id : allIds) {
+            addToBloom(bloom, id);
+        }
+
+        return new MessageSegment(path, buffer, ids.toArray(new String[0]),
+                offsets.stream().mapToInt(Integer::intValue).toArray(), bloom, allIds.size(), maxTimestamp);
+    }
+
+    /**
+     * IDでメッセージを探す
+     * Bloomフィルターで不在を即判定し、疎インデックスの二分探索後は最大INDEX_INTERVAL件だけ走査する
+     */
+    Optional<Message> find(String id) {
+        if (indexIds.length == 0 || !mightContain(bloom, id)) {
+            return Optional.empty();
+        }
+
+        int low = 0;
+        int high = indexIds.length - 1;
+        int slot = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (indexIds[mid].compareTo(id) <= 0) {
+                slot = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (slot < 0) {
+            return Optional.empty();
+        }
+
+        int offset = indexOffsets[slot];
+        for (int i = 0; i < INDEX_INTERVAL && offset < buffer.limit(); i++) {
+            int cmp = readId(buffer, offset).compareTo(id);
+            if (cmp == 0) {
+                return Optional.of(readMessage(buffer, offset));
+            }
+            if (cmp > 0) {
+                break;
+            }
+            offset += 4 + buffer.getInt(offset);
+        }
+        return Optional.empty();
+    }
+
+    Path getPath() { return path; }
+    int getRecordCount() { return recordCount; }
+    LocalDateTime getMaxTimestamp() { return maxTimestamp; }
+
+    private static String readId(ByteBuffer buffer, int offset) {
+        int idOffset = offset + 4 + 8 + 4 + 1;
+        return readString(buffer, idOffset + 2, Short.toUnsignedInt(buffer.getShort(idOffset)));
+    }
+
+    private static LocalDateTime readTimestamp(ByteBuffer buffer, int offset) {
+        return LocalDateTime.ofEpochSecond(buffer.getLong(offset + 4), buffer.getInt(offset + 12), ZoneOffset.UTC);
+    }
+
+    private static Message readMessage(ByteBuffer buffer, int offset) {
+        LocalDateTime timestamp = readTimestamp(buffer, offset);
+        MessageType type = MessageType.values()[buffer.get(offset + 16)];
+        int position = offset + 17;
+
+        int idLength = Short.toUnsignedInt(buffer.getShort(position));
+        String id = readString(buffer, position + 2, idLength);
+        position += 2 + idLength;
+
+        int senderLength = Short.toUnsignedInt(buffer.getShort(position));
+        String sender = readString(buffer, position + 2, senderLength);
+        position += 2 + senderLength;
+
+        int contentLength = buffer.getInt(position);
+        String content = readString(buffer, position + 4, contentLength);
+
+        return new Message(id, content, sender, timestamp, type);
+    }
+
+    private static String readString(ByteBuffer buffer, int offset, int length) {
+        // マップ済み領域のスライスから直接デコードする
+        return StandardCharsets.UTF_8.decode(buffer.slice(offset, length)).toString();
+    }
+
+    private static void addToBloom(long[] bloom, String id) {
+        int h1 = id.hashCode();
+        int h2 = Integer.reverse(h1) ^ 0x5bd1e995;
+        long bits = bloom.length * 64L;
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bits);
+            bloom[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    private static boolean mightContain(long[] bloom, String id) {
+        int h1 = id.hashCode();
+        int h2 = Integer.reverse(h1) ^ 0x5bd1e995;
+        long bits = bloom.length * 64L;
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bits);
+            if ((bloom[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
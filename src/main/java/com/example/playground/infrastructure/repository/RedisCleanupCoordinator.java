@@ -0,0 +1,93 @@
+package com.example.playground.infrastructure.repository;
+
+import com.example.playground.application.cleanup.CleanupCheckpoint;
+import com.example.playground.application.cleanup.CleanupCoordinator;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Redisを使用したCleanupCoordinatorの実装
+ * SET NX PXによる分散ロックと、Hashに保存するチェックポイントを提供する
+ */
+@Component
+@Profile("!inmemory")
+public class RedisCleanupCoordinator implements CleanupCoordinator {
+
+    private static final String LOCK_KEY = "cleanup:lock";
+    private static final String CHECKPOINT_KEY = "cleanup:checkpoint";
+
+    // 自分のトークンの場合のみ延長・解放する（他ノードのロックを誤って操作しない）
+    private static final RedisScript<Long> EXTEND_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then "
+                    + "return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+    private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then "
+                    + "return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    public RedisCleanupCoordinator(RedisTemplate<String, String> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Optional<String> tryLock(Duration ttl) {
+        String token = UUID.randomUUID().toString();
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, token, ttl);
+        return Boolean.TRUE.equals(acquired) ? Optional.of(token) : Optional.empty();
+    }
+
+    @Override
+    public boolean extendLock(String token, Duration ttl) {
+        Long result = redisTemplate.execute(EXTEND_SCRIPT, List.of(LOCK_KEY),
+                token, String.valueOf(ttl.toMillis()));
+        return result != null && result == 1L;
+    }
+
+    @Override
+    public void unlock(String token) {
+        redisTemplate.execute(UNLOCK_SCRIPT, List.of(LOCK_KEY), token);
+    }
+
+    @Override
+    public Optional<CleanupCheckpoint> loadCheckpoint() {
+        Map<Object, Object> fields = redisTemplate.opsForHash().entries(CHECKPOINT_KEY);
+        if (fields.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new CleanupCheckpoint(
+                LocalDateTime.parse((String) fields.get("cutoff")),
+                Long.parseLong((String) fields.get("deletedCount")),
+                Long.parseLong((String) fields.get("batches")),
+                LocalDateTime.parse((String) fields.get("updatedAt"))
+        ));
+    }
+
+    @Override
+    public void saveCheckpoint(CleanupCheckpoint checkpoint) {
+        redisTemplate.opsForHash().putAll(CHECKPOINT_KEY, Map.of(
+                "cutoff", checkpoint.getCutoff().toString(),
+                "deletedCount", String.valueOf(checkpoint.getDeletedCount()),
+                "batches", String.valueOf(checkpoint.getBatches()),
+                "updatedAt", checkpoint.getUpdatedAt().toString()
+        ));
+    }
+
+    @Override
+    public void clearCheckpoint() {
+        redisTemplate.delete(CHECKPOINT_KEY);
+    }
+}
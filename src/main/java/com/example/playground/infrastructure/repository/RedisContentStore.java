@@ -0,0 +1,164 @@
+package com.example.playground.infrastructure.repository;
+
+import com.example.playground.domain.model.Message;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redisの本文ストア（内容アドレス）
+ * 一定の長さ以上の本文はハッシュをキーにして content:{hash} に1つだけ保存し、メッセージの値にはハッシュだけを持たせる。
+ * 同じ本文（繰り返し送られるアラートなど）はメッセージ数によらず1つ分のメモリで済む
+ *
+ * 参照しているメッセージIDは content:{hash}:refs のSetで持ち、参照がなくなったら本文を消す。
+ * 参照数をカウンターではなくIDのSetにしているので、同じメッセージの再保存（Kafkaの再配信・状態の再構築）で数がずれない
+ */
+final class RedisContentStore {
+    
+    private static final String CONTENT_KEY_PREFIX = "content:";
+    private static final String REFS_KEY_SUFFIX = ":refs";
+    private static final int HASH_BYTES = 16;
+    
+    // スクリプトはパイプライン・トランザクションの中で送る。EVALSHAはNOSCRIPTの場合に本文を送り直せない
+    // （起動直後・再起動後のRedisで失敗し、参照先のない本文・消えない本文が残る）ため、本文ごとEVALで送る
+    // KEYS[1]: 本文のキー, KEYS[2]: 参照のSet, ARGV[1]: 本文, ARGV[2]: メッセージID
+    private static final byte[] ACQUIRE_SCRIPT = (
+            "redis.call('set', KEYS[1], ARGV[1], 'nx') "
+                    + "return redis.call('sadd', KEYS[2], ARGV[2])").getBytes(StandardCharsets.UTF_8);
+    // KEYS[1]: 本文のキー, KEYS[2]: 参照のSet, ARGV[1]: メッセージID
+    private static final byte[] RELEASE_SCRIPT = (
+            "redis.call('srem', KEYS[2], ARGV[1]) "
+                    + "if redis.call('scard', KEYS[2]) == 0 then return redis.call('del', KEYS[1]) end "
+                    + "return 0").getBytes(StandardCharsets.UTF_8);
+    
+    private final RedisTemplate<String, String> redisTemplate;
+    private final boolean enabled;
+    private final int minLength;
+    private final int lazyMinLength;
+    private final int previewLength;
+    
+    /**
+     * @param enabled falseの場合は本文を常にメッセージの値に含める（既存の別キーの本文は引き続き読める）
+     * @param minLength 別キーに保存する本文の最小の長さ（文字数）
+     * @param lazyMinLength 一覧では読まずに先頭部分だけを返す本文の最小の長さ（文字数）
+     * @param previewLength 先頭部分の長さ（文字数）
+     */
+    RedisContentStore(RedisTemplate<String, String> redisTemplate, boolean enabled, int minLength,
+                      int lazyMinLength, int previewLength) {
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.minLength = minLength;
+        this.lazyMinLength = lazyMinLength;
+        this.previewLength = previewLength;
+    }
+    
+    /**
+     * 本文を別キーに保存するかどうか
+     */
+    boolean shouldOffload(Message message) {
+        return enabled && message.getContent().length() >= minLength;
+    }
+    
+    /**
+     * 一覧で返す先頭部分（一覧でも本文を読む長さの場合はnull）
+     */
+    String previewOf(Message message) {
+        String content = message.getContent();
+        if (content.length() < lazyMinLength) {
+            return null;
+        }
+        int end = Math.min(previewLength, content.length());
+        // サロゲートペアの途中で切らない
+        if (end > 0 && Character.isHighSurrogate(content.charAt(end - 1))) {
+            end--;
+        }
+        return content.substring(0, end);
+    }
+    
+    /**
+     * 本文を保存し、メッセージからの参照を追加するコマンドを積む（パイプライン・トランザクション内で使用）
+     * @return 本文の参照（メッセージの値に保存するハッシュ）
+     */
+    String appendAcquire(RedisOperations<String, String> ops, Message message) {
+        String ref = hash(message.getContent());
+        eval(ops, ACQUIRE_SCRIPT, CONTENT_KEY_PREFIX + ref, CONTENT_KEY_PREFIX + ref + REFS_KEY_SUFFIX,
+                message.getContent(), message.getId());
+        return ref;
+    }
+    
+    /**
+     * メッセージからの参照を外し、参照がなくなった本文を消すコマンドを積む
+     * 参照は本文から求め直すので、別キーに保存していないメッセージでは何もしない
+     */
+    void appendRelease(RedisOperations<String, String> ops, Message message) {
+        if (!shouldOffload(message)) {
+            return;
+        }
+        String ref = hash(message.getContent());
+        eval(ops, RELEASE_SCRIPT, CONTENT_KEY_PREFIX + ref, CONTENT_KEY_PREFIX + ref + REFS_KEY_SUFFIX,
+                message.getId());
+    }
+    
+    /**
+     * 2つのキーを取るスクリプトを、パイプライン・トランザクションの接続にEVALで積む
+     */
+    private static void eval(RedisOperations<String, String> ops, byte[] script, String contentKey, String refsKey,
+                             String... args) {
+        byte[][] keysAndArgs = new byte[2 + args.length][];
+        keysAndArgs[0] = contentKey.getBytes(StandardCharsets.UTF_8);
+        keysAndArgs[1] = refsKey.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < args.length; i++) {
+            keysAndArgs[2 + i] = args[i].getBytes(StandardCharsets.UTF_8);
+        }
+        ops.execute((RedisCallback<Object>) connection ->
+                connection.scriptingCommands().eval(script, ReturnType.INTEGER, 2, keysAndArgs));
+    }
+    
+    /**
+     * 本文を1回のMGETでまとめて取得する
+     * @param refs 本文の参照（重複なし）
+     * @return 参照 → 本文（消えていた本文は含まれない）
+     */
+    Map<String, String> fetch(Collection<String> refs) {
+        List<String> refList = new ArrayList<>(refs);
+        List<String> keys = refList.stream()
+                .map(ref -> CONTENT_KEY_PREFIX + ref)
+                .toList();
+        List<String> bodies = redisTemplate.opsForValue().multiGet(keys);
+        Map<String, String> result = new HashMap<>();
+        if (bodies == null) {
+            return result;
+        }
+        for (int i = 0; i < bodies.size(); i++) {
+            if (bodies.get(i) != null) {
+                result.put(refList.get(i), bodies.get(i));
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 本文のハッシュ（SHA-256の先頭128ビット、URLセーフなBase64）
+     */
+    static String hash(String content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, HASH_BYTES));
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256はJava SEで必ず提供される
+            throw new IllegalStateException(e);
+        }
+    }
+}
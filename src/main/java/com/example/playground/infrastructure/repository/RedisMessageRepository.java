@@ -1,24 +1,51 @@
 package com.example.playground.infrastructure.repository;
 
 import com.example.playground.domain.model.Message;
-import com.example.playground.domain.model.MessageType;
 import com.example.playground.domain.repository.MessageRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.playground.infrastructure.serde.MessageJsonCodec;
+import com.example.playground.infrastructure.serde.MessageJsonCodec.StoredMessage;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.zset.Aggregate;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.stereotype.Repository;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 /**
  * Redisを使用したMessageRepositoryの実装
  * ドメイン層のRepositoryインターフェースを実装し、
  * Redisへのデータ永続化を担当
+ * 
+ * メッセージ本体はJSONのbyte[]として直接読み書きする（中間のString・DTOを作らない）
+ * 一定の長さ以上の本文は RedisContentStore に分けて保存し、同じ本文を1つにまとめる。
+ * さらに大きな本文は一覧（findAll / findBySender / search）では読まず、先頭部分だけを返す（全体はfindById / findAllById）
  */
 @Repository
 public class RedisMessageRepository implements MessageRepository {
@@ -26,51 +53,203 @@ public class RedisMessageRepository implements MessageRepository {
     private static final String MESSAGE_KEY_PREFIX = "message:";
     private static final String MESSAGE_SET_KEY = "messages"; // ListからSetに変更
     private static final String SENDER_INDEX_PREFIX = "sender:";
+    private static final String TIME_INDEX_KEY = "messages:by-time"; // score = タイムスタンプ（エポックミリ秒）
+    private static final String SEARCH_TERM_PREFIX = "search:term:"; // 転置インデックス: 語 → ID（score = タイムスタンプ）
+    private static final String SEARCH_TERMS_KEY = "search:terms"; // 前方一致展開用の語辞書（score = 0、辞書順）
+    private static final String SEARCH_TMP_PREFIX = "search:tmp:";
+    private static final String VERSION_ALL_KEY = "version:messages"; // 全メッセージの一覧のバージョン（INCR）
+    private static final String VERSION_SENDER_PREFIX = "version:sender:"; // 送信者ごとの一覧のバージョン（INCR）
+    private static final String VERSION_GENERATION_KEY = "version:generation"; // 全一覧共通の世代（初回は現在時刻）
+    private static final int DELETE_BATCH_SIZE = 500;
+    private static final int MAX_PREFIX_EXPANSION = 64;
+    private static final Duration SEARCH_TMP_TTL = Duration.ofSeconds(30);
     
     private final RedisTemplate<String, String> redisTemplate;
-    private final ObjectMapper objectMapper;
+    private final RedisTemplate<String, byte[]> binaryRedisTemplate;
+    private final MessageJsonCodec codec;
+    private final RedisMessageStatsRepository statsRepository;
+    private final RedisContentStore contentStore;
+    private final int lookupChunkSize;
+    private final ExecutorService lookupExecutor;
     
-    public RedisMessageRepository(RedisTemplate<String, String> redisTemplate, ObjectMapper objectMapper) {
+    public RedisMessageRepository(RedisTemplate<String, String> redisTemplate,
+                                  RedisTemplate<String, byte[]> binaryRedisTemplate,
+                                  MessageJsonCodec codec,
+                                  RedisMessageStatsRepository statsRepository,
+                                  @Value("${app.redis.lookup.chunk-size:100}") int lookupChunkSize,
+                                  @Value("${app.redis.lookup.parallelism:4}") int lookupParallelism,
+                                  @Value("${app.redis.content.offload.enabled:true}") boolean contentOffloadEnabled,
+                                  @Value("${app.redis.content.offload.min-length:128}") int contentOffloadMinLength,
+                                  @Value("${app.redis.content.lazy.min-length:8192}") int lazyContentMinLength,
+                                  @Value("${app.redis.content.lazy.preview-length:200}") int previewLength) {
         this.redisTemplate = redisTemplate;
-        this.objectMapper = objectMapper;
+        this.binaryRedisTemplate = binaryRedisTemplate;
+        this.codec = codec;
+        this.statsRepository = statsRepository;
+        this.contentStore = new RedisContentStore(redisTemplate, contentOffloadEnabled, contentOffloadMinLength,
+                lazyContentMinLength, previewLength);
+        this.lookupChunkSize = lookupChunkSize;
+        this.lookupExecutor = Executors.newFixedThreadPool(lookupParallelism, runnable -> {
+            Thread thread = new Thread(runnable, "redis-lookup");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
     
     @Override
     public Message save(Message message) {
-        try {
-            String messageKey = MESSAGE_KEY_PREFIX + message.getId();
-            String senderIndexKey = SENDER_INDEX_PREFIX + message.getSender();
-            
-            // メッセージをJSONとして保存
-            String messageJson = objectMapper.writeValueAsString(new MessageDto(message));
-            redisTemplate.opsForValue().set(messageKey, messageJson);
-            
-            // 全メッセージのSetに追加（重複は自動で排除される）
-            redisTemplate.opsForSet().add(MESSAGE_SET_KEY, message.getId());
-            
-            // 送信者インデックスにも追加（こちらもSetに変更）
-            redisTemplate.opsForSet().add(senderIndexKey, message.getId());
-            
-            return message;
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Failed to serialize message", e);
+        // 本体と全インデックスを1回のパイプラインで書き込む（語の数だけ往復しない）
+        pipelined(ops -> appendSave(ops, message));
+        return message;
+    }
+    
+    @Override
+    public void saveAll(List<Message> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        // 全メッセージ分のコマンドを1回のパイプラインで書き込む
+        pipelined(ops -> messages.forEach(message -> appendSave(ops, message)));
+    }
+    
+    /**
+     * 1件分の保存コマンドをパイプラインに積む
+     */
+    private void appendSave(RedisOperations<String, String> ops, Message message) {
+        byte[] messageKey = (MESSAGE_KEY_PREFIX + message.getId()).getBytes(StandardCharsets.UTF_8);
+        String senderIndexKey = SENDER_INDEX_PREFIX + message.getSender();
+        double score = toScore(message.getTimestamp());
+        
+        // メッセージをJSONのバイト列として保存（長い本文は先に本文ストアに保存し、値には参照だけを持たせる）
+        byte[] messageJson;
+        if (contentStore.shouldOffload(message)) {
+            String contentRef = contentStore.appendAcquire(ops, message);
+            messageJson = codec.writeWithContentRef(message, contentRef, contentStore.previewOf(message));
+        } else {
+            messageJson = codec.write(message);
         }
+        
+        // 本体はシリアライザーを通さず、同じパイプラインの接続に直接書き込む
+        ops.execute((RedisCallback<Object>) connection -> connection.stringCommands().set(messageKey, messageJson));
+        
+        // 全メッセージのSetに追加（重複は自動で排除される）
+        ops.opsForSet().add(MESSAGE_SET_KEY, message.getId());
+        
+        // 時刻インデックスに追加（古い順のチャンク削除で使用）
+        ops.opsForZSet().add(TIME_INDEX_KEY, message.getId(), score);
+        
+        // 全文検索の転置インデックスに追加
+        for (String term : SearchTokenizer.tokenize(message.getContent())) {
+            ops.opsForZSet().add(SEARCH_TERM_PREFIX + term, message.getId(), score);
+            ops.opsForZSet().add(SEARCH_TERMS_KEY, term, 0);
+        }
+        
+        // 送信者インデックスに追加し、新規の場合だけ分単位の集計を積み上げる（集計APIで全件を読まずに済む）
+        // 送信者インデックスはコールド層に移したメッセージのIDも持つので、移行後の再保存でも数え直さない
+        statsRepository.appendIndexAndIncrements(ops, senderIndexKey, message);
+        
+        // 一覧のバージョンを進める（ETagが変わる）
+        ops.opsForValue().increment(VERSION_ALL_KEY);
+        ops.opsForValue().increment(VERSION_SENDER_PREFIX + message.getSender());
     }
     
+
     @Override
     public Optional<Message> findById(String id) {
-        String messageKey = MESSAGE_KEY_PREFIX + id;
-        String messageJson = redisTemplate.opsForValue().get(messageKey);
+        // 本文ストアに分けた本文の解決は一括取得と共通
+        return Optional.ofNullable(findAllById(List.of(id)).get(id));
+    }
+    
+    /**
+     * IDをlookupChunkSize件ずつのMGETに分けて取得する
+     * 1回のMGETが大きくなりすぎてRedisを長く占有しないようにし、
+     * 複数チャンクになる場合は取得とデシリアライズを並列に行う
+     */
+    @Override
+    public Map<String, Message> findAllById(Collection<String> ids) {
+        return findAllById(ids, false);
+    }
+    
+    /**
+     * @param previewLargeContent trueの場合、先頭部分を保存してある大きな本文は読まずに先頭部分を返す（一覧用）
+     */
+    private Map<String, Message> findAllById(Collection<String> ids, boolean previewLargeContent) {
+        List<String> idList = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<String, Message> result = new LinkedHashMap<>();
+        if (idList.isEmpty()) {
+            return result;
+        }
         
-        if (messageJson == null) {
-            return Optional.empty();
+        Message[] messages = new Message[idList.size()];
+        if (idList.size() <= lookupChunkSize) {
+            fetchChunk(idList, messages, 0, previewLargeContent);
+        } else {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int from = 0; from < idList.size(); from += lookupChunkSize) {
+                int offset = from;
+                List<String> chunk = idList.subList(from, Math.min(from + lookupChunkSize, idList.size()));
+                futures.add(CompletableFuture.runAsync(() -> fetchChunk(chunk, messages, offset, previewLargeContent),
+                        lookupExecutor));
+            }
+            try {
+                CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+            } catch (CompletionException e) {
+                // Redisの例外はそのまま投げる（サーキットブレーカーが判定できるように）
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
         }
         
-        try {
-            MessageDto dto = objectMapper.readValue(messageJson, MessageDto.class);
-            return Optional.of(dto.toMessage());
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException("Failed to deserialize message", e);
+        for (int i = 0; i < messages.length; i++) {
+            if (messages[i] != null) {
+                result.put(idList.get(i), messages[i]);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 1チャンク分をMGETで取得し、結果配列のoffset以降に書き込む（存在しないIDはnullのまま）
+     * 本文ストアの本文は、チャンク内で重複を除いてもう1回のMGETで取得する
+     */
+    private void fetchChunk(List<String> ids, Message[] messages, int offset, boolean previewLargeContent) {
+        List<String> keys = ids.stream()
+                .map(id -> MESSAGE_KEY_PREFIX + id)
+                .toList();
+        List<byte[]> messageJsons = binaryRedisTemplate.opsForValue().multiGet(keys);
+        if (messageJsons == null) {
+            return;
+        }
+        
+        StoredMessage[] stored = new StoredMessage[messageJsons.size()];
+        Set<String> contentRefs = new LinkedHashSet<>();
+        for (int i = 0; i < messageJsons.size(); i++) {
+            byte[] messageJson = messageJsons.get(i);
+            if (messageJson != null) {
+                stored[i] = deserializeMessage(messageJson);
+                if (stored[i] != null && stored[i].content() == null
+                        && !(previewLargeContent && stored[i].preview() != null)) {
+                    contentRefs.add(stored[i].contentRef());
+                }
+            }
+        }
+        Map<String, String> bodies = contentRefs.isEmpty() ? new HashMap<>() : contentStore.fetch(contentRefs);
+        
+        for (int i = 0; i < stored.length; i++) {
+            StoredMessage message = stored[i];
+            if (message == null) {
+                continue;
+            }
+            if (message.content() != null) {
+                messages[offset + i] = message.withContent(message.content());
+            } else if (previewLargeContent && message.preview() != null) {
+                messages[offset + i] = message.withContent(message.preview());
+            } else if (bodies.containsKey(message.contentRef())) {
+                // 本文が消えている場合（同時に削除された）は存在しないものとして扱う
+                messages[offset + i] = message.withContent(bodies.get(message.contentRef()));
+            }
         }
     }
     
@@ -87,6 +266,35 @@ public class RedisMessageRepository implements MessageRepository {
         return getMessagesByIds(messageIds);
     }
     
+    /**
+     * 一覧のバージョン（世代.カウンター）を1回のMGETで取得する
+     * 世代はRedisのデータが消えた場合にカウンターが0から振り直されても、古いETagと一致しないようにするためのもの
+     */
+    @Override
+    public Optional<String> getListVersion(String sender) {
+        String versionKey = sender == null ? VERSION_ALL_KEY : VERSION_SENDER_PREFIX + sender;
+        List<String> values = redisTemplate.opsForValue().multiGet(List.of(VERSION_GENERATION_KEY, versionKey));
+        if (values == null) {
+            return Optional.empty();
+        }
+        
+        String generation = values.get(0);
+        if (generation == null) {
+            redisTemplate.opsForValue().setIfAbsent(VERSION_GENERATION_KEY, String.valueOf(System.currentTimeMillis()));
+            generation = redisTemplate.opsForValue().get(VERSION_GENERATION_KEY);
+        }
+        String version = values.get(1) == null ? "0" : values.get(1);
+        return Optional.of(generation + "." + version);
+    }
+    
+    /**
+     * 全ての一覧のバージョンを変える（どの一覧が変わったか特定できない一括削除の後に呼ぶ）
+     */
+    void bumpListGeneration() {
+        redisTemplate.opsForValue().setIfAbsent(VERSION_GENERATION_KEY, String.valueOf(System.currentTimeMillis()));
+        redisTemplate.opsForValue().increment(VERSION_GENERATION_KEY);
+    }
+    
     @Override
     public List<Message> findAll() {
         Set<String> messageIds = redisTemplate.opsForSet().members(MESSAGE_SET_KEY);
@@ -99,49 +307,110 @@ public class RedisMessageRepository implements MessageRepository {
         return getMessagesByIds(messageIds);
     }
     
+    @Override
+    public List<Message> search(String query, int offset, int limit) {
+        List<SearchTokenizer.QueryTerm> queryTerms = SearchTokenizer.parseQuery(query);
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        
+        List<String> postingKeys = new ArrayList<>();
+        List<String> tmpKeys = new ArrayList<>();
+        try {
+            for (SearchTokenizer.QueryTerm queryTerm : queryTerms) {
+                String postingKey = resolvePostingKey(queryTerm, tmpKeys);
+                if (postingKey == null) {
+                    // 1語でもマッチしなければAND検索の結果は空
+                    return new ArrayList<>();
+                }
+                postingKeys.add(postingKey);
+            }
+            
+            // 複数語の場合は該当するポスティングだけを交差させる
+            String resultKey = postingKeys.get(0);
+            if (postingKeys.size() > 1) {
+                resultKey = newTmpKey(tmpKeys);
+                redisTemplate.opsForZSet().intersectAndStore(postingKeys.get(0), postingKeys.subList(1, postingKeys.size()),
+                        resultKey, Aggregate.MAX);
+                redisTemplate.expire(resultKey, SEARCH_TMP_TTL);
+            }
+            
+            // スコアはタイムスタンプなので、逆順で新しい順になる
+            Set<String> ids = redisTemplate.opsForZSet().reverseRange(resultKey, offset, offset + limit - 1L);
+            return getMessagesByIds(ids);
+        } finally {
+            if (!tmpKeys.isEmpty()) {
+                redisTemplate.delete(tmpKeys);
+            }
+        }
+    }
+    
     /**
-     * 複数のメッセージIDから一括でメッセージを取得する
-     * N+1問題を解決するためのヘルパーメソッド
+     * クエリ語に対応するポスティング（語 → IDのSorted Set）のキーを求める
+     * 前方一致の場合は語辞書から該当語を展開し、一時キーに和集合を作る
      * 
-     * @param messageIds 取得するメッセージIDのセット
-     * @return メッセージのリスト
+     * @return ポスティングのキー、該当する語がない場合はnull
      */
-    private List<Message> getMessagesByIds(Set<String> messageIds) {
-        if (messageIds == null || messageIds.isEmpty()) {
-            return new ArrayList<>();
+    private String resolvePostingKey(SearchTokenizer.QueryTerm queryTerm, List<String> tmpKeys) {
+        if (!queryTerm.prefix()) {
+            String postingKey = SEARCH_TERM_PREFIX + queryTerm.term();
+            return Boolean.TRUE.equals(redisTemplate.hasKey(postingKey)) ? postingKey : null;
         }
         
-        // メッセージキーのリストを作成
-        List<String> keys = messageIds.stream()
-                .map(id -> MESSAGE_KEY_PREFIX + id)
-                .toList();
+        Set<String> terms = redisTemplate.opsForZSet().rangeByLex(SEARCH_TERMS_KEY,
+                Range.closed(queryTerm.term(), queryTerm.term() + Character.MAX_VALUE),
+                Limit.limit().count(MAX_PREFIX_EXPANSION));
+        if (terms == null || terms.isEmpty()) {
+            return null;
+        }
         
-        // 一括取得でN+1問題を解決
-        List<String> messageJsons = redisTemplate.opsForValue().multiGet(keys);
+        List<String> keys = terms.stream()
+                .map(term -> SEARCH_TERM_PREFIX + term)
+                .toList();
+        if (keys.size() == 1) {
+            return keys.get(0);
+        }
         
-        if (messageJsons == null) {
+        String unionKey = newTmpKey(tmpKeys);
+        redisTemplate.opsForZSet().unionAndStore(keys.get(0), keys.subList(1, keys.size()), unionKey, Aggregate.MAX);
+        redisTemplate.expire(unionKey, SEARCH_TMP_TTL);
+        return unionKey;
+    }
+    
+    private static String newTmpKey(List<String> tmpKeys) {
+        String key = SEARCH_TMP_PREFIX + UUID.randomUUID();
+        tmpKeys.add(key);
+        return key;
+    }
+    
+    /**
+     * 複数のメッセージIDから一括でメッセージを取得する
+     * N+1問題を解決するためのヘルパーメソッド
+     * 
+     * @param messageIds 取得するメッセージIDのセット（順序は結果に保持される）
+     * @return メッセージのリスト
+     */
+    List<Message> getMessagesByIds(Set<String> messageIds) {
+        if (messageIds == null || messageIds.isEmpty()) {
             return new ArrayList<>();
         }
         
-        return messageJsons.stream()
-                .filter(Objects::nonNull)
-                .map(this::deserializeMessage)
-                .filter(Objects::nonNull)
-                .toList();
+        // 一括取得でN+1問題を解決（件数が多い場合はチャンクに分けて並列に取得）
+        // 一覧用なので、大きな本文は先頭部分だけを返す
+        return new ArrayList<>(findAllById(messageIds, true).values());
     }
     
     /**
-     * JSON文字列からMessageオブジェクトをデシリアライズする
+     * JSONバイト列からMessageオブジェクトをデシリアライズする
      * エラーハンドリングを含む
      * 
-     * @param messageJson JSONstring
-     * @return Messageオブジェクト、デシリアライズに失敗した場合はnull
+     * @param messageJson JSONのバイト列
+     * @return 保存された値、デシリアライズに失敗した場合はnull
      */
-    private Message deserializeMessage(String messageJson) {
+    private StoredMessage deserializeMessage(byte[] messageJson) {
         try {
-            MessageDto dto = objectMapper.readValue(messageJson, MessageDto.class);
-            return dto.toMessage();
-        } catch (JsonProcessingException e) {
+            return codec.readStored(messageJson);
+        } catch (IOException e) {
             // ログを出力して該当メッセージをスキップ
             // 本来はloggerを使用することを推奨
             System.err.println("Failed to deserialize message: " + e.getMessage());
@@ -151,82 +420,191 @@ public class RedisMessageRepository implements MessageRepository {
     
     @Override
     public void deleteById(String id) {
-        String messageKey = MESSAGE_KEY_PREFIX + id;
-        
-        // メッセージを取得して送信者情報を得る
-        Optional<Message> message = findById(id);
+        // 本体の取得（送信者・検索語を得る）と全インデックスからの削除をまとめて実行
+        deleteChunk(List.of(id));
+    }
+    
+    @Override
+    public int deleteOldMessages(int minutes) {
+        LocalDateTime cutoffTime = LocalDateTime.now(ZoneOffset.UTC).minusMinutes(minutes);
         
-        // メッセージを削除
-        redisTemplate.delete(messageKey);
+        int deletedCount = 0;
+        int deleted;
+        do {
+            deleted = deleteOlderThan(cutoffTime, DELETE_BATCH_SIZE);
+            deletedCount += deleted;
+        } while (deleted == DELETE_BATCH_SIZE);
         
-        // SetからIDを削除
-        redisTemplate.opsForSet().remove(MESSAGE_SET_KEY, id);
+        return deletedCount;
+    }
+    
+    @Override
+    public int deleteOlderThan(LocalDateTime cutoff, int limit) {
+        Set<String> ids = findIdsOlderThan(cutoff, limit);
         
-        // 送信者インデックスからも削除
-        if (message.isPresent()) {
-            String senderIndexKey = SENDER_INDEX_PREFIX + message.get().getSender();
-            redisTemplate.opsForSet().remove(senderIndexKey, id);
+        if (ids == null || ids.isEmpty()) {
+            return 0;
         }
+        
+        List<String> idList = new ArrayList<>(ids);
+        deleteChunk(idList);
+        return idList.size();
     }
     
     @Override
-    public int deleteOldMessages(int minutes) {
-        List<Message> allMessages = findAll();
-        LocalDateTime cutoffTime = LocalDateTime.now().minusMinutes(minutes);
+    public int deleteAllById(Collection<String> ids) {
+        List<String> idList = new ArrayList<>(new LinkedHashSet<>(ids));
         
         int deletedCount = 0;
-        for (Message message : allMessages) {
-            if (message.getTimestamp().isBefore(cutoffTime)) {
-                deleteById(message.getId());
-                deletedCount++;
-            }
+        for (int from = 0; from < idList.size(); from += DELETE_BATCH_SIZE) {
+            deletedCount += deleteChunk(idList.subList(from, Math.min(from + DELETE_BATCH_SIZE, idList.size())));
         }
-        
         return deletedCount;
     }
     
     /**
-     * Redis保存用のDTO
-     * Jackson用のデフォルトコンストラクタとsetterを持つ
+     * 1チャンク分のメッセージを本体と全インデックスから削除する
+     * 本体を一括取得して送信者・検索語・本文の参照を求め、削除はMULTI/EXECでまとめて実行する（1往復・アトミック）
+     * 
+     * @return 本体が存在したメッセージ数
      */
-    public static class MessageDto {
-        private String id;
-        private String content;
-        private String sender;
-        private LocalDateTime timestamp;
-        private MessageType type;
+    private int deleteChunk(List<String> idList) {
+        Collection<Message> messages = findAllById(idList).values();
+        List<String> keys = idList.stream()
+                .map(id -> MESSAGE_KEY_PREFIX + id)
+                .toList();
         
-        // デフォルトコンストラクタ（Jackson用）
-        public MessageDto() {}
+        transactional(ops -> {
+            ops.delete(keys);
+            ops.opsForSet().remove(MESSAGE_SET_KEY, idList.toArray());
+            ops.opsForZSet().remove(TIME_INDEX_KEY, idList.toArray());
+            messages.forEach(message -> removeSecondaryIndexes(ops, message));
+            messages.forEach(message -> contentStore.appendRelease(ops, message));
+            ops.opsForValue().increment(VERSION_ALL_KEY);
+            messages.stream().map(Message::getSender).distinct()
+                    .forEach(sender -> ops.opsForValue().increment(VERSION_SENDER_PREFIX + sender));
+        });
         
-        // Messageからの変換コンストラクタ
-        public MessageDto(Message message) {
-            this.id = message.getId();
-            this.content = message.getContent();
-            this.sender = message.getSender();
-            this.timestamp = message.getTimestamp();
-            this.type = message.getType();
+        return messages.size();
+    }
+    
+    /**
+     * 指定時刻より古いメッセージを古い順に最大limit件取得する（コールド層への移行用）
+     */
+    List<Message> findOlderThan(LocalDateTime cutoff, int limit) {
+        Set<String> ids = findIdsOlderThan(cutoff, limit);
+        if (ids == null || ids.isEmpty()) {
+            return new ArrayList<>();
         }
-        
-        // DTOからMessageへの変換
-        public Message toMessage() {
-            return new Message(id, content, sender, timestamp, type);
+        // コールド層には本文全体を書くので、先頭部分だけにはしない
+        return new ArrayList<>(findAllById(ids).values());
+    }
+    
+    /**
+     * 送信者インデックスのIDを取得する（コールド層に移行済みのIDも含む）
+     */
+    @Override
+    public Set<String> findIdsBySender(String sender) {
+        Set<String> messageIds = redisTemplate.opsForSet().members(SENDER_INDEX_PREFIX + sender);
+        return messageIds == null ? Set.of() : messageIds;
+    }
+    
+    /**
+     * コールド層へ移行したメッセージをRedisから外す
+     * 送信者インデックスには残し、findBySenderからコールド層を引けるようにする
+     */
+    void evictToColdTier(List<Message> messages) {
+        if (messages.isEmpty()) {
+            return;
         }
         
-        // Getters and Setters
-        public String getId() { return id; }
-        public void setId(String id) { this.id = id; }
-        
-        public String getContent() { return content; }
-        public void setContent(String content) { this.content = content; }
-        
-        public String getSender() { return sender; }
-        public void setSender(String sender) { this.sender = sender; }
-        
-        public LocalDateTime getTimestamp() { return timestamp; }
-        public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
-        
-        public MessageType getType() { return type; }
-        public void setType(MessageType type) { this.type = type; }
+        List<String> idList = messages.stream().map(Message::getId).toList();
+        List<String> keys = idList.stream()
+                .map(id -> MESSAGE_KEY_PREFIX + id)
+                .toList();
+        transactional(ops -> {
+            ops.delete(keys);
+            ops.opsForSet().remove(MESSAGE_SET_KEY, idList.toArray());
+            ops.opsForZSet().remove(TIME_INDEX_KEY, idList.toArray());
+            messages.forEach(message -> removeSearchIndex(ops, message));
+            messages.forEach(message -> contentStore.appendRelease(ops, message));
+            // 送信者の一覧はコールド層から引けるため変わらない
+            ops.opsForValue().increment(VERSION_ALL_KEY);
+        });
+    }
+    
+    /**
+     * コールド層で削除したメッセージを送信者インデックスから外す
+     */
+    void removeFromSenderIndex(Message message) {
+        redisTemplate.opsForSet().remove(SENDER_INDEX_PREFIX + message.getSender(), message.getId());
+        redisTemplate.opsForValue().increment(VERSION_SENDER_PREFIX + message.getSender());
+    }
+    
+    private Set<String> findIdsOlderThan(LocalDateTime cutoff, int limit) {
+        // 時刻インデックスから対象IDだけを取得（全件走査しない）
+        return redisTemplate.opsForZSet()
+                .rangeByScore(TIME_INDEX_KEY, Double.NEGATIVE_INFINITY, toScore(cutoff) - 1, 0, limit);
+    }
+    
+    /**
+     * 送信者インデックスと全文検索インデックスからメッセージを外す
+     */
+    private static void removeSecondaryIndexes(RedisOperations<String, String> ops, Message message) {
+        ops.opsForSet().remove(SENDER_INDEX_PREFIX + message.getSender(), message.getId());
+        removeSearchIndex(ops, message);
+    }
+    
+    /**
+     * 全文検索インデックスからメッセージを外す
+     * 語辞書（search:terms）からは語を消さない（空のポスティングは検索時に無視される）
+     */
+    private static void removeSearchIndex(RedisOperations<String, String> ops, Message message) {
+        for (String term : SearchTokenizer.tokenize(message.getContent())) {
+            ops.opsForZSet().remove(SEARCH_TERM_PREFIX + term, message.getId());
+        }
+    }
+    
+    /**
+     * 複数のコマンドをパイプラインで送信する（結果は使用しない）
+     */
+    private void pipelined(Consumer<RedisOperations<String, String>> commands) {
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                commands.accept((RedisOperations<String, String>) operations);
+                return null;
+            }
+        });
+    }
+    
+    /**
+     * 複数のコマンドをMULTI/EXECでアトミックに実行する
+     */
+    private void transactional(Consumer<RedisOperations<String, String>> commands) {
+        redisTemplate.execute(new SessionCallback<List<Object>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> List<Object> execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                ops.multi();
+                commands.accept(ops);
+                return ops.exec();
+            }
+        });
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        lookupExecutor.shutdownNow();
+    }
+    
+    /**
+     * タイムスタンプを時刻インデックスのスコアに変換する
+     * LocalDateTimeはゾーンを持たないため、保存・検索の両方でUTCとして扱い一貫させる
+     */
+    private static double toScore(LocalDateTime timestamp) {
+        return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
     }
 }
@@ -0,0 +1,183 @@
+package com.example.playground.infrastructure.repository;
+
+import com.example.playground.domain.model.Message;
+import com.example.playground.domain.model.MessageStats;
+import com.example.playground.domain.model.MessageType;
+import com.example.playground.domain.repository.MessageStatsRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redisを使用したMessageStatsRepositoryの実装
+ * 分単位のバケット（Hashのカウンター + 送信者のHyperLogLog）に集計を積み上げる。
+ * 書き込みはRedisMessageRepository.saveのパイプラインに相乗りし、
+ * 読み出しは窓内のバケット数だけのコマンドで済む
+ *
+ * 集計は送信者インデックスへの追加（SADD）が新規だった場合だけ積み上げるので、
+ * 同じメッセージの再保存（Kafkaの再配信・状態の再構築）では数が増えない。
+ * バケットの有効期限はメッセージの時刻から決め、期限を過ぎたバケットは再構築でも作り直さない
+ */
+@Repository
+public class RedisMessageStatsRepository implements MessageStatsRepository {
+
+    private static final String MINUTE_BUCKET_PREFIX = "stats:minute:"; // Hash: total / urgent / type:{TYPE} / sender:{sender}
+    private static final String SENDER_HLL_PREFIX = "stats:senders:";  // HyperLogLog: 分ごとの送信者
+    private static final String TOTAL_FIELD = "total";
+    private static final String URGENT_FIELD = "urgent";
+    private static final String TYPE_FIELD_PREFIX = "type:";
+    private static final String SENDER_FIELD_PREFIX = "sender:";
+
+    // KEYS[1]: 送信者インデックス, KEYS[2]: バケット, KEYS[3]: 送信者のHyperLogLog
+    // ARGV[1]: メッセージID, ARGV[2]: 送信者, ARGV[3]: 種別のフィールド, ARGV[4]: 送信者のフィールド,
+    // ARGV[5]: 緊急なら1, ARGV[6]: バケットの有効期限（エポック秒）
+    // EVALSHAのNOSCRIPTからの再送はパイプライン内では行えないため、本文ごとEVALで送る
+    private static final byte[] INCREMENT_SCRIPT = (
+            "if redis.call('sadd', KEYS[1], ARGV[1]) == 0 then return 0 end "
+                    + "redis.call('hincrby', KEYS[2], '" + TOTAL_FIELD + "', 1) "
+                    + "if ARGV[5] == '1' then redis.call('hincrby', KEYS[2], '" + URGENT_FIELD + "', 1) end "
+                    + "redis.call('hincrby', KEYS[2], ARGV[3], 1) "
+                    + "redis.call('hincrby', KEYS[2], ARGV[4], 1) "
+                    + "redis.call('pfadd', KEYS[3], ARGV[2]) "
+                    + "redis.call('expireat', KEYS[2], ARGV[6]) "
+                    + "redis.call('expireat', KEYS[3], ARGV[6]) "
+                    + "return 1").getBytes(StandardCharsets.UTF_8);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final Duration retention;
+    private final int maxWindowMinutes;
+
+    public RedisMessageStatsRepository(
+            RedisTemplate<String, String> redisTemplate,
+            @Value("${app.stats.retention:P2D}") Duration retention,
+            @Value("${app.stats.max-window-minutes:1440}") int maxWindowMinutes) {
+        this.redisTemplate = redisTemplate;
+        this.retention = retention;
+        this.maxWindowMinutes = maxWindowMinutes;
+    }
+
+    /**
+     * 保存パイプラインに、送信者インデックスへの追加と集計の更新コマンドを追加する
+     * 集計はインデックスへの追加が新規だった場合だけ更新する（再保存で二重に数えない）
+     * @param ops パイプライン中のRedisOperations
+     * @param senderIndexKey 送信者インデックスのキー
+     * @param message 保存するメッセージ
+     */
+    void appendIndexAndIncrements(RedisOperations<String, String> ops, String senderIndexKey, Message message) {
+        long minute = toEpochMinute(message.getTimestamp());
+        long expireAt = (minute + 1) * 60 + retention.toSeconds();
+        if (expireAt <= System.currentTimeMillis() / 1000) {
+            // 保持期間を過ぎたバケット（古いメッセージの再構築）は作らない
+            ops.opsForSet().add(senderIndexKey, message.getId());
+            return;
+        }
+
+        byte[][] keysAndArgs = {
+                bytes(senderIndexKey),
+                bytes(MINUTE_BUCKET_PREFIX + minute),
+                bytes(SENDER_HLL_PREFIX + minute),
+                bytes(message.getId()),
+                bytes(message.getSender()),
+                bytes(TYPE_FIELD_PREFIX + message.getType().name()),
+                bytes(SENDER_FIELD_PREFIX + message.getSender()),
+                bytes(message.isUrgent() ? "1" : "0"),
+                bytes(String.valueOf(expireAt))
+        };
+        ops.execute((RedisCallback<Object>) connection ->
+                connection.scriptingCommands().eval(INCREMENT_SCRIPT, ReturnType.INTEGER, 3, keysAndArgs));
+    }
+
+    @Override
+    public MessageStats getStats(LocalDateTime from, LocalDateTime to, int topSenders) {
+        long toMinute = toEpochMinute(to);
+        long fromMinute = Math.max(toEpochMinute(from), toMinute - maxWindowMinutes + 1);
+
+        List<String> bucketKeys = new ArrayList<>();
+        List<String> hllKeys = new ArrayList<>();
+        for (long minute = fromMinute; minute <= toMinute; minute++) {
+            bucketKeys.add(MINUTE_BUCKET_PREFIX + minute);
+            hllKeys.add(SENDER_HLL_PREFIX + minute);
+        }
+
+        // 窓内のバケットを1回のパイプラインで取得
+        List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                bucketKeys.forEach(key -> ops.opsForHash().entries(key));
+                ops.opsForHyperLogLog().size(hllKeys.toArray(new String[0]));
+                return null;
+            }
+        });
+
+        long total = 0;
+        Map<MessageType, Long> countsByType = new EnumMap<>(MessageType.class);
+        Map<String, Long> countsBySender = new HashMap<>();
+        List<MessageStats.MinuteBucket> perMinute = new ArrayList<>(bucketKeys.size());
+
+        for (int i = 0; i < bucketKeys.size(); i++) {
+            @SuppressWarnings("unchecked")
+            Map<Object, Object> fields = (Map<Object, Object>) results.get(i);
+            long bucketTotal = 0;
+            long bucketUrgent = 0;
+            for (Map.Entry<Object, Object> field : fields.entrySet()) {
+                String name = (String) field.getKey();
+                long count = Long.parseLong((String) field.getValue());
+                if (name.equals(TOTAL_FIELD)) {
+                    bucketTotal = count;
+                } else if (name.equals(URGENT_FIELD)) {
+                    bucketUrgent = count;
+                } else if (name.startsWith(TYPE_FIELD_PREFIX)) {
+                    countsByType.merge(MessageType.valueOf(name.substring(TYPE_FIELD_PREFIX.length())), count, Long::sum);
+                } else if (name.startsWith(SENDER_FIELD_PREFIX)) {
+                    countsBySender.merge(name.substring(SENDER_FIELD_PREFIX.length()), count, Long::sum);
+                }
+            }
+            total += bucketTotal;
+            perMinute.add(new MessageStats.MinuteBucket(fromEpochMinute(fromMinute + i), bucketTotal, bucketUrgent));
+        }
+
+        Map<String, Long> top = new LinkedHashMap<>();
+        countsBySender.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(topSenders)
+                .forEach(entry -> top.put(entry.getKey(), entry.getValue()));
+
+        long distinctSenders = (Long) results.get(bucketKeys.size());
+
+        return new MessageStats(fromEpochMinute(fromMinute), fromEpochMinute(toMinute), total,
+                countsByType, top, distinctSenders, perMinute);
+    }
+
+    /**
+     * LocalDateTimeはゾーンを持たないため、時刻インデックスと同様にUTCとして扱う
+     */
+    private static long toEpochMinute(LocalDateTime timestamp) {
+        return timestamp.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static LocalDateTime fromEpochMinute(long epochMinute) {
+        return LocalDateTime.ofEpochSecond(epochMinute * 60, 0, ZoneOffset.UTC);
+    }
+}
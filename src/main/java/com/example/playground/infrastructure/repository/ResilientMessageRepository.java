@@ -0,0 +1,161 @@
+package com.example.playground.infrastructure.repository;
+
+import com.example.playground.application.service.DependencyUnavailableException;
+import com.example.playground.domain.model.Message;
+import com.example.playground.domain.repository.MessageRepository;
+import com.example.playground.infrastructure.resilience.AdaptiveTimeout;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Redisへの呼び出しをサーキットブレーカーとバルクヘッドで保護するMessageRepository
+ * 読み出し・書き込み・クリーンアップでそれぞれ別の同時実行数の上限を持ち、
+ * どれかが詰まっても他の処理のスレッドを使い切らないようにする。
+ * 1件を読み書きする呼び出しの成功時のレイテンシはコマンドタイムアウトの算出に使用し、
+ * タイムアウトした場合はコマンドタイムアウトを伸ばす。
+ * 件数に比例する呼び出し（一覧・一括取得・一括削除）のレイテンシは1コマンドの目安にならないので記録しない。
+ * 書き込みとクリーンアップはパイプライン・トランザクション・スクリプトでまとめて送るため、
+ * コマンドタイムアウトには上限を使う（AdaptiveTimeout.withMax）
+ */
+public class ResilientMessageRepository implements MessageRepository {
+
+    private static final String DEPENDENCY = "redis";
+
+    private final MessageRepository delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead readBulkhead;
+    private final Bulkhead writeBulkhead;
+    private final Bulkhead cleanupBulkhead;
+    private final AdaptiveTimeout timeout;
+
+    public ResilientMessageRepository(MessageRepository delegate, CircuitBreaker circuitBreaker,
+                                      Bulkhead readBulkhead, Bulkhead writeBulkhead, Bulkhead cleanupBulkhead,
+                                      AdaptiveTimeout timeout) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+        this.readBulkhead = readBulkhead;
+        this.writeBulkhead = writeBulkhead;
+        this.cleanupBulkhead = cleanupBulkhead;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public Message save(Message message) {
+        return sampled(writeBulkhead, () -> timeout.withMax(() -> delegate.save(message)));
+    }
+
+    @Override
+    public void saveAll(List<Message> messages) {
+        batch(writeBulkhead, () -> {
+            delegate.saveAll(messages);
+            return null;
+        });
+    }
+
+    @Override
+    public Optional<Message> findById(String id) {
+        return sampled(readBulkhead, () -> delegate.findById(id));
+    }
+
+    @Override
+    public Map<String, Message> findAllById(Collection<String> ids) {
+        return call(readBulkhead, () -> delegate.findAllById(ids));
+    }
+
+    @Override
+    public List<Message> findBySender(String sender) {
+        return call(readBulkhead, () -> delegate.findBySender(sender));
+    }
+
+    @Override
+    public Set<String> findIdsBySender(String sender) {
+        return call(readBulkhead, () -> delegate.findIdsBySender(sender));
+    }
+
+    @Override
+    public Optional<String> getListVersion(String sender) {
+        return sampled(readBulkhead, () -> delegate.getListVersion(sender));
+    }
+
+    @Override
+    public List<Message> search(String query, int offset, int limit) {
+        return call(readBulkhead, () -> delegate.search(query, offset, limit));
+    }
+
+    @Override
+    public List<Message> findAll() {
+        return call(readBulkhead, delegate::findAll);
+    }
+
+    @Override
+    public void deleteById(String id) {
+        sampled(writeBulkhead, () -> timeout.withMax(() -> {
+            delegate.deleteById(id);
+            return null;
+        }));
+    }
+
+    @Override
+    public int deleteAllById(Collection<String> ids) {
+        return batch(writeBulkhead, () -> delegate.deleteAllById(ids));
+    }
+
+    @Override
+    public int deleteOldMessages(int minutes) {
+        return batch(cleanupBulkhead, () -> delegate.deleteOldMessages(minutes));
+    }
+
+    @Override
+    public int deleteOlderThan(LocalDateTime cutoff, int limit) {
+        return batch(cleanupBulkhead, () -> delegate.deleteOlderThan(cutoff, limit));
+    }
+
+    /**
+     * 1件を読み書きする呼び出し（成功時のレイテンシをコマンドタイムアウトの算出に使う）
+     */
+    private <T> T sampled(Bulkhead bulkhead, Supplier<T> supplier) {
+        return call(bulkhead, () -> {
+            long start = System.nanoTime();
+            T result = supplier.get();
+            timeout.record(System.nanoTime() - start);
+            return result;
+        });
+    }
+
+    /**
+     * まとめて書く呼び出し（コマンドタイムアウトに上限を使い、レイテンシは記録しない）
+     */
+    private <T> T batch(Bulkhead bulkhead, Supplier<T> supplier) {
+        return call(bulkhead, () -> timeout.withMax(supplier));
+    }
+
+    /**
+     * バルクヘッド → サーキットブレーカーの順で呼び出す
+     * バルクヘッドでの拒否は依存先の障害ではないので、ブレーカーの失敗には数えない
+     */
+    private <T> T call(Bulkhead bulkhead, Supplier<T> supplier) {
+        try {
+            return Bulkhead.decorateSupplier(bulkhead, CircuitBreaker.decorateSupplier(circuitBreaker, supplier)).get();
+        } catch (BulkheadFullException e) {
+            throw new DependencyUnavailableException(DEPENDENCY, true, e);
+        } catch (QueryTimeoutException e) {
+            // サンプルが得られないまま下限に張り付かないように、タイムアウトを伸ばす
+            timeout.backOff();
+            throw new DependencyUnavailableException(DEPENDENCY, false, e);
+        } catch (CallNotPermittedException | DataAccessResourceFailureException e) {
+            throw new DependencyUnavailableException(DEPENDENCY, false, e);
+        }
+    }
+}
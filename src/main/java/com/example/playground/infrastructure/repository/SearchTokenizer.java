@@ -0,0 +1,88 @@
+package com.example.playground.infrastructure.repository;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 全文検索用のトークナイザー
+ * 保存時（転置インデックスの更新）と検索時（クエリの解析）で同じ正規化を行う
+ */
+final class SearchTokenizer {
+
+    static final int MIN_TERM_LENGTH = 2;
+    static final int MAX_TERM_LENGTH = 40;
+    static final int MIN_PREFIX_LENGTH = 2;
+
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private SearchTokenizer() {}
+
+    /**
+     * 検索クエリ中の1語
+     * @param term 正規化済みの語
+     * @param prefix 前方一致（末尾に*）の場合true
+     */
+    record QueryTerm(String term, boolean prefix) {}
+
+    /**
+     * メッセージ本文をインデックス用の語に分割する
+     * 小文字化し、文字・数字以外で区切る。短すぎる語と長すぎる語は除外する
+     * @param content メッセージ本文
+     * @return 重複のない語の集合（出現順）
+     */
+    static Set<String> tokenize(String content) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (content == null) {
+            return terms;
+        }
+
+        for (String token : SEPARATOR.split(content.toLowerCase(Locale.ROOT))) {
+            if (token.length() >= MIN_TERM_LENGTH && token.length() <= MAX_TERM_LENGTH) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * 検索クエリを語のリストに分解する（全ての語にマッチするメッセージを検索する）
+     * "kaf*" のように末尾に * を付けた語は前方一致として扱う
+     * @param query 検索クエリ
+     * @return クエリ語のリスト（有効な語がない場合は空）
+     */
+    static List<QueryTerm> parseQuery(String query) {
+        List<QueryTerm> queryTerms = new ArrayList<>();
+        if (query == null || query.isBlank()) {
+            return queryTerms;
+        }
+
+        for (String word : WHITESPACE.split(query.trim())) {
+            boolean prefix = word.endsWith("*");
+            List<String> parts = new ArrayList<>(tokenizeQueryWord(prefix ? word.substring(0, word.length() - 1) : word));
+            for (int i = 0; i < parts.size(); i++) {
+                String part = parts.get(i);
+                // "foo-ba*" の場合、前方一致になるのは最後の語だけ
+                boolean isPrefix = prefix && i == parts.size() - 1;
+                if (isPrefix ? part.length() >= MIN_PREFIX_LENGTH : part.length() >= MIN_TERM_LENGTH) {
+                    queryTerms.add(new QueryTerm(part, isPrefix));
+                }
+            }
+        }
+        return queryTerms;
+    }
+
+    private static List<String> tokenizeQueryWord(String word) {
+        List<String> parts = new ArrayList<>();
+        for (String token : SEPARATOR.split(word.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                parts.add(token);
+            }
+        }
+        return parts;
+    }
+}
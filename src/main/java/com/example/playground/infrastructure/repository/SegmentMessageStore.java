@@ -0,0 +1,289 @@
+package com.example.playground.infrastructure.repository;
+
+import com.example.playground.domain.model.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * コールド層: ディスク上の追記専用セグメントストア
+ * 移行バッチごとに不変のセグメントファイルを1つ作り、削除は tombstone ファイルへの追記で表す。
+ * 保持期間を過ぎたセグメントはファイルごと削除する
+ *
+ * ディレクトリは複数インスタンスで共有できる。
+ * - セグメントを書くのは移行のロックを持つ1台だけで、他のインスタンスは読み込み時に
+ *   rescanInterval ごとにディレクトリを読み直し、増えたセグメント・消えたセグメントを反映する
+ * - tombstone はインスタンスごとのファイル（deleted-{インスタンス}.ids）に追記し、全員が全ファイルを読む。
+ *   各行は「ID タブ 削除時点の次のセグメント番号」で、それより前のセグメントにあるコピーだけを隠す
+ *   （削除後に再移行されたメッセージは見える）
+ */
+public class SegmentMessageStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentMessageStore.class);
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String TOMBSTONE_PREFIX = "deleted";
+    private static final String TOMBSTONE_SUFFIX = ".ids";
+    private static final Duration DEFAULT_RESCAN_INTERVAL = Duration.ofSeconds(1);
+
+    private final Path directory;
+    private final long rescanIntervalNanos;
+    private final Path tombstoneFile;
+    // 新しい順。読み込みはロックを取らないため、変更時は新しいリストに差し替える
+    private volatile List<SegmentEntry> segments = List.of();
+    // ID → このセグメント番号より前のコピーを削除済みとする
+    private final Map<String, Long> tombstones = new ConcurrentHashMap<>();
+    // tombstone ファイル → 読み込み済みのバイト数
+    private final Map<Path, Long> tombstoneOffsets = new HashMap<>();
+    private long nextSequence;
+    private volatile long lastScanNanos;
+
+    public SegmentMessageStore(Path directory) {
+        this(directory, DEFAULT_RESCAN_INTERVAL);
+    }
+
+    /**
+     * @param rescanInterval 他のインスタンスの変更を取り込むためにディレクトリを読み直す間隔
+     */
+    public SegmentMessageStore(Path directory, Duration rescanInterval) {
+        this.directory = directory;
+        this.rescanIntervalNanos = rescanInterval.toNanos();
+        this.tombstoneFile = directory.resolve(TOMBSTONE_PREFIX + "-" + UUID.randomUUID() + TOMBSTONE_SUFFIX);
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open segment store: " + directory, e);
+        }
+        rescan();
+        logger.info("🧊 Cold tier opened: directory={}, segments={}", directory, segments.size());
+    }
+
+    /**
+     * メッセージを新しいセグメントとして追記する
+     * @param messages 移行するメッセージ（空の場合は何もしない）
+     */
+    public synchronized void append(List<Message> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        // 以前にロックを持っていたインスタンスが書いたセグメントと番号が重ならないように読み直す
+        rescan();
+        long sequence = nextSequence++;
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+        try {
+            MessageSegment.write(path, messages);
+            List<SegmentEntry> updated = new ArrayList<>();
+            updated.add(new SegmentEntry(sequence, MessageSegment.open(path)));
+            updated.addAll(segments);
+            segments = List.copyOf(updated);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write segment: " + path, e);
+        }
+    }
+
+    /**
+     * IDでメッセージを取得する（新しいセグメントから順に探す）
+     */
+    public Optional<Message> findById(String id) {
+        rescanIfStale();
+        long deletedBefore = tombstones.getOrDefault(id, -1L);
+        for (SegmentEntry entry : segments) {
+            if (entry.sequence() < deletedBefore) {
+                // これより古いセグメントのコピーは削除済み
+                return Optional.empty();
+            }
+            Optional<Message> message = entry.segment().find(id);
+            if (message.isPresent()) {
+                return message;
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * メッセージを削除済みにする（セグメントは不変なので tombstone を追記する）
+     */
+    public synchronized void delete(String id) {
+        // 他のインスタンスが書いたばかりのセグメントも削除の対象に含める
+        rescan();
+        long deletedBefore = nextSequence;
+        if (tombstones.getOrDefault(id, -1L) >= deletedBefore) {
+            return;
+        }
+        try {
+            Files.writeString(tombstoneFile, id + "\t" + deletedBefore + "\n", StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write tombstone: " + id, e);
+        }
+        tombstones.merge(id, deletedBefore, Math::max);
+    }
+
+    /**
+     * 全メッセージが指定時刻より古いセグメントをファイルごと削除する
+     * @return 削除したセグメントに含まれていたメッセージ数
+     */
+    public synchronized int dropSegmentsOlderThan(LocalDateTime cutoff) {
+        rescan();
+        int dropped = 0;
+        List<SegmentEntry> kept = new ArrayList<>();
+        for (SegmentEntry entry : segments) {
+            MessageSegment segment = entry.segment();
+            if (!segment.getMaxTimestamp().isBefore(cutoff)) {
+                kept.add(entry);
+            } else {
+                try {
+                    Files.deleteIfExists(segment.getPath());
+                } catch (IOException e) {
+                    logger.warn("⚠️ Failed to delete segment file: {}", segment.getPath(), e);
+                }
+                dropped += segment.getRecordCount();
+            }
+        }
+        segments = List.copyOf(kept);
+        return dropped;
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    private void rescanIfStale() {
+        if (System.nanoTime() - lastScanNanos < rescanIntervalNanos) {
+            return;
+        }
+        synchronized (this) {
+            if (System.nanoTime() - lastScanNanos >= rescanIntervalNanos) {
+                rescan();
+            }
+        }
+    }
+
+    /**
+     * ディレクトリを読み直し、他のインスタンスが追加・削除したセグメントと追記した tombstone を取り込む
+     */
+    private synchronized void rescan() {
+        lastScanNanos = System.nanoTime();
+        List<Path> segmentPaths = new ArrayList<>();
+        List<Path> tombstonePaths = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(path -> {
+                String name = path.getFileName().toString();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    segmentPaths.add(path);
+                } else if (name.startsWith(TOMBSTONE_PREFIX) && name.endsWith(TOMBSTONE_SUFFIX)) {
+                    tombstonePaths.add(path);
+                }
+            });
+        } catch (IOException e) {
+            logger.warn("⚠️ Failed to rescan cold tier directory: {}", directory, e);
+            return;
+        }
+        refreshSegments(segmentPaths);
+        tombstonePaths.forEach(this::readTombstones);
+    }
+
+    private void refreshSegments(List<Path> paths) {
+        Set<Path> present = new HashSet<>(paths);
+        Set<Path> known = new HashSet<>();
+        List<SegmentEntry> current = new ArrayList<>();
+        for (SegmentEntry entry : segments) {
+            if (present.contains(entry.segment().getPath())) {
+                current.add(entry);
+                known.add(entry.segment().getPath());
+            }
+        }
+        boolean changed = current.size() != segments.size();
+        for (Path path : paths) {
+            if (known.contains(path)) {
+                continue;
+            }
+            try {
+                current.add(new SegmentEntry(sequenceOf(path), MessageSegment.open(path)));
+                changed = true;
+            } catch (NoSuchFileException e) {
+                // 一覧を取った後に他のインスタンスが削除した
+            } catch (IOException e) {
+                logger.warn("⚠️ Failed to open segment file: {}", path, e);
+            }
+        }
+        for (SegmentEntry entry : current) {
+            nextSequence = Math.max(nextSequence, entry.sequence() + 1);
+        }
+        if (changed) {
+            current.sort(Comparator.comparingLong(SegmentEntry::sequence).reversed());
+            segments = List.copyOf(current);
+        }
+    }
+
+    /**
+     * tombstone ファイルの前回より後に追記された行を取り込む（書きかけの最終行は次回に回す）
+     */
+    private void readTombstones(Path path) {
+        long offset = tombstoneOffsets.getOrDefault(path, 0L);
+        byte[] bytes;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size <= offset) {
+                return;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) (size - offset));
+            while (buffer.hasRemaining() && channel.read(buffer, offset + buffer.position()) >= 0) {
+                // 読み切るまで続ける
+            }
+            bytes = buffer.array();
+        } catch (NoSuchFileException e) {
+            tombstoneOffsets.remove(path);
+            return;
+        } catch (IOException e) {
+            logger.warn("⚠️ Failed to read tombstone file: {}", path, e);
+            return;
+        }
+
+        int end = bytes.length;
+        while (end > 0 && bytes[end - 1] != '\n') {
+            end--;
+        }
+        for (String line : new String(bytes, 0, end, StandardCharsets.UTF_8).split("\n")) {
+            if (line.isBlank()) {
+                continue;
+            }
+            int separator = line.indexOf('\t');
+            // 区切りのない行は共有に対応する前の形式で、全てのセグメントのコピーを隠す
+            String id = separator < 0 ? line.strip() : line.substring(0, separator);
+            long deletedBefore = separator < 0 ? Long.MAX_VALUE : Long.parseLong(line.substring(separator + 1).strip());
+            tombstones.merge(id, deletedBefore, Math::max);
+        }
+        tombstoneOffsets.put(path, offset + end);
+    }
+
+    private static long sequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private record SegmentEntry(long sequence, MessageSegment segment) {
+    }
+}
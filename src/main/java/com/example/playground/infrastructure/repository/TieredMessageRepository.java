@@ -0,0 +1,161 @@
+package com.example.playground.infrastructure.repository;
+
+import com.example.playground.domain.model.Message;
+import com.example.playground.domain.repository.MessageRepository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 2層構成のMessageRepository実装
+ * 新しいメッセージはRedis（ホット層）、古いメッセージはColdTierMigratorが
+ * ローカルのセグメントストア（コールド層）へ移す。
+ * findById / findBySender はホット層になければコールド層を透過的に参照する。
+ * findAll / search / 緊急メッセージ一覧はホット層のみが対象
+ * （app.storage.tiering.enabled=true の場合にStorageConfigで組み立てる）
+ */
+public class TieredMessageRepository implements MessageRepository {
+    
+    private final RedisMessageRepository hot;
+    private final SegmentMessageStore cold;
+    
+    public TieredMessageRepository(RedisMessageRepository hot, SegmentMessageStore cold) {
+        this.hot = hot;
+        this.cold = cold;
+    }
+    
+    @Override
+    public Message save(Message message) {
+        return hot.save(message);
+    }
+    
+    @Override
+    public void saveAll(List<Message> messages) {
+        hot.saveAll(messages);
+    }
+    
+    @Override
+    public Optional<Message> findById(String id) {
+        Optional<Message> message = hot.findById(id);
+        return message.isPresent() ? message : cold.findById(id);
+    }
+    
+    @Override
+    public Map<String, Message> findAllById(Collection<String> ids) {
+        Map<String, Message> hits = hot.findAllById(ids);
+        
+        // ホット層になかったIDだけをコールド層から引き、入力順に並べ直す
+        Map<String, Message> result = new LinkedHashMap<>();
+        Set<String> checked = new HashSet<>();
+        for (String id : ids) {
+            if (!checked.add(id)) {
+                continue;
+            }
+            Message message = hits.get(id);
+            if (message == null) {
+                message = cold.findById(id).orElse(null);
+            }
+            if (message != null) {
+                result.put(id, message);
+            }
+        }
+        return result;
+    }
+    
+    @Override
+    public List<Message> findBySender(String sender) {
+        Set<String> ids = hot.findIdsBySender(sender);
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        List<Message> messages = new ArrayList<>(hot.getMessagesByIds(ids));
+        
+        // ホット層になかったIDだけをコールド層から引く
+        Set<String> missing = new HashSet<>(ids);
+        messages.forEach(message -> missing.remove(message.getId()));
+        for (String id : missing) {
+            cold.findById(id).ifPresent(messages::add);
+        }
+        return messages;
+    }
+    
+    @Override
+    public Set<String> findIdsBySender(String sender) {
+        // 送信者インデックスはコールド層に移行したIDも保持している
+        return hot.findIdsBySender(sender);
+    }
+    
+    @Override
+    public Optional<String> getListVersion(String sender) {
+        return hot.getListVersion(sender);
+    }
+    
+    @Override
+    public List<Message> search(String query, int offset, int limit) {
+        return hot.search(query, offset, limit);
+    }
+    
+    @Override
+    public List<Message> findAll() {
+        return hot.findAll();
+    }
+    
+    @Override
+    public void deleteById(String id) {
+        Optional<Message> coldMessage = cold.findById(id);
+        hot.deleteById(id);
+        coldMessage.ifPresent(message -> {
+            cold.delete(id);
+            hot.removeFromSenderIndex(message);
+        });
+    }
+    
+    @Override
+    public int deleteAllById(Collection<String> ids) {
+        List<Message> coldMessages = new ArrayList<>();
+        for (String id : new HashSet<>(ids)) {
+            cold.findById(id).ifPresent(coldMessages::add);
+        }
+        
+        // ホット層はチャンク単位でまとめて削除し、コールド層にあったものは個別に消す
+        int deleted = hot.deleteAllById(ids);
+        for (Message message : coldMessages) {
+            cold.delete(message.getId());
+            hot.removeFromSenderIndex(message);
+        }
+        return deleted + coldMessages.size();
+    }
+    
+    @Override
+    public int deleteOldMessages(int minutes) {
+        LocalDateTime cutoff = LocalDateTime.now(ZoneOffset.UTC).minusMinutes(minutes);
+        return hot.deleteOldMessages(minutes) + dropColdSegmentsOlderThan(cutoff);
+    }
+    
+    @Override
+    public int deleteOlderThan(LocalDateTime cutoff, int limit) {
+        // コールド層はセグメント単位でまとめて削除する
+        return hot.deleteOlderThan(cutoff, limit) + dropColdSegmentsOlderThan(cutoff);
+    }
+    
+    /**
+     * コールド層のセグメントを削除する
+     * どの送信者の一覧が変わったか分からないため、全ての一覧のバージョンを変える
+     */
+    private int dropColdSegmentsOlderThan(LocalDateTime cutoff) {
+        int dropped = cold.dropSegmentsOlderThan(cutoff);
+        if (dropped > 0) {
+            hot.bumpListGeneration();
+        }
+        return dropped;
+    }
+}
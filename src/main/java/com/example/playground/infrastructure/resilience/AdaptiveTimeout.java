@@ -0,0 +1,112 @@
+package com.example.playground.infrastructure.resilience;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * 観測したレイテンシから算出するタイムアウト
+ * TCPの再送タイムアウト（RFC 6298）と同様に、平滑化した平均と平均偏差から
+ * 平均 + 4 × 偏差 を求め、[min, max] の範囲に収める。
+ * サンプルが無い間は max を使用する
+ *
+ * タイムアウトした場合はサンプルが得られないため、RFC 6298 と同様に現在の値を2倍にする（max まで）。
+ * 2倍にした値は次のサンプルが記録されるまで使い続けるので、依存先が下限より遅くなっても
+ * タイムアウトが伸びて再びサンプルが得られるようになる
+ *
+ * パイプライン・トランザクション・スクリプトでまとめて書く処理は withMax() の中で呼び出し、
+ * その間にこのスレッドから送るコマンドには上限を使う（1件のレイテンシから求めた値では足りないため）
+ */
+public class AdaptiveTimeout {
+
+    private static final double ALPHA = 0.125;
+    private static final double BETA = 0.25;
+    private static final int DEVIATION_MULTIPLIER = 4;
+
+    private final long minNanos;
+    private final long maxNanos;
+
+    // 更新は複数スレッドから呼ばれるためロックを取り、読み出し（コマンドごと）はロックを取らない
+    private volatile double smoothedNanos = -1;
+    private volatile double deviationNanos;
+    private volatile long backedOffNanos;
+    private final ThreadLocal<Boolean> maxScope = new ThreadLocal<>();
+
+    public AdaptiveTimeout(Duration min, Duration max) {
+        if (min.compareTo(max) > 0) {
+            throw new IllegalArgumentException("min must not exceed max: min=" + min + ", max=" + max);
+        }
+        this.minNanos = min.toNanos();
+        this.maxNanos = max.toNanos();
+    }
+
+    /**
+     * 成功した呼び出しのレイテンシを記録する
+     */
+    public synchronized void record(long elapsedNanos) {
+        backedOffNanos = 0;
+        double smoothed = smoothedNanos;
+        if (smoothed < 0) {
+            smoothedNanos = elapsedNanos;
+            deviationNanos = elapsedNanos / 2.0;
+            return;
+        }
+        deviationNanos = (1 - BETA) * deviationNanos + BETA * Math.abs(elapsedNanos - smoothed);
+        smoothedNanos = (1 - ALPHA) * smoothed + ALPHA * elapsedNanos;
+    }
+
+    /**
+     * タイムアウトした呼び出しを記録する（現在のタイムアウトを2倍にする）
+     */
+    public synchronized void backOff() {
+        backedOffNanos = Math.min(currentNanos() * 2, maxNanos);
+    }
+
+    /**
+     * 現在のタイムアウト
+     */
+    public Duration current() {
+        return Duration.ofNanos(currentNanos());
+    }
+
+    public long currentNanos() {
+        long backedOff = backedOffNanos;
+        if (backedOff > 0) {
+            return backedOff;
+        }
+        double smoothed = smoothedNanos;
+        if (smoothed < 0) {
+            return maxNanos;
+        }
+        long timeout = (long) (smoothed + DEVIATION_MULTIPLIER * deviationNanos);
+        return Math.min(Math.max(timeout, minNanos), maxNanos);
+    }
+
+    /**
+     * 処理の間、このスレッドから送るコマンドのタイムアウトを上限にする
+     */
+    public <T> T withMax(Supplier<T> body) {
+        if (inMaxScope()) {
+            return body.get();
+        }
+        maxScope.set(Boolean.TRUE);
+        try {
+            return body.get();
+        } finally {
+            maxScope.remove();
+        }
+    }
+
+    /**
+     * 現在のスレッドが withMax() の中にいるか
+     */
+    public boolean inMaxScope() {
+        return maxScope.get() != null;
+    }
+
+    /**
+     * タイムアウトの上限（レイテンシが件数に比例するコマンドに使用する）
+     */
+    public long maxNanos() {
+        return maxNanos;
+    }
+}
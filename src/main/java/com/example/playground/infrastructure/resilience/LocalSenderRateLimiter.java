@@ -0,0 +1,171 @@
+package com.example.playground.infrastructure.resilience;
+
+import com.example.playground.application.service.SenderRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * プロセス内の送信者ごとのトークンバケット
+ * inmemory プロファイルではこれだけで制限し、Redisを使う場合は RedisSenderRateLimiter の事前チェックとして使う。
+ * 全体の上限と同じレート・バーストで、このノードに来た分だけを数える（このノードだけで上限を超えていれば、
+ * 全体でも必ず超えているので、Redisに問い合わせずに拒否できる）
+ *
+ * 拒否した件数は messages.ratelimit.rejected（タグ: sender, source）として出力する。
+ * 送信者のタグは先着 metricsMaxSenders 件までで、それ以降は "_other" にまとめる（メトリクスの系列数を抑える）
+ */
+public class LocalSenderRateLimiter implements SenderRateLimiter {
+    
+    static final String OTHER_SENDERS = "_other";
+    
+    private final double ratePerNano;
+    private final double burst;
+    private final int maxTrackedSenders;
+    private final int metricsMaxSenders;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier nanoClock;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejectedCounters = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> taggedSenders = new ConcurrentHashMap<>();
+    
+    /**
+     * @param ratePerSecond 送信者ごとの上限（件/秒）
+     * @param burst 一度に受け付ける件数の上限
+     * @param maxTrackedSenders バケットを保持する送信者数の目安（超えたら満杯のバケットを捨てる）
+     * @param metricsMaxSenders メトリクスのタグに使う送信者数の上限
+     */
+    public LocalSenderRateLimiter(double ratePerSecond, int burst, int maxTrackedSenders, int metricsMaxSenders,
+                                  MeterRegistry meterRegistry) {
+        this(ratePerSecond, burst, maxTrackedSenders, metricsMaxSenders, meterRegistry, System::nanoTime);
+    }
+    
+    LocalSenderRateLimiter(double ratePerSecond, int burst, int maxTrackedSenders, int metricsMaxSenders,
+                           MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid rate limit: rate=%s, burst=%s", ratePerSecond, burst));
+        }
+        this.ratePerNano = ratePerSecond / 1e9;
+        this.burst = burst;
+        this.maxTrackedSenders = maxTrackedSenders;
+        this.metricsMaxSenders = metricsMaxSenders;
+        this.meterRegistry = meterRegistry;
+        this.nanoClock = nanoClock;
+    }
+    
+    @Override
+    public Duration tryAcquire(String sender) {
+        long now = nanoClock.getAsLong();
+        Bucket bucket = buckets.get(sender);
+        if (bucket == null) {
+            evictIdleBuckets(now);
+            bucket = buckets.computeIfAbsent(sender, s -> new Bucket(burst, now));
+        }
+        long waitNanos = bucket.tryTake(now, ratePerNano, burst);
+        if (waitNanos > 0) {
+            recordRejection(sender, "local");
+            return Duration.ofNanos(waitNanos);
+        }
+        return Duration.ZERO;
+    }
+    
+    /**
+     * ローカルでは通したがRedis（全体の上限）で拒否された場合に呼ぶ
+     * 取ったトークンを戻し、retryAfterの間はRedisに問い合わせずに拒否する
+     */
+    public void rejectedRemotely(String sender, Duration retryAfter) {
+        long now = nanoClock.getAsLong();
+        Bucket bucket = buckets.get(sender);
+        if (bucket != null) {
+            bucket.blockUntil(now + retryAfter.toNanos(), burst);
+        }
+        recordRejection(sender, "redis");
+    }
+    
+    int trackedSenders() {
+        return buckets.size();
+    }
+    
+    private void recordRejection(String sender, String source) {
+        String tag = sender;
+        if (!taggedSenders.containsKey(sender)) {
+            if (taggedSenders.size() < metricsMaxSenders) {
+                taggedSenders.putIfAbsent(sender, Boolean.TRUE);
+            } else {
+                tag = OTHER_SENDERS;
+            }
+        }
+        String senderTag = tag;
+        rejectedCounters.computeIfAbsent(senderTag + "|" + source, key -> Counter.builder("messages.ratelimit.rejected")
+                        .description("Writes rejected by the per-sender rate limit")
+                        .tag("sender", senderTag)
+                        .tag("source", source)
+                        .register(meterRegistry))
+                .increment();
+    }
+    
+    /**
+     * 送信者が多すぎる場合に、満杯まで回復した（＝しばらく書き込みのない）バケットを捨てる
+     * 捨てたバケットは次の書き込みで満杯の状態から作り直すので、制限の結果は変わらない
+     */
+    private void evictIdleBuckets(long now) {
+        if (buckets.size() < maxTrackedSenders) {
+            return;
+        }
+        buckets.values().removeIf(bucket -> bucket.isFull(now, ratePerNano, burst));
+    }
+    
+    /**
+     * 1送信者分のバケット
+     */
+    private static final class Bucket {
+        private double tokens;
+        private long lastRefillNanos;
+        private long blockedUntilNanos;
+        
+        Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.lastRefillNanos = now;
+            this.blockedUntilNanos = now;
+        }
+        
+        /**
+         * @return 取得できた場合は0、できない場合はトークンが貯まるまでの時間（ナノ秒）
+         */
+        synchronized long tryTake(long now, double ratePerNano, double burst) {
+            if (now - blockedUntilNanos < 0) {
+                return blockedUntilNanos - now;
+            }
+            refill(now, ratePerNano, burst);
+            if (tokens < 1) {
+                return Math.max(1, (long) Math.ceil((1 - tokens) / ratePerNano));
+            }
+            tokens -= 1;
+            return 0;
+        }
+        
+        synchronized void blockUntil(long until, double burst) {
+            tokens = Math.min(tokens + 1, burst);
+            if (until - blockedUntilNanos > 0) {
+                blockedUntilNanos = until;
+            }
+        }
+        
+        synchronized boolean isFull(long now, double ratePerNano, double burst) {
+            refill(now, ratePerNano, burst);
+            return tokens >= burst && now - blockedUntilNanos >= 0;
+        }
+        
+        private void refill(long now, double ratePerNano, double burst) {
+            long elapsed = now - lastRefillNanos;
+            if (elapsed > 0) {
+                tokens = Math.min(burst, tokens + elapsed * ratePerNano);
+                lastRefillNanos = now;
+            }
+        }
+    }
+}
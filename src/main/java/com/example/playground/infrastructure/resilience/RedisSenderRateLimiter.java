@@ -0,0 +1,97 @@
+package com.example.playground.infrastructure.resilience;
+
+import com.example.playground.application.service.SenderRateLimiter;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redisを使用した送信者ごとのレート制限（全ノード共通の上限）
+ * GCRA（Generic Cell Rate Algorithm）をLuaスクリプトで実行し、送信者ごとに「理論上の次の到着時刻」を1つだけ保存する。
+ * 時刻はRedisのTIMEを使うので、ノード間の時計のずれに影響されない
+ *
+ * - 先にプロセス内のバケット（LocalSenderRateLimiter）で確認し、ローカルで拒否できる場合はRedisに問い合わせない
+ * - Redisで拒否された送信者は、retryAfterの間ローカルで拒否する（あふれている送信者の分の往復を省く）
+ * - Redisが使えない場合（サーキットブレーカーが開いている・エラー）はローカルの制限だけで通す（制限のために書き込みを止めない）
+ */
+public class RedisSenderRateLimiter implements SenderRateLimiter {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RedisSenderRateLimiter.class);
+    
+    private static final String KEY_PREFIX = "ratelimit:sender:";
+    
+    // KEYS[1]: 送信者のキー, ARGV[1]: 1件あたりの間隔（マイクロ秒）, ARGV[2]: バーストの許容量（マイクロ秒）
+    // 戻り値: 通した場合は0、拒否した場合は再試行できるまでの時間（マイクロ秒）
+    private static final RedisScript<Long> GCRA_SCRIPT = new DefaultRedisScript<>(
+            "local t = redis.call('time') "
+                    + "local now = tonumber(t[1]) * 1000000 + tonumber(t[2]) "
+                    + "local interval = tonumber(ARGV[1]) "
+                    + "local tat = tonumber(redis.call('get', KEYS[1])) "
+                    + "if not tat or tat < now then tat = now end "
+                    + "local newTat = tat + interval "
+                    + "local allowAt = newTat - tonumber(ARGV[2]) "
+                    + "if allowAt > now then return allowAt - now end "
+                    + "redis.call('set', KEYS[1], string.format('%d', newTat), 'px', math.ceil((newTat - now) / 1000)) "
+                    + "return 0",
+            Long.class);
+    
+    private final RedisTemplate<String, String> redisTemplate;
+    private final LocalSenderRateLimiter local;
+    private final CircuitBreaker circuitBreaker;
+    private final String intervalMicros;
+    private final String toleranceMicros;
+    private final Counter fallbackCounter;
+    
+    /**
+     * @param local 事前チェック用のプロセス内バケット（同じレート・バーストで作る）
+     * @param circuitBreaker Redisのサーキットブレーカー
+     */
+    public RedisSenderRateLimiter(RedisTemplate<String, String> redisTemplate, LocalSenderRateLimiter local,
+                                  CircuitBreaker circuitBreaker, double ratePerSecond, int burst,
+                                  MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.local = local;
+        this.circuitBreaker = circuitBreaker;
+        long interval = Math.max(1, Math.round(TimeUnit.SECONDS.toMicros(1) / ratePerSecond));
+        this.intervalMicros = String.valueOf(interval);
+        this.toleranceMicros = String.valueOf(interval * burst);
+        this.fallbackCounter = Counter.builder("messages.ratelimit.fallback")
+                .description("Rate limit checks decided locally because Redis was unavailable")
+                .register(meterRegistry);
+    }
+    
+    @Override
+    public Duration tryAcquire(String sender) {
+        Duration localWait = local.tryAcquire(sender);
+        if (!localWait.isZero()) {
+            return localWait;
+        }
+        
+        Long waitMicros;
+        try {
+            waitMicros = circuitBreaker.executeSupplier(() -> redisTemplate.execute(
+                    GCRA_SCRIPT, List.of(KEY_PREFIX + sender), intervalMicros, toleranceMicros));
+        } catch (RuntimeException e) {
+            fallbackCounter.increment();
+            logger.debug("⚠️ Rate limit check fell back to local bucket: sender={}, cause={}",
+                    sender, e.getClass().getSimpleName());
+            return Duration.ZERO;
+        }
+        if (waitMicros == null || waitMicros <= 0) {
+            return Duration.ZERO;
+        }
+        
+        Duration retryAfter = Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(waitMicros));
+        local.rejectedRemotely(sender, retryAfter);
+        return retryAfter;
+    }
+}
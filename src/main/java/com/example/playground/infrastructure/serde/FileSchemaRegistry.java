@@ -0,0 +1,148 @@
+package com.example.playground.infrastructure.serde;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaCompatibility;
+import org.apache.avro.SchemaFormatter;
+import org.apache.avro.SchemaNormalization;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * ローカルディスク上のスキーマレジストリ（Confluent Schema Registryの代替）
+ * サブジェクトごとにディレクトリを作り、バージョンごとに v{N}.avsc として保存する。
+ *
+ * 新しいスキーマの登録時は既存の全バージョンとの互換性（FULL_TRANSITIVE）を確認する。
+ * - 後方互換: 新しいスキーマで古いバージョンのデータを読める
+ * - 前方互換: 古いスキーマで新しいバージョンのデータを読める
+ * プロデューサーとコンシューマーは別々に更新されるため両方を要求する
+ */
+public class FileSchemaRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileSchemaRegistry.class);
+    private static final String SCHEMA_PREFIX = "v";
+    private static final String SCHEMA_SUFFIX = ".avsc";
+
+    private final Path directory;
+    private final Map<String, NavigableMap<Integer, Schema>> subjects = new ConcurrentHashMap<>();
+
+    public FileSchemaRegistry(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open schema registry: " + directory, e);
+        }
+    }
+
+    /**
+     * スキーマを登録する（同じスキーマが登録済みならそのバージョンを返す）
+     * 同一かどうかはParsing Canonical Formで判定する（doc・コード生成用の属性の違いは無視）
+     * @return スキーマのバージョン
+     * @throws SchemaCompatibilityException 既存のバージョンと互換性がない場合
+     */
+    public synchronized int register(String subject, Schema schema) {
+        // 他のプロセスが登録したバージョンも含めて判定する
+        NavigableMap<Integer, Schema> versions = load(subject);
+        subjects.put(subject, versions);
+        long fingerprint = SchemaNormalization.parsingFingerprint64(schema);
+        for (Map.Entry<Integer, Schema> entry : versions.entrySet()) {
+            if (SchemaNormalization.parsingFingerprint64(entry.getValue()) == fingerprint) {
+                return entry.getKey();
+            }
+        }
+
+        for (Map.Entry<Integer, Schema> entry : versions.entrySet()) {
+            checkCompatible(subject, entry.getKey(), entry.getValue(), schema);
+        }
+
+        int version = versions.isEmpty() ? 1 : versions.lastKey() + 1;
+        Path path = directory.resolve(subject).resolve(SCHEMA_PREFIX + version + SCHEMA_SUFFIX);
+        try {
+            Files.createDirectories(path.getParent());
+            Files.writeString(path, SchemaFormatter.format("json/pretty", schema), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write schema: " + path, e);
+        }
+        versions.put(version, schema);
+        logger.info("📐 Registered schema: subject={}, version={}", subject, version);
+        return version;
+    }
+
+    /**
+     * 指定バージョンのスキーマを取得する
+     * 未知のバージョンは他のプロセスが登録した可能性があるため、ディスクから読み直す
+     */
+    public Optional<Schema> getSchema(String subject, int version) {
+        Schema schema = versions(subject).get(version);
+        if (schema == null) {
+            synchronized (this) {
+                subjects.put(subject, load(subject));
+            }
+            schema = versions(subject).get(version);
+        }
+        return Optional.ofNullable(schema);
+    }
+
+    /**
+     * 最新バージョンの番号を取得する（未登録の場合は0）
+     */
+    public int getLatestVersion(String subject) {
+        NavigableMap<Integer, Schema> versions = versions(subject);
+        return versions.isEmpty() ? 0 : versions.lastKey();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    private static void checkCompatible(String subject, int version, Schema existing, Schema candidate) {
+        SchemaCompatibility.SchemaPairCompatibility backward =
+                SchemaCompatibility.checkReaderWriterCompatibility(candidate, existing);
+        SchemaCompatibility.SchemaPairCompatibility forward =
+                SchemaCompatibility.checkReaderWriterCompatibility(existing, candidate);
+        if (backward.getType() != SchemaCompatibility.SchemaCompatibilityType.COMPATIBLE) {
+            throw new SchemaCompatibilityException(subject, version, "cannot read data written with it: "
+                    + backward.getResult().getIncompatibilities());
+        }
+        if (forward.getType() != SchemaCompatibility.SchemaCompatibilityType.COMPATIBLE) {
+            throw new SchemaCompatibilityException(subject, version, "its readers cannot read the new data: "
+                    + forward.getResult().getIncompatibilities());
+        }
+    }
+
+    private NavigableMap<Integer, Schema> versions(String subject) {
+        return subjects.computeIfAbsent(subject, this::load);
+    }
+
+    private NavigableMap<Integer, Schema> load(String subject) {
+        NavigableMap<Integer, Schema> versions = new ConcurrentSkipListMap<>();
+        Path subjectDirectory = directory.resolve(subject);
+        if (!Files.isDirectory(subjectDirectory)) {
+            return versions;
+        }
+        try (Stream<Path> files = Files.list(subjectDirectory)) {
+            for (Path path : files.toList()) {
+                String name = path.getFileName().toString();
+                if (name.startsWith(SCHEMA_PREFIX) && name.endsWith(SCHEMA_SUFFIX)) {
+                    int version = Integer.parseInt(name.substring(SCHEMA_PREFIX.length(), name.length() - SCHEMA_SUFFIX.length()));
+                    versions.put(version, new Schema.Parser().parse(Files.readString(path, StandardCharsets.UTF_8)));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load schemas: " + subjectDirectory, e);
+        }
+        return versions;
+    }
+}
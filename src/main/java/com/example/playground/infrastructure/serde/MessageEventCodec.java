@@ -0,0 +1,118 @@
+package com.example.playground.infrastructure.serde;
+
+import com.example.playground.domain.model.Message;
+import com.example.playground.domain.model.MessageType;
+import com.example.playground.infrastructure.serde.avro.MessageEvent;
+import com.example.playground.infrastructure.serde.avro.MessageEventType;
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * messagesトピックの値のエンコード・デコード（プロデューサー・コンシューマー・Kafka Streamsで共通）
+ *
+ * ワイヤーフォーマット: byte 0（マジックバイト） | int スキーマのバージョン | Avroバイナリ
+ * 書き込み時のスキーマをレジストリから引き、生成クラスのスキーマへ解決して読むため、
+ * フィールドの追加・削除（デフォルト値あり）を含むバージョンのデータも読める。
+ * 移行前に書かれたJSONの値（先頭が '{'）はMessageJsonCodecで読む
+ */
+@Component
+public class MessageEventCodec {
+
+    static final byte MAGIC_BYTE = 0;
+    private static final int HEADER_SIZE = 1 + Integer.BYTES;
+
+    private final FileSchemaRegistry registry;
+    private final MessageJsonCodec jsonCodec;
+    private final String subject;
+    private final int writerVersion;
+    private final SpecificDatumWriter<MessageEvent> writer = new SpecificDatumWriter<>(MessageEvent.class);
+    private final Map<Integer, SpecificDatumReader<MessageEvent>> readers = new ConcurrentHashMap<>();
+
+    public MessageEventCodec(FileSchemaRegistry registry, MessageJsonCodec jsonCodec,
+                             @Value("${app.kafka.topic.messages:messages}") String topicName) {
+        this.registry = registry;
+        this.jsonCodec = jsonCodec;
+        this.subject = topicName + "-value";
+        // 互換性のないスキーマ変更はここで起動失敗にする
+        this.writerVersion = registry.register(subject, MessageEvent.getClassSchema());
+    }
+
+    /**
+     * メッセージをワイヤーフォーマットにエンコードする
+     */
+    public byte[] encode(Message message) {
+        MessageEvent event = MessageEvent.newBuilder()
+                .setId(message.getId())
+                .setContent(message.getContent())
+                .setSender(message.getSender())
+                .setTimestamp(message.getTimestamp())
+                .setType(MessageEventType.valueOf(message.getType().name()))
+                .build();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + message.getContent().length() * 3);
+        out.write(MAGIC_BYTE);
+        out.writeBytes(ByteBuffer.allocate(Integer.BYTES).putInt(writerVersion).array());
+        try {
+            BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+            writer.write(event, encoder);
+            encoder.flush();
+        } catch (IOException e) {
+            // メモリ上への書き込みなので通常は発生しない
+            throw new IllegalStateException("Failed to encode message: id=" + message.getId(), e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * ワイヤーフォーマット（または移行前のJSON）からメッセージをデコードする
+     * @throws IOException 形式が不正・スキーマのバージョンが未登録の場合
+     */
+    public Message decode(byte[] value) throws IOException {
+        if (value.length > 0 && value[0] == '{') {
+            return jsonCodec.read(value);
+        }
+        if (value.length < HEADER_SIZE || value[0] != MAGIC_BYTE) {
+            throw new IOException("Unknown message format: length=" + value.length);
+        }
+
+        int version = ByteBuffer.wrap(value, 1, Integer.BYTES).getInt();
+        BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(value, HEADER_SIZE, value.length - HEADER_SIZE, null);
+        MessageEvent event;
+        try {
+            event = reader(version).read(null, decoder);
+        } catch (RuntimeException e) {
+            // Avroは壊れたデータに対して実行時例外を投げることがある
+            throw new IOException("Failed to decode message: schemaVersion=" + version, e);
+        }
+        return new Message(event.getId(), event.getContent(), event.getSender(), event.getTimestamp(),
+                MessageType.valueOf(event.getType().name()));
+    }
+
+    public int getWriterVersion() {
+        return writerVersion;
+    }
+
+    private SpecificDatumReader<MessageEvent> reader(int version) throws IOException {
+        SpecificDatumReader<MessageEvent> reader = readers.get(version);
+        if (reader != null) {
+            return reader;
+        }
+        Schema writerSchema = registry.getSchema(subject, version)
+                .orElseThrow(() -> new IOException("Unknown schema version: subject=" + subject + ", version=" + version));
+        return readers.computeIfAbsent(version,
+                v -> new SpecificDatumReader<>(writerSchema, MessageEvent.getClassSchema()));
+    }
+}
@@ -0,0 +1,260 @@
+package com.example.playground.infrastructure.serde;
+
+import com.example.playground.domain.model.Message;
+import com.example.playground.domain.model.MessageType;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.time.LocalDateTime;
+
+/**
+ * MessageのJSONバイト列との相互変換（ストリーミングAPI）
+ * Kafkaのレコード値・Redisの値をbyte[]のまま直接解析・生成し、
+ * 中間のString・DTO・ツリーを作らない
+ *
+ * 読み込みは次の2形式のtimestampを受け付ける
+ * - 文字列: "2025-01-01T10:00:00.123"（Kafkaのイベント）
+ * - 配列: [2025,1,1,10,0,0,123000000]（Redisに保存済みの値）
+ * 書き込みはRedisの既存値と同じ配列形式で出力する
+ *
+ * Redisでは本文を別キーに分けて保存する場合があり、そのときは content の代わりに
+ * contentRef（本文のキー）・contentLength・preview（大きな本文の先頭部分、任意）を持つ（readStored / writeWithContentRef）
+ */
+@Component
+public class MessageJsonCodec {
+    
+    private static final int[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000};
+    
+    private final JsonFactory jsonFactory;
+    
+    public MessageJsonCodec(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+    
+    /**
+     * JSONバイト列からMessageを読み込む
+     * @param json UTF-8のJSON
+     * @return メッセージ
+     * @throws IOException JSONが不正・必須フィールドの欠落・不明なタイプの場合
+     */
+    public Message read(byte[] json) throws IOException {
+        StoredMessage stored = readStored(json);
+        if (stored.content() == null) {
+            throw new JsonParseException(null, "Missing required message field: content");
+        }
+        return stored.withContent(stored.content());
+    }
+    
+    /**
+     * Redisに保存した値を読み込む（本文が別キーの場合はcontentがnullで、contentRefを持つ）
+     * @param json UTF-8のJSON
+     * @return 保存された値
+     * @throws IOException JSONが不正・必須フィールドの欠落・不明なタイプの場合
+     */
+    public StoredMessage readStored(byte[] json) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected JSON object");
+            }
+            
+            String id = null;
+            String content = null;
+            String contentRef = null;
+            int contentLength = -1;
+            String preview = null;
+            String sender = null;
+            LocalDateTime timestamp = null;
+            MessageType type = null;
+            
+            String field;
+            while ((field = parser.nextFieldName()) != null) {
+                JsonToken token = parser.nextToken();
+                switch (field) {
+                    case "id" -> id = parser.getValueAsString();
+                    case "content" -> content = parser.getValueAsString();
+                    case "contentRef" -> contentRef = parser.getValueAsString();
+                    case "contentLength" -> contentLength = parser.getIntValue();
+                    case "preview" -> preview = parser.getValueAsString();
+                    case "sender" -> sender = parser.getValueAsString();
+                    case "timestamp" -> timestamp = readTimestamp(parser, token);
+                    case "type" -> type = readType(parser);
+                    default -> parser.skipChildren(); // 未知のフィールドは無視する
+                }
+            }
+            
+            if (id == null || (content == null && contentRef == null) || sender == null || timestamp == null
+                    || type == null) {
+                throw new JsonParseException(parser, "Missing required message field");
+            }
+            if (content != null) {
+                contentLength = content.length();
+            } else if (contentLength < 0) {
+                throw new JsonParseException(parser, "Missing contentLength for contentRef");
+            }
+            return new StoredMessage(id, content, contentRef, contentLength, preview, sender, timestamp, type);
+        }
+    }
+    
+    /**
+     * MessageをJSONバイト列に書き込む
+     * @param message メッセージ
+     * @return UTF-8のJSON
+     */
+    public byte[] write(Message message) {
+        return write(message, null, null);
+    }
+    
+    /**
+     * 本文の代わりに本文のキーを持つJSONを書き込む（Redisで本文を別キーに保存する場合）
+     * @param message メッセージ（本文は全体）
+     * @param contentRef 本文のキー
+     * @param preview 一覧で本文の代わりに返す先頭部分（不要な場合はnull）
+     * @return UTF-8のJSON
+     */
+    public byte[] writeWithContentRef(Message message, String contentRef, String preview) {
+        return write(message, contentRef, preview);
+    }
+    
+    private byte[] write(Message message, String contentRef, String preview) {
+        LocalDateTime timestamp = message.getTimestamp();
+        // 本文の長さから出力サイズを見積もり、バッファの拡張とコピーを避ける
+        int inlineLength = contentRef == null ? message.getContent().length()
+                : contentRef.length() + (preview == null ? 0 : preview.length());
+        int estimatedSize = 160 + message.getId().length() + message.getSender().length() + inlineLength * 3;
+        try (ByteArrayBuilder out = new ByteArrayBuilder(estimatedSize);
+             JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeStringField("id", message.getId());
+            if (contentRef == null) {
+                generator.writeStringField("content", message.getContent());
+            } else {
+                generator.writeStringField("contentRef", contentRef);
+                generator.writeNumberField("contentLength", message.getContent().length());
+                if (preview != null) {
+                    generator.writeStringField("preview", preview);
+                }
+            }
+            generator.writeStringField("sender", message.getSender());
+            generator.writeFieldName("timestamp");
+            generator.writeStartArray();
+            generator.writeNumber(timestamp.getYear());
+            generator.writeNumber(timestamp.getMonthValue());
+            generator.writeNumber(timestamp.getDayOfMonth());
+            generator.writeNumber(timestamp.getHour());
+            generator.writeNumber(timestamp.getMinute());
+            generator.writeNumber(timestamp.getSecond());
+            generator.writeNumber(timestamp.getNano());
+            generator.writeEndArray();
+            generator.writeStringField("type", message.getType().name());
+            generator.writeEndObject();
+            generator.flush();
+            return out.toByteArray();
+        } catch (IOException e) {
+            // メモリ上への書き込みなので通常は発生しない
+            throw new IllegalStateException("Failed to serialize message: id=" + message.getId(), e);
+        }
+    }
+    
+    /**
+     * Redisに保存した値
+     * @param content 本文（別キーに保存した場合はnull）
+     * @param contentRef 本文のキー（本文をそのまま保存した場合はnull）
+     * @param contentLength 本文全体の長さ（文字数）
+     * @param preview 本文の先頭部分（保存していない場合はnull）
+     */
+    public record StoredMessage(String id, String content, String contentRef, int contentLength, String preview,
+                                String sender, LocalDateTime timestamp, MessageType type) {
+        
+        /**
+         * 本文を与えてMessageにする
+         * @param content 本文（全体、またはcontentLengthより短い先頭部分）
+         */
+        public Message withContent(String content) {
+            return new Message(id, content, sender, timestamp, type, Math.max(contentLength, content.length()));
+        }
+    }
+    
+    private static LocalDateTime readTimestamp(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_STRING) {
+            return parseTimestamp(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+        }
+        if (token == JsonToken.START_ARRAY) {
+            int[] parts = new int[7];
+            int count = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (count == parts.length) {
+                    throw new JsonParseException(parser, "Too many timestamp elements");
+                }
+                parts[count++] = parser.getIntValue();
+            }
+            if (count < 5) {
+                throw new JsonParseException(parser, "Too few timestamp elements");
+            }
+            return LocalDateTime.of(parts[0], parts[1], parts[2], parts[3], parts[4], parts[5], parts[6]);
+        }
+        throw new JsonParseException(parser, "Unexpected timestamp token: " + token);
+    }
+    
+    /**
+     * LocalDateTime#toString の形式（yyyy-MM-ddTHH:mm[:ss[.fraction]]）を文字バッファから直接解析する
+     * DateTimeFormatterによる解析は中間オブジェクトを多く作るため、想定外の形式の場合のみ使用する
+     */
+    static LocalDateTime parseTimestamp(char[] text, int offset, int length) {
+        if (length >= 16 && text[offset + 4] == '-' && text[offset + 7] == '-' && text[offset + 10] == 'T'
+                && text[offset + 13] == ':') {
+            int year = digits(text, offset, 4);
+            int month = digits(text, offset + 5, 2);
+            int day = digits(text, offset + 8, 2);
+            int hour = digits(text, offset + 11, 2);
+            int minute = digits(text, offset + 14, 2);
+            int second = 0;
+            int nanos = 0;
+            int position = 16;
+            if (length >= 19 && text[offset + 16] == ':') {
+                second = digits(text, offset + 17, 2);
+                position = 19;
+                if (length > 20 && length <= 29 && text[offset + 19] == '.') {
+                    int fraction = digits(text, offset + 20, length - 20);
+                    nanos = fraction < 0 ? -1 : fraction * POWERS_OF_TEN[29 - length];
+                    position = length;
+                }
+            }
+            if (position == length && (year | month | day | hour | minute | second | nanos) >= 0) {
+                return LocalDateTime.of(year, month, day, hour, minute, second, nanos);
+            }
+        }
+        return LocalDateTime.parse(CharBuffer.wrap(text, offset, length));
+    }
+    
+    /**
+     * 10進数字の並びを整数に変換する（数字以外を含む場合は-1）
+     */
+    private static int digits(char[] text, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int digit = text[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+    
+    private static MessageType readType(JsonParser parser) throws IOException {
+        String name = parser.getValueAsString();
+        try {
+            return MessageType.valueOf(name);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new JsonParseException(parser, "Unknown message type: " + name);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.playground.infrastructure.serde;
+
+/**
+ * 登録しようとしたスキーマが既存のバージョンと互換性を持たない場合の例外
+ */
+public class SchemaCompatibilityException extends RuntimeException {
+
+    private final String subject;
+    private final int version;
+
+    public SchemaCompatibilityException(String subject, int version, String reason) {
+        super("Schema is incompatible with " + subject + " v" + version + ", " + reason);
+        this.subject = subject;
+        this.version = version;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+}
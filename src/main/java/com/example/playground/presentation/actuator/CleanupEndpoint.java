@@ -0,0 +1,33 @@
+package com.example.playground.presentation.actuator;
+
+import com.example.playground.application.cleanup.MessageCleanupJob;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * クリーンアップジョブの進捗を公開するactuatorエンドポイント
+ * GET /actuator/cleanup
+ */
+@Component
+@Endpoint(id = "cleanup")
+public class CleanupEndpoint {
+
+    private final MessageCleanupJob cleanupJob;
+
+    public CleanupEndpoint(MessageCleanupJob cleanupJob) {
+        this.cleanupJob = cleanupJob;
+    }
+
+    @ReadOperation
+    public Map<String, Object> cleanup() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", cleanupJob.getStatus());
+        // 中断されたジョブがあれば、そのカーソル（ノード間で共有）
+        body.put("checkpoint", cleanupJob.getCheckpoint().orElse(null));
+        return body;
+    }
+}
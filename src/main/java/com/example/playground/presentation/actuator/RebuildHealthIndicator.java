@@ -0,0 +1,33 @@
+package com.example.playground.presentation.actuator;
+
+import com.example.playground.infrastructure.messaging.MessageStateRebuilder;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * トピックからの状態の再構築の進捗を公開するヘルスインジケーター
+ * GET /actuator/health の components.rebuild
+ * 再構築中はOUT_OF_SERVICE（readinessは起動完了までREFUSING_TRAFFIC）、失敗した場合はDOWN
+ */
+@Component
+@ConditionalOnProperty(name = "app.kafka.rebuild.enabled", havingValue = "true")
+public class RebuildHealthIndicator implements HealthIndicator {
+
+    private final MessageStateRebuilder rebuilder;
+
+    public RebuildHealthIndicator(MessageStateRebuilder rebuilder) {
+        this.rebuilder = rebuilder;
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = switch (rebuilder.getState()) {
+            case COMPLETED -> Health.up();
+            case FAILED -> Health.down();
+            case PENDING, RUNNING -> Health.outOfService();
+        };
+        return builder.withDetails(rebuilder.getProgress()).build();
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.playground.presentation.actuator;
+
+import com.example.playground.infrastructure.messaging.ConsumerLagMonitor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * コンシューマーのラグ・処理レートと推奨インスタンス数を公開するactuatorエンドポイント
+ * GET /actuator/scaling
+ */
+@Component
+@Endpoint(id = "scaling")
+@ConditionalOnProperty(name = "app.kafka.scaling.enabled", havingValue = "true", matchIfMissing = true)
+public class ScalingEndpoint {
+
+    private final ConsumerLagMonitor lagMonitor;
+
+    public ScalingEndpoint(ConsumerLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+    }
+
+    @ReadOperation
+    public Map<String, Object> scaling() {
+        return lagMonitor.getSnapshot();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.playground.presentation.controller;
+
+import com.example.playground.application.analytics.MessageAnalytics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * ウィンドウ集計（Kafka Streams）の問い合わせAPIコントローラー
+ * app.analytics.enabled=true の場合のみ有効
+ */
+@RestController
+@RequestMapping("/api/analytics")
+@CrossOrigin(origins = "*") // 開発用、本番では適切に設定
+@ConditionalOnProperty(name = "app.analytics.enabled", havingValue = "true")
+public class AnalyticsController {
+    
+    private final MessageAnalytics messageAnalytics;
+    
+    public AnalyticsController(MessageAnalytics messageAnalytics) {
+        this.messageAnalytics = messageAnalytics;
+    }
+    
+    /**
+     * 直近の時間窓における送信者ごとの緊急メッセージ数
+     * 例: /api/analytics/urgent-by-sender?minutes=5
+     */
+    @GetMapping("/urgent-by-sender")
+    public ResponseEntity<Map<String, Long>> getUrgentCountsBySender(
+            @RequestParam(defaultValue = "5") int minutes) {
+        try {
+            return ResponseEntity.ok(messageAnalytics.urgentCountsBySender(Duration.ofMinutes(Math.max(minutes, 1))));
+        } catch (IllegalStateException e) {
+            // ストリームのリバランス中・起動中
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+    
+    /**
+     * 指定した1時間の送信者別メッセージ数の上位
+     * 例: /api/analytics/top-senders?hour=2025-01-01T10:00:00Z&limit=10（hour省略時は現在の時間）
+     */
+    @GetMapping("/top-senders")
+    public ResponseEntity<Map<String, Long>> getTopSenders(
+            @RequestParam(required = false) Instant hour,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(messageAnalytics.topSendersForHour(
+                    hour == null ? Instant.now() : hour, Math.max(limit, 1)));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.playground.presentation.controller;
+
+import com.example.playground.application.service.DependencyUnavailableException;
+import com.example.playground.application.service.RateLimitExceededException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+/**
+ * REST API共通の例外ハンドラー
+ */
+@RestControllerAdvice
+public class ApiExceptionHandler {
+    
+    private static final Logger logger = LoggerFactory.getLogger(ApiExceptionHandler.class);
+    
+    /**
+     * 依存先が利用できない場合は待たずに 503 を返す（クライアントには少し待ってから再試行させる）
+     */
+    @ExceptionHandler(DependencyUnavailableException.class)
+    public ResponseEntity<Map<String, String>> handleDependencyUnavailable(DependencyUnavailableException e) {
+        logger.warn("⚡ Fast-failing request: dependency={}, saturated={}, cause={}",
+                e.getDependency(), e.isSaturated(), e.getCause().getClass().getSimpleName());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, e.isSaturated() ? "1" : "5")
+                .body(Map.of(
+                        "error", "service_unavailable",
+                        "dependency", e.getDependency()
+                ));
+    }
+    
+    /**
+     * 送信者の書き込みレートが上限を超えた場合は 429 を返す
+     * Retry-Afterは秒単位なので切り上げる（最短1秒）。ミリ秒の値はボディで返す
+     * 拒否の件数は messages.ratelimit.rejected で確認できるので、1件ごとのログは出さない
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleRateLimitExceeded(RateLimitExceededException e) {
+        long retryAfterMillis = Math.max(1, e.getRetryAfter().toMillis());
+        long retryAfterSeconds = Math.max(1, (retryAfterMillis + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(Map.of(
+                        "error", "rate_limited",
+                        "sender", e.getSender(),
+                        "retryAfterMillis", retryAfterMillis
+                ));
+    }
+}
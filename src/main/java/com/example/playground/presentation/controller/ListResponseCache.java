@@ -0,0 +1,60 @@
+package com.example.playground.presentation.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 一覧APIのレスポンス（シリアライズ済みのバイト列）のプロセス内キャッシュ
+ * 一覧のバージョンが同じ間は、リポジトリからの読み出しとJSONへの変換を省略する
+ *
+ * - エントリはキー（一覧の種類）ごとに最新のバージョン1つだけを持つ
+ * - TTLは短くし、ポーリングが止まった一覧のバイト列を持ち続けないようにする
+ */
+@Component
+public class ListResponseCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    public ListResponseCache(@Value("${app.api.response-cache.ttl:PT5S}") Duration ttl,
+                             @Value("${app.api.response-cache.max-entries:1000}") int maxEntries) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * キャッシュ済みのバイト列を返す。バージョンが異なるか期限切れの場合はrendererで作り直す
+     * @param key 一覧の種類（例: all, sender:alice）
+     * @param version 一覧のバージョン（レスポンスを作る前に読んだもの）
+     * @param renderer レスポンスのバイト列を作る処理
+     */
+    public byte[] get(String key, String version, Supplier<byte[]> renderer) {
+        long now = System.nanoTime();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.version().equals(version) && now - entry.expiresAt() < 0) {
+            return entry.body();
+        }
+
+        byte[] body = renderer.get();
+        if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+            entries.values().removeIf(e -> now - e.expiresAt() >= 0);
+        }
+        // 上限に達している場合はキャッシュせずに返す（送信者ごとのキーが増え続けても溢れない）
+        if (entries.size() < maxEntries || entries.containsKey(key)) {
+            entries.put(key, new Entry(version, body, now + ttlNanos));
+        }
+        return body;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private record Entry(String version, byte[] body, long expiresAt) {}
+}
@@ -1,17 +1,28 @@
 package com.example.playground.presentation.controller;
 
+import com.example.playground.application.cleanup.CleanupStatus;
 import com.example.playground.application.service.MessageService;
 import com.example.playground.domain.model.Message;
 import com.example.playground.domain.model.MessageType;
 import com.example.playground.presentation.dto.CreateMessageRequest;
+import com.example.playground.presentation.dto.DeleteMessagesRequest;
+import com.example.playground.presentation.dto.MessageLookupRequest;
+import com.example.playground.presentation.dto.MessageLookupResponse;
 import com.example.playground.presentation.dto.MessageResponse;
+import com.example.playground.presentation.dto.MessageStatsResponse;
 import jakarta.validation.Valid;
+import com.example.playground.presentation.controller.MessageListRenderer.Format;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * メッセージ関連のREST APIコントローラー
@@ -23,10 +34,17 @@ import java.util.Optional;
 @CrossOrigin(origins = "*") // 開発用、本番では適切に設定
 public class MessageController {
     
+    private static final int MAX_SEARCH_LIMIT = 100;
+    
     private final MessageService messageService;
+    private final ListResponseCache listResponseCache;
+    private final MessageListRenderer messageListRenderer;
     
-    public MessageController(MessageService messageService) {
+    public MessageController(MessageService messageService, ListResponseCache listResponseCache,
+                             MessageListRenderer messageListRenderer) {
         this.messageService = messageService;
+        this.listResponseCache = listResponseCache;
+        this.messageListRenderer = messageListRenderer;
     }
     
     /**
@@ -48,13 +66,8 @@ public class MessageController {
      * 全てのメッセージを取得
      */
     @GetMapping
-    public ResponseEntity<List<MessageResponse>> getAllMessages() {
-        List<Message> messages = messageService.getAllMessages();
-        List<MessageResponse> responses = messages.stream()
-                .map(MessageResponse::from)
-                .toList();
-        
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<byte[]> getAllMessages(WebRequest request) {
+        return cachedList(request, "all", null, messageService::getAllMessages);
     }
     
     /**
@@ -68,30 +81,64 @@ public class MessageController {
                 .orElse(ResponseEntity.notFound().build());
     }
     
+    /**
+     * 複数のIDでメッセージをまとめて取得（最大 MessageLookupRequest.MAX_IDS 件）
+     * 結果はリクエストのID順で、存在しないIDは found=false になる
+     */
+    @PostMapping("/lookup")
+    public ResponseEntity<MessageLookupResponse> lookupMessages(@Valid @RequestBody MessageLookupRequest request) {
+        Map<String, Message> messages = messageService.getMessagesByIds(request.getIds());
+        
+        return ResponseEntity.ok(MessageLookupResponse.of(request.getIds(), messages));
+    }
+    
     /**
      * 送信者でメッセージを取得
      */
     @GetMapping("/sender/{sender}")
-    public ResponseEntity<List<MessageResponse>> getMessagesBySender(@PathVariable String sender) {
-        List<Message> messages = messageService.getMessagesBySender(sender);
-        List<MessageResponse> responses = messages.stream()
-                .map(MessageResponse::from)
-                .toList();
+    public ResponseEntity<byte[]> getMessagesBySender(@PathVariable String sender, WebRequest request) {
+        return cachedList(request, "sender:" + sender, sender, () -> messageService.getMessagesBySender(sender));
+    }
+    
+    /**
+     * メッセージ本文を全文検索（新しい順、ページング対応）
+     * 例: /api/messages/search?q=kafka+err*&offset=0&limit=20
+     */
+    @GetMapping("/search")
+    public ResponseEntity<byte[]> searchMessages(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "20") int limit,
+            WebRequest request) {
+        List<Message> messages = messageService.searchMessages(
+                query, Math.max(offset, 0), Math.min(Math.max(limit, 1), MAX_SEARCH_LIMIT));
+        Format format = Format.negotiate(request.getHeader(HttpHeaders.ACCEPT));
         
-        return ResponseEntity.ok(responses);
+        return ResponseEntity.ok()
+                .varyBy(HttpHeaders.ACCEPT)
+                .contentType(format.getMediaType())
+                .body(messageListRenderer.render(messages, format));
+    }
+    
+    /**
+     * 直近の時間窓のメッセージ集計を取得（タイプ別・送信者別・分ごとの件数）
+     * 例: /api/messages/stats?minutes=60&topSenders=10
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<MessageStatsResponse> getStats(
+            @RequestParam(defaultValue = "60") int minutes,
+            @RequestParam(defaultValue = "10") int topSenders) {
+        return ResponseEntity.ok(MessageStatsResponse.from(
+                messageService.getStats(Math.max(minutes, 1), Math.max(topSenders, 0))));
     }
     
     /**
      * 緊急メッセージのみを取得
      */
     @GetMapping("/urgent")
-    public ResponseEntity<List<MessageResponse>> getUrgentMessages() {
-        List<Message> messages = messageService.getUrgentMessages();
-        List<MessageResponse> responses = messages.stream()
-                .map(MessageResponse::from)
-                .toList();
-        
-        return ResponseEntity.ok(responses);
+    public ResponseEntity<byte[]> getUrgentMessages(WebRequest request) {
+        // 緊急メッセージの一覧は全メッセージの一覧と同じバージョンで変わる
+        return cachedList(request, "urgent", null, messageService::getUrgentMessages);
     }
     
     /**
@@ -104,31 +151,108 @@ public class MessageController {
     }
     
     /**
-     * 古いメッセージを削除
+     * 送信者の全メッセージを削除
+     * 例: DELETE /api/messages?sender=alice
+     */
+    @DeleteMapping(params = "sender")
+    public ResponseEntity<BulkDeleteResponse> deleteMessagesBySender(@RequestParam String sender) {
+        int deleted = messageService.deleteMessagesBySender(sender);
+        return ResponseEntity.ok(new BulkDeleteResponse(deleted));
+    }
+    
+    /**
+     * 複数のIDのメッセージをまとめて削除（最大 DeleteMessagesRequest.MAX_IDS 件）
+     */
+    @PostMapping("/delete-batch")
+    public ResponseEntity<BulkDeleteResponse> deleteMessages(@Valid @RequestBody DeleteMessagesRequest request) {
+        int deleted = messageService.deleteMessages(request.getIds());
+        return ResponseEntity.ok(new BulkDeleteResponse(deleted));
+    }
+    
+    /**
+     * 古いメッセージの削除を起動（バックグラウンドで実行）
+     * 進捗は /actuator/cleanup で確認できる
      */
     @DeleteMapping("/cleanup")
     public ResponseEntity<CleanupResponse> cleanupOldMessages(
             @RequestParam(defaultValue = "60") int minutes) {
-        int deletedCount = messageService.cleanupOldMessages(minutes);
-        return ResponseEntity.ok(new CleanupResponse(deletedCount, minutes));
+        CleanupStatus status = messageService.cleanupOldMessages(minutes);
+        return ResponseEntity.accepted().body(new CleanupResponse(status, minutes));
     }
     
     /**
-     * クリーンアップ結果のレスポンス
+     * クリーンアップ起動結果のレスポンス
      */
     public static class CleanupResponse {
-        private final int deletedCount;
+        private final CleanupStatus status;
         private final int minutes;
         
-        public CleanupResponse(int deletedCount, int minutes) {
-            this.deletedCount = deletedCount;
+        public CleanupResponse(CleanupStatus status, int minutes) {
+            this.status = status;
             this.minutes = minutes;
         }
         
-        public int getDeletedCount() { return deletedCount; }
+        public String getState() { return status.getState().name(); }
+        public long getDeletedCount() { return status.getDeletedCount(); }
         public int getMinutes() { return minutes; }
         public String getMessage() { 
-            return String.format("Deleted %d messages older than %d minutes", deletedCount, minutes);
+            return String.format("Cleanup of messages older than %d minutes accepted (state=%s)",
+                    minutes, status.getState());
+        }
+    }
+    
+    /**
+     * 一覧のレスポンスをETagとプロセス内キャッシュ付きで返す
+     * If-None-Matchが現在のバージョンと一致すれば、一覧を読まずに304を返す
+     * 形式（JSON / CBOR / Smile）はAcceptヘッダーで選び、キャッシュとETagは形式ごとに分ける
+     * 
+     * @param cacheKey キャッシュのキー
+     * @param sender バージョンを取得する一覧の送信者（nullの場合は全メッセージ）
+     * @param loader 一覧の取得処理
+     */
+    private ResponseEntity<byte[]> cachedList(WebRequest request, String cacheKey, String sender,
+                                              Supplier<List<Message>> loader) {
+        // バージョンは一覧より先に読む（間に書き込みがあっても、古いバージョンに新しい内容が載るだけで済む）
+        Optional<String> version = messageService.getListVersion(sender);
+        Format format = Format.negotiate(request.getHeader(HttpHeaders.ACCEPT));
+        if (version.isEmpty()) {
+            return ResponseEntity.ok()
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .contentType(format.getMediaType())
+                    .body(messageListRenderer.render(loader.get(), format));
+        }
+        
+        // 同じバージョンでも形式が違えば中身が違うので、JSON以外はETagに形式を付ける
+        String tag = format == Format.JSON ? version.get() : version.get() + "-" + format.name().toLowerCase();
+        String etag = "W/\"" + tag + "\"";
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .cacheControl(CacheControl.noCache())
+                    .build();
         }
+        
+        byte[] body = listResponseCache.get(cacheKey + "|" + format.name(), version.get(),
+                () -> messageListRenderer.render(loader.get(), format));
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .cacheControl(CacheControl.noCache())
+                .contentType(format.getMediaType())
+                .body(body);
+    }
+    
+    /**
+     * 一括削除の結果のレスポンス
+     */
+    public static class BulkDeleteResponse {
+        private final int deletedCount;
+        
+        public BulkDeleteResponse(int deletedCount) {
+            this.deletedCount = deletedCount;
+        }
+        
+        public int getDeletedCount() { return deletedCount; }
     }
 }
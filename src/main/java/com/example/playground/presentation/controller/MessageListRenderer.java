@@ -0,0 +1,158 @@
+package com.example.playground.presentation.controller;
+
+import com.example.playground.domain.model.Message;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * メッセージ一覧のレスポンスをMessageから直接書き出す
+ * MessageResponseのリストを作ってObjectMapperに渡す経路（DTOのコピー・リフレクション・@JsonFormatの書式化）を省く。
+ * 出力はMessageResponseと同じフィールド・同じ書式で、形式（JSON / CBOR / Smile）はAcceptヘッダーで選ぶ
+ * 本文が先頭部分だけのメッセージ（大きな本文）には contentTruncated と contentLength を付ける（全体は GET /api/messages/{id}）
+ */
+@Component
+public class MessageListRenderer {
+
+    /**
+     * レスポンスの形式
+     * ファクトリーはスレッドセーフで、形式ごとに1つを使い回す
+     */
+    public enum Format {
+        JSON(MediaType.APPLICATION_JSON, new JsonFactory()),
+        CBOR(MediaType.APPLICATION_CBOR, new CBORFactory()),
+        SMILE(new MediaType("application", "x-jackson-smile"), new SmileFactory());
+
+        private final MediaType mediaType;
+        private final JsonFactory factory;
+
+        Format(MediaType mediaType, JsonFactory factory) {
+            this.mediaType = mediaType;
+            this.factory = factory;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        /**
+         * Acceptヘッダーから形式を選ぶ（指定なし・該当なしはJSON）
+         */
+        public static Format negotiate(String accept) {
+            if (accept == null || accept.isBlank()) {
+                return JSON;
+            }
+            List<MediaType> accepted;
+            try {
+                accepted = MediaType.parseMediaTypes(accept);
+            } catch (IllegalArgumentException e) {
+                return JSON;
+            }
+            // 品質値が最も高い形式を選ぶ（同じ値なら宣言順で、*/* や application/* はJSONになる）
+            Format best = JSON;
+            double bestQuality = 0;
+            for (Format format : values()) {
+                double quality = quality(accepted, format.mediaType);
+                if (quality > bestQuality) {
+                    best = format;
+                    bestQuality = quality;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * 形式に対する品質値（ワイルドカードより具体的な指定を優先する）
+         */
+        private static double quality(List<MediaType> accepted, MediaType target) {
+            MediaType match = null;
+            for (MediaType mediaType : accepted) {
+                if (mediaType.includes(target) && (match == null || mediaType.isMoreSpecific(match))) {
+                    match = mediaType;
+                }
+            }
+            return match == null ? 0 : match.getQualityValue();
+        }
+    }
+
+    /**
+     * メッセージ一覧を指定の形式のバイト列にする
+     */
+    public byte[] render(List<Message> messages, Format format) {
+        // 本文の長さから出力サイズを見積もり、バッファの拡張を減らす
+        int estimatedSize = 16;
+        for (Message message : messages) {
+            estimatedSize += 120 + message.getId().length() + message.getSender().length() + message.getContent().length() * 3;
+        }
+        try (ByteArrayBuilder out = new ByteArrayBuilder(Math.min(estimatedSize, 1 << 20));
+             JsonGenerator generator = format.factory.createGenerator(out)) {
+            char[] timestamp = new char[19];
+            generator.writeStartArray();
+            for (Message message : messages) {
+                generator.writeStartObject();
+                generator.writeStringField("id", message.getId());
+                generator.writeStringField("content", message.getContent());
+                generator.writeStringField("sender", message.getSender());
+                generator.writeFieldName("timestamp");
+                if (formatTimestamp(message.getTimestamp(), timestamp)) {
+                    generator.writeString(timestamp, 0, timestamp.length);
+                } else {
+                    generator.writeString(message.getTimestamp().withNano(0).toString());
+                }
+                generator.writeStringField("type", message.getType().name());
+                generator.writeBooleanField("urgent", message.isUrgent());
+                if (message.isContentTruncated()) {
+                    generator.writeBooleanField("contentTruncated", true);
+                    generator.writeNumberField("contentLength", message.getContentLength());
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.flush();
+            return out.toByteArray();
+        } catch (IOException e) {
+            // メモリ上への書き込みなので通常は発生しない
+            throw new IllegalStateException("Failed to render messages", e);
+        }
+    }
+
+    /**
+     * MessageResponseの @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss") と同じ文字列をバッファに書く
+     * DateTimeFormatterを通さず、オブジェクトを作らない
+     *
+     * @return 4桁の西暦でない場合はfalse（呼び出し側でISO形式にフォールバックする）
+     */
+    static boolean formatTimestamp(LocalDateTime timestamp, char[] buffer) {
+        int year = timestamp.getYear();
+        if (year < 0 || year > 9999) {
+            return false;
+        }
+        digits(buffer, 0, year, 4);
+        buffer[4] = '-';
+        digits(buffer, 5, timestamp.getMonthValue(), 2);
+        buffer[7] = '-';
+        digits(buffer, 8, timestamp.getDayOfMonth(), 2);
+        buffer[10] = 'T';
+        digits(buffer, 11, timestamp.getHour(), 2);
+        buffer[13] = ':';
+        digits(buffer, 14, timestamp.getMinute(), 2);
+        buffer[16] = ':';
+        digits(buffer, 17, timestamp.getSecond(), 2);
+        return true;
+    }
+
+    private static void digits(char[] buffer, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
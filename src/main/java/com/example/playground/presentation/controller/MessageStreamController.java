@@ -0,0 +1,87 @@
+package com.example.playground.presentation.controller;
+
+import com.example.playground.application.stream.MessageStreamHub;
+import com.example.playground.application.stream.SubscriptionFilter;
+import com.example.playground.application.stream.SubscriptionSink;
+import com.example.playground.domain.model.Message;
+import com.example.playground.domain.model.MessageType;
+import com.example.playground.presentation.dto.MessageResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * メッセージのリアルタイム配信（Server-Sent Events）コントローラー
+ * 一覧APIのポーリングの代わりに、保存されたメッセージをプッシュで受け取る
+ */
+@RestController
+@RequestMapping("/api/messages")
+@CrossOrigin(origins = "*") // 開発用、本番では適切に設定
+public class MessageStreamController {
+
+    private final MessageStreamHub hub;
+    private final long timeoutMs;
+
+    public MessageStreamController(
+            MessageStreamHub hub,
+            @Value("${app.stream.timeout-ms:1800000}") long timeoutMs) {
+        this.hub = hub;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * メッセージを購読
+     * 例: /api/messages/stream?sender=alice&type=ERROR&urgentOnly=true
+     * イベント: "message"（MessageResponse）、"gap"（バッファ溢れで取りこぼした件数）
+     * 未知の type は 400 Bad Request
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @RequestParam(required = false) String sender,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "false") boolean urgentOnly) {
+        SubscriptionFilter filter = new SubscriptionFilter(sender, parseType(type), urgentOnly);
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+
+        MessageStreamHub.Subscription subscription = hub.subscribe(filter, new SubscriptionSink() {
+            @Override
+            public void send(Message message) throws IOException {
+                emitter.send(SseEmitter.event()
+                        .name("message")
+                        .id(message.getId())
+                        .data(MessageResponse.from(message), MediaType.APPLICATION_JSON));
+            }
+
+            @Override
+            public void gap(long missed) throws IOException {
+                emitter.send(SseEmitter.event()
+                        .name("gap")
+                        .data(Map.of("missed", missed), MediaType.APPLICATION_JSON));
+            }
+        });
+
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(e -> subscription.cancel());
+        return emitter;
+    }
+
+    private static MessageType parseType(String type) {
+        if (type == null) {
+            return null;
+        }
+        try {
+            return MessageType.valueOf(type.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Unknown message type: " + type + " (expected one of " + Arrays.toString(MessageType.values()) + ")");
+        }
+    }
+}
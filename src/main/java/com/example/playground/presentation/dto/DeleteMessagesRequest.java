@@ -0,0 +1,38 @@
+package com.example.playground.presentation.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * 一括削除リクエストDTO
+ */
+public class DeleteMessagesRequest {
+    
+    /**
+     * 1リクエストで指定できるIDの最大数
+     */
+    public static final int MAX_IDS = 1000;
+    
+    @NotEmpty(message = "Ids cannot be empty")
+    @Size(max = MAX_IDS, message = "At most " + MAX_IDS + " ids can be deleted at once")
+    private List<@NotBlank(message = "Id cannot be blank") String> ids;
+    
+    // デフォルトコンストラクタ
+    public DeleteMessagesRequest() {}
+    
+    public DeleteMessagesRequest(List<String> ids) {
+        this.ids = ids;
+    }
+    
+    // Getters and Setters
+    public List<String> getIds() {
+        return ids;
+    }
+    
+    public void setIds(List<String> ids) {
+        this.ids = ids;
+    }
+}
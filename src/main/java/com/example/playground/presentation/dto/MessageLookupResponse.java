@@ -0,0 +1,86 @@
+package com.example.playground.presentation.dto;
+
+import com.example.playground.domain.model.Message;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * IDによる一括取得レスポンスDTO
+ * results はリクエストのID順（重複したIDもそのまま並ぶ）
+ */
+public class MessageLookupResponse {
+    
+    private List<Result> results;
+    private int found;
+    private int missing;
+    
+    // デフォルトコンストラクタ
+    public MessageLookupResponse() {}
+    
+    /**
+     * リクエストのID順に結果を並べるファクトリーメソッド
+     * @param ids リクエストされたID
+     * @param messages 見つかったメッセージ（ID → メッセージ）
+     */
+    public static MessageLookupResponse of(List<String> ids, Map<String, Message> messages) {
+        MessageLookupResponse response = new MessageLookupResponse();
+        response.results = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Message message = messages.get(id);
+            if (message != null) {
+                response.results.add(new Result(id, true, MessageResponse.from(message)));
+                response.found++;
+            } else {
+                response.results.add(new Result(id, false, null));
+                response.missing++;
+            }
+        }
+        return response;
+    }
+    
+    // Getters
+    public List<Result> getResults() {
+        return results;
+    }
+    
+    public int getFound() {
+        return found;
+    }
+    
+    public int getMissing() {
+        return missing;
+    }
+    
+    /**
+     * 1件分の結果（見つからなかった場合は message を省略する）
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Result {
+        private String id;
+        private boolean found;
+        private MessageResponse message;
+        
+        public Result() {}
+        
+        public Result(String id, boolean found, MessageResponse message) {
+            this.id = id;
+            this.found = found;
+            this.message = message;
+        }
+        
+        public String getId() {
+            return id;
+        }
+        
+        public boolean isFound() {
+            return found;
+        }
+        
+        public MessageResponse getMessage() {
+            return message;
+        }
+    }
+}
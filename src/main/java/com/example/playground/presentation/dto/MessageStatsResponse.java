@@ -0,0 +1,99 @@
+package com.example.playground.presentation.dto;
+
+import com.example.playground.domain.model.MessageStats;
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * メッセージ集計レスポンスDTO
+ */
+public class MessageStatsResponse {
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm")
+    private LocalDateTime from;
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm")
+    private LocalDateTime to;
+
+    private long total;
+    private Map<String, Long> countsByType;
+    private Map<String, Long> topSenders;
+    private long distinctSenders;
+    private List<MinuteCount> perMinute;
+
+    // デフォルトコンストラクタ
+    public MessageStatsResponse() {}
+
+    /**
+     * ドメインモデルからDTOを生成するファクトリーメソッド
+     */
+    public static MessageStatsResponse from(MessageStats stats) {
+        MessageStatsResponse response = new MessageStatsResponse();
+        response.from = stats.getFrom();
+        response.to = stats.getTo();
+        response.total = stats.getTotal();
+        response.countsByType = new LinkedHashMap<>();
+        stats.getCountsByType().forEach((type, count) -> response.countsByType.put(type.name(), count));
+        response.topSenders = stats.getTopSenders();
+        response.distinctSenders = stats.getDistinctSenders();
+        response.perMinute = stats.getPerMinute().stream()
+                .map(bucket -> new MinuteCount(bucket.getMinute(), bucket.getTotal(), bucket.getUrgent()))
+                .toList();
+        return response;
+    }
+
+    // Getters
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public Map<String, Long> getCountsByType() {
+        return countsByType;
+    }
+
+    public Map<String, Long> getTopSenders() {
+        return topSenders;
+    }
+
+    public long getDistinctSenders() {
+        return distinctSenders;
+    }
+
+    public List<MinuteCount> getPerMinute() {
+        return perMinute;
+    }
+
+    /**
+     * 1分ごとの件数
+     */
+    public static class MinuteCount {
+
+        @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm")
+        private final LocalDateTime minute;
+
+        private final long total;
+        private final long urgent;
+
+        public MinuteCount(LocalDateTime minute, long total, long urgent) {
+            this.minute = minute;
+            this.total = total;
+            this.urgent = urgent;
+        }
+
+        public LocalDateTime getMinute() { return minute; }
+        public long getTotal() { return total; }
+        public long getUrgent() { return urgent; }
+    }
+}
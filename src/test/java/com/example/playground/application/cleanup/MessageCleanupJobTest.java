@@ -0,0 +1,67 @@
+package com.example.playground.application.cleanup;
+
+import com.example.playground.domain.repository.MessageRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * MessageCleanupJobの状態遷移のテスト
+ */
+class MessageCleanupJobTest {
+
+    private CleanupCoordinator coordinator;
+    private MessageCleanupJob job;
+
+    @BeforeEach
+    void setUp() {
+        coordinator = mock(CleanupCoordinator.class);
+        job = new MessageCleanupJob(mock(MessageRepository.class), coordinator);
+    }
+
+    @AfterEach
+    void tearDown() {
+        job.shutdown();
+    }
+
+    @Test
+    void testLockFailureMarksJobFailedAndAllowsRetry() throws InterruptedException {
+        // Given: Redis障害でロックを取れない
+        when(coordinator.tryLock(any())).thenThrow(new RedisConnectionFailureException("redis down"));
+
+        // When
+        job.trigger(60);
+        CleanupStatus failed = awaitFinished();
+
+        // Then: QUEUEDのまま残らず、次の起動を受け付ける
+        assertEquals(CleanupStatus.State.FAILED, failed.getState());
+        assertNotNull(failed.getFinishedAt());
+        verify(coordinator, never()).unlock(any());
+
+        // Given: 復旧後は他ノードがロックを保持している
+        reset(coordinator);
+        when(coordinator.tryLock(any())).thenReturn(Optional.empty());
+
+        // When
+        assertEquals(CleanupStatus.State.QUEUED, job.trigger(60).getState());
+
+        // Then
+        assertEquals(CleanupStatus.State.SKIPPED, awaitFinished().getState());
+    }
+
+    private CleanupStatus awaitFinished() throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (job.getStatus().isActive() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return job.getStatus();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.playground.application.stream;
+
+import com.example.playground.domain.model.Message;
+import com.example.playground.domain.model.MessageType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MessageStreamHubのテスト
+ */
+class MessageStreamHubTest {
+
+    @Test
+    void testPublishDeliversOnlyMatchingMessages() throws Exception {
+        // Given
+        MessageStreamHub hub = new MessageStreamHub(new SimpleMeterRegistry(), 16);
+        RecordingSink sink = new RecordingSink(1);
+        hub.subscribe(new SubscriptionFilter("alice", null, true), sink);
+
+        // When
+        hub.publish(Message.create("info", "alice", MessageType.INFO));
+        hub.publish(Message.create("error from bob", "bob", MessageType.ERROR));
+        hub.publish(Message.create("error from alice", "alice", MessageType.ERROR));
+
+        // Then
+        assertTrue(sink.received.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("error from alice"), sink.contents());
+        hub.shutdown();
+    }
+
+    @Test
+    void testSlowSubscriberDropsOldestAndReportsGap() throws Exception {
+        // Given
+        MessageStreamHub hub = new MessageStreamHub(new SimpleMeterRegistry(), 2);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink sink = new RecordingSink(3) {
+            @Override
+            public void send(Message message) {
+                awaitQuietly(release);
+                super.send(message);
+            }
+        };
+        hub.subscribe(new SubscriptionFilter(null, null, false), sink);
+
+        // When: 1件目は送信中でブロック、残り4件は容量2のバッファに積まれる
+        hub.publish(Message.create("m1", "s", MessageType.INFO));
+        Thread.sleep(200);
+        for (int i = 2; i <= 5; i++) {
+            hub.publish(Message.create("m" + i, "s", MessageType.INFO));
+        }
+        release.countDown();
+
+        // Then
+        assertTrue(sink.received.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("m1", "m4", "m5"), sink.contents());
+        assertEquals(2, sink.missed);
+        hub.shutdown();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class RecordingSink implements SubscriptionSink {
+        final List<Message> messages = new CopyOnWriteArrayList<>();
+        final CountDownLatch received;
+        volatile long missed;
+
+        RecordingSink(int expected) {
+            this.received = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void send(Message message) {
+            messages.add(message);
+            received.countDown();
+        }
+
+        @Override
+        public void gap(long missed) {
+            this.missed += missed;
+        }
+
+        List<String> contents() {
+            return messages.stream().map(Message::getContent).toList();
+        }
+    }
+}
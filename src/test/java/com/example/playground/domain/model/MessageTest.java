@@ -2,6 +2,7 @@ package com.example.playground.domain.model;
 
 import org.junit.jupiter.api.Test;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -25,14 +26,14 @@ class MessageTest {
         assertEquals(sender, message.getSender());
         assertEquals(type, message.getType());
         assertNotNull(message.getTimestamp());
-        assertTrue(message.getTimestamp().isBefore(LocalDateTime.now().plusSeconds(1)));
-        assertTrue(message.getTimestamp().isAfter(LocalDateTime.now().minusSeconds(1)));
+        assertTrue(message.getTimestamp().isBefore(LocalDateTime.now(ZoneOffset.UTC).plusSeconds(1)));
+        assertTrue(message.getTimestamp().isAfter(LocalDateTime.now(ZoneOffset.UTC).minusSeconds(1)));
     }
     
     @Test
     void testIsOlderThan() {
         // Given
-        LocalDateTime pastTime = LocalDateTime.now().minusMinutes(10);
+        LocalDateTime pastTime = LocalDateTime.now(ZoneOffset.UTC).minusMinutes(10);
         Message message = new Message("test-id", "content", "sender", pastTime, MessageType.INFO);
         
         // When & Then
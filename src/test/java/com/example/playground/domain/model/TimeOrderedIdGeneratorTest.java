@@ -0,0 +1,124 @@
+package com.example.playground.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TimeOrderedIdGeneratorのテスト
+ */
+class TimeOrderedIdGeneratorTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T10:00:00.123Z");
+
+    @Test
+    void testUlidIsMonotonicWithinSameMillisecond() {
+        // Given: 時計が進まない
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(
+                TimeOrderedIdGenerator.Format.ULID, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        // When
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            ids.add(generator.nextId());
+        }
+
+        // Then
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1).compareTo(ids.get(i)) < 0, ids.get(i - 1) + " < " + ids.get(i));
+        }
+        assertEquals(26, ids.get(0).length());
+        assertEquals(NOW, generator.timestampOf(ids.get(0)));
+        assertEquals(NOW, generator.timestampOf(ids.get(999)));
+    }
+
+    @Test
+    void testIdsAreUniqueAcrossThreads() throws InterruptedException {
+        // Given
+        TimeOrderedIdGenerator generator = TimeOrderedIdGenerator.ulid();
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        AtomicBoolean ordered = new AtomicBoolean(true);
+        CountDownLatch done = new CountDownLatch(8);
+
+        // When
+        for (int t = 0; t < 8; t++) {
+            Thread.ofVirtual().start(() -> {
+                String previous = "";
+                for (int i = 0; i < 10_000; i++) {
+                    String id = generator.nextId();
+                    // 同じスレッドから見ても単調増加
+                    if (previous.compareTo(id) >= 0) {
+                        ordered.set(false);
+                    }
+                    previous = id;
+                    ids.add(id);
+                }
+                done.countDown();
+            });
+        }
+        done.await();
+
+        // Then
+        assertEquals(80_000, ids.size());
+        assertTrue(ordered.get());
+    }
+
+    @Test
+    void testUuidV7Format() {
+        // Given
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(
+                TimeOrderedIdGenerator.Format.UUID_V7, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        // When
+        String first = generator.nextId();
+        String second = generator.nextId();
+
+        // Then
+        UUID uuid = UUID.fromString(first);
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertTrue(first.compareTo(second) < 0);
+        assertEquals(NOW, generator.timestampOf(first));
+    }
+
+    @Test
+    void testTimestampOfRejectsForeignIds() {
+        // Given
+        TimeOrderedIdGenerator ulid = new TimeOrderedIdGenerator(
+                TimeOrderedIdGenerator.Format.ULID, Clock.fixed(NOW, ZoneOffset.UTC));
+        TimeOrderedIdGenerator uuidV7 = new TimeOrderedIdGenerator(
+                TimeOrderedIdGenerator.Format.UUID_V7, Clock.fixed(NOW, ZoneOffset.UTC));
+        String legacyId = "3b241101-e2bb-4255-8caf-4136c566a962"; // UUIDv4
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> uuidV7.timestampOf(legacyId));
+        assertThrows(IllegalArgumentException.class, () -> uuidV7.timestampOf(ulid.nextId()));
+        assertThrows(IllegalArgumentException.class, () -> ulid.timestampOf(legacyId));
+        assertThrows(IllegalArgumentException.class, () -> ulid.timestampOf("8ZZZZZZZZZZZZZZZZZZZZZZZZZ"));
+        assertThrows(IllegalArgumentException.class, () -> ulid.timestampOf("01JABCDEFGHJKMNPQRSTVWXYZU"));
+    }
+
+    @Test
+    void testMessageCreateUsesIdTimestamp() {
+        // Given
+        TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator(
+                TimeOrderedIdGenerator.Format.ULID, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        // When
+        Message message = Message.create(generator, "content", "sender", MessageType.INFO);
+
+        // Then
+        assertEquals(NOW, message.getTimestamp().toInstant(ZoneOffset.UTC));
+    }
+}
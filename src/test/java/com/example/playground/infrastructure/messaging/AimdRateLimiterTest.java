@@ -0,0 +1,90 @@
+package com.example.playground.infrastructure.messaging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AimdRateLimiterのテスト
+ */
+class AimdRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long TARGET = TimeUnit.MILLISECONDS.toNanos(50);
+
+    @Test
+    void testThrottlesAfterBurstAndRefillsOverTime() {
+        // Given: 10件/秒（バーストも10件まで）
+        AimdRateLimiter limiter = new AimdRateLimiter(10, 1, 100, 5, 0.5, 0);
+
+        // When
+        int accepted = 0;
+        for (int i = 0; i < 12; i++) {
+            if (limiter.acquire(0)) {
+                accepted++;
+            }
+        }
+
+        // Then: 10件を超えた分は借り越しになり、借り越しを返すまで再開しない
+        assertEquals(10, accepted);
+        assertFalse(limiter.refill(SECOND / 10));
+        assertTrue(limiter.refill(SECOND / 5));
+    }
+
+    @Test
+    void testIncreasesAdditivelyWhenThrottledAndHealthy() {
+        // Given
+        AimdRateLimiter limiter = new AimdRateLimiter(10, 1, 100, 5, 0.5, 0);
+        for (int i = 0; i < 11; i++) {
+            limiter.acquire(0);
+            limiter.record(TARGET / 2, true);
+        }
+
+        // When
+        double rate = limiter.adjust(TARGET, 0.05);
+
+        // Then
+        assertEquals(15, rate);
+
+        // When: 制限に当たっていなければ増やさない
+        limiter.record(TARGET / 2, true);
+
+        // Then
+        assertEquals(15, limiter.adjust(TARGET, 0.05));
+    }
+
+    @Test
+    void testDecreasesMultiplicativelyOnSlowOrFailingCalls() {
+        // Given
+        AimdRateLimiter limiter = new AimdRateLimiter(80, 10, 100, 5, 0.5, 0);
+
+        // When: 遅い
+        limiter.record(TARGET * 3, true);
+
+        // Then
+        assertEquals(40, limiter.adjust(TARGET, 0.05));
+
+        // When: エラー率が閾値を超える
+        limiter.record(TARGET / 2, true);
+        limiter.record(TARGET / 2, false);
+
+        // Then
+        assertEquals(20, limiter.adjust(TARGET, 0.05));
+
+        // When: 下限で止まる
+        limiter.record(TARGET / 2, false);
+        limiter.adjust(TARGET, 0.05);
+        limiter.record(TARGET / 2, false);
+
+        // Then
+        assertEquals(10, limiter.adjust(TARGET, 0.05));
+    }
+
+    @Test
+    void testRejectsInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new AimdRateLimiter(10, 20, 10, 1, 0.5, 0));
+        assertThrows(IllegalArgumentException.class, () -> new AimdRateLimiter(10, 1, 10, 1, 1.0, 0));
+    }
+}
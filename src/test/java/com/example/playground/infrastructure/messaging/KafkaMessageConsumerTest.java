@@ -0,0 +1,66 @@
+package com.example.playground.infrastructure.messaging;
+
+import com.example.playground.application.service.DependencyUnavailableException;
+import com.example.playground.application.stream.MessageBroadcaster;
+import com.example.playground.domain.model.Message;
+import com.example.playground.domain.model.MessageType;
+import com.example.playground.domain.repository.MessageRepository;
+import com.example.playground.infrastructure.serde.MessageEventCodec;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * KafkaMessageConsumerの保存失敗時の扱いのテスト
+ */
+class KafkaMessageConsumerTest {
+
+    private static final byte[] VALUE = "{}".getBytes(StandardCharsets.UTF_8);
+
+    private MessageRepository repository;
+    private MessageEventCodec codec;
+    private MessageBroadcaster broadcaster;
+    private KafkaMessageConsumer consumer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        repository = mock(MessageRepository.class);
+        codec = mock(MessageEventCodec.class);
+        broadcaster = mock(MessageBroadcaster.class);
+        when(codec.decode(VALUE)).thenReturn(new Message("01JABCDEFGHJKMNPQRSTVWXYZ0", "hello", "alice",
+                LocalDateTime.of(2025, 1, 1, 10, 0), MessageType.INFO));
+        consumer = new KafkaMessageConsumer(repository, codec, broadcaster, mock(ConsumerFlowController.class));
+    }
+
+    @Test
+    void testSaturatedSaveIsRethrownSoTheRecordIsRetried() {
+        // Given: 書き込みの同時実行数の上限で拒否される
+        DependencyUnavailableException saturated = new DependencyUnavailableException("redis", true,
+                BulkheadFullException.createBulkheadFullException(Bulkhead.ofDefaults("redis-write")));
+        when(repository.save(any())).thenThrow(saturated);
+
+        // When / Then: コンテナのエラーハンドラーへ渡し、オフセットをコミットさせない
+        assertSame(saturated, assertThrows(DependencyUnavailableException.class,
+                () -> consumer.handleMessage(VALUE, "01JABCDEFGHJKMNPQRSTVWXYZ0", "messages", 0, 42L)));
+        verify(broadcaster, never()).broadcast(any());
+    }
+
+    @Test
+    void testUndecodableRecordIsSkipped() throws IOException {
+        // Given
+        when(codec.decode(VALUE)).thenThrow(new IOException("broken"));
+
+        // When / Then: 再試行しても直らないので読み飛ばす
+        assertDoesNotThrow(() -> consumer.handleMessage(VALUE, "key", "messages", 0, 43L));
+        verify(repository, never()).save(any());
+    }
+}
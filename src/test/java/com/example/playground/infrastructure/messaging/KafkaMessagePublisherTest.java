@@ -0,0 +1,123 @@
+package com.example.playground.infrastructure.messaging;
+
+import com.example.playground.domain.model.Message;
+import com.example.playground.domain.model.MessageType;
+import com.example.playground.infrastructure.serde.FileSchemaRegistry;
+import com.example.playground.infrastructure.serde.MessageEventCodec;
+import com.example.playground.infrastructure.serde.MessageJsonCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * KafkaMessagePublisherのトピック振り分けとtombstoneの送信結果のテスト
+ */
+class KafkaMessagePublisherTest {
+
+    @TempDir
+    Path schemaDir;
+
+    private KafkaTemplate<String, byte[]> kafkaTemplate;
+    private KafkaMessagePublisher publisher;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(new CompletableFuture<>());
+        MessageEventCodec codec = new MessageEventCodec(new FileSchemaRegistry(schemaDir),
+                new MessageJsonCodec(new ObjectMapper()), "messages");
+        publisher = new KafkaMessagePublisher(kafkaTemplate, codec, CircuitBreakerRegistry.ofDefaults(),
+                BulkheadRegistry.ofDefaults(), "messages", "messages.urgent");
+    }
+
+    @Test
+    void testRoutesUrgentMessagesToDedicatedTopic() {
+        // Given
+        Message error = Message.create("disk full", "alice", MessageType.ERROR);
+        Message warning = Message.create("cpu high", "alice", MessageType.WARNING);
+        Message info = Message.create("hello", "bob", MessageType.INFO);
+
+        // When
+        publisher.publish(error);
+        publisher.publish(warning);
+        publisher.publish(info);
+
+        // Then
+        verify(kafkaTemplate).send(eq("messages.urgent"), eq(error.getId()), any());
+        verify(kafkaTemplate).send(eq("messages.urgent"), eq(warning.getId()), any());
+        verify(kafkaTemplate).send(eq("messages"), eq(info.getId()), any());
+    }
+
+    @Test
+    void testSendsTombstonesToBothTopics() {
+        // When
+        publisher.publishDeletion("id-1");
+
+        // Then
+        verify(kafkaTemplate).send(eq("messages"), eq("id-1"), isNull());
+        verify(kafkaTemplate).send(eq("messages.urgent"), eq("id-1"), isNull());
+    }
+
+    @Test
+    void testDeletionCompletesWhenBothTombstonesAreAcknowledged() {
+        // Given
+        CompletableFuture<SendResult<String, byte[]>> messages = new CompletableFuture<>();
+        CompletableFuture<SendResult<String, byte[]>> urgent = new CompletableFuture<>();
+        when(kafkaTemplate.send(eq("messages"), eq("id-1"), isNull())).thenReturn(messages);
+        when(kafkaTemplate.send(eq("messages.urgent"), eq("id-1"), isNull())).thenReturn(urgent);
+
+        // When
+        CompletableFuture<Void> deletion = publisher.publishDeletion("id-1");
+        messages.complete(sent("messages"));
+
+        // Then: 片方だけでは完了しない
+        assertFalse(deletion.isDone());
+
+        // When
+        urgent.complete(sent("messages.urgent"));
+
+        // Then
+        assertTrue(deletion.isDone());
+        assertFalse(deletion.isCompletedExceptionally());
+    }
+
+    @Test
+    void testDeletionFailsWhenTombstoneIsNotDelivered() {
+        // Given
+        CompletableFuture<SendResult<String, byte[]>> urgent = new CompletableFuture<>();
+        when(kafkaTemplate.send(eq("messages"), eq("id-1"), isNull()))
+                .thenReturn(CompletableFuture.completedFuture(sent("messages")));
+        when(kafkaTemplate.send(eq("messages.urgent"), eq("id-1"), isNull())).thenReturn(urgent);
+
+        // When
+        CompletableFuture<Void> deletion = publisher.publishDeletion("id-1");
+        urgent.completeExceptionally(new IllegalStateException("broker unavailable"));
+
+        // Then
+        assertTrue(deletion.isCompletedExceptionally());
+    }
+
+    private static SendResult<String, byte[]> sent(String topic) {
+        return new SendResult<>(new ProducerRecord<>(topic, "id-1", null),
+                new RecordMetadata(new TopicPartition(topic, 0), 0, 0, 0, 0, 0));
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.playground.infrastructure.messaging;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaAdmin;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * KafkaTopicVerifierの起動後のトピック確認のテスト
+ */
+class KafkaTopicVerifierTest {
+
+    @Test
+    void testRetriesUntilBrokerIsAvailable() {
+        // Given: 最初の2回はブローカーに接続できない
+        KafkaAdmin kafkaAdmin = mock(KafkaAdmin.class);
+        when(kafkaAdmin.initialize()).thenReturn(false, false, true);
+        KafkaTopicVerifier verifier = new KafkaTopicVerifier(kafkaAdmin, Duration.ofMillis(1));
+
+        // When
+        verifier.verifyUntilDone();
+
+        // Then: 成功した時点で止める
+        verify(kafkaAdmin, times(3)).initialize();
+        assertTrue(verifier.isVerified());
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.playground.infrastructure.messaging;
+
+import com.example.playground.domain.model.Message;
+import com.example.playground.domain.model.MessageType;
+import com.example.playground.infrastructure.serde.FileSchemaRegistry;
+import com.example.playground.infrastructure.serde.MessageEventCodec;
+import com.example.playground.infrastructure.serde.MessageJsonCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.kstream.Windowed;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyWindowStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MessageAnalyticsTopologyのテスト（組み込みKafkaブローカーを使用）
+ */
+@EmbeddedKafka(partitions = 1, topics = "messages")
+class MessageAnalyticsTopologyTest {
+
+    @TempDir
+    Path stateDir;
+
+    @TempDir
+    Path schemaDir;
+
+    @Test
+    void testWindowedCountsBySender(EmbeddedKafkaBroker broker) throws Exception {
+        // Given
+        MessageEventCodec codec = new MessageEventCodec(new FileSchemaRegistry(schemaDir),
+                new MessageJsonCodec(new ObjectMapper()), "messages");
+        StreamsBuilder builder = new StreamsBuilder();
+        MessageAnalyticsTopology.build(builder, List.of("messages"), codec);
+
+        Properties streamsConfig = new Properties();
+        streamsConfig.put(StreamsConfig.APPLICATION_ID_CONFIG, "analytics-test");
+        streamsConfig.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        streamsConfig.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.toString());
+        streamsConfig.put(StreamsConfig.COMMIT_INTERVAL_MS_CONFIG, 100);
+
+        try (KafkaStreams streams = new KafkaStreams(builder.build(), streamsConfig);
+             KafkaProducer<String, byte[]> producer = new KafkaProducer<>(
+                     KafkaTestUtils.producerProps(broker), new StringSerializer(), new ByteArraySerializer())) {
+            streams.start();
+
+            // When
+            send(producer, codec, Message.create("disk full", "alice", MessageType.ERROR));
+            send(producer, codec, Message.create("cpu high", "alice", MessageType.WARNING));
+            send(producer, codec, Message.create("hello", "alice", MessageType.INFO));
+            send(producer, codec, Message.create("oops", "bob", MessageType.ERROR));
+            producer.send(new ProducerRecord<>("messages", "deleted-id", null)); // tombstone
+            producer.flush();
+
+            // Then
+            Map<String, Long> expectedUrgent = Map.of("alice", 2L, "bob", 1L);
+            Map<String, Long> expectedHourly = Map.of("alice", 3L, "bob", 1L);
+            long deadline = System.currentTimeMillis() + Duration.ofSeconds(60).toMillis();
+            Map<String, Long> urgent = Map.of();
+            Map<String, Long> hourly = Map.of();
+            while (System.currentTimeMillis() < deadline
+                    && !(urgent.equals(expectedUrgent) && hourly.equals(expectedHourly))) {
+                Thread.sleep(500);
+                if (streams.state() == KafkaStreams.State.RUNNING) {
+                    urgent = sumAll(streams, MessageAnalyticsTopology.URGENT_BY_SENDER_STORE);
+                    hourly = sumAll(streams, MessageAnalyticsTopology.MESSAGES_BY_SENDER_STORE);
+                }
+            }
+            assertEquals(expectedUrgent, urgent);
+            assertEquals(expectedHourly, hourly);
+        }
+    }
+
+    private static void send(KafkaProducer<String, byte[]> producer, MessageEventCodec codec, Message message) {
+        producer.send(new ProducerRecord<>("messages", message.getId(), codec.encode(message)));
+    }
+
+    private static Map<String, Long> sumAll(KafkaStreams streams, String storeName) {
+        ReadOnlyWindowStore<String, Long> store = streams.store(
+                StoreQueryParameters.fromNameAndType(storeName, QueryableStoreTypes.windowStore()));
+        Map<String, Long> counts = new HashMap<>();
+        Instant now = Instant.now();
+        try (KeyValueIterator<Windowed<String>, Long> iterator =
+                     store.fetchAll(now.minus(Duration.ofHours(2)), now)) {
+            iterator.forEachRemaining(entry -> counts.merge(entry.key.key(), entry.value, Long::sum));
+        }
+        return counts;
+    }
+}
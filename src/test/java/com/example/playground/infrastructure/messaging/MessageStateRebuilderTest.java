@@ -0,0 +1,102 @@
+package com.example.playground.infrastructure.messaging;
+
+import com.example.playground.domain.model.Message;
+import com.example.playground.domain.model.MessageType;
+import com.example.playground.infrastructure.repository.InMemoryMessageRepository;
+import com.example.playground.infrastructure.repository.SegmentMessageStore;
+import com.example.playground.infrastructure.serde.FileSchemaRegistry;
+import com.example.playground.infrastructure.serde.MessageEventCodec;
+import com.example.playground.infrastructure.serde.MessageJsonCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MessageStateRebuilderのテスト（組み込みKafkaブローカーを使用）
+ */
+@EmbeddedKafka(partitions = 3, topics = {"messages", "messages.urgent"})
+class MessageStateRebuilderTest {
+
+    @TempDir
+    Path schemaDir;
+
+    @TempDir
+    Path coldDir;
+
+    @Test
+    void testRebuildsStateIncludingDeletes(EmbeddedKafkaBroker broker) throws Exception {
+        // Given
+        MessageEventCodec codec = new MessageEventCodec(new FileSchemaRegistry(schemaDir),
+                new MessageJsonCodec(new ObjectMapper()), "messages");
+        Message kept = Message.create("kept", "alice", MessageType.INFO);
+        Message deleted = Message.create("deleted later", "bob", MessageType.ERROR);
+        Message another = Message.create("another", "alice", MessageType.SUCCESS);
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        // クリーンアップで消えた（保持期間より古い）
+        Message expired = new Message("01JABCDEFGHJKMNPQRSTVWXYZ0", "expired", "carol", now.minusDays(3),
+                MessageType.INFO);
+        // コールド層に移行済み
+        Message migrated = new Message("01JABCDEFGHJKMNPQRSTVWXYZ1", "migrated", "carol", now.minusHours(2),
+                MessageType.INFO);
+        SegmentMessageStore cold = new SegmentMessageStore(coldDir);
+        cold.append(List.of(migrated));
+
+        try (KafkaProducer<String, byte[]> producer = new KafkaProducer<>(
+                KafkaTestUtils.producerProps(broker), new StringSerializer(), new ByteArraySerializer())) {
+            producer.send(new ProducerRecord<>("messages", kept.getId(), codec.encode(kept)));
+            producer.send(new ProducerRecord<>("messages.urgent", deleted.getId(), codec.encode(deleted)));
+            producer.send(new ProducerRecord<>("messages", another.getId(), codec.encode(another)));
+            producer.send(new ProducerRecord<>("messages.urgent", deleted.getId(), null)); // tombstone
+            producer.send(new ProducerRecord<>("messages", "broken", new byte[] {9, 9, 9}));
+            producer.send(new ProducerRecord<>("messages", expired.getId(), codec.encode(expired)));
+            producer.send(new ProducerRecord<>("messages", migrated.getId(), codec.encode(migrated)));
+            producer.flush();
+        }
+
+        // 再構築前の状態には削除されたメッセージが残っている
+        InMemoryMessageRepository repository = new InMemoryMessageRepository(1000, null);
+        repository.save(deleted);
+
+        MessageStateRebuilder rebuilder = new MessageStateRebuilder(repository, codec,
+                new KafkaListenerEndpointRegistry(), broker.getBrokersAsString(), "messages", "messages.urgent",
+                3, 100, 1024 * 1024, Duration.ofMillis(200), Duration.ofDays(1), Optional.of(cold),
+                Duration.ofHours(1));
+
+        // When
+        rebuilder.rebuild();
+
+        // Then
+        Set<String> ids = repository.findAll().stream().map(Message::getId).collect(Collectors.toSet());
+        assertEquals(Set.of(kept.getId(), another.getId()), ids);
+
+        Map<String, Object> progress = rebuilder.getProgress();
+        assertEquals(MessageStateRebuilder.State.COMPLETED, rebuilder.getState());
+        assertEquals(7L, progress.get("records"));
+        assertEquals(7L, progress.get("read"));
+        assertEquals(1L, progress.get("skipped"));
+        assertEquals(1L, progress.get("expired"));
+        assertEquals(1L, progress.get("inColdTier"));
+        assertEquals(6, progress.get("partitionsDone"));
+        assertEquals(100L, progress.get("percent"));
+    }
+}
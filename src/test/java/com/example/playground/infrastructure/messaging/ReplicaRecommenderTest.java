@@ -0,0 +1,58 @@
+package com.example.playground.infrastructure.messaging;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ReplicaRecommenderのテスト
+ */
+class ReplicaRecommenderTest {
+
+    private static final long MINUTE = Duration.ofMinutes(1).toMillis();
+
+    private final ReplicaRecommender recommender =
+            new ReplicaRecommender(100, Duration.ofMinutes(1), 1, 10, Duration.ofMinutes(5));
+
+    @Test
+    void testCoversArrivalRateAndDrainsLag() {
+        // Given: 250件/秒の流入と、1分で解消する6000件のラグ（100件/秒）
+
+        // When
+        ReplicaRecommender.Recommendation recommendation = recommender.recommend(250, 6000, 12, 0);
+
+        // Then: (250 + 100) / 100 を切り上げ
+        assertEquals(4, recommendation.replicas());
+        assertEquals(4, recommendation.required());
+        assertFalse(recommendation.partitionLimited());
+    }
+
+    @Test
+    void testScalesUpImmediatelyAndDownAfterStabilization() {
+        // Given
+        recommender.recommend(50, 0, 12, 0);
+
+        // When / Then: 増やす方向はすぐに反映する
+        assertEquals(5, recommender.recommend(500, 0, 12, MINUTE).replicas());
+
+        // When / Then: 減らす方向は安定化期間（5分）の間は最大値を維持する
+        assertEquals(5, recommender.recommend(50, 0, 12, 3 * MINUTE).replicas());
+        assertEquals(5, recommender.recommend(50, 0, 12, 6 * MINUTE).replicas());
+        assertEquals(1, recommender.recommend(50, 0, 12, 6 * MINUTE + 1).replicas());
+    }
+
+    @Test
+    void testCapsAtPartitionCount() {
+        // Given: パーティションは3つ
+
+        // When
+        ReplicaRecommender.Recommendation recommendation = recommender.recommend(800, 0, 3, 0);
+
+        // Then: 4つ目以降のインスタンスには割り当てがない
+        assertEquals(3, recommendation.replicas());
+        assertEquals(8, recommendation.required());
+        assertTrue(recommendation.partitionLimited());
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.playground.infrastructure.messaging;
+
+import com.example.playground.domain.model.TimeOrderedIdGenerator;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.errors.InvalidPartitionsException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * StableKeyPartitioner・PartitionEpochsのテスト
+ */
+class StableKeyPartitionerTest {
+
+    private static final String TOPIC = "messages";
+    private static final Instant SWITCH = Instant.parse("2026-11-01T00:00:00Z");
+
+    @Test
+    void testKeysCreatedBeforeSwitchKeepTheirPartitionAfterExpansion() {
+        // Given: 3 → 6 パーティション。切り替え前に作られたID
+        StableKeyPartitioner partitioner = partitioner("3,6@" + SWITCH);
+        List<String> oldIds = ids(SWITCH.minusSeconds(60), 200);
+
+        for (String id : oldIds) {
+            // When: 追加前（3パーティション）と追加後（6パーティション）に送る
+            int before = partition(partitioner, id, cluster(3));
+            int after = partition(partitioner, id, cluster(6));
+
+            // Then: 既定のパーティショナーの3パーティションでの割り当てと同じまま
+            assertEquals(before, after);
+            assertEquals(StableKeyPartitioner.partitionOf(bytes(id), 3), after);
+        }
+    }
+
+    @Test
+    void testKeysCreatedAfterSwitchSpreadOverAllPartitions() {
+        // Given
+        StableKeyPartitioner partitioner = partitioner("3,6@" + SWITCH);
+
+        // When
+        Set<Integer> used = new HashSet<>();
+        for (String id : ids(SWITCH.plusSeconds(1), 200)) {
+            used.add(partition(partitioner, id, cluster(6)));
+        }
+
+        // Then
+        assertEquals(Set.of(0, 1, 2, 3, 4, 5), used);
+    }
+
+    @Test
+    void testFailsInsteadOfUsingAnotherPartitionWhenPartitionsAreMissing() {
+        // Given: 切り替え後のIDだが、トピックはまだ3パーティション
+        StableKeyPartitioner partitioner = partitioner("3,6@" + SWITCH);
+        String id = ids(SWITCH.plusSeconds(1), 1).get(0);
+
+        // When / Then
+        assertThrows(InvalidPartitionsException.class, () -> partition(partitioner, id, cluster(3)));
+    }
+
+    @Test
+    void testTopicsWithoutEpochsUseTheDefaultAssignment() {
+        // Given
+        StableKeyPartitioner partitioner = partitioner("3,6@" + SWITCH);
+        String key = "not-a-message-id";
+
+        // When
+        int partition = partitioner.partition("other", key, bytes(key), null, null, cluster("other", 4));
+
+        // Then
+        assertEquals(StableKeyPartitioner.partitionOf(bytes(key), 4), partition);
+    }
+
+    @Test
+    void testLegacyUuidV4KeysUseTheInitialCount() {
+        // Given: UUIDv7に切り替える前のUUIDv4のキー（時刻を持たない）
+        StableKeyPartitioner partitioner = partitioner("3,6@" + SWITCH, new TimeOrderedIdGenerator(
+                TimeOrderedIdGenerator.Format.UUID_V7, Clock.fixed(SWITCH.plusSeconds(1), ZoneOffset.UTC)));
+        List<String> keys = IntStream.range(0, 100).mapToObj(i -> UUID.randomUUID().toString()).toList();
+
+        // When / Then: 最初のパーティション数で割り当て、パーティションが足りなくても失敗しない
+        for (String key : keys) {
+            assertEquals(StableKeyPartitioner.partitionOf(bytes(key), 3), partition(partitioner, key, cluster(6)));
+            assertEquals(StableKeyPartitioner.partitionOf(bytes(key), 3), partition(partitioner, key, cluster(3)));
+        }
+    }
+
+    @Test
+    void testRejectsEpochsThatDoNotIncrease() {
+        // Given / When / Then
+        assertNull(PartitionEpochs.parse(" "));
+        assertEquals(6, PartitionEpochs.parse("3,6@" + SWITCH).latestCount());
+        assertThrows(IllegalArgumentException.class, () -> PartitionEpochs.parse("3,2@" + SWITCH));
+        assertThrows(IllegalArgumentException.class,
+                () -> PartitionEpochs.parse("3,6@" + SWITCH + ",12@" + SWITCH.minusSeconds(1)));
+        assertThrows(IllegalArgumentException.class, () -> PartitionEpochs.parse("3,6"));
+    }
+
+    private static StableKeyPartitioner partitioner(String spec) {
+        return partitioner(spec, TimeOrderedIdGenerator.ulid());
+    }
+
+    private static StableKeyPartitioner partitioner(String spec, TimeOrderedIdGenerator idGenerator) {
+        StableKeyPartitioner partitioner = new StableKeyPartitioner();
+        partitioner.configure(Map.of(
+                StableKeyPartitioner.EPOCHS_CONFIG, Map.of(TOPIC, PartitionEpochs.parse(spec)),
+                StableKeyPartitioner.ID_GENERATOR_CONFIG, idGenerator));
+        return partitioner;
+    }
+
+    private static List<String> ids(Instant time, int count) {
+        TimeOrderedIdGenerator generator =
+                new TimeOrderedIdGenerator(TimeOrderedIdGenerator.Format.ULID, Clock.fixed(time, ZoneOffset.UTC));
+        return IntStream.range(0, count).mapToObj(i -> generator.nextId()).toList();
+    }
+
+    private static int partition(StableKeyPartitioner partitioner, String id, Cluster cluster) {
+        return partitioner.partition(TOPIC, id, bytes(id), null, null, cluster);
+    }
+
+    private static Cluster cluster(int partitions) {
+        return cluster(TOPIC, partitions);
+    }
+
+    private static Cluster cluster(String topic, int partitions) {
+        Node node = new Node(0, "localhost", 9092);
+        List<PartitionInfo> infos = new ArrayList<>();
+        for (int i = 0; i < partitions; i++) {
+            infos.add(new PartitionInfo(topic, i, node, new Node[]{node}, new Node[]{node}));
+        }
+        return new Cluster("test", List.of(node), infos, Set.of(), Set.of());
+    }
+
+    private static byte[] bytes(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.playground.infrastructure.repository;
+
+import com.example.playground.application.service.DependencyUnavailableException;
+import com.example.playground.domain.model.Message;
+import com.example.playground.domain.model.MessageType;
+import com.example.playground.domain.repository.MessageRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * FailoverMessageRepositoryの縮退中の書き込みのテスト
+ */
+class FailoverMessageRepositoryTest {
+
+    private MessageRepository primary;
+    private RedisTemplate<String, String> redisTemplate;
+    private FailoverMessageRepository repository;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        primary = mock(MessageRepository.class);
+        redisTemplate = mock(RedisTemplate.class);
+        repository = new FailoverMessageRepository(primary, new InMemoryMessageRepository(100, null),
+                redisTemplate, 1, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRejectsWriteWhenPendingQueueIsFullAndReplaysQueuedOnes() {
+        // Given: Redis障害中で、キューには1件しか溜められない
+        when(primary.save(any())).thenThrow(new DataAccessResourceFailureException("redis down"));
+        Message queued = message("01JABCDEFGHJKMNPQRSTVWXYZ0");
+        repository.save(queued);
+        assertTrue(repository.isDegraded());
+
+        // When / Then: 捨てずに呼び出し元へ失敗を返す（HTTPは503、Kafkaは再試行）
+        DependencyUnavailableException e = assertThrows(DependencyUnavailableException.class,
+                () -> repository.save(message("01JABCDEFGHJKMNPQRSTVWXYZ1")));
+        assertTrue(e.isSaturated());
+
+        // When: Redisが復旧する
+        reset(primary);
+        when(redisTemplate.execute(any(RedisCallback.class))).thenReturn("PONG");
+        repository.checkHealth();
+
+        // Then: キューに入った分だけが反映される
+        assertFalse(repository.isDegraded());
+        verify(primary).save(queued);
+        verify(primary, times(1)).save(any());
+    }
+
+    private static Message message(String id) {
+        return new Message(id, "hello", "alice", LocalDateTime.of(2025, 1, 1, 10, 0), MessageType.INFO);
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.playground.infrastructure.repository;
+
+import com.example.playground.domain.model.Message;
+import com.example.playground.domain.model.MessageType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * InMemoryMessageRepositoryのテスト
+ */
+class InMemoryMessageRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testSaveFindAndDelete() {
+        // Given
+        InMemoryMessageRepository repository = new InMemoryMessageRepository(100, null);
+        Message info = Message.create("Deploy finished", "alice", MessageType.INFO);
+        Message error = Message.create("Database is down", "alice", MessageType.ERROR);
+        Message other = Message.create("Deploy started", "bob", MessageType.INFO);
+
+        // When
+        repository.save(info);
+        repository.save(error);
+        repository.save(other);
+        repository.deleteById(other.getId());
+
+        // Then
+        assertEquals(info, repository.findById(info.getId()).orElseThrow());
+        assertTrue(repository.findById(other.getId()).isEmpty());
+        assertEquals(2, repository.findBySender("alice").size());
+        assertTrue(repository.findBySender("bob").isEmpty());
+        assertEquals(List.of(error), repository.findByType(MessageType.ERROR));
+        assertEquals(2, repository.findAll().size());
+    }
+
+    @Test
+    void testDeleteAllBySenderIds() {
+        // Given
+        InMemoryMessageRepository repository = new InMemoryMessageRepository(100, null);
+        Message first = repository.save(Message.create("Deploy finished", "alice", MessageType.INFO));
+        Message second = repository.save(Message.create("Database is down", "alice", MessageType.ERROR));
+        Message other = repository.save(Message.create("Deploy started", "bob", MessageType.INFO));
+
+        // When
+        List<String> ids = new ArrayList<>(repository.findIdsBySender("alice"));
+        ids.add("unknown");
+        int deleted = repository.deleteAllById(ids);
+
+        // Then
+        assertEquals(2, deleted);
+        assertTrue(repository.findById(first.getId()).isEmpty());
+        assertTrue(repository.findById(second.getId()).isEmpty());
+        assertTrue(repository.findIdsBySender("alice").isEmpty());
+        assertTrue(repository.search("database", 0, 10).isEmpty());
+        assertEquals(List.of(other), repository.findAll());
+    }
+
+    @Test
+    void testListVersionChangesOnEveryWrite() {
+        // Given
+        InMemoryMessageRepository repository = new InMemoryMessageRepository(100, null);
+        String initial = repository.getListVersion(null).orElseThrow();
+
+        // When
+        Message message = repository.save(Message.create("Deploy finished", "alice", MessageType.INFO));
+        String afterSave = repository.getListVersion("alice").orElseThrow();
+        repository.deleteById(message.getId());
+        String afterDelete = repository.getListVersion(null).orElseThrow();
+
+        // Then
+        assertNotEquals(initial, afterSave);
+        assertNotEquals(afterSave, afterDelete);
+        assertEquals(afterDelete, repository.getListVersion(null).orElseThrow());
+        assertNotEquals(afterDelete, new InMemoryMessageRepository(100, null).getListVersion(null).orElseThrow());
+    }
+
+    @Test
+    void testSearchMatchesAllTermsAndPrefixes() {
+        // Given
+        InMemoryMessageRepository repository = new InMemoryMessageRepository(100, null);
+        LocalDateTime now = LocalDateTime.now();
+        Message older = new Message("1", "payment service timeout", "alice", now.minusMinutes(1), MessageType.ERROR);
+        Message newer = new Message("2", "payment gateway timeout", "bob", now, MessageType.ERROR);
+        Message unrelated = new Message("3", "payment succeeded", "carol", now, MessageType.INFO);
+        repository.save(older);
+        repository.save(newer);
+        repository.save(unrelated);
+
+        // When
+        List<Message> results = repository.search("payment time*", 0, 10);
+
+        // Then
+        assertEquals(List.of(newer, older), results);
+        assertEquals(List.of(older), repository.search("payment time*", 1, 10));
+        assertTrue(repository.search("missing", 0, 10).isEmpty());
+    }
+
+    @Test
+    void testEvictionSpillsToSegmentStore() {
+        // Given
+        SegmentMessageStore store = new SegmentMessageStore(directory);
+        InMemoryMessageRepository repository = new InMemoryMessageRepository(100, store);
+        List<Message> messages = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            messages.add(Message.create("content " + i, "sender-" + (i % 3), MessageType.INFO));
+        }
+
+        // When
+        messages.forEach(repository::save);
+
+        // Then
+        assertTrue(repository.size() <= 100);
+        assertTrue(store.getSegmentCount() > 0);
+        for (Message expected : messages) {
+            assertEquals(expected.getContent(), repository.findById(expected.getId()).orElseThrow().getContent());
+        }
+        assertEquals(50, repository.findBySender("sender-0").size());
+    }
+
+    @Test
+    void testDeleteOlderThanRemovesOldestFirst() {
+        // Given
+        InMemoryMessageRepository repository = new InMemoryMessageRepository(100, null);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 10; i++) {
+            repository.save(new Message("id-" + i, "content " + i, "alice", now.minusMinutes(10 - i), MessageType.INFO));
+        }
+
+        // When
+        int firstBatch = repository.deleteOlderThan(now.minusMinutes(5), 3);
+        int secondBatch = repository.deleteOlderThan(now.minusMinutes(5), 3);
+
+        // Then
+        assertEquals(3, firstBatch);
+        assertEquals(2, secondBatch);
+        assertTrue(repository.findById("id-0").isEmpty());
+        assertTrue(repository.findById("id-5").isPresent());
+        assertEquals(5, repository.size());
+    }
+}
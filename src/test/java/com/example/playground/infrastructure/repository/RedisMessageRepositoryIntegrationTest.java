@@ -0,0 +1,177 @@
+package com.example.playground.infrastructure.repository;
+
+import com.example.playground.domain.model.Message;
+import com.example.playground.domain.model.MessageStats;
+import com.example.playground.domain.model.MessageType;
+import com.example.playground.infrastructure.config.RedisConfig;
+import com.example.playground.infrastructure.serde.MessageJsonCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 実際のRedis（Testcontainers）に対するRedisMessageRepositoryのテスト
+ * パイプライン・トランザクション内のスクリプト実行や集計の冪等性など、モックでは確かめられない部分を扱う
+ * （Dockerがない環境ではスキップされる）
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class RedisMessageRepositoryIntegrationTest {
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    private LettuceConnectionFactory connectionFactory;
+    private RedisTemplate<String, String> redisTemplate;
+    private RedisMessageStatsRepository statsRepository;
+    private RedisMessageRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(REDIS.getHost(), REDIS.getMappedPort(6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        RedisConfig config = new RedisConfig();
+        redisTemplate = config.redisTemplate(connectionFactory);
+        redisTemplate.execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+        statsRepository = new RedisMessageStatsRepository(redisTemplate, Duration.ofDays(2), 1440);
+        repository = new RedisMessageRepository(redisTemplate, config.binaryRedisTemplate(connectionFactory),
+                new MessageJsonCodec(new ObjectMapper()), statsRepository, 100, 4, true, 128, 8192, 200);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.shutdown();
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void testRedeliveredAndRebuiltMessagesAreCountedOnce() {
+        // Given
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MINUTES);
+        Message alert = new Message("01JABCDEFGHJKMNPQRSTVWXYZ0", "disk full", "alice", now, MessageType.ERROR);
+        Message info = new Message("01JABCDEFGHJKMNPQRSTVWXYZ1", "hello", "bob", now, MessageType.INFO);
+
+        // When
+        repository.save(alert);
+        repository.save(alert); // Kafkaの再配信
+        repository.saveAll(List.of(alert, info)); // 状態の再構築
+
+        // Then
+        MessageStats stats = statsRepository.getStats(now, now, 10);
+        assertEquals(2, stats.getTotal());
+        assertEquals(1, stats.getPerMinute().get(0).getUrgent());
+        assertEquals(1L, stats.getCountsByType().get(MessageType.ERROR));
+        assertEquals(1L, stats.getTopSenders().get("alice"));
+        assertEquals(2, stats.getDistinctSenders());
+        assertEquals(List.of(alert.getId()), repository.findBySender("alice").stream().map(Message::getId).toList());
+    }
+
+    @Test
+    void testRebuildDoesNotRecreateExpiredBuckets() {
+        // Given
+        LocalDateTime old = LocalDateTime.now(ZoneOffset.UTC).minusDays(3).truncatedTo(ChronoUnit.MINUTES);
+        Message message = new Message("01JABCDEFGHJKMNPQRSTVWXYZ2", "old", "carol", old, MessageType.INFO);
+
+        // When
+        repository.saveAll(List.of(message));
+
+        // Then
+        assertFalse(Boolean.TRUE.equals(redisTemplate.hasKey("stats:minute:" + old.toEpochSecond(ZoneOffset.UTC) / 60)));
+        assertTrue(repository.findIdsBySender("carol").contains(message.getId()));
+    }
+
+    @Test
+    void testOffloadedContentIsStoredWithoutCachedScripts() {
+        // Given: 起動直後・再起動後のRedis（スクリプトのキャッシュが空）
+        redisTemplate.execute(connection -> {
+            connection.scriptingCommands().scriptFlush();
+            return null;
+        }, true);
+        Message message = new Message("01JABCDEFGHJKMNPQRSTVWXYZ3", longContent("report"), "dave",
+                LocalDateTime.now(ZoneOffset.UTC), MessageType.INFO);
+
+        // When
+        repository.save(message);
+
+        // Then
+        assertEquals(message.getContent(), repository.findById(message.getId()).orElseThrow().getContent());
+        assertEquals(1, contentBodies().size());
+    }
+
+    @Test
+    void testDeleteReleasesSharedContentAfterLastReference() {
+        // Given: 同じ本文の2件
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        String content = longContent("alert");
+        Message first = new Message("01JABCDEFGHJKMNPQRSTVWXYZ4", content, "erin", now, MessageType.ERROR);
+        Message second = new Message("01JABCDEFGHJKMNPQRSTVWXYZ5", content, "erin", now, MessageType.ERROR);
+        repository.saveAll(List.of(first, second));
+        assertEquals(1, contentBodies().size());
+
+        // When
+        repository.deleteById(first.getId());
+
+        // Then: もう1件が参照している
+        assertEquals(content, repository.findById(second.getId()).orElseThrow().getContent());
+        assertEquals(1, contentBodies().size());
+
+        // When
+        repository.deleteAllById(List.of(second.getId()));
+
+        // Then
+        assertTrue(contentKeys().isEmpty(), "content keys=" + contentKeys());
+    }
+
+    @Test
+    void testEvictionToColdTierReleasesContent() {
+        // Given
+        Message message = new Message("01JABCDEFGHJKMNPQRSTVWXYZ6", longContent("archive"), "frank",
+                LocalDateTime.now(ZoneOffset.UTC).minusHours(2), MessageType.INFO);
+        repository.save(message);
+
+        // When
+        repository.evictToColdTier(repository.findOlderThan(LocalDateTime.now(ZoneOffset.UTC).minusHours(1), 10));
+
+        // Then
+        assertTrue(repository.findById(message.getId()).isEmpty());
+        assertTrue(contentKeys().isEmpty(), "content keys=" + contentKeys());
+    }
+
+    /**
+     * 本文ストアのキー（content:{hash} と content:{hash}:refs）
+     */
+    private Set<String> contentKeys() {
+        return redisTemplate.keys("content:*");
+    }
+
+    /**
+     * 本文のキー（content:{hash}）
+     */
+    private List<String> contentBodies() {
+        return contentKeys().stream().filter(key -> !key.endsWith(":refs")).toList();
+    }
+
+    private static String longContent(String word) {
+        return (word + " ").repeat(64);
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.playground.infrastructure.repository;
+
+import com.example.playground.domain.model.Message;
+import com.example.playground.domain.model.MessageType;
+import com.example.playground.infrastructure.serde.MessageJsonCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * RedisMessageRepositoryのID一括取得（チャンク分割したMGET）と本文ストアの読み込みのテスト
+ */
+class RedisMessageRepositoryTest {
+
+    private static final int CHUNK_SIZE = 10;
+
+    private final MessageJsonCodec codec = new MessageJsonCodec(new ObjectMapper());
+    private final Map<String, byte[]> store = new ConcurrentHashMap<>();
+    private final Set<String> mgetThreads = ConcurrentHashMap.newKeySet();
+    private final List<Integer> mgetSizes = new ArrayList<>();
+    private final Map<String, String> contents = new ConcurrentHashMap<>();
+    private final List<Integer> contentMgetSizes = new ArrayList<>();
+    private RedisTemplate<String, String> redisTemplate;
+    private ValueOperations<String, byte[]> valueOperations;
+    private RedisMessageRepository repository;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        RedisTemplate<String, byte[]> binaryRedisTemplate = mock(RedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        when(binaryRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> keys = invocation.getArgument(0);
+            synchronized (mgetSizes) {
+                mgetSizes.add(keys.size());
+            }
+            mgetThreads.add(Thread.currentThread().getName());
+            List<byte[]> values = new ArrayList<>();
+            keys.forEach(key -> values.add(store.get(key)));
+            return values;
+        });
+        redisTemplate = mock(RedisTemplate.class);
+        ValueOperations<String, String> stringValueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(stringValueOperations);
+        when(stringValueOperations.multiGet(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> keys = invocation.getArgument(0);
+            contentMgetSizes.add(keys.size());
+            return keys.stream().map(contents::get).toList();
+        });
+        repository = new RedisMessageRepository(redisTemplate, binaryRedisTemplate, codec,
+                mock(RedisMessageStatsRepository.class), CHUNK_SIZE, 4, true, 128, 1000, 20);
+        contentMgetSizes.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.shutdown();
+    }
+
+    @Test
+    void testFindAllByIdKeepsInputOrderAndSkipsMisses() {
+        // Given
+        Message first = store(Message.create("first", "alice", MessageType.INFO));
+        Message second = store(Message.create("second", "bob", MessageType.ERROR));
+
+        // When
+        Map<String, Message> found = repository.findAllById(List.of(second.getId(), "missing", first.getId(),
+                second.getId()));
+
+        // Then: 小さい入力は呼び出し元のスレッドで1回のMGETにまとめる
+        assertEquals(List.of(second.getId(), first.getId()), new ArrayList<>(found.keySet()));
+        assertEquals("second", found.get(second.getId()).getContent());
+        assertEquals(List.of(3), mgetSizes);
+        assertEquals(Set.of(Thread.currentThread().getName()), mgetThreads);
+    }
+
+    @Test
+    void testFindAllByIdSplitsLargeInputIntoParallelChunks() {
+        // Given
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 35; i++) {
+            Message message = Message.create("message " + i, "sender-" + (i % 3), MessageType.INFO);
+            if (i % 5 != 0) {
+                store(message);
+            }
+            ids.add(message.getId());
+        }
+
+        // When
+        Map<String, Message> found = repository.findAllById(ids);
+
+        // Then: チャンクサイズ以下のMGETに分かれ、ルックアップ用のスレッドで実行される
+        assertEquals(List.of(10, 10, 10, 5), mgetSizes.stream().sorted((a, b) -> b - a).toList());
+        assertTrue(mgetThreads.stream().allMatch(name -> name.equals("redis-lookup")));
+        assertEquals(28, found.size());
+        List<String> expectedOrder = ids.stream().filter(id -> store.containsKey("message:" + id)).toList();
+        assertEquals(expectedOrder, new ArrayList<>(found.keySet()));
+    }
+
+    @Test
+    void testFindAllByIdPropagatesRedisFailures() {
+        // Given
+        when(valueOperations.multiGet(anyCollection())).thenThrow(new QueryTimeoutException("timeout"));
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            ids.add("id-" + i);
+        }
+
+        // Then: 並列実行時もCompletionExceptionで包まずに元の例外を投げる
+        assertThrows(QueryTimeoutException.class, () -> repository.findAllById(ids));
+    }
+
+    @Test
+    void testResolvesSharedContentWithOneFetch() {
+        // Given: 同じ本文（繰り返しのアラート）を持つ3件と、本文をそのまま持つ1件
+        String alert = "disk usage above 95% on node-7, ".repeat(5);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(storeWithContentRef(Message.create(alert, "monitor", MessageType.ERROR)).getId());
+        }
+        ids.add(store(Message.create("short", "alice", MessageType.INFO)).getId());
+
+        // When
+        Map<String, Message> found = repository.findAllById(ids);
+
+        // Then: 本文は重複を除いて1回のMGETで取得する
+        assertEquals(4, found.size());
+        assertTrue(found.values().stream().limit(3).allMatch(message -> message.getContent().equals(alert)));
+        assertEquals(List.of(1), contentMgetSizes);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testListReturnsPreviewOfLargeContentWithoutFetchingIt() {
+        // Given
+        SetOperations<String, String> setOperations = mock(SetOperations.class);
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        Message large = storeWithContentRef(Message.create("y".repeat(5000), "bob", MessageType.INFO));
+        when(setOperations.members("messages")).thenReturn(Set.of(large.getId()));
+
+        // When
+        List<Message> listed = repository.findAll();
+        Optional<Message> single = repository.findById(large.getId());
+
+        // Then: 一覧は先頭部分だけ（本文は読まない）、IDでの取得は全体
+        assertEquals("y".repeat(20), listed.get(0).getContent());
+        assertTrue(listed.get(0).isContentTruncated());
+        assertEquals(5000, listed.get(0).getContentLength());
+        assertEquals(large.getContent(), single.orElseThrow().getContent());
+        assertEquals(List.of(1), contentMgetSizes);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testDeleteAllByIdRunsOneTransactionPerChunk() {
+        // Given
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            ids.add(store(Message.create("message " + i, "alice", MessageType.INFO)).getId());
+        }
+        ids.add("missing");
+
+        // When
+        int deleted = repository.deleteAllById(ids);
+
+        // Then: 500件ごとにMULTI/EXEC 1回（1件ずつ往復しない）
+        assertEquals(1200, deleted);
+        verify(redisTemplate, times(3)).execute(any(SessionCallback.class));
+    }
+
+    private Message store(Message message) {
+        store.put("message:" + message.getId(), codec.write(message));
+        return message;
+    }
+
+    /**
+     * 本文を本文ストアに分けて保存した状態を作る（1000文字以上は先頭20文字も保存する）
+     */
+    private Message storeWithContentRef(Message message) {
+        String ref = RedisContentStore.hash(message.getContent());
+        contents.put("content:" + ref, message.getContent());
+        String preview = message.getContent().length() >= 1000 ? message.getContent().substring(0, 20) : null;
+        store.put("message:" + message.getId(), codec.writeWithContentRef(message, ref, preview));
+        return message;
+    }
+}
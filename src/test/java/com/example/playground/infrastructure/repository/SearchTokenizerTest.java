@@ -0,0 +1,54 @@
+package com.example.playground.infrastructure.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SearchTokenizerのテスト
+ */
+class SearchTokenizerTest {
+
+    @Test
+    void testTokenize() {
+        // When
+        Set<String> terms = SearchTokenizer.tokenize("Kafka consumer-lag is HIGH, kafka again! a 42");
+
+        // Then
+        assertEquals(List.of("kafka", "consumer", "lag", "is", "high", "again", "42"), List.copyOf(terms));
+    }
+
+    @Test
+    void testTokenizeSkipsTooLongTerms() {
+        // Given
+        String longWord = "x".repeat(SearchTokenizer.MAX_TERM_LENGTH + 1);
+
+        // When & Then
+        assertEquals(Set.of("ok"), SearchTokenizer.tokenize("ok " + longWord));
+        assertTrue(SearchTokenizer.tokenize(null).isEmpty());
+    }
+
+    @Test
+    void testParseQuery() {
+        // When
+        List<SearchTokenizer.QueryTerm> terms = SearchTokenizer.parseQuery("  Kafka foo-ba* x* ");
+
+        // Then
+        assertEquals(List.of(
+                new SearchTokenizer.QueryTerm("kafka", false),
+                new SearchTokenizer.QueryTerm("foo", false),
+                new SearchTokenizer.QueryTerm("ba", true)
+        ), terms);
+    }
+
+    @Test
+    void testParseBlankQuery() {
+        // When & Then
+        assertTrue(SearchTokenizer.parseQuery("   ").isEmpty());
+        assertTrue(SearchTokenizer.parseQuery(null).isEmpty());
+        assertTrue(SearchTokenizer.parseQuery("* - !").isEmpty());
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.playground.infrastructure.repository;
+
+import com.example.playground.domain.model.Message;
+import com.example.playground.domain.model.MessageType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SegmentMessageStoreのテスト
+ */
+class SegmentMessageStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testAppendAndFindById() {
+        // Given
+        SegmentMessageStore store = new SegmentMessageStore(directory);
+        List<Message> messages = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            messages.add(Message.create("content 日本語 " + i, "sender-" + (i % 3), MessageType.values()[i % 4]));
+        }
+
+        // When
+        store.append(messages.subList(0, 50));
+        store.append(messages.subList(50, 100));
+
+        // Then
+        for (Message expected : messages) {
+            Message actual = store.findById(expected.getId()).orElseThrow();
+            assertEquals(expected.getContent(), actual.getContent());
+            assertEquals(expected.getSender(), actual.getSender());
+            assertEquals(expected.getTimestamp(), actual.getTimestamp());
+            assertEquals(expected.getType(), actual.getType());
+        }
+        assertTrue(store.findById("missing-id").isEmpty());
+        assertEquals(2, store.getSegmentCount());
+    }
+
+    @Test
+    void testReopenKeepsSegmentsAndTombstones() {
+        // Given
+        Message kept = Message.create("kept", "alice", MessageType.INFO);
+        Message deleted = Message.create("deleted", "alice", MessageType.ERROR);
+        SegmentMessageStore store = new SegmentMessageStore(directory);
+        store.append(List.of(kept, deleted));
+        store.delete(deleted.getId());
+
+        // When
+        SegmentMessageStore reopened = new SegmentMessageStore(directory);
+
+        // Then
+        assertTrue(reopened.findById(kept.getId()).isPresent());
+        assertTrue(reopened.findById(deleted.getId()).isEmpty());
+    }
+
+    @Test
+    void testDropSegmentsOlderThan() {
+        // Given
+        SegmentMessageStore store = new SegmentMessageStore(directory);
+        Message old = new Message("old", "c", "s", LocalDateTime.now().minusDays(2), MessageType.INFO);
+        Message recent = new Message("recent", "c", "s", LocalDateTime.now(), MessageType.INFO);
+        store.append(List.of(old));
+        store.append(List.of(recent));
+
+        // When
+        int dropped = store.dropSegmentsOlderThan(LocalDateTime.now().minusDays(1));
+
+        // Then
+        assertEquals(1, dropped);
+        assertTrue(store.findById("old").isEmpty());
+        assertTrue(store.findById("recent").isPresent());
+    }
+
+    @Test
+    void testInstancesSharingDirectorySeeEachOthersChanges() {
+        // Given: 同じディレクトリを使う2インスタンス（writerだけが移行する）
+        SegmentMessageStore writer = new SegmentMessageStore(directory, Duration.ZERO);
+        SegmentMessageStore reader = new SegmentMessageStore(directory, Duration.ZERO);
+        Message old = new Message("old", "c", "s", LocalDateTime.now().minusDays(2), MessageType.INFO);
+        Message recent = new Message("recent", "c", "s", LocalDateTime.now(), MessageType.INFO);
+
+        // When: 起動後に移行されたセグメント
+        writer.append(List.of(old));
+        writer.append(List.of(recent));
+
+        // Then
+        assertTrue(reader.findById("old").isPresent());
+        assertTrue(reader.findById("recent").isPresent());
+
+        // When: 他方のインスタンスでの削除とセグメントの破棄
+        reader.delete("recent");
+        writer.dropSegmentsOlderThan(LocalDateTime.now().minusDays(1));
+
+        // Then
+        assertTrue(writer.findById("recent").isEmpty());
+        assertTrue(reader.findById("old").isEmpty());
+        assertEquals(1, reader.getSegmentCount());
+    }
+
+    @Test
+    void testMessageMigratedAgainAfterDeleteIsVisible() {
+        // Given
+        SegmentMessageStore writer = new SegmentMessageStore(directory, Duration.ZERO);
+        SegmentMessageStore reader = new SegmentMessageStore(directory, Duration.ZERO);
+        Message message = Message.create("content", "alice", MessageType.INFO);
+        writer.append(List.of(message));
+        reader.delete(message.getId());
+
+        // When: 削除後に同じIDが再度移行された
+        writer.append(List.of(message));
+
+        // Then
+        assertTrue(reader.findById(message.getId()).isPresent());
+        assertTrue(new SegmentMessageStore(directory).findById(message.getId()).isPresent());
+    }
+}
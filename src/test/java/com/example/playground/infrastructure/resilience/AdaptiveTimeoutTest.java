@@ -0,0 +1,122 @@
+package com.example.playground.infrastructure.resilience;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AdaptiveTimeoutのテスト
+ */
+class AdaptiveTimeoutTest {
+
+    private static final Duration MIN = Duration.ofMillis(100);
+    private static final Duration MAX = Duration.ofSeconds(2);
+
+    @Test
+    void testUsesMaxUntilFirstSample() {
+        // Given
+        AdaptiveTimeout timeout = new AdaptiveTimeout(MIN, MAX);
+
+        // Then
+        assertEquals(MAX, timeout.current());
+    }
+
+    @Test
+    void testFollowsObservedLatencyWithinBounds() {
+        // Given
+        AdaptiveTimeout timeout = new AdaptiveTimeout(MIN, MAX);
+
+        // When: 安定して 50ms
+        for (int i = 0; i < 100; i++) {
+            timeout.record(Duration.ofMillis(50).toNanos());
+        }
+
+        // Then: 偏差が小さくなり下限に張り付く
+        assertEquals(MIN, timeout.current());
+
+        // When: 300ms前後にばらつく
+        for (int i = 0; i < 100; i++) {
+            timeout.record(Duration.ofMillis(i % 2 == 0 ? 200 : 400).toNanos());
+        }
+
+        // Then: 平均より長く、上限より短い
+        Duration current = timeout.current();
+        assertTrue(current.compareTo(Duration.ofMillis(300)) > 0, "timeout=" + current);
+        assertTrue(current.compareTo(MAX) < 0, "timeout=" + current);
+
+        // When: 非常に遅い
+        for (int i = 0; i < 100; i++) {
+            timeout.record(Duration.ofSeconds(10).toNanos());
+        }
+
+        // Then
+        assertEquals(MAX, timeout.current());
+    }
+
+    @Test
+    void testBacksOffOnTimeoutUntilNextSample() {
+        // Given: 下限に張り付いている
+        AdaptiveTimeout timeout = new AdaptiveTimeout(MIN, MAX);
+        for (int i = 0; i < 100; i++) {
+            timeout.record(Duration.ofMillis(10).toNanos());
+        }
+        assertEquals(MIN, timeout.current());
+
+        // When: 依存先が下限より遅くなり、タイムアウトが続く
+        timeout.backOff();
+        Duration first = timeout.current();
+        timeout.backOff();
+        Duration second = timeout.current();
+        for (int i = 0; i < 10; i++) {
+            timeout.backOff();
+        }
+
+        // Then: 2倍ずつ伸び、上限で止まる
+        assertEquals(MIN.multipliedBy(2), first);
+        assertEquals(MIN.multipliedBy(4), second);
+        assertEquals(MAX, timeout.current());
+
+        // When: 伸ばしたタイムアウトでサンプルが得られる
+        for (int i = 0; i < 100; i++) {
+            timeout.record(Duration.ofMillis(500).toNanos());
+        }
+
+        // Then: 観測したレイテンシに追従する
+        Duration current = timeout.current();
+        assertTrue(current.compareTo(Duration.ofMillis(500)) > 0, "timeout=" + current);
+        assertTrue(current.compareTo(MAX) < 0, "timeout=" + current);
+    }
+
+    @Test
+    void testMaxScopeAppliesOnlyToCallingThreadDuringCall() {
+        // Given
+        AdaptiveTimeout timeout = new AdaptiveTimeout(MIN, MAX);
+        AtomicBoolean otherThread = new AtomicBoolean(true);
+
+        // When
+        boolean inside = timeout.withMax(() -> {
+            Thread thread = Thread.ofVirtual().start(() -> otherThread.set(timeout.inMaxScope()));
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            // 入れ子にしても外側の範囲は終わらない
+            timeout.withMax(() -> null);
+            return timeout.inMaxScope();
+        });
+
+        // Then
+        assertTrue(inside);
+        assertFalse(otherThread.get());
+        assertFalse(timeout.inMaxScope());
+    }
+
+    @Test
+    void testRejectsInvertedBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveTimeout(MAX, MIN));
+    }
+}
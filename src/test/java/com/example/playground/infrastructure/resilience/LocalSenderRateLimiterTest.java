@@ -0,0 +1,83 @@
+package com.example.playground.infrastructure.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LocalSenderRateLimiterのテスト
+ */
+class LocalSenderRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private long now;
+
+    @Test
+    void testLimitsEachSenderIndependently() {
+        // Given: 10件/秒、バースト5件
+        LocalSenderRateLimiter limiter = new LocalSenderRateLimiter(10, 5, 100, 100, meterRegistry, () -> now);
+
+        // When
+        int accepted = 0;
+        for (int i = 0; i < 8; i++) {
+            if (limiter.tryAcquire("noisy").isZero()) {
+                accepted++;
+            }
+        }
+
+        // Then: バーストを超えた分は次のトークンまでの時間を返し、他の送信者には影響しない
+        assertEquals(5, accepted);
+        assertEquals(Duration.ofMillis(100), limiter.tryAcquire("noisy"));
+        assertTrue(limiter.tryAcquire("quiet").isZero());
+        assertEquals(4, meterRegistry.get("messages.ratelimit.rejected")
+                .tag("sender", "noisy").tag("source", "local").counter().count());
+
+        now += SECOND / 10;
+        assertTrue(limiter.tryAcquire("noisy").isZero());
+        assertFalse(limiter.tryAcquire("noisy").isZero());
+    }
+
+    @Test
+    void testRemoteRejectionRefundsTokenAndBlocksLocally() {
+        // Given
+        LocalSenderRateLimiter limiter = new LocalSenderRateLimiter(10, 5, 100, 100, meterRegistry, () -> now);
+        assertTrue(limiter.tryAcquire("alice").isZero());
+
+        // When: 全体の上限（Redis）で拒否された
+        limiter.rejectedRemotely("alice", Duration.ofMillis(300));
+
+        // Then: その間はローカルで拒否し、過ぎればローカルのトークンで通す
+        now += TimeUnit.MILLISECONDS.toNanos(100);
+        assertEquals(Duration.ofMillis(200), limiter.tryAcquire("alice"));
+        now += TimeUnit.MILLISECONDS.toNanos(200);
+        assertTrue(limiter.tryAcquire("alice").isZero());
+        assertEquals(1, meterRegistry.get("messages.ratelimit.rejected")
+                .tag("sender", "alice").tag("source", "redis").counter().count());
+    }
+
+    @Test
+    void testBoundsTrackedSendersAndMetricTags() {
+        // Given: バケットは3送信者分、メトリクスのタグは2送信者まで
+        LocalSenderRateLimiter limiter = new LocalSenderRateLimiter(1, 1, 3, 2, meterRegistry, () -> now);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("sender-" + i);
+            limiter.tryAcquire("sender-" + i);
+            now += 2 * SECOND;
+        }
+
+        // Then: 回復済みのバケットは捨てられ、3人目以降の拒否は "_other" にまとめられる
+        assertTrue(limiter.trackedSenders() <= 3);
+        assertEquals(3, meterRegistry.get("messages.ratelimit.rejected")
+                .tag("sender", LocalSenderRateLimiter.OTHER_SENDERS).counter().count());
+        assertEquals(1, meterRegistry.get("messages.ratelimit.rejected")
+                .tag("sender", "sender-0").counter().count());
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.playground.infrastructure.resilience;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * RedisSenderRateLimiterのローカルの事前チェックとフォールバックのテスト
+ */
+class RedisSenderRateLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RedisTemplate<String, String> redisTemplate;
+    private RedisSenderRateLimiter limiter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        LocalSenderRateLimiter local = new LocalSenderRateLimiter(1, 10, 100, 100, meterRegistry);
+        limiter = new RedisSenderRateLimiter(redisTemplate, local, CircuitBreaker.ofDefaults("redis"),
+                1, 10, meterRegistry);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRemoteRejectionSkipsRedisUntilRetryAfter() {
+        // Given: 他のノードの書き込みで全体の上限に達している
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any())).thenReturn(5_000_000L);
+
+        // When
+        Duration first = limiter.tryAcquire("noisy");
+        Duration second = limiter.tryAcquire("noisy");
+
+        // Then: 2回目以降はRedisに問い合わせずに拒否する
+        assertEquals(Duration.ofSeconds(5), first);
+        assertFalse(second.isZero());
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class), anyList(), any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFallsBackToLocalBucketWhenRedisFails() {
+        // Given
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(), any()))
+                .thenThrow(new QueryTimeoutException("timeout"));
+
+        // When
+        int accepted = 0;
+        for (int i = 0; i < 15; i++) {
+            if (limiter.tryAcquire("alice").isZero()) {
+                accepted++;
+            }
+        }
+
+        // Then: 書き込みは止めず、ローカルのバースト分（10件）までは通す
+        assertEquals(10, accepted);
+        assertEquals(10, meterRegistry.get("messages.ratelimit.fallback").counter().count());
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.playground.infrastructure.serde;
+
+import com.example.playground.infrastructure.serde.avro.MessageEvent;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * FileSchemaRegistryのテスト
+ */
+class FileSchemaRegistryTest {
+
+    private static final String SUBJECT = "messages-value";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRegistersNewVersionsAndReusesIdenticalSchemas() {
+        // Given
+        FileSchemaRegistry registry = new FileSchemaRegistry(directory);
+        Schema v1 = record(false);
+        Schema v2 = record(true);
+
+        // When
+        int first = registry.register(SUBJECT, v1);
+        int again = registry.register(SUBJECT, v1);
+        int second = registry.register(SUBJECT, v2);
+
+        // Then
+        assertEquals(1, first);
+        assertEquals(1, again);
+        assertEquals(2, second);
+        assertTrue(Files.exists(directory.resolve(SUBJECT).resolve("v2.avsc")));
+
+        // 別のインスタンス（別プロセス相当）からも同じバージョンで引ける
+        FileSchemaRegistry reopened = new FileSchemaRegistry(directory);
+        assertEquals(v2, reopened.getSchema(SUBJECT, 2).orElseThrow());
+        assertEquals(2, reopened.getLatestVersion(SUBJECT));
+    }
+
+    @Test
+    void testRejectsIncompatibleChanges() {
+        // Given
+        FileSchemaRegistry registry = new FileSchemaRegistry(directory);
+        registry.register(SUBJECT, record(false));
+
+        // When: デフォルト値のない必須フィールドを追加（古いデータを読めない）
+        Schema requiredField = SchemaBuilder.record("Event").fields()
+                .requiredString("id")
+                .requiredInt("priority")
+                .endRecord();
+        // When: フィールドの型を変更
+        Schema changedType = SchemaBuilder.record("Event").fields()
+                .requiredLong("id")
+                .endRecord();
+
+        // Then
+        assertThrows(SchemaCompatibilityException.class, () -> registry.register(SUBJECT, requiredField));
+        assertThrows(SchemaCompatibilityException.class, () -> registry.register(SUBJECT, changedType));
+        assertEquals(1, registry.getLatestVersion(SUBJECT));
+    }
+
+    @Test
+    void testPicksUpVersionsRegisteredByAnotherProcess() {
+        // Given
+        FileSchemaRegistry reader = new FileSchemaRegistry(directory);
+        reader.register(SUBJECT, record(false));
+
+        // When
+        new FileSchemaRegistry(directory).register(SUBJECT, record(true));
+
+        // Then
+        assertEquals(record(true), reader.getSchema(SUBJECT, 2).orElseThrow());
+        assertTrue(reader.getSchema(SUBJECT, 3).isEmpty());
+    }
+
+    @Test
+    void testGeneratedSchemaMatchesBundledHistory() throws Exception {
+        // Given: アプリに同梱したスキーマの履歴
+        int bundledVersions = 0;
+        for (int version = 1; ; version++) {
+            String resource = "/schemas/" + SUBJECT + "/v" + version + ".avsc";
+            try (InputStream in = getClass().getResourceAsStream(resource)) {
+                if (in == null) {
+                    break;
+                }
+                Files.createDirectories(directory.resolve(SUBJECT));
+                Files.copy(in, directory.resolve(SUBJECT).resolve("v" + version + ".avsc"));
+                bundledVersions = version;
+            }
+        }
+        FileSchemaRegistry registry = new FileSchemaRegistry(directory);
+
+        // When: 生成クラスのスキーマを登録する（互換性がなければ例外）
+        int version = registry.register(SUBJECT, MessageEvent.getClassSchema());
+
+        // Then: スキーマを変更したら src/main/resources/schemas に新しいバージョンを追加する
+        assertTrue(bundledVersions > 0);
+        assertEquals(bundledVersions, version,
+                "src/main/avro/MessageEvent.avsc differs from the bundled history; add it as v" + version + ".avsc");
+    }
+
+    private static Schema record(boolean withPriority) {
+        SchemaBuilder.FieldAssembler<Schema> fields = SchemaBuilder.record("Event").fields().requiredString("id");
+        if (withPriority) {
+            fields = fields.name("priority").type().intType().intDefault(0);
+        }
+        return fields.endRecord();
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.playground.infrastructure.serde;
+
+import com.example.playground.domain.model.Message;
+import com.example.playground.domain.model.MessageType;
+import com.example.playground.infrastructure.serde.avro.MessageEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MessageEventCodecのテスト
+ */
+class MessageEventCodecTest {
+
+    private static final LocalDateTime TIMESTAMP = LocalDateTime.of(2025, 1, 2, 3, 4, 5, 678_000);
+
+    @TempDir
+    Path directory;
+
+    private FileSchemaRegistry registry;
+    private MessageEventCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        registry = new FileSchemaRegistry(directory);
+        codec = new MessageEventCodec(registry, new MessageJsonCodec(new ObjectMapper().registerModule(new JavaTimeModule())),
+                "messages");
+    }
+
+    @Test
+    void testRoundTrip() throws Exception {
+        // Given
+        Message message = new Message("01JABCDEFGHJKMNPQRSTVWXYZ0", "こんにちは", "alice", TIMESTAMP, MessageType.ERROR);
+
+        // When
+        byte[] encoded = codec.encode(message);
+        Message decoded = codec.decode(encoded);
+
+        // Then
+        assertEquals(MessageEventCodec.MAGIC_BYTE, encoded[0]);
+        assertEquals(codec.getWriterVersion(), ByteBuffer.wrap(encoded, 1, 4).getInt());
+        assertEquals(message.getId(), decoded.getId());
+        assertEquals(message.getContent(), decoded.getContent());
+        assertEquals(message.getSender(), decoded.getSender());
+        assertEquals(message.getTimestamp(), decoded.getTimestamp());
+        assertEquals(message.getType(), decoded.getType());
+    }
+
+    @Test
+    void testIsSmallerThanJson() throws Exception {
+        // Given
+        Message message = new Message("01JABCDEFGHJKMNPQRSTVWXYZ0", "disk usage above 90%", "monitoring-agent",
+                TIMESTAMP, MessageType.WARNING);
+        byte[] json = ("{\"id\":\"" + message.getId() + "\",\"content\":\"" + message.getContent()
+                + "\",\"sender\":\"" + message.getSender() + "\",\"timestamp\":\"" + message.getTimestamp()
+                + "\",\"type\":\"" + message.getType() + "\"}").getBytes(StandardCharsets.UTF_8);
+
+        // When
+        byte[] encoded = codec.encode(message);
+
+        // Then: サイズは入力だけで決まる（エンコードのコストは gradle serializationBenchmark で計測する）
+        assertTrue(encoded.length < json.length * 0.7, "avro=" + encoded.length + ", json=" + json.length);
+    }
+
+    @Test
+    void testReadsLegacyJsonRecords() throws Exception {
+        // Given: 移行前にKafkaへ送られたJSON
+        byte[] json = ("{\"id\":\"legacy-1\",\"content\":\"old\",\"sender\":\"bob\","
+                + "\"timestamp\":\"2025-01-02T03:04:05.000678\",\"type\":\"INFO\"}").getBytes(StandardCharsets.UTF_8);
+
+        // When
+        Message decoded = codec.decode(json);
+
+        // Then
+        assertEquals("legacy-1", decoded.getId());
+        assertEquals(TIMESTAMP, decoded.getTimestamp());
+    }
+
+    @Test
+    void testReadsDataWrittenWithNewerCompatibleSchema() throws Exception {
+        // Given: 新しいプロデューサーがフィールドを追加したスキーマ（v2）で書いたデータ
+        Schema v2 = evolvedSchema();
+        int version = registry.register("messages-value", v2);
+        GenericRecord record = new GenericData.Record(v2);
+        record.put("id", "new-1");
+        record.put("content", "from the future");
+        record.put("sender", "carol");
+        record.put("timestamp", 1_735_786_800_000_000L);
+        record.put("type", new GenericData.EnumSymbol(v2.getField("type").schema(), "SUCCESS"));
+        record.put("priority", 5);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(MessageEventCodec.MAGIC_BYTE);
+        out.writeBytes(ByteBuffer.allocate(4).putInt(version).array());
+        BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+        new GenericDatumWriter<GenericRecord>(v2).write(record, encoder);
+        encoder.flush();
+
+        // When: 現在のスキーマ（v1）のコンシューマーが読む
+        Message decoded = codec.decode(out.toByteArray());
+
+        // Then: 追加されたフィールドは無視される
+        assertEquals(2, version);
+        assertEquals("new-1", decoded.getId());
+        assertEquals(MessageType.SUCCESS, decoded.getType());
+        assertEquals(LocalDateTime.of(2025, 1, 2, 3, 0), decoded.getTimestamp());
+    }
+
+    @Test
+    void testRejectsUnknownFormatAndVersion() {
+        // Given
+        byte[] unknownVersion = {MessageEventCodec.MAGIC_BYTE, 0, 0, 0, 42, 2, 'x'};
+        byte[] unknownFormat = {7, 1, 2};
+
+        // Then
+        assertThrows(IOException.class, () -> codec.decode(unknownVersion));
+        assertThrows(IOException.class, () -> codec.decode(unknownFormat));
+        assertThrows(IOException.class, () -> codec.decode(new byte[0]));
+    }
+
+    private static Schema evolvedSchema() {
+        Schema current = MessageEvent.getClassSchema();
+        SchemaBuilder.FieldAssembler<Schema> fields = SchemaBuilder.record(current.getName())
+                .namespace(current.getNamespace())
+                .fields();
+        for (Schema.Field field : current.getFields()) {
+            fields = fields.name(field.name()).type(field.schema()).noDefault();
+        }
+        return fields.name("priority").type().intType().intDefault(0).endRecord();
+    }
+}
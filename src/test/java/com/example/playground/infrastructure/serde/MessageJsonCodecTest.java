@@ -0,0 +1,164 @@
+package com.example.playground.infrastructure.serde;
+
+import com.example.playground.domain.model.Message;
+import com.example.playground.domain.model.MessageType;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MessageJsonCodecのテスト
+ */
+class MessageJsonCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final MessageJsonCodec codec = new MessageJsonCodec(objectMapper);
+
+    @Test
+    void testRoundTrip() throws Exception {
+        // Given
+        Message message = new Message("id-1", "こんにちは \"world\"", "alice",
+                LocalDateTime.of(2025, 1, 2, 3, 4, 5, 123456789), MessageType.WARNING);
+
+        // When
+        Message decoded = codec.read(codec.write(message));
+
+        // Then
+        assertEquals(message.getId(), decoded.getId());
+        assertEquals(message.getContent(), decoded.getContent());
+        assertEquals(message.getSender(), decoded.getSender());
+        assertEquals(message.getTimestamp(), decoded.getTimestamp());
+        assertEquals(message.getType(), decoded.getType());
+    }
+
+    @Test
+    void testContentRefRoundTrip() throws Exception {
+        // Given
+        Message message = new Message("id-3", "x".repeat(300), "carol",
+                LocalDateTime.of(2025, 1, 2, 3, 4, 5), MessageType.ERROR);
+
+        // When: 本文の代わりに参照と先頭部分を保存する
+        byte[] json = codec.writeWithContentRef(message, "ref-1", "xxxx");
+        MessageJsonCodec.StoredMessage stored = codec.readStored(json);
+
+        // Then: 先頭部分から作ったメッセージは本文全体の長さを保つ
+        assertNull(stored.content());
+        assertEquals("ref-1", stored.contentRef());
+        assertEquals(300, stored.contentLength());
+        Message preview = stored.withContent(stored.preview());
+        assertTrue(preview.isContentTruncated());
+        assertEquals(300, preview.getContentLength());
+        assertFalse(stored.withContent(message.getContent()).isContentTruncated());
+        assertThrows(JsonParseException.class, () -> codec.read(json));
+    }
+
+    @Test
+    void testReadsKafkaEventFormat() throws Exception {
+        // Given: プロデューサーが送るイベント（timestampは文字列）
+        Message message = new Message("id-2", "hello", "bob",
+                LocalDateTime.of(2025, 6, 1, 12, 0, 30, 500000000), MessageType.INFO);
+        byte[] json = objectMapper.writeValueAsBytes(new LegacyEvent(message));
+
+        // When
+        Message decoded = codec.read(json);
+
+        // Then
+        assertEquals("id-2", decoded.getId());
+        assertEquals(message.getTimestamp(), decoded.getTimestamp());
+        assertEquals(MessageType.INFO, decoded.getType());
+    }
+
+    @Test
+    void testReadsStoredArrayFormatAndWritesTheSame() throws Exception {
+        // Given: Redisに保存済みの値（ObjectMapperが配列で出力した形式、秒が0なら省略される）
+        Map<String, Object> stored = new LinkedHashMap<>();
+        stored.put("id", "id-3");
+        stored.put("content", "stored");
+        stored.put("sender", "carol");
+        stored.put("timestamp", LocalDateTime.of(2025, 3, 4, 5, 6));
+        stored.put("type", "SUCCESS");
+        byte[] json = objectMapper.writeValueAsBytes(stored);
+
+        // When
+        Message decoded = codec.read(json);
+
+        // Then
+        assertEquals(LocalDateTime.of(2025, 3, 4, 5, 6), decoded.getTimestamp());
+        JsonNode rewritten = objectMapper.readTree(codec.write(decoded)).get("timestamp");
+        assertEquals(7, rewritten.size());
+        assertEquals(decoded.getTimestamp(), objectMapper.convertValue(rewritten, LocalDateTime.class));
+    }
+
+    @Test
+    void testParsesTimestampStringsLikeLocalDateTime() {
+        // Given: LocalDateTime#toString が出力し得る各形式
+        String[] values = {"2025-01-01T10:00", "2025-01-01T10:00:59", "2025-01-01T10:00:59.1",
+                "2025-01-01T10:00:59.123456", "2025-01-01T10:00:59.123456789", "+12025-01-01T10:00:00"};
+
+        for (String value : values) {
+            // When
+            LocalDateTime parsed = MessageJsonCodec.parseTimestamp(value.toCharArray(), 0, value.length());
+
+            // Then
+            assertEquals(LocalDateTime.parse(value), parsed, value);
+        }
+    }
+
+    @Test
+    void testIgnoresUnknownFields() throws Exception {
+        // Given
+        byte[] json = ("{\"id\":\"id-4\",\"extra\":{\"nested\":[1,2]},\"content\":\"c\",\"sender\":\"s\","
+                + "\"timestamp\":\"2025-01-01T00:00:00\",\"type\":\"ERROR\"}").getBytes(StandardCharsets.UTF_8);
+
+        // When
+        Message decoded = codec.read(json);
+
+        // Then
+        assertEquals("id-4", decoded.getId());
+        assertEquals(MessageType.ERROR, decoded.getType());
+    }
+
+    @Test
+    void testRejectsMissingFieldAndUnknownType() {
+        // Given
+        byte[] missingSender = "{\"id\":\"x\",\"content\":\"c\",\"timestamp\":\"2025-01-01T00:00:00\",\"type\":\"INFO\"}"
+                .getBytes(StandardCharsets.UTF_8);
+        byte[] unknownType = ("{\"id\":\"x\",\"content\":\"c\",\"sender\":\"s\","
+                + "\"timestamp\":\"2025-01-01T00:00:00\",\"type\":\"URGENT\"}").getBytes(StandardCharsets.UTF_8);
+
+        // Then
+        assertThrows(JsonParseException.class, () -> codec.read(missingSender));
+        assertThrows(JsonParseException.class, () -> codec.read(unknownType));
+        assertThrows(JsonParseException.class, () -> codec.read("[]".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * 移行前にKafkaへ送っていたJSONイベント（timestampとtypeは文字列）
+     */
+    static class LegacyEvent {
+        public String id;
+        public String content;
+        public String sender;
+        public String timestamp;
+        public String type;
+
+        LegacyEvent() {}
+
+        LegacyEvent(Message message) {
+            this.id = message.getId();
+            this.content = message.getContent();
+            this.sender = message.getSender();
+            this.timestamp = message.getTimestamp().toString();
+            this.type = message.getType().name();
+        }
+    }
+}
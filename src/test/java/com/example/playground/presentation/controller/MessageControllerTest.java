@@ -0,0 +1,118 @@
+package com.example.playground.presentation.controller;
+
+import com.example.playground.application.service.MessageService;
+import com.example.playground.domain.model.Message;
+import com.example.playground.domain.model.MessageType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * MessageControllerの一覧APIの条件付きGET（ETag）と形式の選択のテスト
+ */
+class MessageControllerTest {
+
+    private MessageService messageService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        messageService = mock(MessageService.class);
+        MessageController controller = new MessageController(messageService,
+                new ListResponseCache(Duration.ofSeconds(5), 100), new MessageListRenderer());
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void testReturnsNotModifiedWithoutReadingMessages() throws Exception {
+        // Given
+        when(messageService.getListVersion(null)).thenReturn(Optional.of("1700000000000.42"));
+        when(messageService.getAllMessages()).thenReturn(List.of(Message.create("hello", "alice", MessageType.INFO)));
+
+        // When: 初回はETag付きで全件を返す
+        mockMvc.perform(get("/api/messages"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"1700000000000.42\""))
+                .andExpect(jsonPath("$[0].sender").value("alice"));
+
+        // Then: 同じバージョンなら304で、一覧は読まない
+        mockMvc.perform(get("/api/messages").header("If-None-Match", "W/\"1700000000000.42\""))
+                .andExpect(status().isNotModified());
+        verify(messageService, times(1)).getAllMessages();
+    }
+
+    @Test
+    void testServesCachedBytesUntilVersionChanges() throws Exception {
+        // Given
+        when(messageService.getListVersion("alice"))
+                .thenReturn(Optional.of("1.1"))
+                .thenReturn(Optional.of("1.1"))
+                .thenReturn(Optional.of("1.2"));
+        when(messageService.getMessagesBySender("alice"))
+                .thenReturn(List.of(Message.create("first", "alice", MessageType.INFO)))
+                .thenReturn(List.of(Message.create("second", "alice", MessageType.ERROR)));
+
+        // When / Then: 同じバージョンの2回目はキャッシュから返す（If-None-Matchなしのポーリング）
+        mockMvc.perform(get("/api/messages/sender/alice")).andExpect(jsonPath("$[0].content").value("first"));
+        mockMvc.perform(get("/api/messages/sender/alice")).andExpect(jsonPath("$[0].content").value("first"));
+        verify(messageService, times(1)).getMessagesBySender("alice");
+
+        // バージョンが変わったら作り直す
+        mockMvc.perform(get("/api/messages/sender/alice").header("If-None-Match", "W/\"1.1\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"1.2\""))
+                .andExpect(jsonPath("$[0].content").value("second"));
+    }
+
+    @Test
+    void testWithoutVersionRespondsWithoutETag() throws Exception {
+        // Given
+        when(messageService.getListVersion(null)).thenReturn(Optional.empty());
+        when(messageService.getUrgentMessages()).thenReturn(List.of());
+
+        // Then
+        mockMvc.perform(get("/api/messages/urgent"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(content().json("[]"));
+    }
+
+    @Test
+    void testNegotiatesCborWithSeparateETagAndCache() throws Exception {
+        // Given
+        when(messageService.getListVersion(null)).thenReturn(Optional.of("1.7"));
+        when(messageService.getAllMessages()).thenReturn(List.of(Message.create("hello", "alice", MessageType.WARNING)));
+
+        // When
+        byte[] cbor = mockMvc.perform(get("/api/messages").header("Accept", "application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andExpect(header().string("ETag", "W/\"1.7-cbor\""))
+                .andExpect(header().stringValues("Vary", hasItem("Accept")))
+                .andReturn().getResponse().getContentAsByteArray();
+        mockMvc.perform(get("/api/messages").header("Accept", "application/json"))
+                .andExpect(header().string("ETag", "W/\"1.7\""))
+                .andExpect(jsonPath("$[0].type").value("WARNING"));
+
+        // Then: JSONのETagではCBORの304にならず、形式ごとにキャッシュされる
+        JsonNode decoded = new CBORMapper().readTree(cbor);
+        assertEquals("alice", decoded.get(0).get("sender").asText());
+        mockMvc.perform(get("/api/messages").header("Accept", "application/cbor")
+                        .header("If-None-Match", "W/\"1.7\""))
+                .andExpect(status().isOk());
+        verify(messageService, times(2)).getAllMessages();
+    }
+}
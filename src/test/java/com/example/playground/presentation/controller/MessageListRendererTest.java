@@ -0,0 +1,128 @@
+package com.example.playground.presentation.controller;
+
+import com.example.playground.domain.model.Message;
+import com.example.playground.domain.model.MessageType;
+import com.example.playground.presentation.controller.MessageListRenderer.Format;
+import com.example.playground.presentation.dto.MessageResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * MessageListRendererの出力形式とサイズのテスト
+ */
+class MessageListRendererTest {
+
+    private final MessageListRenderer renderer = new MessageListRenderer();
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void testJsonMatchesMessageResponse() throws Exception {
+        // Given: ナノ秒あり・なし、エスケープが必要な本文
+        List<Message> messages = List.of(
+                new Message("01JABCDEFGHJKMNPQRSTVWXYZ0", "line1\n\"quoted\" 日本語", "alice",
+                        LocalDateTime.of(2025, 1, 2, 3, 4, 5, 678000000), MessageType.ERROR),
+                new Message("01JABCDEFGHJKMNPQRSTVWXYZ1", "plain", "bob",
+                        LocalDateTime.of(999, 12, 31, 23, 59, 0), MessageType.INFO));
+
+        // When
+        byte[] rendered = renderer.render(messages, Format.JSON);
+
+        // Then: MessageResponseをObjectMapperで書いた場合と同じ内容になる
+        byte[] expected = objectMapper.writeValueAsBytes(messages.stream().map(MessageResponse::from).toList());
+        assertEquals(objectMapper.readTree(expected), objectMapper.readTree(rendered));
+        assertEquals("2025-01-02T03:04:05", objectMapper.readTree(rendered).get(0).get("timestamp").asText());
+        assertEquals("0999-12-31T23:59:00", objectMapper.readTree(rendered).get(1).get("timestamp").asText());
+    }
+
+    @Test
+    void testMarksTruncatedContent() throws Exception {
+        // Given: 一覧用に本文の先頭部分だけを読んだメッセージ
+        Message preview = new Message("01JABCDEFGHJKMNPQRSTVWXYZ2", "first part", "carol",
+                LocalDateTime.of(2025, 1, 2, 3, 4, 5), MessageType.INFO, 10_000);
+
+        // When
+        JsonNode rendered = objectMapper.readTree(renderer.render(List.of(preview), Format.JSON)).get(0);
+
+        // Then
+        assertTrue(rendered.get("contentTruncated").asBoolean());
+        assertEquals(10_000, rendered.get("contentLength").asInt());
+        assertEquals("first part", rendered.get("content").asText());
+    }
+
+    @Test
+    void testBinaryFormatsDecodeToSameTree() throws Exception {
+        // Given
+        List<Message> messages = sampleMessages(50);
+        JsonNode json = objectMapper.readTree(renderer.render(messages, Format.JSON));
+
+        // When
+        JsonNode cbor = new CBORMapper().readTree(renderer.render(messages, Format.CBOR));
+        JsonNode smile = new SmileMapper().readTree(renderer.render(messages, Format.SMILE));
+
+        // Then
+        assertEquals(json, cbor);
+        assertEquals(json, smile);
+    }
+
+    @Test
+    void testNegotiatesByAcceptHeader() {
+        assertEquals(Format.JSON, Format.negotiate(null));
+        assertEquals(Format.JSON, Format.negotiate("*/*"));
+        assertEquals(Format.JSON, Format.negotiate("text/html"));
+        assertEquals(Format.JSON, Format.negotiate("not a media type;;"));
+        assertEquals(Format.CBOR, Format.negotiate("application/cbor"));
+        assertEquals(Format.SMILE, Format.negotiate("application/json;q=0.5, application/x-jackson-smile"));
+        assertEquals(Format.JSON, Format.negotiate("application/cbor;q=0, */*"));
+    }
+
+    @Test
+    void testPayloadIsSmallerThanIndentedDto() throws Exception {
+        // Given: 一覧APIの典型的なサイズ（100件）
+        List<Message> messages = sampleMessages(100);
+
+        // When
+        int indented = objectMapper.writerWithDefaultPrettyPrinter()
+                .writeValueAsBytes(messages.stream().map(MessageResponse::from).toList()).length;
+        int json = renderer.render(messages, Format.JSON).length;
+        int cbor = renderer.render(messages, Format.CBOR).length;
+        int smile = renderer.render(messages, Format.SMILE).length;
+        int gzipJson = gzip(renderer.render(messages, Format.JSON));
+
+        // Then: サイズは入力だけで決まる（アロケーションは gradle serializationBenchmark で計測する）
+        assertTrue(json < indented, "json=" + json + ", indented=" + indented);
+        assertTrue(cbor < json, "cbor=" + cbor + ", json=" + json);
+        assertTrue(smile < json, "smile=" + smile + ", json=" + json);
+        assertTrue(gzipJson < json / 4, "json+gzip=" + gzipJson + ", json=" + json);
+    }
+
+    private static int gzip(byte[] body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.size();
+    }
+
+    private static List<Message> sampleMessages(int count) {
+        List<Message> messages = new ArrayList<>();
+        MessageType[] types = MessageType.values();
+        for (int i = 0; i < count; i++) {
+            messages.add(new Message(String.format("01JABCDEFGHJKMNPQRSTV%05d", i), "benchmark payload " + i,
+                    "sender-" + (i % 10), LocalDateTime.of(2025, 1, 1, 10, 0, i % 60, 123000000),
+                    types[i % types.length]));
+        }
+        return messages;
+    }
+}
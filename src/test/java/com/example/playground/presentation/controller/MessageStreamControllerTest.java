@@ -0,0 +1,51 @@
+package com.example.playground.presentation.controller;
+
+import com.example.playground.application.stream.MessageStreamHub;
+import com.example.playground.application.stream.SubscriptionFilter;
+import com.example.playground.application.stream.SubscriptionSink;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * MessageStreamControllerの購読条件の検証のテスト
+ */
+class MessageStreamControllerTest {
+
+    private MessageStreamHub hub;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        hub = mock(MessageStreamHub.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new MessageStreamController(hub, 1000)).build();
+    }
+
+    @Test
+    void testUnknownTypeIsBadRequest() throws Exception {
+        // When / Then
+        mockMvc.perform(get("/api/messages/stream").param("type", "bogus").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isBadRequest());
+        verify(hub, never()).subscribe(any(), any());
+    }
+
+    @Test
+    void testKnownTypeIsCaseInsensitive() throws Exception {
+        // Given
+        when(hub.subscribe(any(SubscriptionFilter.class), any(SubscriptionSink.class)))
+                .thenReturn(mock(MessageStreamHub.Subscription.class));
+
+        // When / Then
+        mockMvc.perform(get("/api/messages/stream").param("type", "error").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+        verify(hub).subscribe(any(), any());
+    }
+}
@@ -0,0 +1,199 @@
+#!/bin/bash
+
+# Local Autoscaler for Kafka Redis Playground
+# ローカル用の水平オートスケーラーの代用（docker-compose の構成で動かす）
+# GET /actuator/scaling の recommendedReplicas に合わせて、kafka-redis-app のコピー（kafka-redis-app-replica-N）を起動・削除する
+# コピーは同じイメージ・ネットワーク・環境変数で起動し、ホストのポートは公開しない（同じコンシューマーグループに参加する）
+
+set -e
+
+# 設定
+BASE_URL="${BASE_URL:-http://localhost:8888}"
+APP_CONTAINER="${APP_CONTAINER:-kafka-redis-app}"
+REPLICA_PREFIX="${APP_CONTAINER}-replica-"
+INTERVAL=15
+MAX_REPLICAS=""
+DRY_RUN=false
+FAST_START=false
+ONCE=false
+
+# 使用方法表示
+show_usage() {
+    cat << EOF
+Usage: $0 [OPTIONS]
+
+Options:
+  -i, --interval SECONDS   Polling interval (default: 15)
+  -m, --max NUMBER         Upper bound on instances including $APP_CONTAINER (default: no extra bound)
+  -f, --fast-start         Start replicas with the fast-start profile added
+  -n, --dry-run            Only print the decisions
+  -1, --once               Poll once and exit
+  -d, --down               Remove all replicas and exit
+  -h, --help               Show this help message
+
+Examples:
+  $0 --dry-run             # Watch the recommendation without changing anything
+  $0 --max 6 --fast-start  # Follow the recommendation with up to 6 instances
+  $0 --down                # Back to the single compose instance
+EOF
+}
+
+log() {
+    echo "[$(date +%H:%M:%S)] $1"
+}
+
+# 起動中のコピーの番号（昇順）
+replica_indexes() {
+    docker ps -a --filter "name=^${REPLICA_PREFIX}" --format '{{.Names}}' \
+        | sed "s/^${REPLICA_PREFIX}//" | sort -n
+}
+
+# /actuator/scaling の値（jqがなくても読めるように数値・文字列・真偽値だけを取り出す）
+scaling_value() {
+    echo "$1" | grep -o "\"$2\":[^,}]*" | head -n 1 | cut -d: -f2 | tr -d '"'
+}
+
+start_replica() {
+    local index=$1
+    local name="${REPLICA_PREFIX}${index}"
+    if [ "$DRY_RUN" = true ]; then
+        log "🧪 Would start $name"
+        return
+    fi
+    local image network
+    image=$(docker inspect --format '{{.Config.Image}}' "$APP_CONTAINER")
+    network=$(docker inspect --format '{{range $name, $_ := .NetworkSettings.Networks}}{{$name}} {{end}}' "$APP_CONTAINER" | awk '{print $1}')
+    local args=(run -d --name "$name" --network "$network" --restart unless-stopped)
+    local variable
+    while IFS= read -r variable; do
+        [ -z "$variable" ] && continue
+        if [ "$FAST_START" = true ] && [[ "$variable" == SPRING_PROFILES_ACTIVE=* ]]; then
+            variable="${variable},fast-start"
+        fi
+        args+=(-e "$variable")
+    done < <(docker inspect --format '{{range .Config.Env}}{{println .}}{{end}}' "$APP_CONTAINER")
+    args+=("$image")
+    docker "${args[@]}" > /dev/null
+    log "🚀 Started $name"
+}
+
+stop_replica() {
+    local name="${REPLICA_PREFIX}$1"
+    if [ "$DRY_RUN" = true ]; then
+        log "🧪 Would remove $name"
+        return
+    fi
+    # SIGTERMでコンシューマーがグループから抜けるため、リバランスはすぐに始まる
+    docker stop -t 30 "$name" > /dev/null
+    docker rm "$name" > /dev/null
+    log "🛑 Removed $name"
+}
+
+reconcile() {
+    local response
+    if ! response=$(curl -sf --max-time 5 "$BASE_URL/actuator/scaling"); then
+        log "⚠️ $BASE_URL/actuator/scaling is not reachable"
+        return
+    fi
+    local status
+    status=$(scaling_value "$response" status)
+    if [ "$status" != "OK" ]; then
+        log "⚠️ Scaling signal is $status, keeping the current instances"
+        return
+    fi
+    local desired lag produce consume limited
+    desired=$(scaling_value "$response" recommendedReplicas)
+    lag=$(scaling_value "$response" lag)
+    produce=$(scaling_value "$response" produceRate)
+    consume=$(scaling_value "$response" consumeRate)
+    limited=$(scaling_value "$response" partitionLimited)
+    if [ -n "$MAX_REPLICAS" ] && [ "$desired" -gt "$MAX_REPLICAS" ]; then
+        desired=$MAX_REPLICAS
+    fi
+
+    local indexes=()
+    mapfile -t indexes < <(replica_indexes)
+    local current=$((${#indexes[@]} + 1))
+    log "📊 lag=$lag produce=${produce}/s consume=${consume}/s instances=$current recommended=$desired"
+    if [ "$limited" = "true" ]; then
+        log "⚠️ More instances are needed than the topic has partitions (see docs/getting-started.md#adding-partitions)"
+    fi
+
+    local i
+    if [ "$desired" -gt "$current" ]; then
+        local next=0
+        [ ${#indexes[@]} -gt 0 ] && next=${indexes[${#indexes[@]}-1]}
+        for ((i = current; i < desired; i++)); do
+            next=$((next + 1))
+            start_replica "$next"
+        done
+    elif [ "$desired" -lt "$current" ]; then
+        # 新しいものから削除する（kafka-redis-app 自体は残す）
+        for ((i = ${#indexes[@]} - 1; i >= desired - 1 && i >= 0; i--)); do
+            stop_replica "${indexes[$i]}"
+        done
+    fi
+}
+
+main() {
+    local down=false
+    while [[ $# -gt 0 ]]; do
+        case $1 in
+            -i|--interval)
+                INTERVAL=$2
+                shift 2
+                ;;
+            -m|--max)
+                MAX_REPLICAS=$2
+                shift 2
+                ;;
+            -f|--fast-start)
+                FAST_START=true
+                shift
+                ;;
+            -n|--dry-run)
+                DRY_RUN=true
+                shift
+                ;;
+            -1|--once)
+                ONCE=true
+                shift
+                ;;
+            -d|--down)
+                down=true
+                shift
+                ;;
+            -h|--help)
+                show_usage
+                exit 0
+                ;;
+            *)
+                echo "Unknown option: $1"
+                show_usage
+                exit 1
+                ;;
+        esac
+    done
+
+    if ! docker inspect "$APP_CONTAINER" > /dev/null 2>&1; then
+        echo "❌ Container $APP_CONTAINER not found. Start the stack with 'docker-compose up -d' first."
+        exit 1
+    fi
+
+    if [ "$down" = true ]; then
+        local index
+        for index in $(replica_indexes); do
+            stop_replica "$index"
+        done
+        exit 0
+    fi
+
+    log "🔁 Following $BASE_URL/actuator/scaling every ${INTERVAL}s (Ctrl+C to stop, --down to remove the replicas)"
+    while true; do
+        reconcile
+        [ "$ONCE" = true ] && break
+        sleep "$INTERVAL"
+    done
+}
+
+main "$@"
@@ -286,7 +286,7 @@ run_tests() {
     test_http_request "Create message with empty content" "POST" "$API_URL" "$empty_content" "400"
     
     # 12. クリーンアップテスト
-    test_http_request "Cleanup old messages" "DELETE" "$API_URL/cleanup?minutes=0" "" "200" "Deleted"
+    test_http_request "Cleanup old messages" "DELETE" "$API_URL/cleanup?minutes=0" "" "202" "accepted"
     
     # 13. クリーンアップ後の確認
     sleep 2